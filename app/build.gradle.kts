@@ -26,8 +26,15 @@ android {
     buildTypes {
         debug {
             isTestCoverageEnabled = true
+            // Simulated network for the mock backend, e.g. -PnetworkConditions=AIRPORT_3G
+            buildConfigField(
+                "String",
+                "NETWORK_CONDITIONS",
+                "\"${project.findProperty("networkConditions") ?: "PERFECT"}\""
+            )
         }
         release {
+            buildConfigField("String", "NETWORK_CONDITIONS", "\"PERFECT\"")
             isMinifyEnabled = false
             proguardFiles(
                 getDefaultProguardFile("proguard-android-optimize.txt"),
@@ -45,6 +52,7 @@ android {
 
     buildFeatures {
         compose = true
+        buildConfig = true
     }
     
     configurations.all {
@@ -114,10 +122,14 @@ dependencies {
     implementation(libs.bundles.coroutines)
     implementation(libs.bundles.hilt)
     ksp(libs.hilt.compiler)
+    implementation(libs.work.runtime.ktx)
+    implementation(libs.hilt.work)
     
     implementation(libs.serialization.json)
     implementation(libs.bundles.okhttp)
     implementation(libs.bundles.retrofit)
+    // In-process mock backend of debug builds, see MockBackend
+    debugImplementation(libs.okhttp.mockwebserver3)
     
     // Room
     implementation(libs.bundles.room)
@@ -140,6 +152,7 @@ dependencies {
 
     testImplementation(libs.bundles.test)
     testImplementation(libs.konsist)
+    testImplementation(libs.okhttp.mockwebserver)
 
     androidTestImplementation(libs.androidx.junit)
 }
@@ -0,0 +1,24 @@
+package fr.benchaabane.riyadhair.di
+
+import android.content.Context
+import dagger.Module
+import dagger.Provides
+import dagger.hilt.InstallIn
+import dagger.hilt.android.qualifiers.ApplicationContext
+import dagger.hilt.components.SingletonComponent
+import dagger.multibindings.ElementsIntoSet
+import fr.benchaabane.riyadhair.network.MockBackend
+import okhttp3.Interceptor
+
+/**
+ * Debug backend: requests are served by the in-process [MockBackend].
+ */
+@Module
+@InstallIn(SingletonComponent::class)
+object BackendModule {
+
+    @Provides
+    @ElementsIntoSet
+    fun provideBackendInterceptors(@ApplicationContext context: Context): Set<Interceptor> =
+        setOf(MockBackend(context))
+}
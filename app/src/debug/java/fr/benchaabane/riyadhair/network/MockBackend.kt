@@ -0,0 +1,102 @@
+package fr.benchaabane.riyadhair.network
+
+import android.content.Context
+import mockwebserver3.Dispatcher
+import mockwebserver3.MockResponse
+import mockwebserver3.MockWebServer
+import mockwebserver3.RecordedRequest
+import okhttp3.Interceptor
+import okhttp3.MediaType.Companion.toMediaTypeOrNull
+import okhttp3.Request
+import okhttp3.RequestBody.Companion.toRequestBody
+import okhttp3.Response
+import okio.Buffer
+import okio.ByteString
+import java.io.Closeable
+import java.net.InetAddress
+
+/**
+ * OkHttp interceptor sending the app's requests to an in-process [MockWebServer]
+ * serving them with [MockInterceptor]. Debug builds only.
+ *
+ * Running the mock backend as an HTTP server, rather than answering from an
+ * interceptor, puts the whole OkHttp stack in front of it, as in front of the
+ * real backend. It must be added first, so that the cache and the other
+ * interceptors see the redirected request:
+ *
+ * ```kotlin
+ * OkHttpClient.Builder()
+ *     .cache(cache)
+ *     .addInterceptor(MockBackend(context))
+ *     .addInterceptor(StaleIfErrorInterceptor())
+ *     .build()
+ * ```
+ *
+ * **Behind the Client:**
+ * - **Cache**: Offers, partners and the profile are stored by [okhttp3.Cache]
+ *   and revalidated into HTTP 304 with their `ETag`
+ * - **Gzip**: OkHttp asks for gzip bodies and decompresses them transparently
+ *
+ * **Lifecycle:**
+ * The server is started by the first request, on the thread running the
+ * call, and listens on the loopback interface until [close].
+ *
+ * @param context Context reading the fixtures from the assets
+ */
+class MockBackend(context: Context) : Interceptor, Closeable {
+
+    private val fixtures = MockInterceptor(context)
+
+    private val loopback = InetAddress.getLoopbackAddress()
+
+    private val serverDelegate = lazy {
+        MockWebServer().apply {
+            dispatcher = FixtureDispatcher()
+            start(loopback, 0)
+        }
+    }
+
+    private val server by serverDelegate
+
+    override fun intercept(chain: Interceptor.Chain): Response {
+        val request = chain.request()
+        val url = request.url.newBuilder()
+            .scheme("http")
+            .host(loopback.hostAddress.orEmpty())
+            .port(server.port)
+            .build()
+        return chain.proceed(request.newBuilder().url(url).build())
+    }
+
+    override fun close() {
+        if (serverDelegate.isInitialized()) server.close()
+    }
+
+    /**
+     * Answers the server's requests with the fixtures.
+     */
+    private inner class FixtureDispatcher : Dispatcher() {
+
+        override fun dispatch(request: RecordedRequest): MockResponse {
+            val body = if (request.method == "GET" || request.method == "HEAD") {
+                null
+            } else {
+                (request.body ?: ByteString.EMPTY).toRequestBody(request.headers["Content-Type"]?.toMediaTypeOrNull())
+            }
+            val response = fixtures.serve(
+                Request.Builder()
+                    .url(request.url)
+                    .headers(request.headers)
+                    .method(request.method, body)
+                    .build()
+            )
+            return response.use {
+                MockResponse.Builder()
+                    .code(it.code)
+                    .headers(it.headers)
+                    .body(Buffer().apply { writeAll(it.body.source()) })
+                    .build()
+            }
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package fr.benchaabane.riyadhair.network
+
+import android.content.Context
+import kotlinx.serialization.json.Json
+import kotlinx.serialization.json.JsonArray
+import kotlinx.serialization.json.JsonElement
+import kotlinx.serialization.json.JsonObject
+import kotlinx.serialization.json.JsonPrimitive
+import kotlinx.serialization.json.buildJsonObject
+import kotlinx.serialization.json.contentOrNull
+import kotlinx.serialization.json.jsonArray
+import kotlinx.serialization.json.jsonObject
+import kotlinx.serialization.json.jsonPrimitive
+import okhttp3.HttpUrl
+import okhttp3.Interceptor
+import okhttp3.MediaType.Companion.toMediaType
+import okhttp3.Protocol
+import okhttp3.Request
+import okhttp3.Response
+import okhttp3.ResponseBody.Companion.asResponseBody
+import okio.Buffer
+import okio.ByteString
+import okio.ByteString.Companion.encodeUtf8
+import okio.GzipSink
+import okio.buffer
+import okio.source
+import java.time.Instant
+import java.time.ZoneOffset
+import java.time.format.DateTimeFormatter
+import java.time.temporal.ChronoUnit
+import java.util.Locale
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Local stand-in for the RiyadhAir backend, serving the JSON fixtures in `assets/mock`.
+ *
+ * The flight endpoints behave like the real API, so client-side paging,
+ * caching and prefetching can be exercised and measured against it:
+ *
+ * **Flight Endpoints:**
+ * - **Search** (`/flights`): Flights of the `origin` / `destination` route,
+ *   in fixture order, cut into pages by `page` (1-based, default 1) and
+ *   `limit` (default 20, at most 100). A page past the last one is an empty
+ *   `flights` array, not an error. A `date` (`yyyy-MM-dd`) keeps only the
+ *   flights departing that day, in UTC. `X-Total-Count` holds the number of
+ *   matching flights.
+ * - **Single Flight** (`/flights/{flightNumber}`): The flight, or HTTP 404
+ * - **Availability** (`/flights/availability`): Seats left on the `ids` flights
+ *
+ * **Reservation Batch** (`/reservations/batch`): Every operation of the
+ * request is reported as applied, with its reservation echoed back.
+ *
+ * Other endpoints return their whole fixture; unknown paths return HTTP 404.
+ *
+ * **Serving Cost:**
+ * The stand-in must stay cheap next to the client code being measured:
+ * - **Fixtures**: Read once from the assets into an immutable buffer; every
+ *   response body is a segment-sharing copy of it, so no byte is copied,
+ *   decoded or re-encoded per request
+ * - **Flights**: Parsed once, indexed by route and by number, and each flight
+ *   pre-encoded, so a search page is a concatenation of encoded flights
+ * - **Gzip**: Served when the request's `Accept-Encoding` asks for it, with
+ *   `Content-Encoding: gzip`; whole fixtures are compressed once
+ *
+ * **Conditional Requests:**
+ * Offers, partners and the profile carry `ETag`, `Last-Modified` and
+ * `Cache-Control` (`max-age`, `stale-if-error`) headers, and are answered
+ * with an empty HTTP 304 when `If-None-Match` or `If-Modified-Since` still
+ * matches. Fixtures never change while the process runs, so the tag is a
+ * hash of the fixture and the date is the interceptor's creation.
+ *
+ * Debug builds serve it over HTTP through [MockBackend], so that OkHttp's cache
+ * and transparent gzip sit in front of it; as an application interceptor it
+ * would answer before the cache is consulted.
+ */
+class MockInterceptor(private val context: Context) : Interceptor {
+
+    private val fixtures = ConcurrentHashMap<String, Fixture>()
+
+    private val startedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS)
+
+    private val lastModified = HTTP_DATE.format(startedAt)
+
+    private val flights by lazy { MockFlights.parse(fixture(FLIGHTS_FIXTURE).bytes) }
+
+    override fun intercept(chain: Interceptor.Chain): Response = serve(chain.request())
+
+    /**
+     * Answers [request] as the backend would.
+     */
+    fun serve(request: Request): Response {
+        val url = request.url
+        val uri = url.encodedPath
+        val gzip = request.acceptsGzip()
+        if (uri.endsWith(AVAILABILITY_PATH)) {
+            return availability(request, gzip, url.queryParameter("ids").orEmpty())
+        }
+        val flightNumber = SINGLE_FLIGHT_PATH.matchEntire(uri)?.groupValues?.get(1)
+        if (flightNumber != null) {
+            return singleFlight(request, gzip, flightNumber)
+        }
+        if (uri.endsWith(FLIGHTS_PATH)) {
+            return searchFlights(request, gzip, url)
+        }
+        if (uri.endsWith(RESERVATION_BATCH_PATH)) {
+            return reservationBatch(request, gzip)
+        }
+        val fixture = when {
+            uri.contains("reservations") -> "mock/reservations.json"
+            uri.contains("account/profile") -> "mock/account.json"
+            uri.contains("offers/best") -> "mock/best-offers.json"
+            uri.contains("partners") -> "mock/partners.json"
+            else -> return response(request, 404, encode(EMPTY_OBJECT, gzip), gzip)
+        }
+        val cacheControl = CACHE_CONTROL[fixture] ?: return response(request, 200, fixture(fixture).body(gzip), gzip)
+        return cacheable(request, gzip, fixture(fixture), cacheControl)
+    }
+
+    /**
+     * Serves a fixture with its validators, or HTTP 304 if the client's copy is current.
+     */
+    private fun cacheable(request: Request, gzip: Boolean, fixture: Fixture, cacheControl: String): Response {
+        val ifNoneMatch = request.header("If-None-Match")
+        val notModified = if (ifNoneMatch != null) {
+            ifNoneMatch.split(',').any { it.trim() == fixture.etag || it.trim() == "*" }
+        } else {
+            request.headers.getDate("If-Modified-Since")?.toInstant()?.isBefore(startedAt) == false
+        }
+        val response = if (notModified) {
+            response(request, 304, Buffer(), gzip = false)
+        } else {
+            response(request, 200, fixture.body(gzip), gzip)
+        }
+        return response.newBuilder()
+            .header("ETag", fixture.etag)
+            .header("Last-Modified", lastModified)
+            .header("Cache-Control", cacheControl)
+            .build()
+    }
+
+    private fun searchFlights(request: Request, gzip: Boolean, url: HttpUrl): Response {
+        val origin = url.queryParameter("origin")
+        val destination = url.queryParameter("destination")
+        val page = url.queryParameter("page")?.toIntOrNull()?.coerceAtLeast(1) ?: 1
+        val limit = url.queryParameter("limit")?.toIntOrNull()?.coerceIn(1, MAX_LIMIT) ?: DEFAULT_LIMIT
+        val date = url.queryParameter("date")
+        val route = flights.route(origin, destination).let { route ->
+            if (date == null) route else route.filter { it.departureDate == date }
+        }
+        val from = minOf((page - 1).toLong() * limit, route.size.toLong()).toInt()
+        val body = Buffer().write(FLIGHTS_PREFIX)
+        route.subList(from, minOf(from + limit, route.size)).forEachIndexed { index, flight ->
+            if (index > 0) body.writeByte(','.code)
+            body.write(flight.json)
+        }
+        body.write(FLIGHTS_SUFFIX)
+        return response(request, 200, encode(body, gzip), gzip)
+            .newBuilder()
+            .addHeader(TOTAL_COUNT_HEADER, route.size.toString())
+            .build()
+    }
+
+    private fun singleFlight(request: Request, gzip: Boolean, flightNumber: String): Response {
+        val flight = flights.byNumber[flightNumber]
+            ?: return response(request, 404, encode(EMPTY_OBJECT, gzip), gzip)
+        return response(request, 200, encode(flight.json, gzip), gzip)
+    }
+
+    private fun availability(request: Request, gzip: Boolean, ids: String): Response {
+        val availability = ids.split(',').mapNotNull { flights.byId[it] }.map { flight ->
+            buildJsonObject {
+                put("id", flight.jsonObject.getValue("id"))
+                put("availableSeats", flight.jsonObject.getValue("availableSeats"))
+            }
+        }
+        val json = buildJsonObject { put("availability", JsonArray(availability)) }.toString()
+        return response(request, 200, encode(json.encodeUtf8(), gzip), gzip)
+    }
+
+    private fun reservationBatch(request: Request, gzip: Boolean): Response {
+        val body = Buffer().also { request.body?.writeTo(it) }.readUtf8()
+        val operations = Json.parseToJsonElement(body).jsonObject["operations"]?.jsonArray.orEmpty()
+        val results = operations.map { operation ->
+            buildJsonObject {
+                put("idempotencyKey", operation.jsonObject.getValue("idempotencyKey"))
+                put("outcome", JsonPrimitive("APPLIED"))
+                operation.jsonObject["reservation"]?.let { put("reservation", it) }
+            }
+        }
+        val json = buildJsonObject { put("results", JsonArray(results)) }.toString()
+        return response(request, 200, encode(json.encodeUtf8(), gzip), gzip)
+    }
+
+    /**
+     * Loads an asset the first time it is served, then keeps it in memory.
+     */
+    private fun fixture(name: String): Fixture = fixtures.computeIfAbsent(name) {
+        Fixture(context.assets.open(name).source().buffer().use { it.readByteString() })
+    }
+
+    private fun response(request: Request, code: Int, body: Buffer, gzip: Boolean): Response =
+        Response.Builder()
+            .code(code)
+            .message(
+                when (code) {
+                    200 -> "OK"
+                    304 -> "Not Modified"
+                    else -> "Not Found"
+                }
+            )
+            .request(request)
+            .protocol(Protocol.HTTP_3)
+            .body(body.asResponseBody(JSON, body.size))
+            .addHeader("content-type", "application/json")
+            .apply { if (gzip) addHeader("content-encoding", "gzip") }
+            .build()
+
+    private fun Request.acceptsGzip(): Boolean =
+        header("accept-encoding")?.contains("gzip", ignoreCase = true) == true
+
+    /**
+     * An asset held in memory, ready to be served as is or gzip-encoded.
+     *
+     * Bodies are copies of [plain] or [gzipped] that share their segments, so
+     * serving a fixture costs no byte copy. Copies are synchronized because
+     * sharing a segment marks it on the original buffer.
+     */
+    private class Fixture(val bytes: ByteString) {
+
+        private val plain = Buffer().write(bytes)
+
+        private val gzipped by lazy { encode(bytes, gzip = true) }
+
+        val etag = "\"${bytes.sha1().hex()}\""
+
+        fun body(gzip: Boolean): Buffer {
+            val source = if (gzip) gzipped else plain
+            return synchronized(source) { source.copy() }
+        }
+    }
+
+    /**
+     * The flights fixture, parsed once and indexed for the flight endpoints.
+     */
+    private class MockFlights(private val flights: List<MockFlight>) {
+
+        private val byRoute = flights.groupBy { it.origin to it.destination }
+
+        val byNumber = flights.associateBy { it.flightNumber }
+
+        val byId = flights.associateBy { it.id }
+
+        fun route(origin: String?, destination: String?): List<MockFlight> =
+            if (origin != null && destination != null) {
+                byRoute[origin to destination].orEmpty()
+            } else {
+                flights.filter { flight ->
+                    (origin == null || flight.origin == origin) &&
+                        (destination == null || flight.destination == destination)
+                }
+            }
+
+        companion object {
+            fun parse(fixture: ByteString): MockFlights = MockFlights(
+                Json.parseToJsonElement(fixture.utf8()).jsonObject.getValue("flights").jsonArray.map { MockFlight(it) }
+            )
+        }
+    }
+
+    /**
+     * One flight of the fixture, with the fields the endpoints match on and its encoded JSON.
+     */
+    private class MockFlight(element: JsonElement) {
+        val jsonObject: JsonObject = element.jsonObject
+        val id = jsonObject.getValue("id").jsonPrimitive.content
+        val flightNumber = jsonObject.getValue("flightNumber").jsonPrimitive.content
+        val origin = jsonObject.airportCode("departureAirport")
+        val destination = jsonObject.airportCode("arrivalAirport")
+        val departureDate = jsonObject["departureTime"]?.jsonPrimitive?.contentOrNull
+            ?.let { Instant.parse(it).atOffset(ZoneOffset.UTC).toLocalDate().toString() }
+        val json: ByteString = element.toString().encodeUtf8()
+
+        private fun JsonObject.airportCode(airport: String): String? =
+            get(airport)?.jsonObject?.get("code")?.jsonPrimitive?.content
+    }
+
+    private companion object {
+        const val FLIGHTS_FIXTURE = "mock/flights.json"
+        const val FLIGHTS_PATH = "/flights"
+        const val AVAILABILITY_PATH = "/flights/availability"
+        const val RESERVATION_BATCH_PATH = "/reservations/batch"
+        const val TOTAL_COUNT_HEADER = "X-Total-Count"
+        const val DEFAULT_LIMIT = 20
+        const val MAX_LIMIT = 100
+        val CACHE_CONTROL = mapOf(
+            "mock/best-offers.json" to "max-age=300, stale-if-error=86400",
+            "mock/partners.json" to "max-age=300, stale-if-error=86400",
+            "mock/account.json" to "private, no-cache, stale-if-error=86400"
+        )
+        val HTTP_DATE: DateTimeFormatter = DateTimeFormatter
+            .ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US)
+            .withZone(ZoneOffset.UTC)
+        val SINGLE_FLIGHT_PATH = Regex("/flights/([^/]+)")
+        val JSON = "application/json".toMediaType()
+        val EMPTY_OBJECT = "{}".encodeUtf8()
+        val FLIGHTS_PREFIX = "{\"flights\":[".encodeUtf8()
+        val FLIGHTS_SUFFIX = "]}".encodeUtf8()
+
+        fun encode(bytes: ByteString, gzip: Boolean): Buffer = encode(Buffer().write(bytes), gzip)
+
+        fun encode(body: Buffer, gzip: Boolean): Buffer =
+            if (gzip) Buffer().also { gzipped -> GzipSink(gzipped).buffer().use { it.writeAll(body) } } else body
+    }
+}
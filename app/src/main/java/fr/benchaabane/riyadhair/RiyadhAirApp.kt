@@ -1,9 +1,36 @@
 package fr.benchaabane.riyadhair
 
 import android.app.Application
+import androidx.hilt.work.HiltWorkerFactory
+import androidx.work.Configuration
 import dagger.hilt.android.HiltAndroidApp
+import fr.benchaabane.riyadhair.data.reservations.sync.ReservationSyncScheduler
+import javax.inject.Inject
 
+/**
+ * RiyadhAir application.
+ *
+ * Provides WorkManager's configuration, so that workers are created by
+ * Hilt with their dependencies injected; the default WorkManager
+ * initializer is removed from the manifest for this. At start-up, it
+ * schedules a drain of the reservations booked while the app was offline.
+ */
 @HiltAndroidApp
-class RiyadhAirApp : Application()
+class RiyadhAirApp : Application(), Configuration.Provider {
 
+    @Inject
+    lateinit var workerFactory: HiltWorkerFactory
 
+    @Inject
+    lateinit var reservationSyncScheduler: ReservationSyncScheduler
+
+    override val workManagerConfiguration: Configuration
+        get() = Configuration.Builder()
+            .setWorkerFactory(workerFactory)
+            .build()
+
+    override fun onCreate() {
+        super.onCreate()
+        reservationSyncScheduler.schedule()
+    }
+}
@@ -9,9 +9,13 @@ import dagger.hilt.android.qualifiers.ApplicationContext
 import dagger.hilt.components.SingletonComponent
 import fr.benchaabane.riyadhair.data.account.dao.AccountDao
 import fr.benchaabane.riyadhair.data.db.AppDatabase
+import fr.benchaabane.riyadhair.data.db.FetchTimestampDao
+import fr.benchaabane.riyadhair.data.flights.dao.FareCalendarDao
+import fr.benchaabane.riyadhair.data.flights.dao.FlightDao
 import fr.benchaabane.riyadhair.data.offers.dao.OfferDao
 import fr.benchaabane.riyadhair.data.partners.dao.PartnerDao
 import fr.benchaabane.riyadhair.data.reservations.dao.ReservationDao
+import fr.benchaabane.riyadhair.data.reservations.dao.ReservationOutboxDao
 import javax.inject.Singleton
 
 @Module
@@ -27,7 +31,17 @@ object DatabaseModule {
         AppDatabase::class.java,
         AppDatabase.DATABASE_NAME
     )
-        .addMigrations(AppDatabase.MIGRATION_2_3)
+        .addMigrations(
+            AppDatabase.MIGRATION_2_3,
+            AppDatabase.MIGRATION_3_4,
+            AppDatabase.MIGRATION_4_5,
+            AppDatabase.MIGRATION_5_6,
+            AppDatabase.MIGRATION_6_7,
+            AppDatabase.MIGRATION_7_8,
+            AppDatabase.MIGRATION_8_9,
+            AppDatabase.MIGRATION_9_10,
+            AppDatabase.MIGRATION_10_11
+        )
         .fallbackToDestructiveMigration(false) // Fallback for development - remove in production
         .build()
 
@@ -43,4 +57,16 @@ object DatabaseModule {
 
     @Provides
     fun providePartnerDao(database: AppDatabase): PartnerDao = database.partnerDao()
+
+    @Provides
+    fun provideFetchTimestampDao(database: AppDatabase): FetchTimestampDao = database.fetchTimestampDao()
+
+    @Provides
+    fun provideFlightDao(database: AppDatabase): FlightDao = database.flightDao()
+
+    @Provides
+    fun provideFareCalendarDao(database: AppDatabase): FareCalendarDao = database.fareCalendarDao()
+
+    @Provides
+    fun provideReservationOutboxDao(database: AppDatabase): ReservationOutboxDao = database.reservationOutboxDao()
 }
@@ -11,12 +11,18 @@ import fr.benchaabane.riyadhair.data.flights.api.FlightService
 import fr.benchaabane.riyadhair.data.offers.api.OffersService
 import fr.benchaabane.riyadhair.data.partners.api.PartnerService
 import fr.benchaabane.riyadhair.data.reservations.api.ReservationService
-import fr.benchaabane.riyadhair.network.MockInterceptor
+import fr.benchaabane.riyadhair.BuildConfig
+import fr.benchaabane.riyadhair.network.NetworkConditions
+import fr.benchaabane.riyadhair.network.NetworkConditionsInterceptor
+import fr.benchaabane.riyadhair.network.StaleIfErrorInterceptor
 import kotlinx.serialization.json.Json
+import okhttp3.Cache
+import okhttp3.Interceptor
 import okhttp3.OkHttpClient
 import retrofit2.Retrofit
 import retrofit2.converter.kotlinx.serialization.asConverterFactory
 import okhttp3.MediaType.Companion.toMediaType
+import java.io.File
 import javax.inject.Singleton
 
 @Module
@@ -30,12 +36,39 @@ object NetworkModule {
         coerceInputValues = true
     }
     
+    @Provides
+    @Singleton
+    fun provideNetworkConditions(): NetworkConditions =
+        NetworkConditions.named(BuildConfig.NETWORK_CONDITIONS)
+
+    /**
+     * Disk cache revalidating offers, partners and profile bodies with
+     * `ETag` / `Last-Modified`, so unchanged ones come back as HTTP 304.
+     */
+    @Provides
+    @Singleton
+    fun provideHttpCache(@ApplicationContext context: Context): Cache =
+        Cache(File(context.cacheDir, HTTP_CACHE_DIRECTORY), HTTP_CACHE_SIZE_BYTES)
+
+    /**
+     * Client of every service; debug builds reroute it to the mock backend
+     * through the first of [backendInterceptors], ahead of the cache.
+     */
     @Provides
     @Singleton
     fun provideOkHttpClient(
-        @ApplicationContext context: Context
+        networkConditions: NetworkConditions,
+        cache: Cache,
+        backendInterceptors: Set<@JvmSuppressWildcards Interceptor>
     ): OkHttpClient = OkHttpClient.Builder()
-        .addInterceptor(MockInterceptor(context))
+        .cache(cache)
+        .apply { backendInterceptors.forEach { addInterceptor(it) } }
+        .addInterceptor(StaleIfErrorInterceptor())
+        .apply {
+            if (networkConditions != NetworkConditions.PERFECT) {
+                addInterceptor(NetworkConditionsInterceptor(networkConditions))
+            }
+        }
         .build()
     
     @Provides
@@ -44,7 +77,7 @@ object NetworkModule {
         okHttpClient: OkHttpClient,
         json: Json
     ): Retrofit = Retrofit.Builder()
-        .baseUrl("https://api.riyadhair.com/")
+        .baseUrl(BASE_URL)
         .client(okHttpClient)
         .addConverterFactory(json.asConverterFactory("application/json".toMediaType()))
         .build()
@@ -73,4 +106,8 @@ object NetworkModule {
     @Singleton
     fun providePartnerService(retrofit: Retrofit): PartnerService =
         retrofit.create(PartnerService::class.java)
+
+    private const val BASE_URL = "https://api.riyadhair.com/"
+    private const val HTTP_CACHE_DIRECTORY = "http_cache"
+    private const val HTTP_CACHE_SIZE_BYTES = 10L * 1024 * 1024
 }
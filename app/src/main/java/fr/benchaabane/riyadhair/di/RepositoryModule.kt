@@ -5,11 +5,13 @@ import dagger.Module
 import dagger.hilt.InstallIn
 import dagger.hilt.components.SingletonComponent
 import fr.benchaabane.riyadhair.data.account.repositories.AccountRepositoryImpl
+import fr.benchaabane.riyadhair.data.flights.repositories.FareCalendarRepositoryImpl
 import fr.benchaabane.riyadhair.data.flights.repositories.FlightRepositoryImpl
 import fr.benchaabane.riyadhair.data.offers.repositories.OffersRepositoryImpl
 import fr.benchaabane.riyadhair.data.partners.repositories.PartnerRepositoryImpl
 import fr.benchaabane.riyadhair.data.reservations.repositories.ReservationRepositoryImpl
 import fr.benchaabane.riyadhair.domain.account.repositories.AccountRepository
+import fr.benchaabane.riyadhair.domain.flights.repositories.FareCalendarRepository
 import fr.benchaabane.riyadhair.domain.flights.repositories.FlightRepository
 import fr.benchaabane.riyadhair.domain.offers.repositories.OffersRepository
 import fr.benchaabane.riyadhair.domain.partners.repositories.PartnerRepository
@@ -23,6 +25,11 @@ abstract class RepositoryModule {
     abstract fun bindFlightRepository(
         flightRepositoryImpl: FlightRepositoryImpl
     ): FlightRepository
+
+    @Binds
+    abstract fun bindFareCalendarRepository(
+        fareCalendarRepositoryImpl: FareCalendarRepositoryImpl
+    ): FareCalendarRepository
     
     @Binds
     abstract fun bindReservationRepository(
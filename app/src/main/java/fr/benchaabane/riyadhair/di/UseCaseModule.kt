@@ -6,16 +6,28 @@ import dagger.hilt.InstallIn
 import dagger.hilt.components.SingletonComponent
 import fr.benchaabane.riyadhair.domain.account.repositories.AccountRepository
 import fr.benchaabane.riyadhair.domain.account.usecases.GetAccountUseCase
+import fr.benchaabane.riyadhair.domain.flights.models.FlightPagingConfig
+import fr.benchaabane.riyadhair.domain.flights.repositories.FareCalendarRepository
 import fr.benchaabane.riyadhair.domain.flights.repositories.FlightRepository
+import fr.benchaabane.riyadhair.domain.flights.usecases.GetBestRoundTripsUseCase
+import fr.benchaabane.riyadhair.domain.flights.usecases.GetFareCalendarUseCase
 import fr.benchaabane.riyadhair.domain.flights.usecases.GetFlightDetailsUseCase
+import fr.benchaabane.riyadhair.domain.flights.usecases.GetPagedFlightsUseCase
 import fr.benchaabane.riyadhair.domain.flights.usecases.SearchFlightsUseCase
+import fr.benchaabane.riyadhair.domain.flights.usecases.SearchItinerariesUseCase
+import fr.benchaabane.riyadhair.domain.flights.usecases.SearchRoundTripUseCase
 import fr.benchaabane.riyadhair.domain.offers.repositories.OffersRepository
 import fr.benchaabane.riyadhair.domain.offers.usecases.GetBestOffersUseCase
+import fr.benchaabane.riyadhair.domain.offers.usecases.ObserveBestOffersUseCase
 import fr.benchaabane.riyadhair.domain.partners.repositories.PartnerRepository
 import fr.benchaabane.riyadhair.domain.partners.usecases.GetPartnersUseCase
+import fr.benchaabane.riyadhair.domain.partners.usecases.ObservePartnersUseCase
+import fr.benchaabane.riyadhair.domain.reservations.models.ReservationPagingConfig
 import fr.benchaabane.riyadhair.domain.reservations.repositories.ReservationRepository
+import fr.benchaabane.riyadhair.domain.reservations.usecases.GetPagedReservationsUseCase
 import fr.benchaabane.riyadhair.domain.reservations.usecases.ObserveReservationsUseCase
 import fr.benchaabane.riyadhair.domain.reservations.usecases.SaveReservationUseCase
+import java.time.Duration
 
 @Module
 @InstallIn(SingletonComponent::class)
@@ -26,11 +38,54 @@ object UseCaseModule {
         repository: FlightRepository
     ): SearchFlightsUseCase = SearchFlightsUseCase(repository)
 
+    @Provides
+    fun provideSearchRoundTripUseCase(
+        searchFlightsUseCase: SearchFlightsUseCase
+    ): SearchRoundTripUseCase = SearchRoundTripUseCase(searchFlightsUseCase)
+
+    @Provides
+    fun provideGetPagedFlightsUseCase(
+        repository: FlightRepository
+    ): GetPagedFlightsUseCase = GetPagedFlightsUseCase(
+        repository,
+        FlightPagingConfig(
+            pageSize = 20,
+            prefetchDistance = 10,
+            enablePlaceholders = true
+        )
+    )
+
+    @Provides
+    fun provideGetBestRoundTripsUseCase(): GetBestRoundTripsUseCase =
+        GetBestRoundTripsUseCase(minGroundTime = Duration.ofHours(2))
+
+    @Provides
+    fun provideSearchItinerariesUseCase(
+        repository: FlightRepository
+    ): SearchItinerariesUseCase = SearchItinerariesUseCase(repository)
+
+    @Provides
+    fun provideGetFareCalendarUseCase(
+        repository: FareCalendarRepository
+    ): GetFareCalendarUseCase = GetFareCalendarUseCase(repository)
+
     @Provides
     fun provideObserveReservationsUseCase(
         repository: ReservationRepository
     ): ObserveReservationsUseCase = ObserveReservationsUseCase(repository)
 
+    @Provides
+    fun provideGetPagedReservationsUseCase(
+        repository: ReservationRepository
+    ): GetPagedReservationsUseCase = GetPagedReservationsUseCase(
+        repository,
+        ReservationPagingConfig(
+            pageSize = 20,
+            prefetchDistance = 10,
+            enablePlaceholders = true
+        )
+    )
+
     @Provides
     fun provideSaveReservationUseCase(
         repository: ReservationRepository
@@ -46,11 +101,21 @@ object UseCaseModule {
         repository: OffersRepository
     ): GetBestOffersUseCase = GetBestOffersUseCase(repository)
 
+    @Provides
+    fun provideObserveBestOffersUseCase(
+        repository: OffersRepository
+    ): ObserveBestOffersUseCase = ObserveBestOffersUseCase(repository)
+
     @Provides
     fun provideGetPartnersUseCase(
         repository: PartnerRepository
     ): GetPartnersUseCase = GetPartnersUseCase(repository)
 
+    @Provides
+    fun provideObservePartnersUseCase(
+        repository: PartnerRepository
+    ): ObservePartnersUseCase = ObservePartnersUseCase(repository)
+
     @Provides
     fun provideGetFlightDetailsUseCase(
         repository: FlightRepository
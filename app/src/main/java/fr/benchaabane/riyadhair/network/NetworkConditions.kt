@@ -0,0 +1,185 @@
+package fr.benchaabane.riyadhair.network
+
+import kotlin.math.PI
+import kotlin.math.cos
+import kotlin.math.exp
+import kotlin.math.ln
+import kotlin.math.sqrt
+import kotlin.random.Random
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.milliseconds
+import kotlin.time.Duration.Companion.seconds
+
+/**
+ * Network conditions simulated in front of the mock backend.
+ *
+ * Mock responses are otherwise instant and always successful, which hides
+ * latency, timeout and retry behaviour. A [NetworkConditions] describes the
+ * link the app should appear to be on: a [default] profile, overridden by
+ * the first [endpoints] rule matching a request path.
+ *
+ * **Selection:**
+ * - **Build Variant**: `BuildConfig.NETWORK_CONDITIONS` names a preset
+ *   (see [named]); set it with `-PnetworkConditions=AIRPORT_3G` for debug
+ *   builds, release builds always use [PERFECT]
+ * - **Tests**: Build a [NetworkConditionsInterceptor] with any preset or
+ *   hand-made profile, and a [seed] to replay the same run
+ *
+ * @property default Profile of the requests matching no endpoint rule
+ * @property endpoints Per-endpoint profiles, the first match wins
+ * @property seed Seed of the random draws, or null for a random run
+ *
+ * @see NetworkConditionsInterceptor
+ */
+data class NetworkConditions(
+    val default: NetworkProfile = NetworkProfile(),
+    val endpoints: List<EndpointConditions> = emptyList(),
+    val seed: Long? = null
+) {
+
+    /**
+     * The profile applied to a request path.
+     *
+     * @param path The encoded path of the request (e.g., "/flights")
+     * @return The first matching endpoint profile, or [default]
+     */
+    fun profileFor(path: String): NetworkProfile =
+        endpoints.firstOrNull { it.path.containsMatchIn(path) }?.profile ?: default
+
+    companion object {
+        /** No simulation: every response is served as the backend returns it. */
+        val PERFECT = NetworkConditions()
+
+        /** A good home Wi-Fi link. */
+        val WIFI = NetworkConditions(
+            default = NetworkProfile(
+                latency = Latency(median = 30.milliseconds, p95 = 80.milliseconds, jitter = 10.milliseconds),
+                bandwidthBytesPerSecond = 5_000_000
+            )
+        )
+
+        /** A typical 4G link. */
+        val FOUR_G = NetworkConditions(
+            default = NetworkProfile(
+                latency = Latency(median = 70.milliseconds, p95 = 250.milliseconds, jitter = 30.milliseconds),
+                bandwidthBytesPerSecond = 1_500_000,
+                errorRate = 0.005
+            )
+        )
+
+        /**
+         * A crowded 3G link in an airport terminal.
+         *
+         * Slow and bursty, with server errors and bodies stalling mid-transfer;
+         * the search endpoint, the heaviest one, is the most affected.
+         */
+        val AIRPORT_3G = NetworkConditions(
+            default = NetworkProfile(
+                latency = Latency(median = 400.milliseconds, p95 = 2.seconds, jitter = 150.milliseconds),
+                bandwidthBytesPerSecond = 50_000,
+                errorRate = 0.05,
+                stallRate = 0.02
+            ),
+            endpoints = listOf(
+                EndpointConditions(
+                    path = Regex("/flights$"),
+                    profile = NetworkProfile(
+                        latency = Latency(median = 800.milliseconds, p95 = 4.seconds, jitter = 300.milliseconds),
+                        bandwidthBytesPerSecond = 30_000,
+                        errorRate = 0.08,
+                        stallRate = 0.05
+                    )
+                )
+            )
+        )
+
+        /**
+         * Finds a preset by name, as set in `BuildConfig.NETWORK_CONDITIONS`.
+         *
+         * @param name One of "PERFECT", "WIFI", "FOUR_G" or "AIRPORT_3G", case-insensitive
+         * @return The preset, or [PERFECT] for an unknown name
+         */
+        fun named(name: String): NetworkConditions = when (name.uppercase()) {
+            "WIFI" -> WIFI
+            "FOUR_G" -> FOUR_G
+            "AIRPORT_3G" -> AIRPORT_3G
+            else -> PERFECT
+        }
+    }
+}
+
+/**
+ * Network conditions of the requests whose path matches [path].
+ *
+ * @property path Pattern searched in the request's encoded path
+ * @property profile Profile applied to the matching requests
+ */
+data class EndpointConditions(
+    val path: Regex,
+    val profile: NetworkProfile
+)
+
+/**
+ * Simulated behaviour of one kind of request.
+ *
+ * @property latency Delay before the response headers are received
+ * @property bandwidthBytesPerSecond Cap on the body download rate, or null for no cap
+ * @property errorRate Probability, from 0 to 1, that a request fails without reaching the backend
+ * @property errorCode HTTP status of a failed request, or null to fail with an IOException
+ * @property stallRate Probability, from 0 to 1, that the body stops flowing mid-transfer
+ *           until the read timeout expires
+ * @property stallAfterBytes Bytes delivered before a body stalls
+ */
+data class NetworkProfile(
+    val latency: Latency = Latency(),
+    val bandwidthBytesPerSecond: Long? = null,
+    val errorRate: Double = 0.0,
+    val errorCode: Int? = 503,
+    val stallRate: Double = 0.0,
+    val stallAfterBytes: Long = 1_024
+)
+
+/**
+ * Distribution of the response latency.
+ *
+ * Latencies follow a log-normal distribution, the usual shape of network
+ * round trips: most requests are close to the [median] and a long tail
+ * reaches the [p95] and beyond. [jitter] adds a uniform noise on top.
+ *
+ * @property median Latency of half of the requests
+ * @property p95 Latency exceeded by 5% of the requests, at least [median]
+ * @property jitter Maximum uniform deviation added to each draw, in both directions
+ */
+data class Latency(
+    val median: Duration = Duration.ZERO,
+    val p95: Duration = median,
+    val jitter: Duration = Duration.ZERO
+) {
+
+    /**
+     * Draws the latency of one request.
+     *
+     * @param random Source of randomness
+     * @return A non-negative latency
+     */
+    fun sample(random: Random): Duration {
+        val spread = if (median > Duration.ZERO && p95 > median) ln(p95 / median) / Z_95 else 0.0
+        val base = median * exp(spread * random.nextGaussian())
+        val noise = if (jitter > Duration.ZERO) jitter * random.nextDouble(-1.0, 1.0) else Duration.ZERO
+        return (base + noise).coerceAtLeast(Duration.ZERO)
+    }
+
+    private companion object {
+        /** Standard normal quantile of the 95th percentile. */
+        const val Z_95 = 1.6448536269514722
+    }
+}
+
+/**
+ * Draws from the standard normal distribution, with the Box-Muller transform.
+ */
+private fun Random.nextGaussian(): Double {
+    val u = 1.0 - nextDouble()
+    val v = nextDouble()
+    return sqrt(-2.0 * ln(u)) * cos(2.0 * PI * v)
+}
@@ -0,0 +1,136 @@
+package fr.benchaabane.riyadhair.network
+
+import okhttp3.Interceptor
+import okhttp3.MediaType.Companion.toMediaType
+import okhttp3.Protocol
+import okhttp3.Response
+import okhttp3.ResponseBody.Companion.asResponseBody
+import okhttp3.ResponseBody.Companion.toResponseBody
+import okio.Buffer
+import okio.ForwardingSource
+import okio.Source
+import okio.Throttler
+import okio.buffer
+import java.io.IOException
+import java.net.SocketTimeoutException
+import kotlin.random.Random
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.milliseconds
+
+/**
+ * OkHttp interceptor playing [NetworkConditions] on the responses of the chain behind it.
+ *
+ * It is an application interceptor, since a failure answers without calling
+ * the chain, so it also delays responses served from the cache:
+ *
+ * ```kotlin
+ * OkHttpClient.Builder()
+ *     .cache(cache)
+ *     .addInterceptor(NetworkConditionsInterceptor(NetworkConditions.AIRPORT_3G))
+ *     .build()
+ * ```
+ *
+ * **Per Request:**
+ * 1. **Latency**: Waits a delay drawn from the profile's [Latency]; a delay
+ *    longer than the call's read timeout fails with a [SocketTimeoutException]
+ * 2. **Errors**: Fails without calling the backend, with the profile's HTTP
+ *    error code or an [IOException]
+ * 3. **Bandwidth**: Throttles the body with an okio [Throttler]
+ * 4. **Stalls**: Stops the body after a few bytes until the read timeout
+ *    expires, then fails with a [SocketTimeoutException]
+ *
+ * **Cancellation:**
+ * Waits are cut in short slices and abandoned as soon as the call is cancelled.
+ *
+ * @param conditions The conditions to simulate
+ * @param random Source of the random draws, seeded from [NetworkConditions.seed] by default
+ * @param sleep Blocks the calling thread, replaced in tests
+ *
+ * @see NetworkConditions
+ */
+class NetworkConditionsInterceptor(
+    private val conditions: NetworkConditions,
+    private val random: Random = conditions.seed?.let(::Random) ?: Random.Default,
+    private val sleep: (Duration) -> Unit = { Thread.sleep(it.inWholeMilliseconds) }
+) : Interceptor {
+
+    override fun intercept(chain: Interceptor.Chain): Response {
+        val request = chain.request()
+        val profile = conditions.profileFor(request.url.encodedPath)
+        val readTimeout = chain.readTimeoutMillis().milliseconds
+        val (latency, fails, stalls) = synchronized(random) {
+            Triple(profile.latency.sample(random), random.nextDouble() < profile.errorRate, random.nextDouble() < profile.stallRate)
+        }
+
+        if (readTimeout > Duration.ZERO && latency > readTimeout) {
+            wait(chain, readTimeout)
+            throw SocketTimeoutException("Simulated latency of $latency exceeds the read timeout")
+        }
+        wait(chain, latency)
+
+        if (fails) {
+            val code = profile.errorCode ?: throw IOException("Simulated connection failure")
+            return Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_3)
+                .code(code)
+                .message("Simulated error")
+                .body("{}".toResponseBody(JSON))
+                .build()
+        }
+
+        val response = chain.proceed(request)
+        if (profile.bandwidthBytesPerSecond == null && !stalls) return response
+        val body = response.body
+        var source: Source = body.source()
+        if (stalls) source = StallingSource(source, chain, profile.stallAfterBytes, readTimeout)
+        profile.bandwidthBytesPerSecond?.let { bytesPerSecond ->
+            source = Throttler().apply { bytesPerSecond(bytesPerSecond) }.source(source)
+        }
+        return response.newBuilder()
+            .body(source.buffer().asResponseBody(body.contentType(), body.contentLength()))
+            .build()
+    }
+
+    /**
+     * Waits [duration] in short slices, failing early if the call is cancelled.
+     */
+    private fun wait(chain: Interceptor.Chain, duration: Duration) {
+        var remaining = duration
+        while (remaining > Duration.ZERO) {
+            if (chain.call().isCanceled()) throw IOException("Canceled")
+            val slice = minOf(remaining, WAIT_SLICE)
+            sleep(slice)
+            remaining -= slice
+        }
+    }
+
+    /**
+     * A body that delivers [stallAfterBytes] bytes, then hangs until the read timeout.
+     */
+    private inner class StallingSource(
+        delegate: Source,
+        private val chain: Interceptor.Chain,
+        private val stallAfterBytes: Long,
+        private val readTimeout: Duration
+    ) : ForwardingSource(delegate) {
+
+        private var delivered = 0L
+
+        override fun read(sink: Buffer, byteCount: Long): Long {
+            val allowed = stallAfterBytes - delivered
+            if (allowed <= 0) {
+                wait(chain, readTimeout)
+                throw SocketTimeoutException("Simulated stalled body")
+            }
+            val read = super.read(sink, minOf(byteCount, allowed))
+            if (read > 0) delivered += read
+            return read
+        }
+    }
+
+    private companion object {
+        val WAIT_SLICE = 50.milliseconds
+        val JSON = "application/json".toMediaType()
+    }
+}
@@ -0,0 +1,84 @@
+package fr.benchaabane.riyadhair.network
+
+import okhttp3.CacheControl
+import okhttp3.Interceptor
+import okhttp3.Request
+import okhttp3.Response
+import java.io.IOException
+
+/**
+ * OkHttp interceptor serving a stale cached response when the backend fails, per `stale-if-error`.
+ *
+ * OkHttp's [okhttp3.Cache] honours `max-age`, `ETag` and `Last-Modified`, but
+ * not the `stale-if-error` extension: once a response is stale, a failed
+ * revalidation fails the call. This interceptor catches that failure and asks
+ * the cache again, with `only-if-cached`, for the stored response.
+ *
+ * It calls the chain twice, so it must be an application interceptor, added
+ * first so that it also covers [NetworkConditionsInterceptor] failures:
+ *
+ * ```kotlin
+ * OkHttpClient.Builder()
+ *     .cache(cache)
+ *     .addInterceptor(StaleIfErrorInterceptor())
+ *     .build()
+ * ```
+ *
+ * **Rules:**
+ * - **Failures**: An [IOException] or a 5xx response to a GET
+ * - **Window**: The `stale-if-error=<seconds>` directive the cached response
+ *   was served with; without it, the failure is returned as is
+ * - **Staleness**: Time since the response was received, minus its `max-age`
+ * - **Origin**: Only a response read from the cache is used, never a second
+ *   answer from the backend
+ *
+ * @param clock Current time in epoch milliseconds, replaced in tests
+ */
+class StaleIfErrorInterceptor(
+    private val clock: () -> Long = System::currentTimeMillis
+) : Interceptor {
+
+    override fun intercept(chain: Interceptor.Chain): Response {
+        val request = chain.request()
+        if (request.method != "GET" || request.cacheControl.onlyIfCached) return chain.proceed(request)
+        val response = try {
+            chain.proceed(request)
+        } catch (e: IOException) {
+            return cached(chain, request) ?: throw e
+        }
+        if (response.code < HTTP_SERVER_ERROR) return response
+        val cached = cached(chain, request) ?: return response
+        response.close()
+        return cached
+    }
+
+    /**
+     * The cached response to [request], if it is still within its `stale-if-error` window.
+     */
+    private fun cached(chain: Interceptor.Chain, request: Request): Response? {
+        val cached = try {
+            chain.proceed(request.newBuilder().cacheControl(CacheControl.FORCE_CACHE).build())
+        } catch (e: IOException) {
+            return null
+        }
+        if (cached.cacheResponse == null || !cached.isWithinStaleIfError()) {
+            cached.close()
+            return null
+        }
+        return cached
+    }
+
+    private fun Response.isWithinStaleIfError(): Boolean {
+        val window = headers.values("Cache-Control")
+            .firstNotNullOfOrNull { STALE_IF_ERROR.find(it)?.groupValues?.get(1)?.toLongOrNull() }
+            ?: return false
+        val ageSeconds = (clock() - receivedResponseAtMillis) / 1_000
+        val staleness = ageSeconds - cacheControl.maxAgeSeconds.coerceAtLeast(0)
+        return staleness <= window
+    }
+
+    private companion object {
+        const val HTTP_SERVER_ERROR = 500
+        val STALE_IF_ERROR = Regex("stale-if-error=(\\d+)", RegexOption.IGNORE_CASE)
+    }
+}
@@ -0,0 +1,20 @@
+package fr.benchaabane.riyadhair.di
+
+import dagger.Module
+import dagger.Provides
+import dagger.hilt.InstallIn
+import dagger.hilt.components.SingletonComponent
+import dagger.multibindings.ElementsIntoSet
+import okhttp3.Interceptor
+
+/**
+ * Release backend: requests go to the RiyadhAir API as they are.
+ */
+@Module
+@InstallIn(SingletonComponent::class)
+object BackendModule {
+
+    @Provides
+    @ElementsIntoSet
+    fun provideBackendInterceptors(): Set<Interceptor> = emptySet()
+}
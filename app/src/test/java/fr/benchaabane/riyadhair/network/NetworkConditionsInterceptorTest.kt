@@ -0,0 +1,145 @@
+package fr.benchaabane.riyadhair.network
+
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.verify
+import okhttp3.Interceptor
+import okhttp3.Protocol
+import okhttp3.Request
+import okhttp3.Response
+import okhttp3.ResponseBody.Companion.toResponseBody
+import org.amshove.kluent.shouldBeEqualTo
+import org.amshove.kluent.shouldBeGreaterThan
+import org.amshove.kluent.shouldBeInRange
+import org.junit.Before
+import org.junit.Test
+import java.io.IOException
+import java.net.SocketTimeoutException
+import kotlin.random.Random
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.milliseconds
+import kotlin.time.Duration.Companion.seconds
+
+class NetworkConditionsInterceptorTest {
+
+    private lateinit var chain: Interceptor.Chain
+    private val slept = mutableListOf<Duration>()
+    private val sleep: (Duration) -> Unit = { slept += it }
+
+    @Before
+    fun setUp() {
+        // Given
+        chain = mockk()
+        every { chain.call().isCanceled() } returns false
+        every { chain.readTimeoutMillis() } returns 10_000
+        every { chain.proceed(any()) } answers { backendResponse(firstArg(), "x".repeat(4_096)) }
+    }
+
+    @Test
+    fun `intercept should wait the latency before proceeding`() {
+        // Given
+        val interceptor = interceptor(NetworkProfile(latency = Latency(median = 120.milliseconds)))
+
+        // When
+        val response = interceptor.intercept(chain.forPath("/partners"))
+
+        // Then
+        response.code shouldBeEqualTo 200
+        slept.fold(Duration.ZERO, Duration::plus) shouldBeEqualTo 120.milliseconds
+    }
+
+    @Test
+    fun `intercept should fail with the error code without reaching the backend`() {
+        // Given
+        val interceptor = interceptor(NetworkProfile(errorRate = 1.0, errorCode = 503))
+
+        // When
+        val response = interceptor.intercept(chain.forPath("/partners"))
+
+        // Then
+        response.code shouldBeEqualTo 503
+        verify(exactly = 0) { chain.proceed(any()) }
+    }
+
+    @Test(expected = IOException::class)
+    fun `intercept should fail with an IOException when no error code is set`() {
+        // Given
+        val interceptor = interceptor(NetworkProfile(errorRate = 1.0, errorCode = null))
+
+        // When
+        interceptor.intercept(chain.forPath("/partners"))
+    }
+
+    @Test(expected = SocketTimeoutException::class)
+    fun `intercept should time out when the latency exceeds the read timeout`() {
+        // Given
+        every { chain.readTimeoutMillis() } returns 1_000
+        val interceptor = interceptor(NetworkProfile(latency = Latency(median = 2.seconds)))
+
+        // When
+        interceptor.intercept(chain.forPath("/partners"))
+    }
+
+    @Test
+    fun `stalled bodies should deliver their first bytes then time out`() {
+        // Given
+        val interceptor = interceptor(NetworkProfile(stallRate = 1.0, stallAfterBytes = 100))
+        val source = interceptor.intercept(chain.forPath("/partners")).body.source()
+
+        // When
+        val delivered = runCatching { source.readUtf8(101) }
+
+        // Then
+        source.buffer.size shouldBeEqualTo 100L
+        (delivered.exceptionOrNull() is SocketTimeoutException) shouldBeEqualTo true
+        slept.fold(Duration.ZERO, Duration::plus) shouldBeEqualTo 10.seconds
+    }
+
+    @Test
+    fun `endpoint rules should override the default profile`() {
+        // Given
+        val conditions = NetworkConditions(
+            default = NetworkProfile(errorRate = 1.0),
+            endpoints = listOf(EndpointConditions(Regex("/flights$"), NetworkProfile()))
+        )
+        val interceptor = NetworkConditionsInterceptor(conditions, Random(42), sleep)
+
+        // When
+        val flights = interceptor.intercept(chain.forPath("/flights"))
+        val partners = interceptor.intercept(chain.forPath("/partners"))
+
+        // Then
+        flights.code shouldBeEqualTo 200
+        partners.code shouldBeEqualTo 503
+    }
+
+    @Test
+    fun `latency samples should follow the median and the tail of the distribution`() {
+        // Given
+        val latency = Latency(median = 400.milliseconds, p95 = 2.seconds)
+        val random = Random(7)
+
+        // When
+        val samples = List(10_000) { latency.sample(random).inWholeMilliseconds }.sorted()
+
+        // Then
+        samples[samples.size / 2] shouldBeInRange 360L..440L
+        samples[samples.size * 95 / 100] shouldBeInRange 1_800L..2_200L
+        samples.first() shouldBeGreaterThan 0L
+    }
+
+    private fun interceptor(profile: NetworkProfile) =
+        NetworkConditionsInterceptor(NetworkConditions(default = profile), Random(42), sleep)
+
+    private fun Interceptor.Chain.forPath(path: String): Interceptor.Chain = also {
+        every { it.request() } returns Request.Builder().url("https://api.riyadhair.com$path").build()
+    }
+
+    private fun backendResponse(request: Request, body: String) = Response.Builder()
+        .request(request)
+        .protocol(Protocol.HTTP_3)
+        .code(200)
+        .message("OK")
+        .body(body.toResponseBody())
+        .build()
+}
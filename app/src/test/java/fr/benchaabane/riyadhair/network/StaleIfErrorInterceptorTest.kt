@@ -0,0 +1,116 @@
+package fr.benchaabane.riyadhair.network
+
+import okhttp3.Cache
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.Response
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import org.amshove.kluent.shouldBeEqualTo
+import org.junit.After
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+
+class StaleIfErrorInterceptorTest {
+
+    @get:Rule
+    val folder = TemporaryFolder()
+
+    private lateinit var server: MockWebServer
+    private lateinit var cache: Cache
+
+    @Before
+    fun setUp() {
+        // Given
+        server = MockWebServer()
+        server.start()
+        cache = Cache(folder.newFolder("http_cache"), 1024 * 1024)
+    }
+
+    @After
+    fun tearDown() {
+        cache.close()
+        server.shutdown()
+    }
+
+    @Test
+    fun `stale responses should be revalidated into a 304 served from the cache`() {
+        // Given
+        val client = client()
+        server.enqueue(cacheable("offers"))
+        server.enqueue(MockResponse().setResponseCode(304).addHeader("ETag", "\"v1\""))
+        client.get().close()
+
+        // When
+        val response = client.get()
+
+        // Then
+        response.code shouldBeEqualTo 200
+        response.networkResponse?.code shouldBeEqualTo 304
+        response.body.string() shouldBeEqualTo "offers"
+        server.takeRequest()
+        server.takeRequest().getHeader("If-None-Match") shouldBeEqualTo "\"v1\""
+    }
+
+    @Test
+    fun `server errors should fall back to the cached response within stale-if-error`() {
+        // Given
+        val client = client()
+        server.enqueue(cacheable("offers"))
+        server.enqueue(MockResponse().setResponseCode(503))
+        client.get().close()
+
+        // When
+        val response = client.get()
+
+        // Then
+        response.code shouldBeEqualTo 200
+        response.body.string() shouldBeEqualTo "offers"
+    }
+
+    @Test
+    fun `connection failures should fall back to the cached response within stale-if-error`() {
+        // Given
+        val client = client()
+        server.enqueue(cacheable("offers"))
+        client.get().close()
+        server.shutdown()
+
+        // When
+        val response = client.get()
+
+        // Then
+        response.body.string() shouldBeEqualTo "offers"
+    }
+
+    @Test
+    fun `server errors should be returned once stale-if-error has run out`() {
+        // Given
+        val client = client(clock = { System.currentTimeMillis() + 120_000 })
+        server.enqueue(cacheable("offers"))
+        server.enqueue(MockResponse().setResponseCode(503))
+        client.get().close()
+
+        // When
+        val response = client.get()
+
+        // Then
+        response.code shouldBeEqualTo 503
+    }
+
+    private fun client(clock: () -> Long = System::currentTimeMillis) = OkHttpClient.Builder()
+        .cache(cache)
+        .addInterceptor(StaleIfErrorInterceptor(clock))
+        .build()
+
+    private fun OkHttpClient.get(): Response =
+        newCall(Request.Builder().url(server.url("/offers/best")).build()).execute()
+
+    private fun cacheable(body: String) = MockResponse()
+        .setResponseCode(200)
+        .addHeader("ETag", "\"v1\"")
+        .addHeader("Cache-Control", "max-age=0, stale-if-error=60")
+        .setBody(body)
+}
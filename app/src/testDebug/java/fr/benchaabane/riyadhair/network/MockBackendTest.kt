@@ -0,0 +1,111 @@
+package fr.benchaabane.riyadhair.network
+
+import android.content.Context
+import io.mockk.every
+import io.mockk.mockk
+import okhttp3.Cache
+import okhttp3.CacheControl
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.Response
+import org.amshove.kluent.shouldBeEqualTo
+import org.amshove.kluent.shouldNotBeEqualTo
+import org.junit.After
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+import java.util.concurrent.TimeUnit
+
+class MockBackendTest {
+
+    @get:Rule
+    val folder = TemporaryFolder()
+
+    private lateinit var backend: MockBackend
+    private lateinit var cache: Cache
+    private lateinit var client: OkHttpClient
+    private var networkCalls = 0
+
+    @Before
+    fun setUp() {
+        // Given
+        val context = mockk<Context>()
+        every { context.assets.open(any()) } answers { File("src/main/assets", firstArg<String>()).inputStream() }
+        backend = MockBackend(context)
+        cache = Cache(folder.newFolder("http_cache"), 1024 * 1024)
+        client = OkHttpClient.Builder()
+            .cache(cache)
+            .addInterceptor(backend)
+            .addInterceptor(StaleIfErrorInterceptor())
+            .addNetworkInterceptor { chain ->
+                networkCalls++
+                chain.proceed(chain.request())
+            }
+            .build()
+    }
+
+    @After
+    fun tearDown() {
+        cache.close()
+        backend.close()
+    }
+
+    @Test
+    fun `fresh offers and partners should be served from the cache without calling the backend`() {
+        for (path in CACHEABLE_PATHS) {
+            // Given
+            val first = get(path).use { it.body.string() }
+
+            // When
+            val second = get(path)
+
+            // Then
+            second.networkResponse shouldBeEqualTo null
+            second.cacheResponse shouldNotBeEqualTo null
+            second.body.string() shouldBeEqualTo first
+        }
+        networkCalls shouldBeEqualTo CACHEABLE_PATHS.size
+    }
+
+    @Test
+    fun `stale offers and partners should be revalidated into a 304 served from the cache`() {
+        for (path in CACHEABLE_PATHS) {
+            // Given
+            val first = get(path).use { it.body.string() }
+
+            // When
+            val second = get(path, CacheControl.Builder().maxAge(0, TimeUnit.SECONDS).build())
+
+            // Then
+            second.code shouldBeEqualTo 200
+            second.networkResponse?.code shouldBeEqualTo 304
+            second.cacheResponse shouldNotBeEqualTo null
+            second.body.string() shouldBeEqualTo first
+        }
+        networkCalls shouldBeEqualTo 2 * CACHEABLE_PATHS.size
+    }
+
+    @Test
+    fun `gzip bodies should be decompressed transparently`() {
+        // When
+        val response = get("partners")
+
+        // Then
+        response.networkResponse?.header("Content-Encoding") shouldBeEqualTo "gzip"
+        response.body.string() shouldBeEqualTo File("src/main/assets/mock/partners.json").readText()
+    }
+
+    private fun get(path: String, cacheControl: CacheControl? = null): Response =
+        client.newCall(
+            Request.Builder()
+                .url("https://api.riyadhair.com/$path")
+                .apply { if (cacheControl != null) cacheControl(cacheControl) }
+                .build()
+        ).execute()
+
+    private companion object {
+        val CACHEABLE_PATHS = listOf("offers/best", "partners")
+    }
+}
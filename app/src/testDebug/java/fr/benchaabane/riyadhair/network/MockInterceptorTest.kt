@@ -0,0 +1,200 @@
+package fr.benchaabane.riyadhair.network
+
+import android.content.Context
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.verify
+import kotlinx.serialization.json.Json
+import kotlinx.serialization.json.jsonArray
+import kotlinx.serialization.json.jsonObject
+import kotlinx.serialization.json.jsonPrimitive
+import okhttp3.Interceptor
+import okhttp3.Request
+import okhttp3.RequestBody.Companion.toRequestBody
+import okhttp3.Response
+import okio.GzipSource
+import okio.buffer
+import org.amshove.kluent.shouldBeEqualTo
+import org.junit.Before
+import org.junit.Test
+import java.io.File
+
+class MockInterceptorTest {
+
+    private lateinit var interceptor: MockInterceptor
+    private lateinit var context: Context
+
+    @Before
+    fun setUp() {
+        // Given
+        context = mockk()
+        every { context.assets.open(any()) } answers { File("src/main/assets", firstArg<String>()).inputStream() }
+        interceptor = MockInterceptor(context)
+    }
+
+    @Test
+    fun `search should only return the flights of the requested route`() {
+        // When
+        val response = intercept("flights?origin=RUH&destination=JED&limit=100")
+        val flights = response.flights()
+
+        // Then
+        flights.map { it.first to it.second }.distinct() shouldBeEqualTo listOf("RUH" to "JED")
+        response.header("X-Total-Count") shouldBeEqualTo flights.size.toString()
+    }
+
+    @Test
+    fun `search should cut the route into pages and return an empty page past the end`() {
+        // Given
+        val all = intercept("flights?origin=RUH&destination=JED&limit=100").flights()
+
+        // When
+        val pages = (1..all.size + 1).map { page -> intercept("flights?origin=RUH&destination=JED&page=$page&limit=1") }
+
+        // Then
+        pages.dropLast(1).flatMap { it.flights() } shouldBeEqualTo all
+        pages.last().code shouldBeEqualTo 200
+        pages.last().flights() shouldBeEqualTo emptyList()
+    }
+
+    @Test
+    fun `search should only return the flights departing on the requested date`() {
+        // Given
+        val all = intercept("flights?origin=RUH&destination=JED&limit=100").flights()
+
+        // When
+        val sameDay = intercept("flights?origin=RUH&destination=JED&limit=100&date=2024-07-15")
+        val otherDay = intercept("flights?origin=RUH&destination=JED&limit=100&date=2024-07-16")
+
+        // Then
+        sameDay.flights() shouldBeEqualTo all
+        otherDay.header("X-Total-Count") shouldBeEqualTo "0"
+        otherDay.flights() shouldBeEqualTo emptyList()
+    }
+
+    @Test
+    fun `single flight should return 404 for an unknown flight number`() {
+        // When
+        val known = intercept("flights/RX101")
+        val unknown = intercept("flights/XX000")
+
+        // Then
+        known.code shouldBeEqualTo 200
+        unknown.code shouldBeEqualTo 404
+    }
+
+    @Test
+    fun `fixtures should be read once and never echoed in the status message`() {
+        // When
+        val first = intercept("partners")
+        val second = intercept("partners")
+
+        // Then
+        first.message shouldBeEqualTo "OK"
+        second.body.string() shouldBeEqualTo File("src/main/assets/mock/partners.json").readText()
+        verify(exactly = 1) { context.assets.open("mock/partners.json") }
+    }
+
+    @Test
+    fun `responses should be gzip-encoded only when the request accepts it`() {
+        // When
+        val identity = intercept("partners")
+        val gzipped = intercept("partners", acceptEncoding = "gzip")
+
+        // Then
+        identity.header("Content-Encoding") shouldBeEqualTo null
+        gzipped.header("Content-Encoding") shouldBeEqualTo "gzip"
+        GzipSource(gzipped.body.source()).buffer().readUtf8() shouldBeEqualTo identity.body.string()
+    }
+
+    @Test
+    fun `cacheable fixtures should answer a matching If-None-Match with an empty 304`() {
+        // Given
+        val first = intercept("offers/best")
+        val etag = first.header("ETag")!!
+
+        // When
+        val matching = intercept("offers/best", headers = mapOf("If-None-Match" to etag))
+        val outdated = intercept("offers/best", headers = mapOf("If-None-Match" to "\"outdated\""))
+
+        // Then
+        first.header("Cache-Control") shouldBeEqualTo "max-age=300, stale-if-error=86400"
+        matching.code shouldBeEqualTo 304
+        matching.body.contentLength() shouldBeEqualTo 0L
+        matching.header("ETag") shouldBeEqualTo etag
+        outdated.code shouldBeEqualTo 200
+        outdated.body.string() shouldBeEqualTo File("src/main/assets/mock/best-offers.json").readText()
+    }
+
+    @Test
+    fun `cacheable fixtures should answer If-Modified-Since with a 304 from their Last-Modified date on`() {
+        // Given
+        val lastModified = intercept("partners").header("Last-Modified")!!
+
+        // When
+        val current = intercept("partners", headers = mapOf("If-Modified-Since" to lastModified))
+        val older = intercept("partners", headers = mapOf("If-Modified-Since" to "Thu, 01 Jan 1970 00:00:00 GMT"))
+
+        // Then
+        current.code shouldBeEqualTo 304
+        older.code shouldBeEqualTo 200
+    }
+
+    @Test
+    fun `reservations should not carry cache validators`() {
+        // When
+        val response = intercept("reservations")
+
+        // Then
+        response.header("ETag") shouldBeEqualTo null
+        response.header("Cache-Control") shouldBeEqualTo null
+    }
+
+    @Test
+    fun `reservation batch should apply every operation`() {
+        // Given
+        val batch = """{"operations":[
+            {"idempotencyKey":"k1","operation":"CREATE","reservation":{"id":"R1","flightId":"RA001","passengerName":"A","seat":"1A","status":"CONFIRMED"}},
+            {"idempotencyKey":"k2","operation":"CREATE","reservation":{"id":"R2","flightId":"RA001","passengerName":"B","seat":"1B","status":"CONFIRMED"}}
+        ]}"""
+
+        // When
+        val response = intercept("reservations/batch", body = batch)
+        val results = Json.parseToJsonElement(response.body.string()).jsonObject.getValue("results").jsonArray
+
+        // Then
+        response.code shouldBeEqualTo 200
+        results.map { it.jsonObject.getValue("idempotencyKey").jsonPrimitive.content } shouldBeEqualTo listOf("k1", "k2")
+        results.map { it.jsonObject.getValue("outcome").jsonPrimitive.content }.distinct() shouldBeEqualTo listOf("APPLIED")
+    }
+
+    private fun intercept(
+        path: String,
+        acceptEncoding: String? = null,
+        body: String? = null,
+        headers: Map<String, String> = emptyMap()
+    ): Response {
+        val request = Request.Builder()
+            .url("https://api.riyadhair.com/$path")
+            .apply { if (acceptEncoding != null) header("Accept-Encoding", acceptEncoding) }
+            .apply { headers.forEach { (name, value) -> header(name, value) } }
+            .apply { if (body != null) post(body.toRequestBody()) }
+            .build()
+        val chain = mockk<Interceptor.Chain>()
+        every { chain.request() } returns request
+        return interceptor.intercept(chain)
+    }
+
+    /**
+     * Flight numbers of a search response, with their route, in response order.
+     */
+    private fun Response.flights(): List<Triple<String, String, String>> =
+        Json.parseToJsonElement(body.string()).jsonObject.getValue("flights").jsonArray.map { flight ->
+            val json = flight.jsonObject
+            Triple(
+                json.getValue("departureAirport").jsonObject.getValue("code").jsonPrimitive.content,
+                json.getValue("arrivalAirport").jsonObject.getValue("code").jsonPrimitive.content,
+                json.getValue("flightNumber").jsonPrimitive.content
+            )
+        }
+}
@@ -56,6 +56,9 @@ dependencies {
     // Camera and ML Kit for MRZ
     implementation(libs.bundles.camera)
     implementation(libs.mlkit.text)
+
+    // Testing
+    testImplementation(libs.bundles.test)
 }
 
 // Dokka
@@ -0,0 +1,61 @@
+package fr.benchaabane.riyadhair.core.network
+
+import kotlin.time.Duration
+
+/**
+ * Freshness rules applied to a cached resource.
+ *
+ * A cached copy goes through three states as it ages, measured from the
+ * timestamp of the last successful network fetch:
+ *
+ * **Freshness States:**
+ * - **Fresh**: Younger than [timeToLive], served as is without any network call
+ * - **Stale**: Older than [timeToLive] but younger than [timeToLive] + [maxStale],
+ *   served immediately while a revalidation runs in the background
+ * - **Expired**: Older than that, or never fetched, the caller should wait for the network
+ *
+ * **Usage:**
+ * ```kotlin
+ * val offersPolicy = CachePolicy(
+ *     timeToLive = 15.minutes,
+ *     maxStale = 1.days
+ * )
+ * ```
+ *
+ * @property timeToLive How long a fetched copy is considered fresh
+ * @property maxStale How long past [timeToLive] a copy may still be served while revalidating
+ *
+ * @see StaleWhileRevalidateResource
+ */
+data class CachePolicy(
+    val timeToLive: Duration,
+    val maxStale: Duration = Duration.ZERO
+) {
+
+    /**
+     * Evaluates the freshness of a cached copy.
+     *
+     * @param fetchedAt Epoch milliseconds of the last successful fetch, or null if never fetched
+     * @param now Current epoch milliseconds
+     * @return The [Freshness] of the cached copy at [now]
+     */
+    fun freshnessOf(fetchedAt: Long?, now: Long): Freshness {
+        if (fetchedAt == null) return Freshness.EXPIRED
+        val age = now - fetchedAt
+        return when {
+            age < 0 -> Freshness.EXPIRED
+            age < timeToLive.inWholeMilliseconds -> Freshness.FRESH
+            age < (timeToLive + maxStale).inWholeMilliseconds -> Freshness.STALE
+            else -> Freshness.EXPIRED
+        }
+    }
+}
+
+/**
+ * Freshness of a cached copy as evaluated by [CachePolicy.freshnessOf].
+ */
+enum class Freshness {
+    FRESH,
+    STALE,
+    EXPIRED
+}
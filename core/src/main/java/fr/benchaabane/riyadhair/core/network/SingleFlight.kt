@@ -0,0 +1,93 @@
+package fr.benchaabane.riyadhair.core.network
+
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.CoroutineStart
+import kotlinx.coroutines.Deferred
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.async
+
+/**
+ * Keyed request coalescing for suspending calls.
+ *
+ * While a call for a given key is in flight, every other caller asking for the
+ * same key awaits the same [Deferred] instead of starting a call of its own.
+ * Once the call completes, its entry is dropped so the next caller triggers a
+ * new call; results are never cached beyond the lifetime of the call.
+ *
+ * **Cancellation:**
+ * - **Shared Call**: The call runs in [scope], detached from any single caller
+ * - **Leaving Waiter**: A cancelled caller only stops waiting, the call keeps
+ *   running for the remaining waiters
+ * - **Last Waiter**: When the last waiter leaves before completion, the call is
+ *   cancelled and forgotten
+ *
+ * **Failures:**
+ * An exception thrown by the call is rethrown to every waiter of that call.
+ *
+ * **Usage:**
+ * ```kotlin
+ * private val accountFlight = SingleFlight<Unit, Account?>()
+ *
+ * suspend fun getAccount(): Account? = accountFlight.run(Unit) {
+ *     accountService.getAccount()
+ * }
+ * ```
+ *
+ * @param K The type of the key identifying identical requests
+ * @param V The type of the value produced by a request
+ * @param scope The scope the shared calls run in
+ */
+class SingleFlight<K : Any, V>(
+    private val scope: CoroutineScope = CoroutineScope(SupervisorJob() + Dispatchers.IO)
+) {
+
+    private val calls = HashMap<K, Call<V>>()
+
+    /**
+     * Runs [block] for [key], or joins the call already in flight for [key].
+     *
+     * @param key The key identifying the request
+     * @param block The request to run if none is in flight for [key]
+     * @return The value produced by the shared call
+     */
+    suspend fun run(key: K, block: suspend () -> V): V {
+        val call = synchronized(calls) {
+            calls.getOrPut(key) {
+                val deferred = scope.async(start = CoroutineStart.LAZY) { block() }
+                Call(deferred).also { call ->
+                    deferred.invokeOnCompletion { forget(key, call) }
+                }
+            }.also { it.waiters++ }
+        }
+
+        call.deferred.start()
+        try {
+            return call.deferred.await()
+        } finally {
+            val abandoned = synchronized(calls) {
+                call.waiters--
+                (call.waiters == 0 && !call.deferred.isCompleted).also { abandoned ->
+                    if (abandoned) forget(key, call)
+                }
+            }
+            if (abandoned) call.deferred.cancel()
+        }
+    }
+
+    /**
+     * Number of calls currently in flight.
+     */
+    val inFlight: Int
+        get() = synchronized(calls) { calls.size }
+
+    private fun forget(key: K, call: Call<V>) {
+        synchronized(calls) {
+            if (calls[key] === call) calls.remove(key)
+        }
+    }
+
+    private class Call<V>(val deferred: Deferred<V>) {
+        var waiters: Int = 0
+    }
+}
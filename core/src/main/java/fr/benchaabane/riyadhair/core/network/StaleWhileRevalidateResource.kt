@@ -0,0 +1,141 @@
+package fr.benchaabane.riyadhair.core.network
+
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.channelFlow
+import kotlinx.coroutines.flow.combine
+import kotlinx.coroutines.flow.distinctUntilChanged
+import kotlinx.coroutines.launch
+
+/**
+ * A policy-driven variant of [NetworkBoundResource] implementing stale-while-revalidate.
+ *
+ * Unlike [NetworkBoundResource], which blocks on the network whenever [NetworkBoundResource.shouldFetch]
+ * returns true and queries the database twice, this resource decides based on the age of the
+ * cached copy and keeps a single database subscription for its whole lifetime.
+ *
+ * **Data Flow Strategy:**
+ * 1. **Freshness Check**: Reads the fetch timestamp stored next to the data and evaluates it
+ *    against the [CachePolicy]
+ * 2. **Immediate Emission**: Emits the cached copy right away
+ * 3. **Background Revalidation**: If the copy is stale or expired, fetches from the network
+ *    concurrently with the database subscription
+ * 4. **Persistence**: Saves the network result together with its fetch timestamp; the single
+ *    database subscription then re-emits the updated rows
+ *
+ * **Emitted States:**
+ * - **Fresh or stale copy**: [Resource.Success] with the cached data, even while revalidating
+ * - **Expired copy**: [Resource.Loading] with the cached data as a hint until the fetch completes
+ * - **Failed fetch**: [Resource.Error] with whatever the database holds
+ *
+ * @param ResultType The type of data that will be provided
+ * @param RequestType The type of data that will be fetched from the network
+ * @param policy The freshness rules for this resource
+ * @param clock Source of the current time in epoch milliseconds
+ *
+ * @sample
+ * ```kotlin
+ * val resource = object : StaleWhileRevalidateResource<List<OfferEntity>, OffersResponse>(
+ *     policy = CachePolicy(timeToLive = 15.minutes, maxStale = 1.days)
+ * ) {
+ *     override fun loadFromDb() = offerDao.observeOffers()
+ *     override suspend fun loadFetchedAt() = fetchTimestampDao.getFetchedAt("offers")
+ *     override suspend fun createCall() = offersService.getBestOffers()
+ *     override suspend fun saveCallResult(data: OffersResponse, fetchedAt: Long) { ... }
+ * }
+ * ```
+ *
+ * @see CachePolicy
+ * @see NetworkBoundResource
+ */
+abstract class StaleWhileRevalidateResource<ResultType, RequestType>(
+    private val policy: CachePolicy,
+    private val clock: () -> Long = System::currentTimeMillis
+) {
+
+    fun asFlow(): Flow<Resource<ResultType>> = channelFlow {
+        val freshness = policy.freshnessOf(loadFetchedAt(), clock())
+        val fetchState = MutableStateFlow<FetchState>(FetchState.Idle)
+
+        if (freshness != Freshness.FRESH) {
+            fetchState.value = FetchState.InFlight
+            launch {
+                fetchState.value = try {
+                    val networkResult = createCall()
+                    saveCallResult(networkResult, clock())
+                    FetchState.Done
+                } catch (exception: CancellationException) {
+                    throw exception
+                } catch (exception: Exception) {
+                    onFetchFailed(exception)
+                    FetchState.Failed(exception)
+                }
+            }
+        }
+
+        combine(loadFromDb(), fetchState) { data, state ->
+            when (state) {
+                FetchState.Idle, FetchState.Done -> Resource.Success(data)
+                FetchState.InFlight -> if (freshness == Freshness.EXPIRED) {
+                    Resource.Loading(data)
+                } else {
+                    Resource.Success(data)
+                }
+                is FetchState.Failed -> Resource.Error(state.exception.message ?: "Unknown error", data)
+            }
+        }
+            .distinctUntilChanged { old, new -> old::class == new::class && old.data == new.data }
+            .collect { send(it) }
+    }
+
+    /**
+     * Called when a background revalidation fails.
+     *
+     * @param exception The exception that caused the fetch to fail
+     */
+    protected open fun onFetchFailed(exception: Exception) {}
+
+    /**
+     * Observes the cached data.
+     *
+     * This flow is collected exactly once per [asFlow] collection and is expected
+     * to re-emit when [saveCallResult] writes new rows (e.g. a Room `Flow` query).
+     *
+     * @return Flow that emits the data from the local database
+     */
+    protected abstract fun loadFromDb(): Flow<ResultType>
+
+    /**
+     * Reads the timestamp of the last successful fetch.
+     *
+     * @return Epoch milliseconds of the last successful fetch, or null if never fetched
+     */
+    protected abstract suspend fun loadFetchedAt(): Long?
+
+    /**
+     * Fetches data from the network.
+     *
+     * @return The data fetched from the network
+     * @throws Exception if the network request fails
+     */
+    protected abstract suspend fun createCall(): RequestType
+
+    /**
+     * Saves the network response and its fetch timestamp to the local database.
+     *
+     * Implementations should write the rows and the timestamp in one transaction,
+     * so that a crash never leaves a timestamp describing rows that were not saved.
+     *
+     * @param data The data received from the network to be saved locally
+     * @param fetchedAt Epoch milliseconds at which [data] was fetched
+     */
+    protected abstract suspend fun saveCallResult(data: RequestType, fetchedAt: Long)
+
+    private sealed interface FetchState {
+        data object Idle : FetchState
+        data object InFlight : FetchState
+        data object Done : FetchState
+        data class Failed(val exception: Exception) : FetchState
+    }
+}
@@ -0,0 +1,105 @@
+package fr.benchaabane.riyadhair.core.network
+
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.async
+import kotlinx.coroutines.test.advanceUntilIdle
+import kotlinx.coroutines.test.runTest
+import org.amshove.kluent.shouldBeEqualTo
+import org.junit.Test
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class SingleFlightTest {
+
+    @Test
+    fun `concurrent callers with the same key should share one call`() = runTest {
+        // Given
+        val singleFlight = SingleFlight<String, Int>(backgroundScope)
+        val gate = CompletableDeferred<Unit>()
+        var calls = 0
+
+        // When
+        val results = List(3) {
+            async {
+                singleFlight.run("account") {
+                    calls++
+                    gate.await()
+                    42
+                }
+            }
+        }
+        advanceUntilIdle()
+        gate.complete(Unit)
+
+        // Then
+        results.map { it.await() } shouldBeEqualTo listOf(42, 42, 42)
+        calls shouldBeEqualTo 1
+        singleFlight.inFlight shouldBeEqualTo 0
+    }
+
+    @Test
+    fun `callers with different keys should not share calls`() = runTest {
+        // Given
+        val singleFlight = SingleFlight<String, String>(backgroundScope)
+
+        // When
+        val first = async { singleFlight.run("CDG-JFK") { "CDG-JFK" } }
+        val second = async { singleFlight.run("RUH-LHR") { "RUH-LHR" } }
+
+        // Then
+        first.await() shouldBeEqualTo "CDG-JFK"
+        second.await() shouldBeEqualTo "RUH-LHR"
+    }
+
+    @Test
+    fun `call should keep running while at least one waiter remains`() = runTest {
+        // Given
+        val singleFlight = SingleFlight<String, Int>(backgroundScope)
+        val gate = CompletableDeferred<Unit>()
+        val leaving = async { singleFlight.run("offers") { gate.await(); 1 } }
+        val staying = async { singleFlight.run("offers") { gate.await(); 2 } }
+        advanceUntilIdle()
+
+        // When
+        leaving.cancel()
+        advanceUntilIdle()
+        gate.complete(Unit)
+
+        // Then
+        staying.await() shouldBeEqualTo 1
+    }
+
+    @Test
+    fun `call should be cancelled when the last waiter leaves`() = runTest {
+        // Given
+        val singleFlight = SingleFlight<String, Int>(backgroundScope)
+        val gate = CompletableDeferred<Unit>()
+        var completed = false
+        val waiter = async { singleFlight.run("partners") { gate.await(); completed = true; 1 } }
+        advanceUntilIdle()
+
+        // When
+        waiter.cancel()
+        advanceUntilIdle()
+        gate.complete(Unit)
+        advanceUntilIdle()
+
+        // Then
+        completed shouldBeEqualTo false
+        singleFlight.inFlight shouldBeEqualTo 0
+    }
+
+    @Test
+    fun `next caller should start a new call once the previous one completed`() = runTest {
+        // Given
+        val singleFlight = SingleFlight<String, Int>(backgroundScope)
+        var calls = 0
+
+        // When
+        singleFlight.run("account") { ++calls }
+        val second = singleFlight.run("account") { ++calls }
+
+        // Then
+        second shouldBeEqualTo 2
+    }
+}
@@ -0,0 +1,118 @@
+package fr.benchaabane.riyadhair.core.network
+
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.advanceUntilIdle
+import kotlinx.coroutines.test.runTest
+import org.amshove.kluent.shouldBeEqualTo
+import org.junit.Test
+import java.io.IOException
+import kotlin.time.Duration.Companion.days
+import kotlin.time.Duration.Companion.minutes
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class StaleWhileRevalidateResourceTest {
+
+    private val now = 10.days.inWholeMilliseconds
+    private val database = MutableStateFlow(listOf("cached"))
+    private val response = CompletableDeferred<List<String>>()
+    private var calls = 0
+    private var savedAt: Long? = null
+
+    @Test
+    fun `fresh copies should be emitted without calling the network`() = runTest {
+        // Given
+        val resource = resource(fetchedAt = now - 1.minutes.inWholeMilliseconds)
+
+        // When
+        val emissions = collect(resource)
+
+        // Then
+        emissions.states() shouldBeEqualTo listOf("Success" to listOf("cached"))
+        calls shouldBeEqualTo 0
+    }
+
+    @Test
+    fun `stale copies should be emitted as successes while revalidating`() = runTest {
+        // Given
+        val resource = resource(fetchedAt = now - 20.minutes.inWholeMilliseconds)
+
+        // When
+        val emissions = collect(resource)
+        response.complete(listOf("fresh"))
+        advanceUntilIdle()
+
+        // Then
+        emissions.states() shouldBeEqualTo listOf("Success" to listOf("cached"), "Success" to listOf("fresh"))
+        calls shouldBeEqualTo 1
+        savedAt shouldBeEqualTo now
+    }
+
+    @Test
+    fun `expired copies should be emitted as loading until the fetch completes`() = runTest {
+        // Given
+        val resource = resource(fetchedAt = null)
+
+        // When
+        val emissions = collect(resource)
+        response.complete(listOf("fresh"))
+        advanceUntilIdle()
+
+        // Then
+        emissions.states().first() shouldBeEqualTo ("Loading" to listOf("cached"))
+        emissions.states().last() shouldBeEqualTo ("Success" to listOf("fresh"))
+    }
+
+    @Test
+    fun `failed fetches should emit an error with the cached copy`() = runTest {
+        // Given
+        val resource = resource(fetchedAt = null)
+
+        // When
+        val emissions = collect(resource)
+        response.completeExceptionally(IOException("offline"))
+        advanceUntilIdle()
+
+        // Then
+        emissions.states() shouldBeEqualTo listOf("Loading" to listOf("cached"), "Error" to listOf("cached"))
+        savedAt shouldBeEqualTo null
+    }
+
+    private fun TestScope.collect(
+        resource: StaleWhileRevalidateResource<List<String>, List<String>>
+    ): List<Resource<List<String>>> {
+        val emissions = mutableListOf<Resource<List<String>>>()
+        backgroundScope.launch(UnconfinedTestDispatcher(testScheduler)) { resource.asFlow().toList(emissions) }
+        advanceUntilIdle()
+        return emissions
+    }
+
+    /**
+     * The emitted (state, data) pairs, as [Resource] has no structural equality.
+     */
+    private fun List<Resource<List<String>>>.states() = map { it::class.simpleName to it.data }
+
+    private fun resource(fetchedAt: Long?) = object : StaleWhileRevalidateResource<List<String>, List<String>>(
+        policy = CachePolicy(timeToLive = 15.minutes, maxStale = 1.days),
+        clock = { now }
+    ) {
+        override fun loadFromDb() = database
+
+        override suspend fun loadFetchedAt() = fetchedAt
+
+        override suspend fun createCall(): List<String> {
+            calls++
+            return response.await()
+        }
+
+        override suspend fun saveCallResult(data: List<String>, fetchedAt: Long) {
+            database.value = data
+            savedAt = fetchedAt
+        }
+    }
+}
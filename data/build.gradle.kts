@@ -24,6 +24,13 @@ android {
         targetCompatibility = JavaVersion.VERSION_17
     }
     kotlinOptions { jvmTarget = "17" }
+
+    testOptions {
+        unitTests.all { test ->
+            // The load test has its own task, see loadTest below
+            test.exclude("**/loadtest/**")
+        }
+    }
     
     configurations.all {
         exclude(group = "com.intellij", module = "annotations")
@@ -49,6 +56,24 @@ android {
     }
 }
 
+// DataLayerLoadTest, kept out of the unit test suite: ./gradlew :data:loadTest
+tasks.register<Test>("loadTest") {
+    description = "Runs the data layer load test against a synthetic backend."
+    group = LifecycleBasePlugin.VERIFICATION_GROUP
+
+    val unitTests = tasks.named<Test>("testDebugUnitTest").get()
+    dependsOn(unitTests.dependsOn)
+    testClassesDirs = unitTests.testClassesDirs
+    classpath = unitTests.classpath
+    include("**/loadtest/**")
+
+    // Size of the dataset, e.g. -Ploadtest.flights=1000000
+    systemProperty("loadtest.flights", project.findProperty("loadtest.flights") ?: "1000")
+    project.findProperty("loadtest.fixturesDir")?.let { systemProperty("loadtest.fixturesDir", it) }
+    maxHeapSize = "2g"
+    outputs.upToDateWhen { false }
+}
+
 // JaCoCo configuration
 tasks.register<JacocoReport>("jacocoTestReport") {
     dependsOn("testDebugUnitTest")
@@ -97,9 +122,15 @@ dependencies {
 
     implementation(libs.bundles.hilt)
     ksp(libs.hilt.compiler)
+
+    // Background sync
+    implementation(libs.work.runtime.ktx)
+    implementation(libs.hilt.work)
+    ksp(libs.hilt.androidx.compiler)
     
     // Testing
     testImplementation(libs.bundles.test)
+    testImplementation(libs.okhttp.mockwebserver)
 }
 
 // Dokka
@@ -2,6 +2,7 @@ package fr.benchaabane.riyadhair.data.account.repositories
 
 import fr.benchaabane.riyadhair.core.extensions.recoverSuspendCatching
 import fr.benchaabane.riyadhair.core.extensions.runSuspendCatching
+import fr.benchaabane.riyadhair.core.network.SingleFlight
 import fr.benchaabane.riyadhair.data.account.api.AccountService
 import fr.benchaabane.riyadhair.data.account.dao.AccountDao
 import fr.benchaabane.riyadhair.data.account.mappers.toDomain
@@ -9,6 +10,7 @@ import fr.benchaabane.riyadhair.data.account.mappers.toEntity
 import fr.benchaabane.riyadhair.domain.account.models.Account
 import fr.benchaabane.riyadhair.domain.account.repositories.AccountRepository
 import javax.inject.Inject
+import javax.inject.Singleton
 import kotlin.contracts.ExperimentalContracts
 
 /**
@@ -33,18 +35,26 @@ import kotlin.contracts.ExperimentalContracts
  * **Threading:**
  * All methods are suspending functions designed to be called from
  * coroutines in the appropriate dispatcher context.
+ * Concurrent account requests share a single in-flight call through
+ * [SingleFlight], which is why the repository is scoped as a singleton.
  *
  * @see AccountRepository
  * @see AccountService
  * @see AccountDao
  * @see Account
  */
+@Singleton
 @OptIn(ExperimentalContracts::class)
 class AccountRepositoryImpl @Inject constructor(
     private val accountDao: AccountDao,
     private val accountService: AccountService
 ) : AccountRepository {
 
+    /**
+     * Coalesces concurrent [getAccount] calls into a single fetch.
+     */
+    private val accountFlight = SingleFlight<Unit, Account?>()
+
     /**
      * Retrieves the current user's account information.
      *
@@ -74,12 +84,14 @@ class AccountRepositoryImpl @Inject constructor(
      */
     override suspend fun getAccount(): Result<Account?> {
         return runSuspendCatching {
-            val accountDto = accountService.getAccount()
-            if (accountDto == null) {
-                accountDao.getAccount()?.toDomain()
-            } else {
-                accountDao.upsertAccount(accountDto.toEntity())
-                accountDao.getAccount()?.toDomain()
+            accountFlight.run(Unit) {
+                val accountDto = accountService.getAccount()
+                if (accountDto == null) {
+                    accountDao.getAccount()?.toDomain()
+                } else {
+                    accountDao.upsertAccount(accountDto.toEntity())
+                    accountDao.getAccount()?.toDomain()
+                }
             }
         }.recoverSuspendCatching { null }
     }
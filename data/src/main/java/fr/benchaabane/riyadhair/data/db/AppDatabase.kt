@@ -6,12 +6,19 @@ import androidx.room.migration.Migration
 import androidx.sqlite.db.SupportSQLiteDatabase
 import fr.benchaabane.riyadhair.data.account.dao.AccountDao
 import fr.benchaabane.riyadhair.data.account.dao.AccountEntity
+import fr.benchaabane.riyadhair.data.flights.dao.FareCalendarDao
+import fr.benchaabane.riyadhair.data.flights.dao.FareCalendarEntity
+import fr.benchaabane.riyadhair.data.flights.dao.FlightDao
+import fr.benchaabane.riyadhair.data.flights.dao.FlightEntity
+import fr.benchaabane.riyadhair.data.flights.dao.FlightRemoteKeyEntity
 import fr.benchaabane.riyadhair.data.offers.dao.OfferDao
 import fr.benchaabane.riyadhair.data.offers.dao.OfferEntity
 import fr.benchaabane.riyadhair.data.partners.dao.PartnerDao
 import fr.benchaabane.riyadhair.data.partners.dao.PartnerEntity
 import fr.benchaabane.riyadhair.data.reservations.dao.ReservationDao
 import fr.benchaabane.riyadhair.data.reservations.dao.ReservationEntity
+import fr.benchaabane.riyadhair.data.reservations.dao.ReservationOutboxDao
+import fr.benchaabane.riyadhair.data.reservations.dao.ReservationOutboxEntity
 
 /**
  * Main database class for the RiyadhAir application.
@@ -22,8 +29,9 @@ import fr.benchaabane.riyadhair.data.reservations.dao.ReservationEntity
  * network connectivity is limited.
  *
  * **Database Features:**
- * - **Version**: 3 (supports migration from version 2)
- * - **Entities**: Reservations, Accounts, Offers, Partners
+ * - **Version**: 11 (supports migration from version 2)
+ * - **Entities**: Reservations, Accounts, Offers, Partners, Fetch timestamps, Flights, Flight remote keys,
+ *   Fare calendar days, Reservation outbox, Sync cursors
  * - **Migration Support**: Automatic schema updates with data preservation
  * - **Offline Capability**: Local storage for all core business data
  *
@@ -36,10 +44,27 @@ import fr.benchaabane.riyadhair.data.reservations.dao.ReservationEntity
  * @see AccountEntity
  * @see OfferEntity
  * @see PartnerEntity
+ * @see FetchTimestampEntity
+ * @see FlightEntity
+ * @see FlightRemoteKeyEntity
+ * @see FareCalendarEntity
+ * @see ReservationOutboxEntity
+ * @see SyncCursorEntity
  */
 @Database(
-    entities = [ReservationEntity::class, AccountEntity::class, OfferEntity::class, PartnerEntity::class],
-    version = 3,
+    entities = [
+        ReservationEntity::class,
+        AccountEntity::class,
+        OfferEntity::class,
+        PartnerEntity::class,
+        FetchTimestampEntity::class,
+        FlightEntity::class,
+        FlightRemoteKeyEntity::class,
+        FareCalendarEntity::class,
+        ReservationOutboxEntity::class,
+        SyncCursorEntity::class
+    ],
+    version = 11,
     exportSchema = false
 )
 abstract class AppDatabase : RoomDatabase() {
@@ -71,6 +96,34 @@ abstract class AppDatabase : RoomDatabase() {
      */
     abstract fun partnerDao(): PartnerDao
 
+    /**
+     * Provides access to the fetch timestamps of cached resources.
+     *
+     * @return FetchTimestampDao instance for managing fetch timestamp entities
+     */
+    abstract fun fetchTimestampDao(): FetchTimestampDao
+
+    /**
+     * Provides access to the flight cache and its remote keys.
+     *
+     * @return FlightDao instance for managing flight entities
+     */
+    abstract fun flightDao(): FlightDao
+
+    /**
+     * Provides access to the per-day minimum fares of the fare calendar.
+     *
+     * @return FareCalendarDao instance for managing fare calendar entities
+     */
+    abstract fun fareCalendarDao(): FareCalendarDao
+
+    /**
+     * Provides access to the reservation changes waiting to be sent.
+     *
+     * @return ReservationOutboxDao instance for managing outbox entities
+     */
+    abstract fun reservationOutboxDao(): ReservationOutboxDao
+
     companion object {
         /**
          * Database name used for Room database creation.
@@ -131,5 +184,301 @@ abstract class AppDatabase : RoomDatabase() {
                 )
             }
         }
+
+        /**
+         * Migration from database version 3 to version 4.
+         *
+         * This migration adds the fetch timestamps table used by the
+         * stale-while-revalidate caching of offers and partners.
+         *
+         * **Migration Details:**
+         * - **From Version**: 3
+         * - **To Version**: 4
+         * - **New Table**: `fetch_timestamps`
+         * - **Data Preservation**: All existing data is preserved; cached resources
+         *   without a timestamp are treated as expired and refreshed on next read
+         *
+         * @see Migration
+         */
+        val MIGRATION_3_4 = object : Migration(3, 4) {
+            override fun migrate(db: SupportSQLiteDatabase) {
+                db.execSQL(
+                    """
+                    CREATE TABLE IF NOT EXISTS `fetch_timestamps` (
+                        `resourceKey` TEXT NOT NULL,
+                        `fetchedAt` INTEGER NOT NULL,
+                        PRIMARY KEY(`resourceKey`)
+                    )
+                """.trimIndent()
+                )
+            }
+        }
+
+        /**
+         * Migration from database version 4 to version 5.
+         *
+         * This migration adds the offline flight cache paged by
+         * `FlightRemoteMediator`: the flights table with its route index,
+         * and the per-route remote keys table.
+         *
+         * **Migration Details:**
+         * - **From Version**: 4
+         * - **To Version**: 5
+         * - **New Tables**: `flights`, `flight_remote_keys`
+         * - **New Index**: `index_flights_origin_destination_departureTime`
+         * - **Data Preservation**: All existing data is preserved
+         *
+         * @see Migration
+         */
+        val MIGRATION_4_5 = object : Migration(4, 5) {
+            override fun migrate(db: SupportSQLiteDatabase) {
+                db.execSQL(
+                    """
+                    CREATE TABLE IF NOT EXISTS `flights` (
+                        `id` TEXT NOT NULL,
+                        `flightNumber` TEXT NOT NULL,
+                        `airline` TEXT NOT NULL,
+                        `origin` TEXT NOT NULL,
+                        `originName` TEXT NOT NULL,
+                        `originCity` TEXT NOT NULL,
+                        `originCountry` TEXT NOT NULL,
+                        `originTimezone` TEXT NOT NULL,
+                        `destination` TEXT NOT NULL,
+                        `destinationName` TEXT NOT NULL,
+                        `destinationCity` TEXT NOT NULL,
+                        `destinationCountry` TEXT NOT NULL,
+                        `destinationTimezone` TEXT NOT NULL,
+                        `departureTime` INTEGER NOT NULL,
+                        `arrivalTime` INTEGER NOT NULL,
+                        `duration` TEXT NOT NULL,
+                        `price` REAL NOT NULL,
+                        `cabinClass` TEXT NOT NULL,
+                        `availableSeats` INTEGER NOT NULL,
+                        `aircraft` TEXT NOT NULL,
+                        PRIMARY KEY(`id`)
+                    )
+                """.trimIndent()
+                )
+                db.execSQL(
+                    """
+                    CREATE INDEX IF NOT EXISTS `index_flights_origin_destination_departureTime`
+                    ON `flights` (`origin`, `destination`, `departureTime`)
+                """.trimIndent()
+                )
+                db.execSQL(
+                    """
+                    CREATE TABLE IF NOT EXISTS `flight_remote_keys` (
+                        `routeKey` TEXT NOT NULL,
+                        `nextPage` INTEGER,
+                        `lastUpdated` INTEGER NOT NULL,
+                        PRIMARY KEY(`routeKey`)
+                    )
+                """.trimIndent()
+                )
+            }
+        }
+
+        /**
+         * Migration from database version 5 to version 6.
+         *
+         * This migration adds the fare calendar cache: the minimum fare of
+         * a route for each departure day, keyed by route and epoch day.
+         *
+         * **Migration Details:**
+         * - **From Version**: 5
+         * - **To Version**: 6
+         * - **New Table**: `fare_calendar`
+         * - **Data Preservation**: All existing data is preserved
+         *
+         * @see Migration
+         */
+        val MIGRATION_5_6 = object : Migration(5, 6) {
+            override fun migrate(db: SupportSQLiteDatabase) {
+                db.execSQL(
+                    """
+                    CREATE TABLE IF NOT EXISTS `fare_calendar` (
+                        `origin` TEXT NOT NULL,
+                        `destination` TEXT NOT NULL,
+                        `date` INTEGER NOT NULL,
+                        `minPrice` REAL,
+                        `fetchedAt` INTEGER NOT NULL,
+                        PRIMARY KEY(`origin`, `destination`, `date`)
+                    )
+                """.trimIndent()
+                )
+            }
+        }
+
+        /**
+         * Migration from database version 6 to version 7.
+         *
+         * This migration adds the reservation outbox: the bookings committed
+         * locally and waiting to be sent by the reservation sync worker.
+         *
+         * **Migration Details:**
+         * - **From Version**: 6
+         * - **To Version**: 7
+         * - **New Table**: `reservation_outbox`
+         * - **New Index**: `index_reservation_outbox_nextAttemptAt`
+         * - **Data Preservation**: All existing data is preserved; reservations
+         *   saved before the outbox are not queued
+         *
+         * @see Migration
+         */
+        val MIGRATION_6_7 = object : Migration(6, 7) {
+            override fun migrate(db: SupportSQLiteDatabase) {
+                db.execSQL(
+                    """
+                    CREATE TABLE IF NOT EXISTS `reservation_outbox` (
+                        `idempotencyKey` TEXT NOT NULL,
+                        `operation` TEXT NOT NULL,
+                        `reservationId` TEXT NOT NULL,
+                        `createdAt` INTEGER NOT NULL,
+                        `attempts` INTEGER NOT NULL,
+                        `nextAttemptAt` INTEGER NOT NULL,
+                        `lastError` TEXT,
+                        PRIMARY KEY(`idempotencyKey`)
+                    )
+                """.trimIndent()
+                )
+                db.execSQL(
+                    """
+                    CREATE INDEX IF NOT EXISTS `index_reservation_outbox_nextAttemptAt`
+                    ON `reservation_outbox` (`nextAttemptAt`)
+                """.trimIndent()
+                )
+            }
+        }
+
+        /**
+         * Migration from database version 7 to version 8.
+         *
+         * This migration adds the sync cursors table, from which the
+         * incremental reservation sync resumes.
+         *
+         * **Migration Details:**
+         * - **From Version**: 7
+         * - **To Version**: 8
+         * - **New Table**: `sync_cursors`
+         * - **Data Preservation**: All existing data is preserved; the first
+         *   sync without a cursor downloads the full reservation list
+         *
+         * @see Migration
+         */
+        val MIGRATION_7_8 = object : Migration(7, 8) {
+            override fun migrate(db: SupportSQLiteDatabase) {
+                db.execSQL(
+                    """
+                    CREATE TABLE IF NOT EXISTS `sync_cursors` (
+                        `resourceKey` TEXT NOT NULL,
+                        `cursor` TEXT NOT NULL,
+                        PRIMARY KEY(`resourceKey`)
+                    )
+                """.trimIndent()
+                )
+            }
+        }
+
+        /**
+         * Migration from database version 8 to version 9.
+         *
+         * This migration adds the travel date of reservations and the index
+         * paging the reservation history tabs.
+         *
+         * **Migration Details:**
+         * - **From Version**: 8
+         * - **To Version**: 9
+         * - **New Column**: `reservations.departureTime`
+         * - **New Index**: `index_reservations_status_departureTime`
+         * - **Data Preservation**: All existing data is preserved; the
+         *   reservation sync cursor is reset so that the next sync downloads
+         *   the travel dates of the reservations already stored
+         *
+         * @see Migration
+         */
+        val MIGRATION_8_9 = object : Migration(8, 9) {
+            override fun migrate(db: SupportSQLiteDatabase) {
+                db.execSQL("ALTER TABLE `reservations` ADD COLUMN `departureTime` INTEGER")
+                db.execSQL(
+                    """
+                    CREATE INDEX IF NOT EXISTS `index_reservations_status_departureTime`
+                    ON `reservations` (`status`, `departureTime`)
+                """.trimIndent()
+                )
+                db.execSQL("DELETE FROM `sync_cursors` WHERE `resourceKey` = 'reservations'")
+            }
+        }
+
+        /**
+         * Migration from database version 9 to version 10.
+         *
+         * This migration adds the flight snapshot embedded in reservations,
+         * so that the reservation list shows route, times and aircraft
+         * without looking up each flight.
+         *
+         * **Migration Details:**
+         * - **From Version**: 9
+         * - **To Version**: 10
+         * - **New Columns**: `reservations.flight_*`, nullable
+         * - **Data Preservation**: All existing data is preserved; the
+         *   reservation sync cursor is reset so that the next sync downloads
+         *   the flights of the reservations already stored
+         *
+         * @see Migration
+         */
+        val MIGRATION_9_10 = object : Migration(9, 10) {
+            override fun migrate(db: SupportSQLiteDatabase) {
+                listOf(
+                    "flightNumber" to "TEXT",
+                    "airline" to "TEXT",
+                    "origin" to "TEXT",
+                    "originCity" to "TEXT",
+                    "destination" to "TEXT",
+                    "destinationCity" to "TEXT",
+                    "arrivalTime" to "INTEGER",
+                    "duration" to "TEXT",
+                    "aircraft" to "TEXT"
+                ).forEach { (column, type) ->
+                    db.execSQL("ALTER TABLE `reservations` ADD COLUMN `flight_$column` $type")
+                }
+                db.execSQL("DELETE FROM `sync_cursors` WHERE `resourceKey` = 'reservations'")
+            }
+        }
+
+        /**
+         * Migration from database version 10 to version 11.
+         *
+         * This migration adds the content hashes diffed by the offers and
+         * partners refreshes, and the indexes behind their read queries.
+         *
+         * **Migration Details:**
+         * - **From Version**: 10
+         * - **To Version**: 11
+         * - **New Columns**: `offers.contentHash`, `partners.contentHash`
+         * - **New Indexes**: `index_offers_discountPercentage`,
+         *   `index_partners_isActive_name`
+         * - **Data Preservation**: All existing data is preserved; stored rows
+         *   get a zero hash, so the first refresh rewrites them once
+         *
+         * @see Migration
+         */
+        val MIGRATION_10_11 = object : Migration(10, 11) {
+            override fun migrate(db: SupportSQLiteDatabase) {
+                db.execSQL("ALTER TABLE `offers` ADD COLUMN `contentHash` INTEGER NOT NULL DEFAULT 0")
+                db.execSQL("ALTER TABLE `partners` ADD COLUMN `contentHash` INTEGER NOT NULL DEFAULT 0")
+                db.execSQL(
+                    """
+                    CREATE INDEX IF NOT EXISTS `index_offers_discountPercentage`
+                    ON `offers` (`discountPercentage`)
+                """.trimIndent()
+                )
+                db.execSQL(
+                    """
+                    CREATE INDEX IF NOT EXISTS `index_partners_isActive_name`
+                    ON `partners` (`isActive`, `name`)
+                """.trimIndent()
+                )
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,43 @@
+package fr.benchaabane.riyadhair.data.db
+
+import androidx.room.Dao
+import androidx.room.Query
+import androidx.room.Upsert
+
+/**
+ * Data Access Object for the fetch timestamps of cached resources.
+ *
+ * **Supported Operations:**
+ * - **Read**: Retrieve the last fetch time of a resource
+ * - **Write**: Record a successful fetch
+ * - **Delete**: Forget a resource, forcing the next read to hit the network
+ *
+ * @see FetchTimestampEntity
+ */
+@Dao
+interface FetchTimestampDao {
+    /**
+     * Retrieves the last fetch time of a resource.
+     *
+     * @param resourceKey Stable identifier of the cached resource
+     * @return Epoch milliseconds of the last successful fetch, or null if never fetched
+     */
+    @Query("SELECT fetchedAt FROM fetch_timestamps WHERE resourceKey = :resourceKey")
+    suspend fun getFetchedAt(resourceKey: String): Long?
+
+    /**
+     * Records a successful fetch of a resource.
+     *
+     * @param timestamp The resource key and its fetch time
+     */
+    @Upsert
+    suspend fun upsert(timestamp: FetchTimestampEntity)
+
+    /**
+     * Forgets the fetch time of a resource.
+     *
+     * @param resourceKey Stable identifier of the cached resource
+     */
+    @Query("DELETE FROM fetch_timestamps WHERE resourceKey = :resourceKey")
+    suspend fun delete(resourceKey: String)
+}
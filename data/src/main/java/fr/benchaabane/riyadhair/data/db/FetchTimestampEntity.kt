@@ -0,0 +1,26 @@
+package fr.benchaabane.riyadhair.data.db
+
+import androidx.room.Entity
+import androidx.room.PrimaryKey
+
+/**
+ * Database entity recording when a cached resource was last fetched from the network.
+ *
+ * Cached tables such as `offers` and `partners` are replaced as a whole on every
+ * successful fetch, so a single timestamp per resource is enough to evaluate their
+ * freshness against a [fr.benchaabane.riyadhair.core.network.CachePolicy].
+ *
+ * **Database Structure:**
+ * - **Table Name**: `fetch_timestamps`
+ * - **Primary Key**: `resourceKey` (String)
+ *
+ * @property resourceKey Stable identifier of the cached resource (e.g. "offers/best")
+ * @property fetchedAt Epoch milliseconds of the last successful fetch
+ *
+ * @see FetchTimestampDao
+ */
+@Entity(tableName = "fetch_timestamps")
+data class FetchTimestampEntity(
+    @PrimaryKey val resourceKey: String,
+    val fetchedAt: Long
+)
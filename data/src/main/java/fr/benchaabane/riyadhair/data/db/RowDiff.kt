@@ -0,0 +1,94 @@
+package fr.benchaabane.riyadhair.data.db
+
+/**
+ * Identifier and content hash of a stored row, read without the rest of its columns.
+ *
+ * @property id Primary key of the row
+ * @property contentHash Hash of the row's content, see [contentHashOf]
+ */
+data class RowVersion(
+    val id: String,
+    val contentHash: Long
+)
+
+/**
+ * Writes needed to turn a cached table into the latest server list.
+ *
+ * Computed by comparing the incoming rows to the stored [RowVersion]s by
+ * id and content hash, so that a refresh only writes what changed: an
+ * unchanged payload yields an empty diff, no statement, and therefore no
+ * Room invalidation and no UI update.
+ *
+ * **Diff Rules:**
+ * - **Upsert**: Incoming rows that are not stored, or stored with another hash
+ * - **Delete**: Stored rows absent from the incoming list
+ * - **Skip**: Incoming rows stored with the same hash
+ *
+ * @property upserts Rows to insert or update
+ * @property deletedIds Identifiers of the rows to delete
+ */
+class RowDiff<T>(
+    val upserts: List<T>,
+    val deletedIds: List<String>
+) {
+    /** Whether the table is already up to date. */
+    val isEmpty: Boolean get() = upserts.isEmpty() && deletedIds.isEmpty()
+
+    companion object {
+        /**
+         * Maximum number of identifiers bound in one `IN (...)` clause, below
+         * SQLite's 999 variables limit on older Android versions.
+         */
+        const val MAX_BOUND_IDS = 900
+
+        /**
+         * Computes the writes from [stored] to [incoming].
+         *
+         * @param stored Versions of the rows currently stored
+         * @param incoming The complete new list; on duplicate ids, the last row wins
+         * @param id Primary key of an incoming row
+         * @param contentHash Content hash of an incoming row
+         * @return The rows to upsert, in incoming order, and the ids to delete
+         */
+        fun <T> compute(
+            stored: List<RowVersion>,
+            incoming: List<T>,
+            id: (T) -> String,
+            contentHash: (T) -> Long
+        ): RowDiff<T> {
+            val storedHashes = HashMap<String, Long>(stored.size * 2)
+            stored.forEach { storedHashes[it.id] = it.contentHash }
+            val latest = LinkedHashMap<String, T>(incoming.size * 2)
+            incoming.forEach { latest[id(it)] = it }
+            return RowDiff(
+                upserts = latest.values.filter { storedHashes[id(it)] != contentHash(it) },
+                deletedIds = stored.map { it.id }.filter { it !in latest }
+            )
+        }
+    }
+}
+
+/**
+ * Stable 64-bit hash of a row's content, stored with the row to diff refreshes.
+ *
+ * FNV-1a over each field's string form, fields being separated so that
+ * ("ab", "c") and ("a", "bc") differ. Unlike [Any.hashCode], 64 bits make a
+ * collision, which would hide an update, negligible.
+ *
+ * @param fields The row's columns, except its content hash
+ * @return The content hash
+ */
+fun contentHashOf(vararg fields: Any?): Long {
+    var hash = FNV_OFFSET_BASIS
+    fields.forEach { field ->
+        field.toString().forEach { char ->
+            hash = (hash xor char.code.toLong()) * FNV_PRIME
+        }
+        hash = (hash xor FIELD_SEPARATOR) * FNV_PRIME
+    }
+    return hash
+}
+
+private const val FNV_OFFSET_BASIS = -0x340d631b7bdddcdbL
+private const val FNV_PRIME = 0x100000001b3L
+private const val FIELD_SEPARATOR = 0x1FL
@@ -0,0 +1,27 @@
+package fr.benchaabane.riyadhair.data.db
+
+import androidx.room.Entity
+import androidx.room.PrimaryKey
+
+/**
+ * Database entity recording how far a resource has been synced incrementally.
+ *
+ * Incremental endpoints return the changes made after a `since` cursor,
+ * along with the cursor to send next time. The cursor is opaque to the
+ * app: it is stored as received, in the same transaction as the changes
+ * it covers, so a sync interrupted at any point resumes where it stopped.
+ *
+ * **Database Structure:**
+ * - **Table Name**: `sync_cursors`
+ * - **Primary Key**: `resourceKey` (String)
+ *
+ * @property resourceKey Stable identifier of the synced resource (e.g. "reservations")
+ * @property cursor Cursor returned by the last applied sync
+ *
+ * @see fr.benchaabane.riyadhair.data.reservations.dao.ReservationDao
+ */
+@Entity(tableName = "sync_cursors")
+data class SyncCursorEntity(
+    @PrimaryKey val resourceKey: String,
+    val cursor: String
+)
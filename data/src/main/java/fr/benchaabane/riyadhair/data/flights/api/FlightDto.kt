@@ -25,13 +25,15 @@ import kotlinx.serialization.Serializable
  * **Serialization:**
  * Uses Kotlinx Serialization for JSON parsing from API responses.
  * All fields are required to ensure complete flight data.
+ * Times are decoded by [IsoInstantSerializer] into epoch seconds (UTC) while
+ * the JSON is read, so mappers never parse date strings.
  *
  * @property id Unique identifier for the flight
  * @property flightNumber Flight number (e.g., "SA123")
  * @property departureAirport Origin airport information
  * @property arrivalAirport Destination airport information
- * @property departureTime Scheduled departure time (ISO 8601 format)
- * @property arrivalTime Scheduled arrival time (ISO 8601 format)
+ * @property departureTime Scheduled departure time in epoch seconds, sent as ISO 8601
+ * @property arrivalTime Scheduled arrival time in epoch seconds, sent as ISO 8601
  * @property price Base price for the flight
  * @property cabinClass Available cabin classes (e.g., "economy", "business", "first")
  * @property aircraft Aircraft type for this flight
@@ -47,8 +49,10 @@ data class FlightDto(
     val departureAirport: AirportDto,
     val arrivalAirport: AirportDto,
     val airline: String?,
-    val departureTime: String?,
-    val arrivalTime: String?,
+    @Serializable(with = IsoInstantSerializer::class)
+    val departureTime: Long?,
+    @Serializable(with = IsoInstantSerializer::class)
+    val arrivalTime: Long?,
     val duration: String?,
     val price: Double?,
     val cabinClass: String?,
@@ -128,3 +132,35 @@ data class AirportDto(
 data class FlightsResponse(
     val flights: List<FlightDto>
 )
+
+/**
+ * Data Transfer Object for the seats left on one flight.
+ *
+ * Returned by the availability endpoint, which only carries what changes
+ * between two searches, so cached search results can be revalidated for
+ * a fraction of the cost of a new search.
+ *
+ * @property id Unique identifier of the flight (e.g., "RA001")
+ * @property availableSeats Seats still available for booking
+ *
+ * @see AvailabilityResponse
+ */
+@Serializable
+data class SeatAvailabilityDto(
+    val id: String,
+    val availableSeats: Int
+)
+
+/**
+ * Data Transfer Object for the availability response from the API.
+ *
+ * Flights that are no longer sold are absent from the response.
+ *
+ * @property availability Seats left on each requested flight still on sale
+ *
+ * @see SeatAvailabilityDto
+ */
+@Serializable
+data class AvailabilityResponse(
+    val availability: List<SeatAvailabilityDto>
+)
@@ -0,0 +1,45 @@
+package fr.benchaabane.riyadhair.data.flights.api
+
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flow
+import java.time.LocalDate
+
+/**
+ * Flights requested per search page, the most the backend serves at once.
+ */
+const val SEARCH_PAGE_SIZE = 100
+
+/**
+ * Streams every flight of a search, page after page.
+ *
+ * The search is requested [SEARCH_PAGE_SIZE] flights at a time until a page
+ * comes back short; the next page is only requested once every flight of
+ * the previous one has been emitted. Each body is decoded element by
+ * element by [decoder] and closed when its page completes, fails or is
+ * cancelled, e.g. when a collector stops early with `take`, in which case
+ * no further page is requested.
+ *
+ * @param decoder Decoder of the search bodies
+ * @param origin The departure airport code (e.g., "RUH")
+ * @param destination The arrival airport code (e.g., "JED")
+ * @param date Departure day to restrict the search to, or null for the whole route
+ * @return Cold flow of the search's flights, in response order
+ */
+fun FlightService.streamAllFlights(
+    decoder: FlightStreamDecoder,
+    origin: String,
+    destination: String,
+    date: LocalDate? = null
+): Flow<FlightDto> = flow {
+    var page = 1
+    do {
+        var received = 0
+        streamFlights(origin, destination, page, SEARCH_PAGE_SIZE, date?.toString()).use { body ->
+            decoder.decode(body.source()).forEach {
+                received++
+                emit(it)
+            }
+        }
+        page++
+    } while (received == SEARCH_PAGE_SIZE)
+}
@@ -1,7 +1,10 @@
 package fr.benchaabane.riyadhair.data.flights.api
 
+import okhttp3.ResponseBody
 import retrofit2.http.GET
+import retrofit2.http.Path
 import retrofit2.http.Query
+import retrofit2.http.Streaming
 
 /**
  * Retrofit service interface for flight-related API operations.
@@ -19,6 +22,10 @@ import retrofit2.http.Query
  * **Service Features:**
  * - **Flight Search**: Search flights by origin and destination
  * - **Pagination Support**: Configurable page size and page numbers
+ * - **Flight Lookup**: Direct retrieval of a single flight by number
+ * - **Streaming Search**: Raw search body for element-by-element decoding
+ * - **Dated Search**: Optional departure day, used by the fare calendar
+ * - **Seat Availability**: Seats left on known flights, to revalidate cached searches
  * - **Query Parameters**: Flexible search criteria
  * - **Suspending Functions**: Coroutine-friendly API calls
  *
@@ -55,7 +62,7 @@ interface FlightService {
      * **HTTP Details:**
      * - **Method**: GET
      * - **Endpoint**: `/flights`
-     * - **Query Parameters**: origin, destination, page, limit
+     * - **Query Parameters**: origin, destination, page, limit, date
      * - **Response**: FlightsResponse with matching flights
      *
      * **Search Parameters:**
@@ -63,6 +70,7 @@ interface FlightService {
      * - **destination**: Arrival airport code (e.g., "LAX", "LHR")
      * - **page**: Page number for pagination (default: 1)
      * - **limit**: Number of results per page (default: 20)
+     * - **date**: ISO departure day (e.g., "2024-07-15"), omitted when null
      *
      * **Response Handling:**
      * - **Success**: Returns FlightsResponse with flight list
@@ -91,6 +99,7 @@ interface FlightService {
      * @param destination The arrival airport code (e.g., "LAX", "LHR")
      * @param page The page number for pagination (default: 1)
      * @param limit The number of results per page (default: 20)
+     * @param date The ISO departure day to restrict the search to, or null for any day
      * @return FlightsResponse containing matching flights and pagination info
      * @throws retrofit2.HttpException for HTTP errors (4xx, 5xx)
      * @throws java.io.IOException for network errors
@@ -101,6 +110,81 @@ interface FlightService {
         @Query("origin") origin: String,
         @Query("destination") destination: String,
         @Query("page") page: Int = 1,
-        @Query("limit") limit: Int = 20
+        @Query("limit") limit: Int = 20,
+        @Query("date") date: String? = null
     ): FlightsResponse
+
+    /**
+     * Retrieves a single flight by its flight number.
+     *
+     * This endpoint avoids downloading the whole flight list when only
+     * one flight is needed, e.g. to show the details of a selected flight
+     * that is not in the local index anymore.
+     *
+     * **HTTP Details:**
+     * - **Method**: GET
+     * - **Endpoint**: `/flights/{flightNumber}`
+     * - **Response**: The matching FlightDto
+     * - **Not Found**: HTTP 404 when no flight has this number
+     *
+     * @param flightNumber The flight number to retrieve (e.g., "RX101")
+     * @return FlightDto for the requested flight
+     * @throws retrofit2.HttpException for HTTP errors, including 404 for unknown flights
+     * @throws java.io.IOException for network errors
+     */
+    @GET("flights/{flightNumber}")
+    suspend fun getFlight(
+        @Path("flightNumber") flightNumber: String
+    ): FlightDto
+
+    /**
+     * Searches for flights and returns the raw, unbuffered response body.
+     *
+     * Same endpoint and parameters as [searchFlights], but the body is not
+     * converted: it is handed over while still being downloaded so that
+     * [FlightStreamDecoder] can decode the flights one at a time.
+     *
+     * The caller owns the returned body and must close it.
+     *
+     * @param origin The departure airport code (e.g., "RUH")
+     * @param destination The arrival airport code (e.g., "JED")
+     * @param page The page number for pagination (default: 1)
+     * @param limit The number of results per page (default: 20)
+     * @param date The ISO departure day to restrict the search to, or null for any day
+     * @return The streaming response body of the search
+     * @throws retrofit2.HttpException for HTTP errors (4xx, 5xx)
+     * @throws java.io.IOException for network errors
+     */
+    @Streaming
+    @GET("flights")
+    suspend fun streamFlights(
+        @Query("origin") origin: String,
+        @Query("destination") destination: String,
+        @Query("page") page: Int = 1,
+        @Query("limit") limit: Int = 20,
+        @Query("date") date: String? = null
+    ): ResponseBody
+
+    /**
+     * Retrieves the seats left on a set of flights.
+     *
+     * A cheap alternative to a new search when the flights are already
+     * known: the response only carries one seat count per flight, so a
+     * cached search result can be revalidated each time it is reused.
+     *
+     * **HTTP Details:**
+     * - **Method**: GET
+     * - **Endpoint**: `/flights/availability`
+     * - **Query Parameters**: ids, comma-separated flight ids
+     * - **Response**: AvailabilityResponse, without the flights no longer on sale
+     *
+     * @param ids Comma-separated flight ids (e.g., "RA001,RA002")
+     * @return AvailabilityResponse with the seats left on each flight still on sale
+     * @throws retrofit2.HttpException for HTTP errors (4xx, 5xx)
+     * @throws java.io.IOException for network errors
+     */
+    @GET("flights/availability")
+    suspend fun getAvailability(
+        @Query("ids") ids: String
+    ): AvailabilityResponse
 }
@@ -0,0 +1,176 @@
+package fr.benchaabane.riyadhair.data.flights.api
+
+import kotlinx.serialization.json.Json
+import okio.Buffer
+import okio.BufferedSource
+import javax.inject.Inject
+
+/**
+ * Incremental decoder for flight search responses.
+ *
+ * Instead of materializing a whole [FlightsResponse], this decoder walks the
+ * response body with Okio, locates the `flights` array and decodes its
+ * elements one at a time. Only the bytes of the element being decoded are
+ * buffered, so peak memory scales with the size of one flight rather than
+ * with the size of the response.
+ *
+ * **Decoding Strategy:**
+ * 1. **Field Lookup**: Scans the top-level object for the `flights` key,
+ *    skipping any other field without decoding it
+ * 2. **Element Framing**: Copies the bytes of the next array element into a
+ *    small buffer, tracking nesting depth and string escapes
+ * 3. **Element Decoding**: Decodes the buffered element into a [FlightDto]
+ *
+ * **Laziness:**
+ * The returned [Sequence] reads from the source on demand; an element is only
+ * read from the network once the previous one has been consumed.
+ *
+ * @param json The Json configuration used to decode each element
+ *
+ * @see FlightService.streamFlights
+ */
+class FlightStreamDecoder @Inject constructor(
+    private val json: Json
+) {
+
+    /**
+     * Lazily decodes the flights of a search response.
+     *
+     * @param source The response body source, positioned at the start of the JSON document
+     * @return Sequence of flights in response order, empty if the `flights` field is missing
+     * @throws java.io.EOFException if the document is truncated
+     * @throws kotlinx.serialization.SerializationException if an element is not a valid flight
+     */
+    fun decode(source: BufferedSource): Sequence<FlightDto> = sequence {
+        val reader = JsonArrayReader(source)
+        if (!reader.seekArrayField(FLIGHTS_FIELD)) return@sequence
+        while (true) {
+            val element = reader.nextElement() ?: break
+            yield(json.decodeFromString(FlightDto.serializer(), element.readUtf8()))
+        }
+    }
+
+    private companion object {
+        const val FLIGHTS_FIELD = "flights"
+    }
+}
+
+/**
+ * Minimal JSON tokenizer framing the elements of one array field.
+ *
+ * It does not validate the document: it only understands enough of the
+ * grammar (strings, escapes, nesting) to find a top-level array field and to
+ * cut each of its elements out of the stream.
+ */
+internal class JsonArrayReader(private val source: BufferedSource) {
+
+    /**
+     * Advances the source to the first element of a top-level array field.
+     *
+     * @param field The name of the field holding the array
+     * @return true if the field was found and holds an array, false otherwise
+     */
+    fun seekArrayField(field: String): Boolean {
+        if (nextNonWhitespace() != OBJECT_START) return false
+        var depth = 1
+        var expectKey = true
+        while (!source.exhausted()) {
+            when (val byte = source.readByte()) {
+                QUOTE -> {
+                    val text = readString()
+                    if (depth == 1 && expectKey) {
+                        if (nextNonWhitespace() != COLON) return false
+                        expectKey = false
+                        if (text == field) {
+                            return nextNonWhitespace() == ARRAY_START
+                        }
+                    }
+                }
+                OBJECT_START, ARRAY_START -> depth++
+                OBJECT_END, ARRAY_END -> if (--depth == 0) return false
+                COMMA -> if (depth == 1) expectKey = true
+                else -> Unit
+            }
+        }
+        return false
+    }
+
+    /**
+     * Copies the next array element into a buffer.
+     *
+     * @return The bytes of the next element, or null once the array is closed
+     */
+    fun nextElement(): Buffer? {
+        var byte = nextNonWhitespace()
+        if (byte == COMMA) byte = nextNonWhitespace()
+        if (byte == ARRAY_END) return null
+
+        val element = Buffer().writeByte(byte.toInt())
+        var depth = when (byte) {
+            OBJECT_START, ARRAY_START -> 1
+            QUOTE -> {
+                copyString(element)
+                return element
+            }
+            else -> return element.also { copyPrimitive(it) }
+        }
+        while (depth > 0) {
+            byte = source.readByte()
+            element.writeByte(byte.toInt())
+            when (byte) {
+                QUOTE -> copyString(element)
+                OBJECT_START, ARRAY_START -> depth++
+                OBJECT_END, ARRAY_END -> depth--
+            }
+        }
+        return element
+    }
+
+    private fun nextNonWhitespace(): Byte {
+        while (true) {
+            val byte = source.readByte()
+            if (byte != SPACE && byte != TAB && byte != LINE_FEED && byte != CARRIAGE_RETURN) return byte
+        }
+    }
+
+    private fun readString(): String {
+        val text = Buffer()
+        copyString(text)
+        // Drop the closing quote written by copyString
+        return text.readUtf8(text.size - 1)
+    }
+
+    private fun copyString(sink: Buffer) {
+        while (true) {
+            val byte = source.readByte()
+            sink.writeByte(byte.toInt())
+            when (byte) {
+                BACKSLASH -> sink.writeByte(source.readByte().toInt())
+                QUOTE -> return
+            }
+        }
+    }
+
+    private fun copyPrimitive(sink: Buffer) {
+        while (true) {
+            val next = source.peek().readByte()
+            if (next == COMMA || next == ARRAY_END || next == OBJECT_END) return
+            sink.writeByte(source.readByte().toInt())
+        }
+    }
+
+    private companion object {
+        const val OBJECT_START = '{'.code.toByte()
+        const val OBJECT_END = '}'.code.toByte()
+        const val ARRAY_START = '['.code.toByte()
+        const val ARRAY_END = ']'.code.toByte()
+        const val QUOTE = '"'.code.toByte()
+        const val BACKSLASH = '\\'.code.toByte()
+        const val COLON = ':'.code.toByte()
+        const val COMMA = ','.code.toByte()
+        const val SPACE = ' '.code.toByte()
+        const val TAB = '\t'.code.toByte()
+        const val LINE_FEED = '\n'.code.toByte()
+        const val CARRIAGE_RETURN = '\r'.code.toByte()
+    }
+}
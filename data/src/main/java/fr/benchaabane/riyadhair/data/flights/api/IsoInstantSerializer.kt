@@ -0,0 +1,153 @@
+package fr.benchaabane.riyadhair.data.flights.api
+
+import kotlinx.serialization.KSerializer
+import kotlinx.serialization.SerializationException
+import kotlinx.serialization.descriptors.PrimitiveKind
+import kotlinx.serialization.descriptors.PrimitiveSerialDescriptor
+import kotlinx.serialization.descriptors.SerialDescriptor
+import kotlinx.serialization.encoding.Decoder
+import kotlinx.serialization.encoding.Encoder
+import java.time.Instant
+import java.time.LocalDateTime
+import java.time.OffsetDateTime
+import java.time.ZoneOffset
+import java.time.format.DateTimeParseException
+
+/**
+ * Serializer decoding ISO-8601 timestamps straight into epoch seconds.
+ *
+ * Flight times are decoded once, at deserialization time, into a primitive
+ * `Long` instead of being kept as strings and parsed again by every mapper.
+ *
+ * **Parsing Strategy:**
+ * - **Fast Path**: Reads the fixed `yyyy-MM-ddTHH:mm:ss` layout digit by digit,
+ *   with optional fraction and a `Z`, `±HH:mm` or absent offset; no substring,
+ *   formatter or temporal object is allocated
+ * - **Fallback**: Any other layout goes through `java.time` ISO parsing
+ *
+ * **Time Zones:**
+ * Timestamps without an offset are read as UTC, matching the previous
+ * mapping that stripped the trailing `Z`. Fractions of a second are dropped.
+ *
+ * **Encoding:**
+ * Writes the instant back as an ISO-8601 UTC string (e.g., "2024-07-15T12:15:00Z").
+ *
+ * @see FlightDto.departureTime
+ * @see FlightDto.arrivalTime
+ */
+object IsoInstantSerializer : KSerializer<Long> {
+
+    override val descriptor: SerialDescriptor =
+        PrimitiveSerialDescriptor("fr.benchaabane.riyadhair.IsoInstant", PrimitiveKind.STRING)
+
+    override fun deserialize(decoder: Decoder): Long {
+        val text = decoder.decodeString()
+        return try {
+            parse(text)
+        } catch (exception: DateTimeParseException) {
+            throw SerializationException("Invalid ISO-8601 timestamp: $text", exception)
+        }
+    }
+
+    override fun serialize(encoder: Encoder, value: Long) {
+        encoder.encodeString(Instant.ofEpochSecond(value).toString())
+    }
+
+    /**
+     * Parses an ISO-8601 date-time into epoch seconds.
+     *
+     * @param text The timestamp (e.g., "2024-07-15T12:15:00Z")
+     * @return Seconds since the epoch, in UTC
+     * @throws DateTimeParseException if the text is not an ISO-8601 date-time
+     */
+    fun parse(text: CharSequence): Long = parseFast(text) ?: parseFallback(text)
+
+    /**
+     * Parses the common fixed layout, or returns null to defer to the fallback.
+     */
+    private fun parseFast(text: CharSequence): Long? {
+        if (text.length < DATE_TIME_LENGTH ||
+            text[4] != '-' || text[7] != '-' || text[10] != 'T' || text[13] != ':' || text[16] != ':'
+        ) return null
+
+        val year = digits(text, 0, 4)
+        val month = digits(text, 5, 2)
+        val day = digits(text, 8, 2)
+        val hour = digits(text, 11, 2)
+        val minute = digits(text, 14, 2)
+        val second = digits(text, 17, 2)
+        if (year < 0 || month !in 1..12 || day !in 1..daysInMonth(year, month) ||
+            hour !in 0..23 || minute !in 0..59 || second !in 0..59
+        ) return null
+
+        var index = DATE_TIME_LENGTH
+        if (index < text.length && text[index] == '.') {
+            index++
+            val fractionStart = index
+            while (index < text.length && text[index] in '0'..'9') index++
+            if (index == fractionStart) return null
+        }
+
+        val offsetSeconds = when {
+            index == text.length -> 0
+            text[index] == 'Z' && index + 1 == text.length -> 0
+            (text[index] == '+' || text[index] == '-') && index + OFFSET_LENGTH == text.length && text[index + 3] == ':' -> {
+                val offsetHour = digits(text, index + 1, 2)
+                val offsetMinute = digits(text, index + 4, 2)
+                if (offsetHour !in 0..18 || offsetMinute !in 0..59) return null
+                val offset = offsetHour * SECONDS_PER_HOUR + offsetMinute * SECONDS_PER_MINUTE
+                if (text[index] == '-') -offset else offset
+            }
+            else -> return null
+        }
+
+        return epochDay(year, month, day) * SECONDS_PER_DAY +
+            hour * SECONDS_PER_HOUR + minute * SECONDS_PER_MINUTE + second - offsetSeconds
+    }
+
+    private fun parseFallback(text: CharSequence): Long =
+        try {
+            OffsetDateTime.parse(text).toEpochSecond()
+        } catch (exception: DateTimeParseException) {
+            LocalDateTime.parse(text).toEpochSecond(ZoneOffset.UTC)
+        }
+
+    /**
+     * Reads [count] decimal digits, or returns -1 if any of them is not a digit.
+     */
+    private fun digits(text: CharSequence, start: Int, count: Int): Int {
+        var value = 0
+        for (index in start until start + count) {
+            val digit = text[index] - '0'
+            if (digit !in 0..9) return -1
+            value = value * 10 + digit
+        }
+        return value
+    }
+
+    private fun isLeapYear(year: Int) = year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)
+
+    private fun daysInMonth(year: Int, month: Int) = when (month) {
+        2 -> if (isLeapYear(year)) 29 else 28
+        4, 6, 9, 11 -> 30
+        else -> 31
+    }
+
+    /**
+     * Days since 1970-01-01 for a proleptic Gregorian date (Hinnant's days-from-civil).
+     */
+    private fun epochDay(year: Int, month: Int, day: Int): Long {
+        val y = if (month <= 2) year - 1 else year
+        val era = (if (y >= 0) y else y - 399) / 400
+        val yearOfEra = y - era * 400
+        val dayOfYear = (153 * (if (month > 2) month - 3 else month + 9) + 2) / 5 + day - 1
+        val dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear
+        return era * 146_097L + dayOfEra - 719_468L
+    }
+
+    private const val DATE_TIME_LENGTH = 19
+    private const val OFFSET_LENGTH = 6
+    private const val SECONDS_PER_MINUTE = 60
+    private const val SECONDS_PER_HOUR = 3_600
+    private const val SECONDS_PER_DAY = 86_400L
+}
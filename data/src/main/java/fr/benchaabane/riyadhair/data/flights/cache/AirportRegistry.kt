@@ -0,0 +1,78 @@
+package fr.benchaabane.riyadhair.data.flights.cache
+
+import fr.benchaabane.riyadhair.domain.flights.models.Airport
+import java.lang.ref.WeakReference
+
+/**
+ * Process-wide pool of canonical [Airport] instances and airline names.
+ *
+ * A route response repeats the same two airports and a handful of airlines
+ * on every flight. Mapping through this registry makes all those flights
+ * share one [Airport] object (and its name, city and country strings) per
+ * airport, so a search result retains a few airports instead of two per
+ * flight, and `equals` on identical airports short-circuits on identity.
+ *
+ * **Pool Structure:**
+ * - **Airports**: Keyed by IATA code and held through [WeakReference], so an
+ *   airport no longer referenced by any flight can be collected
+ * - **Airlines**: Keyed by name; names are few and small, so they are held strongly
+ * - **Bound**: Each pool keeps at most [MAX_SIZE] entries, evicting the least
+ *   recently used first
+ *
+ * **Consistency:**
+ * A cached airport is only reused when every field matches; if the backend
+ * changes an airport's details, the new version replaces the pooled one.
+ *
+ * **Threading:**
+ * All operations are synchronized on the registry.
+ *
+ * @see fr.benchaabane.riyadhair.data.flights.mappers.toDomain
+ */
+internal object AirportRegistry {
+
+    private const val MAX_SIZE = 512
+
+    private val airports = lruMap<String, WeakReference<Airport>>()
+
+    private val airlines = lruMap<String, String>()
+
+    /**
+     * Returns the canonical airport with the given details, creating it on first use.
+     *
+     * @param code IATA airport code (e.g., "RUH")
+     * @param name Full airport name
+     * @param city City where the airport is located
+     * @param country Country where the airport is located
+     * @param timezone Airport timezone (e.g., "Asia/Riyadh")
+     * @return A shared [Airport] equal to the given details
+     */
+    fun airport(code: String, name: String, city: String, country: String, timezone: String): Airport =
+        synchronized(this) {
+            airports[code]?.get()
+                ?.takeIf { it.name == name && it.city == city && it.country == country && it.timezone == timezone }
+                ?: Airport(code, name, city, country, timezone).also { airports[code] = WeakReference(it) }
+        }
+
+    /**
+     * Returns the canonical instance of an airline name.
+     *
+     * @param airline The airline name as decoded
+     * @return A shared string equal to [airline]
+     */
+    fun airline(airline: String): String =
+        synchronized(this) { airlines.getOrPut(airline) { airline } }
+
+    /**
+     * Removes every pooled airport and airline.
+     */
+    fun clear() {
+        synchronized(this) {
+            airports.clear()
+            airlines.clear()
+        }
+    }
+
+    private fun <K, V> lruMap() = object : LinkedHashMap<K, V>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<K, V>): Boolean = size > MAX_SIZE
+    }
+}
@@ -0,0 +1,90 @@
+package fr.benchaabane.riyadhair.data.flights.cache
+
+import fr.benchaabane.riyadhair.domain.flights.models.Flight
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * In-memory secondary index of recently seen flights.
+ *
+ * Every flight returned by a search is recorded here, keyed by flight number
+ * and by id, so that looking up a flight the user has just seen (e.g. at
+ * checkout) resolves without any network call.
+ *
+ * **Index Structure:**
+ * - **Primary Key**: Flight number, stored in access order for LRU eviction
+ * - **Secondary Key**: Flight id, mapped to the flight number
+ * - **Bound**: At most [maxSize] flights; the least recently used are evicted first
+ *
+ * **Threading:**
+ * All operations are synchronized on the index, so it can be shared by
+ * concurrent searches and lookups.
+ *
+ * @param maxSize Maximum number of flights kept in memory
+ *
+ * @see fr.benchaabane.riyadhair.data.flights.repositories.FlightRepositoryImpl
+ */
+@Singleton
+class FlightIndex(private val maxSize: Int) {
+
+    @Inject
+    constructor() : this(DEFAULT_MAX_SIZE)
+
+    private val byNumber = object : LinkedHashMap<String, Flight>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, Flight>): Boolean {
+            val evict = size > maxSize
+            if (evict) idToNumber.remove(eldest.value.id)
+            return evict
+        }
+    }
+
+    private val idToNumber = HashMap<String, String>()
+
+    /**
+     * Records flights returned by a search or a lookup.
+     *
+     * @param flights The flights to index, replacing any previous entry with the same number
+     */
+    fun putAll(flights: Collection<Flight>) {
+        synchronized(this) {
+            flights.forEach { flight ->
+                byNumber.put(flight.flightNumber, flight)?.let { previous ->
+                    if (previous.id != flight.id) idToNumber.remove(previous.id)
+                }
+                idToNumber[flight.id] = flight.flightNumber
+            }
+        }
+    }
+
+    /**
+     * Finds a flight by its flight number.
+     *
+     * @param flightNumber The flight number (e.g., "RX101")
+     * @return The indexed flight, or null if it has not been seen or was evicted
+     */
+    fun getByNumber(flightNumber: String): Flight? =
+        synchronized(this) { byNumber[flightNumber] }
+
+    /**
+     * Finds a flight by its id.
+     *
+     * @param id The flight id (e.g., "RA001")
+     * @return The indexed flight, or null if it has not been seen or was evicted
+     */
+    fun getById(id: String): Flight? =
+        synchronized(this) { idToNumber[id]?.let { byNumber[it] } }
+
+    /**
+     * Removes every indexed flight.
+     */
+    fun clear() {
+        synchronized(this) {
+            byNumber.clear()
+            idToNumber.clear()
+        }
+    }
+
+    private companion object {
+        const val DEFAULT_MAX_SIZE = 1_024
+    }
+}
@@ -0,0 +1,180 @@
+package fr.benchaabane.riyadhair.data.flights.cache
+
+import fr.benchaabane.riyadhair.domain.flights.models.Flight
+import fr.benchaabane.riyadhair.domain.flights.models.FlightSearch
+import java.time.ZoneOffset
+import javax.inject.Inject
+import javax.inject.Singleton
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.days
+import kotlin.time.Duration.Companion.minutes
+import kotlin.time.Duration.Companion.seconds
+
+/**
+ * In-memory cache of search results, keyed by normalised search leg.
+ *
+ * A search leg is a [FlightSearch] reduced to its outbound leg by
+ * [FlightSearch.outboundLeg]: route, departure day, passengers and cabin.
+ * The cached value is the mapped domain result, so a cache hit costs no
+ * download, no decoding and no mapping.
+ *
+ * **Volatility-Aware TTL:**
+ * Fares and seats move faster as departure approaches, so the lifetime of
+ * an entry depends on how far its departure day is when it is cached:
+ * - **30 days or more**: 30 minutes
+ * - **7 to 30 days**: 10 minutes
+ * - **1 to 7 days**: 5 minutes
+ * - **Under 1 day**: 1 minute
+ * Expired entries are never returned and are dropped on access.
+ *
+ * **Revalidation:**
+ * Seat counts are the part of a result that goes stale first. Each reuse
+ * of an entry may trigger a cheap revalidation; [claimRevalidation] lets
+ * at most one through per [REVALIDATION_INTERVAL], and [updateSeats]
+ * applies its outcome without extending the entry's lifetime.
+ *
+ * **Bound:**
+ * At most [maxEntries] legs are kept; the least recently used are evicted first.
+ *
+ * **Threading:**
+ * All operations are synchronized on the cache, so it can be shared by
+ * concurrent searches and revalidations.
+ *
+ * @param maxEntries Maximum number of search legs kept in memory
+ * @param clock Source of the current time, in epoch milliseconds
+ *
+ * @see fr.benchaabane.riyadhair.data.flights.repositories.FlightRepositoryImpl
+ */
+@Singleton
+class FlightSearchCache(
+    private val maxEntries: Int,
+    private val clock: () -> Long
+) {
+
+    @Inject
+    constructor() : this(DEFAULT_MAX_ENTRIES, System::currentTimeMillis)
+
+    private class Entry(
+        val flights: List<Flight>,
+        val expiresAt: Long,
+        val revalidatedAt: Long
+    )
+
+    private val entries = object : LinkedHashMap<FlightSearch, Entry>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<FlightSearch, Entry>): Boolean =
+            size > maxEntries
+    }
+
+    /**
+     * Finds the cached result of a search leg.
+     *
+     * @param search The search whose outbound leg is looked up
+     * @return The cached flights, or null if the leg was never cached, was evicted or has expired
+     */
+    fun get(search: FlightSearch): List<Flight>? {
+        val key = search.outboundLeg()
+        return synchronized(this) {
+            val entry = entries[key] ?: return null
+            if (clock() >= entry.expiresAt) {
+                entries.remove(key)
+                null
+            } else {
+                entry.flights
+            }
+        }
+    }
+
+    /**
+     * Caches the result of a search leg, replacing any previous result.
+     *
+     * @param search The search whose outbound leg was fetched
+     * @param flights The mapped flights of the leg
+     */
+    fun put(search: FlightSearch, flights: List<Flight>) {
+        val key = search.outboundLeg()
+        val now = clock()
+        synchronized(this) {
+            entries[key] = Entry(
+                flights = flights,
+                expiresAt = now + timeToLive(key, now).inWholeMilliseconds,
+                revalidatedAt = now
+            )
+        }
+    }
+
+    /**
+     * Claims the right to revalidate a cached search leg.
+     *
+     * @param search The search whose outbound leg is about to be reused
+     * @return True if the leg is cached and was not revalidated in the last
+     *         [REVALIDATION_INTERVAL]; the claim counts as a revalidation
+     */
+    fun claimRevalidation(search: FlightSearch): Boolean {
+        val key = search.outboundLeg()
+        val now = clock()
+        return synchronized(this) {
+            val entry = entries[key] ?: return false
+            val due = now - entry.revalidatedAt >= REVALIDATION_INTERVAL.inWholeMilliseconds
+            if (due) entries[key] = Entry(entry.flights, entry.expiresAt, revalidatedAt = now)
+            due
+        }
+    }
+
+    /**
+     * Applies revalidated seat counts to a cached search leg.
+     *
+     * Flights missing from [seats] are no longer on sale, and flights left
+     * with fewer seats than the leg's passengers can no longer be booked:
+     * both are removed. The entry keeps its original expiry.
+     *
+     * @param search The search whose outbound leg was revalidated
+     * @param seats Seats left, keyed by flight id
+     * @return The updated flights, or null if the leg is no longer cached
+     */
+    fun updateSeats(search: FlightSearch, seats: Map<String, Int>): List<Flight>? {
+        val key = search.outboundLeg()
+        return synchronized(this) {
+            val entry = entries[key] ?: return null
+            val flights = entry.flights.mapNotNull { flight ->
+                seats[flight.id]
+                    ?.takeIf { it >= key.passengers.total }
+                    ?.let { flight.copy(availableSeats = it) }
+            }
+            entries[key] = Entry(flights, entry.expiresAt, entry.revalidatedAt)
+            flights
+        }
+    }
+
+    /**
+     * Removes every cached search leg.
+     */
+    fun clear() {
+        synchronized(this) { entries.clear() }
+    }
+
+    companion object {
+        private const val DEFAULT_MAX_ENTRIES = 32
+
+        /**
+         * Minimum time between two seat revalidations of the same leg.
+         */
+        val REVALIDATION_INTERVAL: Duration = 30.seconds
+
+        /**
+         * Lifetime of a leg cached at [now], shorter as its departure day approaches.
+         *
+         * @param search The cached search leg
+         * @param now The caching time, in epoch milliseconds
+         * @return How long the leg's result may be served without a new search
+         */
+        fun timeToLive(search: FlightSearch, now: Long): Duration {
+            val untilDeparture = search.departureDate.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli() - now
+            return when {
+                untilDeparture >= 30.days.inWholeMilliseconds -> 30.minutes
+                untilDeparture >= 7.days.inWholeMilliseconds -> 10.minutes
+                untilDeparture >= 1.days.inWholeMilliseconds -> 5.minutes
+                else -> 1.minutes
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package fr.benchaabane.riyadhair.data.flights.dao
+
+import androidx.room.Dao
+import androidx.room.Query
+import androidx.room.Upsert
+
+/**
+ * Data Access Object for the per-day minimum fares of the fare calendar.
+ *
+ * **Supported Operations:**
+ * - **Read**: The cached days of a route in a date range
+ * - **Write**: Record the minimum fare of a fetched day
+ * - **Delete**: Drop the days already in the past
+ *
+ * @see FareCalendarEntity
+ */
+@Dao
+interface FareCalendarDao {
+
+    /**
+     * Retrieves the cached days of a route in a date range, whatever their age.
+     *
+     * @param origin IATA code of the departure airport
+     * @param destination IATA code of the arrival airport
+     * @param from First day of the range, as an epoch day
+     * @param to Last day of the range, as an epoch day
+     * @return The cached days, in date order
+     */
+    @Query(
+        """
+        SELECT * FROM fare_calendar
+        WHERE origin = :origin AND destination = :destination AND date BETWEEN :from AND :to
+        ORDER BY date ASC
+        """
+    )
+    suspend fun getDays(origin: String, destination: String, from: Long, to: Long): List<FareCalendarEntity>
+
+    /**
+     * Inserts or updates the minimum fare of a day.
+     *
+     * @param day The day to store
+     */
+    @Upsert
+    suspend fun upsert(day: FareCalendarEntity)
+
+    /**
+     * Removes the days before a given day, for every route.
+     *
+     * @param date First day to keep, as an epoch day
+     */
+    @Query("DELETE FROM fare_calendar WHERE date < :date")
+    suspend fun deleteDaysBefore(date: Long)
+}
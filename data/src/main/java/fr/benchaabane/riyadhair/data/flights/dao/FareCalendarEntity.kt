@@ -0,0 +1,39 @@
+package fr.benchaabane.riyadhair.data.flights.dao
+
+import androidx.room.Entity
+
+/**
+ * Database entity holding the minimum fare of a route on one departure day.
+ *
+ * Rows are written by [fr.benchaabane.riyadhair.data.flights.repositories.FareCalendarRepositoryImpl],
+ * one per fetched day, so paging back and forth between months of the fare
+ * calendar only fetches the days that are missing or outdated.
+ *
+ * **Database Structure:**
+ * - **Table Name**: `fare_calendar`
+ * - **Primary Key**: (`origin`, `destination`, `date`), which also serves the
+ *   month range reads of [FareCalendarDao.getDays]
+ *
+ * **Storage Format:**
+ * - **Date**: Epoch day, so a month is a contiguous integer range
+ * - **Price**: Null when the day has no flight, so empty days are cached too
+ *
+ * @property origin IATA code of the departure airport
+ * @property destination IATA code of the arrival airport
+ * @property date Departure day as an epoch day
+ * @property minPrice Lowest price of the day, or null if the day has no flight
+ * @property fetchedAt Epoch milliseconds of the fetch, compared against the cache policy
+ *
+ * @see FareCalendarDao
+ */
+@Entity(
+    tableName = "fare_calendar",
+    primaryKeys = ["origin", "destination", "date"]
+)
+data class FareCalendarEntity(
+    val origin: String,
+    val destination: String,
+    val date: Long,
+    val minPrice: Double?,
+    val fetchedAt: Long
+)
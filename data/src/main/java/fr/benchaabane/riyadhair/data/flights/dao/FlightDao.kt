@@ -0,0 +1,106 @@
+package fr.benchaabane.riyadhair.data.flights.dao
+
+import androidx.paging.PagingSource
+import androidx.room.Dao
+import androidx.room.Query
+import androidx.room.Upsert
+
+/**
+ * Data Access Object for the flight cache.
+ *
+ * This DAO backs the offline-first flight search: the UI pages from
+ * [pagingSource] while the remote mediator writes network pages and
+ * remote keys.
+ *
+ * **Query Patterns:**
+ * - **Route Paging**: Flights of a route ordered by departure, served by the
+ *   (`origin`, `destination`, `departureTime`) index
+ * - **Departure Window**: Every cached leg departing in a time window, for
+ *   connecting itineraries
+ * - **Remote Keys**: Per-route paging position and refresh time
+ *
+ * @see FlightEntity
+ * @see FlightRemoteKeyEntity
+ */
+@Dao
+interface FlightDao {
+
+    /**
+     * Pages the cached flights of a route, earliest departure first.
+     *
+     * The returned PagingSource is invalidated by Room whenever the
+     * `flights` table changes, so pages written by the remote mediator
+     * show up without any extra wiring.
+     *
+     * @param origin IATA code of the departure airport
+     * @param destination IATA code of the arrival airport
+     * @return Room PagingSource over the route's flights
+     */
+    @Query(
+        """
+        SELECT * FROM flights
+        WHERE origin = :origin AND destination = :destination
+        ORDER BY departureTime ASC, id ASC
+        """
+    )
+    fun pagingSource(origin: String, destination: String): PagingSource<Int, FlightEntity>
+
+    /**
+     * Retrieves every cached flight departing in a time window, all routes included.
+     *
+     * @param from Earliest departure, in epoch seconds
+     * @param to Latest departure, in epoch seconds
+     * @return The flights ordered by departure time
+     */
+    @Query(
+        """
+        SELECT * FROM flights
+        WHERE departureTime BETWEEN :from AND :to
+        ORDER BY departureTime ASC, id ASC
+        """
+    )
+    suspend fun getFlightsDepartingBetween(from: Long, to: Long): List<FlightEntity>
+
+    /**
+     * Inserts or updates flights.
+     *
+     * @param flights The flights to store
+     */
+    @Upsert
+    suspend fun upsertAll(flights: List<FlightEntity>)
+
+    /**
+     * Counts how many of the given flights are already cached.
+     *
+     * @param ids The flight ids to look up
+     * @return Number of ids already present in the `flights` table
+     */
+    @Query("SELECT COUNT(*) FROM flights WHERE id IN (:ids)")
+    suspend fun countExisting(ids: List<String>): Int
+
+    /**
+     * Removes the cached flights of a route.
+     *
+     * @param origin IATA code of the departure airport
+     * @param destination IATA code of the arrival airport
+     */
+    @Query("DELETE FROM flights WHERE origin = :origin AND destination = :destination")
+    suspend fun clearFlightsByRoute(origin: String, destination: String)
+
+    /**
+     * Retrieves the paging position of a route.
+     *
+     * @param routeKey Route identifier (e.g., "RUH-JED")
+     * @return The remote key, or null if the route was never fetched
+     */
+    @Query("SELECT * FROM flight_remote_keys WHERE routeKey = :routeKey")
+    suspend fun getRemoteKey(routeKey: String): FlightRemoteKeyEntity?
+
+    /**
+     * Inserts or updates the paging position of a route.
+     *
+     * @param remoteKey The remote key to store
+     */
+    @Upsert
+    suspend fun upsertRemoteKey(remoteKey: FlightRemoteKeyEntity)
+}
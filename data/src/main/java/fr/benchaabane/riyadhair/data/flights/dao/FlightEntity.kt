@@ -0,0 +1,96 @@
+package fr.benchaabane.riyadhair.data.flights.dao
+
+import androidx.room.Entity
+import androidx.room.Index
+import androidx.room.PrimaryKey
+
+/**
+ * Database entity representing a flight in the local flight cache.
+ *
+ * This entity stores flights fetched by [fr.benchaabane.riyadhair.data.flights.paging.FlightRemoteMediator]
+ * so that repeated searches of a route render from disk and only top up
+ * pages from the network.
+ *
+ * **Database Structure:**
+ * - **Table Name**: `flights`
+ * - **Primary Key**: `id` (String)
+ * - **Index**: (`origin`, `destination`, `departureTime`), matching the route
+ *   filter and the sort order of [FlightDao.pagingSource]
+ *
+ * **Storage Format:**
+ * - **Times**: Epoch seconds, interpreted as UTC, so they sort and compare as integers
+ * - **Airports**: Flattened into origin and destination columns, no join needed
+ *
+ * @property id Unique identifier for the flight (primary key)
+ * @property flightNumber Commercial flight number (e.g., "RX101")
+ * @property airline Operating airline name
+ * @property origin IATA code of the departure airport
+ * @property originName Name of the departure airport
+ * @property originCity City of the departure airport
+ * @property originCountry Country of the departure airport
+ * @property originTimezone Timezone of the departure airport
+ * @property destination IATA code of the arrival airport
+ * @property destinationName Name of the arrival airport
+ * @property destinationCity City of the arrival airport
+ * @property destinationCountry Country of the arrival airport
+ * @property destinationTimezone Timezone of the arrival airport
+ * @property departureTime Departure time in epoch seconds
+ * @property arrivalTime Arrival time in epoch seconds
+ * @property duration Display duration (e.g., "1h 45m")
+ * @property price Ticket price
+ * @property cabinClass Cabin class display name
+ * @property availableSeats Number of seats left
+ * @property aircraft Aircraft type
+ *
+ * @see FlightDao
+ */
+@Entity(
+    tableName = "flights",
+    indices = [Index(value = ["origin", "destination", "departureTime"])]
+)
+data class FlightEntity(
+    @PrimaryKey val id: String,
+    val flightNumber: String,
+    val airline: String,
+    val origin: String,
+    val originName: String,
+    val originCity: String,
+    val originCountry: String,
+    val originTimezone: String,
+    val destination: String,
+    val destinationName: String,
+    val destinationCity: String,
+    val destinationCountry: String,
+    val destinationTimezone: String,
+    val departureTime: Long,
+    val arrivalTime: Long,
+    val duration: String,
+    val price: Double,
+    val cabinClass: String,
+    val availableSeats: Int,
+    val aircraft: String
+)
+
+/**
+ * Database entity tracking the paging position of a cached route.
+ *
+ * One row exists per searched route and records which network page
+ * [fr.benchaabane.riyadhair.data.flights.paging.FlightRemoteMediator] should
+ * fetch next, and when the route was last refreshed from page one.
+ *
+ * **Database Structure:**
+ * - **Table Name**: `flight_remote_keys`
+ * - **Primary Key**: `routeKey` (String, e.g. "RUH-JED")
+ *
+ * @property routeKey Route identifier built from origin and destination codes
+ * @property nextPage Next network page to fetch, or null when the route is fully loaded
+ * @property lastUpdated Epoch milliseconds of the last refresh from page one
+ *
+ * @see FlightDao
+ */
+@Entity(tableName = "flight_remote_keys")
+data class FlightRemoteKeyEntity(
+    @PrimaryKey val routeKey: String,
+    val nextPage: Int?,
+    val lastUpdated: Long
+)
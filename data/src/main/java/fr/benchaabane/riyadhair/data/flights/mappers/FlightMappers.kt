@@ -2,10 +2,16 @@ package fr.benchaabane.riyadhair.data.flights.mappers
 
 import fr.benchaabane.riyadhair.data.flights.api.AirportDto
 import fr.benchaabane.riyadhair.data.flights.api.FlightDto
+import fr.benchaabane.riyadhair.data.flights.cache.AirportRegistry
+import fr.benchaabane.riyadhair.data.flights.dao.FareCalendarEntity
+import fr.benchaabane.riyadhair.data.flights.dao.FlightEntity
 import fr.benchaabane.riyadhair.domain.flights.models.Airport
 import fr.benchaabane.riyadhair.domain.flights.models.CabinClass
+import fr.benchaabane.riyadhair.domain.flights.models.DayFare
 import fr.benchaabane.riyadhair.domain.flights.models.Flight
+import java.time.LocalDate
 import java.time.LocalDateTime
+import java.time.ZoneOffset
 
 /**
  * Maps a FlightDto to a domain Flight model.
@@ -18,12 +24,14 @@ import java.time.LocalDateTime
  * **Mapping Details:**
  * - **API Fields**: Maps all DTO properties to domain model
  * - **Nullable Handling**: Provides safe defaults for missing API data
- * - **Time Processing**: Converts ISO time strings to LocalDateTime
+ * - **Time Processing**: Converts epoch seconds decoded by the DTO to LocalDateTime
  * - **Cabin Class**: Maps string values to CabinClass enum
  * - **Data Safety**: Uses fallback values for null fields
+ * - **Interning**: Airports and airline names are shared through [AirportRegistry]
+ * - **Stops**: Intermediate stop airports, in flight order
  *
  * **Data Transformations:**
- * - **Time Strings**: ISO format to LocalDateTime conversion
+ * - **Times**: UTC epoch seconds to LocalDateTime, without string parsing
  * - **Cabin Class**: String to CabinClass enum mapping
  * - **Nullable Fields**: Safe handling with fallback values
  * - **String Safety**: Empty string fallbacks for null values
@@ -35,37 +43,48 @@ import java.time.LocalDateTime
  * - **Flight Search**: Processing search results
  *
  * **Error Handling:**
- * - **Time Parsing**: Handles ISO time format conversion
+ * - **Missing Times**: Throws IllegalArgumentException naming the flight
  * - **Cabin Class**: Provides default economy class for invalid values
  * - **Nullable Safety**: Graceful handling of missing data
  *
  * @param this The FlightDto to convert to domain model
  * @return Domain Flight model with API data safely mapped
+ * @throws IllegalArgumentException if the departure or arrival time is missing
  */
 internal fun FlightDto.toDomain(): Flight = Flight(
     id = id,
     flightNumber = flightNumber,
-    airline = airline.orEmpty(),
+    airline = AirportRegistry.airline(airline.orEmpty()),
     departureAirport = departureAirport.toDomain(),
     arrivalAirport = arrivalAirport.toDomain(),
-    departureTime = LocalDateTime.parse(departureTime?.replace("Z", "")),
-    arrivalTime = LocalDateTime.parse(arrivalTime?.replace("Z", "")),
+    departureTime = LocalDateTime.ofEpochSecond(requireDepartureTime(), 0, ZoneOffset.UTC),
+    arrivalTime = LocalDateTime.ofEpochSecond(requireArrivalTime(), 0, ZoneOffset.UTC),
     duration = duration.orEmpty(),
     price = price ?: .0,
     cabinClass = CabinClass.ECONOMY,
     availableSeats = availableSeats ?: 0,
-    aircraft = aircraft.orEmpty()
+    aircraft = aircraft.orEmpty(),
+    stops = stops.orEmpty().map { it.toDomain() }
 )
 
+private fun FlightDto.requireDepartureTime(): Long =
+    requireNotNull(departureTime) { "Flight $id has no departure time" }
+
+private fun FlightDto.requireArrivalTime(): Long =
+    requireNotNull(arrivalTime) { "Flight $id has no arrival time" }
+
 /**
  * Maps an AirportDto to a domain Airport model.
  *
  * This function converts API airport data to the domain model,
  * providing a clean mapping between API and domain representations.
  * All airport fields are required, so no nullable handling is needed.
+ * The returned instance is shared through [AirportRegistry], so the same
+ * airport decoded on many flights maps to a single object.
  *
  * **Mapping Details:**
  * - **Direct Mapping**: All fields mapped directly without transformation
+ * - **Canonical Instance**: Equal airports map to the same object
  * - **Type Safety**: Ensures proper data type conversion
  * - **Data Integrity**: Maintains airport information accuracy
  * - **Simple Conversion**: Straightforward DTO to domain mapping
@@ -86,7 +105,7 @@ internal fun FlightDto.toDomain(): Flight = Flight(
  * @param this The AirportDto to convert to domain model
  * @return Domain Airport model with API data mapped
  */
-internal fun AirportDto.toDomain() = Airport(
+internal fun AirportDto.toDomain(): Airport = AirportRegistry.airport(
     code = code,
     name = name,
     city = city,
@@ -150,4 +169,83 @@ internal fun CabinClassString.toDomain(): CabinClass = when (this) {
     "Business" -> CabinClass.BUSINESS
     "First Class" -> CabinClass.FIRST
     else -> throw IllegalArgumentException("Unknown cabin class: $this")
-}
\ No newline at end of file
+}
+
+/**
+ * Maps a FlightDto to a FlightEntity for the local flight cache.
+ *
+ * Airports are flattened into origin and destination columns; times are
+ * already epoch seconds (UTC) and are stored as decoded.
+ *
+ * @param this The FlightDto to convert to a database entity
+ * @return FlightEntity ready to be stored in the `flights` table
+ * @throws IllegalArgumentException if the departure or arrival time is missing
+ */
+internal fun FlightDto.toEntity(): FlightEntity = FlightEntity(
+    id = id,
+    flightNumber = flightNumber,
+    airline = airline.orEmpty(),
+    origin = departureAirport.code,
+    originName = departureAirport.name,
+    originCity = departureAirport.city,
+    originCountry = departureAirport.country,
+    originTimezone = departureAirport.timezone,
+    destination = arrivalAirport.code,
+    destinationName = arrivalAirport.name,
+    destinationCity = arrivalAirport.city,
+    destinationCountry = arrivalAirport.country,
+    destinationTimezone = arrivalAirport.timezone,
+    departureTime = requireDepartureTime(),
+    arrivalTime = requireArrivalTime(),
+    duration = duration.orEmpty(),
+    price = price ?: .0,
+    cabinClass = cabinClass ?: CabinClass.ECONOMY.displayName,
+    availableSeats = availableSeats ?: 0,
+    aircraft = aircraft.orEmpty()
+)
+
+/**
+ * Maps a cached FlightEntity to a domain Flight model.
+ *
+ * Airports and the airline name are shared through [AirportRegistry],
+ * like flights mapped from the API.
+ *
+ * @param this The FlightEntity to convert to domain model
+ * @return Domain Flight model rebuilt from the cached row
+ */
+internal fun FlightEntity.toDomain(): Flight = Flight(
+    id = id,
+    flightNumber = flightNumber,
+    airline = AirportRegistry.airline(airline),
+    departureAirport = AirportRegistry.airport(
+        code = origin,
+        name = originName,
+        city = originCity,
+        country = originCountry,
+        timezone = originTimezone
+    ),
+    arrivalAirport = AirportRegistry.airport(
+        code = destination,
+        name = destinationName,
+        city = destinationCity,
+        country = destinationCountry,
+        timezone = destinationTimezone
+    ),
+    departureTime = LocalDateTime.ofEpochSecond(departureTime, 0, ZoneOffset.UTC),
+    arrivalTime = LocalDateTime.ofEpochSecond(arrivalTime, 0, ZoneOffset.UTC),
+    duration = duration,
+    price = price,
+    cabinClass = cabinClass.toDomain(),
+    availableSeats = availableSeats,
+    aircraft = aircraft
+)
+
+/**
+ * Extension function to convert a cached fare calendar day to a domain DayFare.
+ *
+ * @param this The FareCalendarEntity to convert to domain model
+ * @return Domain DayFare, or null when the day has no flight
+ */
+internal fun FareCalendarEntity.toDomain(): DayFare? = minPrice?.let { price ->
+    DayFare(date = LocalDate.ofEpochDay(date), minPrice = price)
+}
@@ -1,29 +1,80 @@
 package fr.benchaabane.riyadhair.data.flights.paging
 
-/*import androidx.paging.ExperimentalPagingApi
+import androidx.paging.ExperimentalPagingApi
 import androidx.paging.LoadType
 import androidx.paging.PagingState
 import androidx.paging.RemoteMediator
 import androidx.room.withTransaction
 import fr.benchaabane.riyadhair.data.db.AppDatabase
 import fr.benchaabane.riyadhair.data.flights.api.FlightService
+import fr.benchaabane.riyadhair.data.flights.api.FlightStreamDecoder
 import fr.benchaabane.riyadhair.data.flights.dao.FlightEntity
+import fr.benchaabane.riyadhair.data.flights.dao.FlightRemoteKeyEntity
 import fr.benchaabane.riyadhair.data.flights.mappers.toEntity
-import javax.inject.Inject
+import kotlinx.coroutines.CancellationException
+import java.util.concurrent.TimeUnit
 
+/**
+ * RemoteMediator filling the local flight cache from the flight API.
+ *
+ * The UI pages from the `flights` table through a Room PagingSource; this
+ * mediator is only asked for more data when the cached pages run out. Repeat
+ * searches of a route therefore render from disk immediately and only top up
+ * pages from the network.
+ *
+ * **Paging Strategy:**
+ * - **Initialize**: Skips the initial refresh while the route was refreshed less
+ *   than [cacheTimeoutMillis] ago
+ * - **Refresh**: Fetches page one, replaces the route's rows and resets its remote key
+ * - **Prepend**: Never needed, pages are ordered by departure from the first one
+ * - **Append**: Fetches the page recorded in the route's remote key
+ *
+ * **Consistency:**
+ * Flights and the remote key are written in a single transaction, so the
+ * PagingSource is invalidated once per page and never observes flights
+ * without the matching paging position.
+ *
+ * **End of Pagination:**
+ * Reached when a page is shorter than the page size, or when it only contains
+ * flights already cached (a backend ignoring `page` would otherwise be paged forever).
+ *
+ * **Memory:**
+ * Pages are decoded from the streaming search body straight into entities,
+ * so no intermediate DTO list is built for a page.
+ *
+ * @param flightService Remote API for flight pages
+ * @param flightStreamDecoder Decoder of streaming search responses
+ * @param database Database holding the flight cache
+ * @param origin IATA code of the departure airport
+ * @param destination IATA code of the arrival airport
+ * @param cacheTimeoutMillis How long a refreshed route is served without a new refresh
+ * @param clock Source of the current time in epoch milliseconds
+ *
+ * @see FlightEntity
+ * @see FlightRemoteKeyEntity
+ */
 @OptIn(ExperimentalPagingApi::class)
-class FlightRemoteMediator @Inject constructor(
+class FlightRemoteMediator(
     private val flightService: FlightService,
+    private val flightStreamDecoder: FlightStreamDecoder,
     private val database: AppDatabase,
     private val origin: String,
-    private val destination: String
+    private val destination: String,
+    private val cacheTimeoutMillis: Long = DEFAULT_CACHE_TIMEOUT_MILLIS,
+    private val clock: () -> Long = System::currentTimeMillis
 ) : RemoteMediator<Int, FlightEntity>() {
 
     private val flightDao = database.flightDao()
 
+    private val routeKey = "$origin-$destination"
+
     override suspend fun initialize(): InitializeAction {
-        // Always refresh data on app start for fresh flight information
-        return InitializeAction.LAUNCH_INITIAL_REFRESH
+        val lastUpdated = flightDao.getRemoteKey(routeKey)?.lastUpdated
+        return if (lastUpdated != null && clock() - lastUpdated in 0 until cacheTimeoutMillis) {
+            InitializeAction.SKIP_INITIAL_REFRESH
+        } else {
+            InitializeAction.LAUNCH_INITIAL_REFRESH
+        }
     }
 
     override suspend fun load(
@@ -31,44 +82,53 @@ class FlightRemoteMediator @Inject constructor(
         state: PagingState<Int, FlightEntity>
     ): MediatorResult {
         return try {
+            val remoteKey = flightDao.getRemoteKey(routeKey)
             val page = when (loadType) {
-                LoadType.REFRESH -> 1
+                LoadType.REFRESH -> FIRST_PAGE
                 LoadType.PREPEND -> return MediatorResult.Success(endOfPaginationReached = true)
-                LoadType.APPEND -> {
-                    val lastItem = state.lastItemOrNull()
-                    if (lastItem == null) {
-                        1
-                    } else {
-                        // Calculate page based on current items count
-                        (state.pages.sumOf { it.data.size } / state.config.pageSize) + 1
-                    }
-                }
+                LoadType.APPEND -> remoteKey?.nextPage
+                    ?: return MediatorResult.Success(endOfPaginationReached = remoteKey != null)
             }
 
-            val response = flightService.searchFlights(
+            val flights = flightService.streamFlights(
                 origin = origin,
                 destination = destination,
                 page = page,
                 limit = state.config.pageSize
-            )
+            ).use { body ->
+                flightStreamDecoder.decode(body.source()).map { it.toEntity() }.toList()
+            }
 
-            val flights = response.flights.map { it.toEntity() }
-            val endOfPaginationReached = flights.isEmpty()
+            val endOfPaginationReached = database.withTransaction {
+                val alreadyCached = loadType == LoadType.APPEND &&
+                    flights.isNotEmpty() &&
+                    flightDao.countExisting(flights.map { it.id }) == flights.size
+                val end = flights.size < state.config.pageSize || alreadyCached
 
-            database.withTransaction {
-                // Clear all flights for this route if refreshing
                 if (loadType == LoadType.REFRESH) {
                     flightDao.clearFlightsByRoute(origin, destination)
                 }
-                
-                // Insert new flights
                 flightDao.upsertAll(flights)
+                flightDao.upsertRemoteKey(
+                    FlightRemoteKeyEntity(
+                        routeKey = routeKey,
+                        nextPage = if (end) null else page + 1,
+                        lastUpdated = if (loadType == LoadType.REFRESH) clock() else remoteKey?.lastUpdated ?: clock()
+                    )
+                )
+                end
             }
 
             MediatorResult.Success(endOfPaginationReached = endOfPaginationReached)
+        } catch (exception: CancellationException) {
+            throw exception
         } catch (exception: Exception) {
             MediatorResult.Error(exception)
         }
     }
+
+    private companion object {
+        const val FIRST_PAGE = 1
+        val DEFAULT_CACHE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30)
+    }
 }
-*/
\ No newline at end of file
@@ -0,0 +1,158 @@
+package fr.benchaabane.riyadhair.data.flights.repositories
+
+import fr.benchaabane.riyadhair.core.extensions.runSuspendCatching
+import fr.benchaabane.riyadhair.core.network.CachePolicy
+import fr.benchaabane.riyadhair.core.network.Freshness
+import fr.benchaabane.riyadhair.data.flights.api.FlightService
+import fr.benchaabane.riyadhair.data.flights.api.FlightStreamDecoder
+import fr.benchaabane.riyadhair.data.flights.api.streamAllFlights
+import fr.benchaabane.riyadhair.data.flights.dao.FareCalendarDao
+import fr.benchaabane.riyadhair.data.flights.dao.FareCalendarEntity
+import fr.benchaabane.riyadhair.data.flights.mappers.toDomain
+import fr.benchaabane.riyadhair.domain.flights.models.FareCalendar
+import fr.benchaabane.riyadhair.domain.flights.repositories.FareCalendarRepository
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.channelFlow
+import kotlinx.coroutines.flow.conflate
+import kotlinx.coroutines.flow.filter
+import kotlinx.coroutines.flow.fold
+import kotlinx.coroutines.flow.flowOn
+import kotlinx.coroutines.flow.mapNotNull
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.sync.withPermit
+import java.time.LocalDate
+import java.time.YearMonth
+import java.time.ZoneOffset
+import java.util.TreeMap
+import javax.inject.Inject
+import javax.inject.Singleton
+import kotlin.contracts.ExperimentalContracts
+import kotlin.time.Duration.Companion.days
+import kotlin.time.Duration.Companion.hours
+
+/**
+ * Implementation of the FareCalendarRepository interface.
+ *
+ * The API has no fare calendar endpoint, so the minimum fare of a day is
+ * the cheapest flight of a search restricted to that day. A month costs up
+ * to 31 searches: they run concurrently, bounded by a semaphore, and each
+ * result is cached per route and day in the `fare_calendar` table.
+ *
+ * **Data Flow:**
+ * 1. **Cache Read**: One range query for the month's cached days
+ * 2. **First Emission**: Cached days that are not expired, shown at once
+ * 3. **Fan-Out**: One dated search per missing or outdated day, at most
+ *    [MAX_CONCURRENT_DAY_REQUESTS] in flight for the whole repository
+ * 4. **Progressive Emissions**: A new calendar each time a day is resolved
+ *
+ * **Cache Policy:**
+ * - **Fresh** (under 6 hours): Served without any request
+ * - **Stale** (under 1 day past TTL): Served, then refreshed
+ * - **Expired**: Not served, fetched again
+ * Days before today are never fetched and are deleted from the table.
+ *
+ * **Cancellation:**
+ * Collection is cancelled when the displayed month changes; the pending
+ * day requests are cancelled with it and release their permits.
+ *
+ * **Error Handling:**
+ * A failing day is left out of the calendar and not cached, so it is
+ * requested again next time; it never fails the other days.
+ *
+ * @see FareCalendarRepository
+ * @see FareCalendarDao
+ */
+@Singleton
+@OptIn(ExperimentalContracts::class)
+class FareCalendarRepositoryImpl @Inject constructor(
+    private val flightService: FlightService,
+    private val flightStreamDecoder: FlightStreamDecoder,
+    private val fareCalendarDao: FareCalendarDao
+) : FareCalendarRepository {
+
+    /**
+     * Bounds the day searches in flight, across all calendars being collected.
+     */
+    private val dayRequests = Semaphore(MAX_CONCURRENT_DAY_REQUESTS)
+
+    /**
+     * Observes the per-day minimum fares of a route over one month.
+     *
+     * @param origin The departure airport code (e.g., "RUH")
+     * @param destination The arrival airport code (e.g., "JED")
+     * @param month The month to cover; days before today are skipped
+     * @return Flow of increasingly complete calendars, computed on the IO dispatcher
+     */
+    override fun getFareCalendar(
+        origin: String,
+        destination: String,
+        month: YearMonth
+    ): Flow<FareCalendar> = channelFlow {
+        val today = LocalDate.now(ZoneOffset.UTC).toEpochDay()
+        fareCalendarDao.deleteDaysBefore(today)
+
+        val firstDay = maxOf(month.atDay(1).toEpochDay(), today)
+        val lastDay = month.atEndOfMonth().toEpochDay()
+        val now = System.currentTimeMillis()
+        val days = TreeMap<Long, FareCalendarEntity>()
+        val outdated = ArrayList<Long>()
+        val cached = if (firstDay > lastDay) emptyList() else fareCalendarDao.getDays(origin, destination, firstDay, lastDay)
+        val cachedByDay = cached.associateBy { it.date }
+        for (day in firstDay..lastDay) {
+            val freshness = FARE_CALENDAR_CACHE_POLICY.freshnessOf(cachedByDay[day]?.fetchedAt, now)
+            if (freshness != Freshness.EXPIRED) days[day] = cachedByDay.getValue(day)
+            if (freshness != Freshness.FRESH) outdated.add(day)
+        }
+        send(days.toCalendar(month))
+
+        val lock = Mutex()
+        outdated.forEach { day ->
+            launch {
+                val fetched = dayRequests.withPermit { fetchDay(origin, destination, day) } ?: return@launch
+                fareCalendarDao.upsert(fetched)
+                lock.withLock {
+                    days[day] = fetched
+                    send(days.toCalendar(month))
+                }
+            }
+        }
+    }.conflate().flowOn(Dispatchers.IO)
+
+    /**
+     * Searches one day of a route and keeps only its cheapest price.
+     *
+     * Every page of the dated search is followed by [streamAllFlights], so
+     * the minimum covers the whole day, and each body is decoded flight by
+     * flight, so no day's result list is ever held in memory. Only flights
+     * departing on [day] (UTC) count, whatever else the backend returns.
+     *
+     * @return The day to cache, or null if the search failed
+     */
+    private suspend fun fetchDay(origin: String, destination: String, day: Long): FareCalendarEntity? =
+        runSuspendCatching {
+            val minPrice = flightService.streamAllFlights(flightStreamDecoder, origin, destination, LocalDate.ofEpochDay(day))
+                .filter { flight -> flight.departureTime?.let { Math.floorDiv(it, SECONDS_PER_DAY) } == day }
+                .mapNotNull { it.price }
+                .fold(null as Double?) { min, price -> if (min == null || price < min) price else min }
+            FareCalendarEntity(
+                origin = origin,
+                destination = destination,
+                date = day,
+                minPrice = minPrice,
+                fetchedAt = System.currentTimeMillis()
+            )
+        }.getOrNull()
+
+    private fun Map<Long, FareCalendarEntity>.toCalendar(month: YearMonth) =
+        FareCalendar(month = month, fares = values.mapNotNull { it.toDomain() })
+
+    private companion object {
+        const val MAX_CONCURRENT_DAY_REQUESTS = 4
+        const val SECONDS_PER_DAY = 24 * 60 * 60L
+        val FARE_CALENDAR_CACHE_POLICY = CachePolicy(timeToLive = 6.hours, maxStale = 1.days)
+    }
+}
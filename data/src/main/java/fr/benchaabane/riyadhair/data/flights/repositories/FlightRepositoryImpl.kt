@@ -1,12 +1,40 @@
 package fr.benchaabane.riyadhair.data.flights.repositories
 
+import androidx.paging.ExperimentalPagingApi
+import androidx.paging.Pager
+import androidx.paging.PagingConfig
+import androidx.paging.PagingData
+import androidx.paging.map
 import fr.benchaabane.riyadhair.core.extensions.recoverSuspendCatching
 import fr.benchaabane.riyadhair.core.extensions.runSuspendCatching
+import fr.benchaabane.riyadhair.core.network.SingleFlight
 import fr.benchaabane.riyadhair.data.flights.api.FlightService
+import fr.benchaabane.riyadhair.data.flights.api.FlightStreamDecoder
+import fr.benchaabane.riyadhair.data.flights.api.SEARCH_PAGE_SIZE
+import fr.benchaabane.riyadhair.data.flights.api.streamAllFlights
+import fr.benchaabane.riyadhair.data.db.AppDatabase
+import fr.benchaabane.riyadhair.data.flights.cache.FlightIndex
+import fr.benchaabane.riyadhair.data.flights.cache.FlightSearchCache
 import fr.benchaabane.riyadhair.data.flights.mappers.toDomain
+import fr.benchaabane.riyadhair.data.flights.paging.FlightRemoteMediator
 import fr.benchaabane.riyadhair.domain.flights.models.Flight
+import fr.benchaabane.riyadhair.domain.flights.models.FlightPagingConfig
+import fr.benchaabane.riyadhair.domain.flights.models.FlightSearch
 import fr.benchaabane.riyadhair.domain.flights.repositories.FlightRepository
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.filter
+import kotlinx.coroutines.flow.flowOn
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.launch
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.ZoneOffset
 import javax.inject.Inject
+import javax.inject.Singleton
 import kotlin.contracts.ExperimentalContracts
 
 /**
@@ -25,54 +53,77 @@ import kotlin.contracts.ExperimentalContracts
  *
  * **Dependencies:**
  * - **FlightService**: For remote API operations
+ * - **FlightStreamDecoder**: Decodes search responses one flight at a time
+ * - **FlightIndex**: In-memory index of flights seen in previous searches
+ * - **FlightSearchCache**: In-memory results of recent dated searches
+ * - **AppDatabase**: Offline flight cache paged by [FlightRemoteMediator]
  * - **Mappers**: For data transformation between layers
  * - **Core Extensions**: For safe operation execution
  *
  * **Threading:**
  * All methods are suspending functions designed to be called from
  * coroutines in the appropriate dispatcher context.
+ * Concurrent searches for the same route, and concurrent lookups of the
+ * same flight number, share a single in-flight call through [SingleFlight],
+ * which is why the repository is scoped as a singleton.
+ * Seat revalidations of reused search results run in the background on
+ * the IO dispatcher, outliving the search that triggered them.
  *
- * **Mock API Handling:**
- * This implementation includes filtering logic to simulate a coherent
- * API response, as the mock API may return inconsistent data that
- * needs to be filtered for business logic compliance.
+ * **Route Filtering:**
+ * Origin, destination and paging are applied by the backend, mock
+ * included, so search results are used as received; no full flight list
+ * is downloaded to be filtered on the device. Searches follow the pages of
+ * [SEARCH_PAGE_SIZE] flights until a short page, so no route is truncated.
  *
  * @see FlightRepository
  * @see FlightService
  * @see Flight
  */
+@Singleton
 @OptIn(ExperimentalContracts::class)
 class FlightRepositoryImpl @Inject constructor(
     private val flightService: FlightService,
+    private val flightIndex: FlightIndex,
+    private val database: AppDatabase,
+    private val flightStreamDecoder: FlightStreamDecoder,
+    private val flightSearchCache: FlightSearchCache,
 ) : FlightRepository {
 
+    /**
+     * Coalesces concurrent [getFlights] calls for the same origin and destination.
+     */
+    private val searchFlight = SingleFlight<Pair<String, String>, List<Flight>>()
+
+    /**
+     * Coalesces concurrent [getFlight] calls for the same flight number.
+     */
+    private val flightLookup = SingleFlight<String, Flight?>()
+
+    /**
+     * Coalesces concurrent [searchFlights] calls for the same search leg.
+     */
+    private val legSearch = SingleFlight<FlightSearch, List<Flight>>()
+
+    /**
+     * Runs the seat revalidations of reused search results, detached from the caller.
+     */
+    private val revalidationScope = CoroutineScope(SupervisorJob() + Dispatchers.IO)
+
     /**
      * Retrieves flights based on origin and destination airports.
      *
      * This method searches for available flights between the specified
-     * airports, fetching data from the remote API and applying business
-     * logic filters to ensure data consistency.
+     * airports, fetching every page of the route from the remote API.
      *
      * **Data Flow:**
-     * 1. **API Call**: Fetches flights from remote service
-     * 2. **Data Mapping**: Converts DTOs to domain models
-     * 3. **Business Filtering**: Applies origin/destination validation
-     * 4. **Result Return**: Returns filtered flight list
-     *
-     * **Business Logic:**
-     * - **Route Validation**: Ensures flights match requested route
-     * - **Data Consistency**: Filters out inconsistent API responses
-     * - **Mock Handling**: Simulates coherent API behavior
+     * 1. **API Call**: Streams the route's flights from remote service via [streamFlights]
+     * 2. **Data Mapping**: Converts each DTO to a domain model as it is decoded
+     * 3. **Indexing**: Records the flights in [FlightIndex] for later lookups
+     * 4. **Result Return**: Returns the flight list
      *
      * **Error Handling:**
      * - **Network Failures**: Returns empty list on API errors
      * - **Processing Errors**: Graceful fallback to empty results
-     * - **Data Validation**: Filters invalid flight data
-     *
-     * **Filtering Details:**
-     * The filter ensures that returned flights have matching
-     * origin and destination airports, handling cases where
-     * the mock API might return inconsistent data.
      *
      * @param origin The departure airport code (e.g., "CDG", "JFK")
      * @param destination The arrival airport code (e.g., "LAX", "LHR")
@@ -80,57 +131,194 @@ class FlightRepositoryImpl @Inject constructor(
      */
     override suspend fun getFlights(origin: String, destination: String): Result<List<Flight>> {
         return runSuspendCatching {
-            val response = flightService.searchFlights(origin, destination)
-            // The Filter is needed here to mock a coherent api response
-            response.flights.map { it.toDomain() }.filter { it.departureAirport.code == origin && it.arrivalAirport.code == destination }
+            searchFlight.run(origin to destination) {
+                streamFlights(origin, destination)
+                    .toList()
+                    .also { flightIndex.putAll(it) }
+            }
+        }.recoverSuspendCatching {
+            emptyList()
+        }
+    }
+
+    /**
+     * Retrieves the flights of the outbound leg of a dated search.
+     *
+     * Results are cached in [FlightSearchCache] under the normalised leg, so
+     * a repeated search, or a return to the results from checkout, is
+     * answered from memory without waiting for the network.
+     *
+     * **Data Flow:**
+     * 1. **Cache Lookup**: Returns the cached leg if it has not expired, and
+     *    schedules a seat revalidation via [revalidateSeats]
+     * 2. **API Call**: Otherwise streams the flights of the departure day
+     * 3. **Business Filtering**: Keeps the flights departing on the leg's day
+     *    (UTC) that can seat every passenger, so that the cached entry only
+     *    ever holds what its key describes
+     * 4. **Caching**: Records the flights in [FlightIndex] and [FlightSearchCache]
+     *
+     * **Error Handling:**
+     * - **Network Failures**: Returns empty list on API errors; nothing is cached
+     *
+     * @param search The search whose outbound leg is retrieved
+     * @return Result containing the leg's flights, or an empty list on error
+     */
+    override suspend fun searchFlights(search: FlightSearch): Result<List<Flight>> {
+        val leg = search.outboundLeg()
+        return runSuspendCatching {
+            flightSearchCache.get(leg)
+                ?.also { revalidateSeats(leg) }
+                ?: legSearch.run(leg) {
+                    streamFlights(leg.departureAirportCode, leg.arrivalAirportCode, leg.departureDate)
+                        .filter { it.departureTime.toLocalDate() == leg.departureDate }
+                        .filter { it.availableSeats >= leg.passengers.total }
+                        .toList()
+                        .also { flights ->
+                            flightIndex.putAll(flights)
+                            flightSearchCache.put(leg, flights)
+                        }
+                }
         }.recoverSuspendCatching {
             emptyList()
         }
     }
 
+    /**
+     * Refreshes the seat counts of a reused search leg in the background.
+     *
+     * Only the flight ids are sent and one seat count per flight comes back,
+     * which is far cheaper than a new search. Revalidations are throttled by
+     * [FlightSearchCache.claimRevalidation]. The outcome is applied to the
+     * cached leg and to [FlightIndex], so the next reuse, and the checkout
+     * of a flight of the leg, see the current seats. A failed revalidation
+     * leaves the cached leg as it was.
+     *
+     * @param leg The normalised search leg that was served from the cache
+     */
+    private fun revalidateSeats(leg: FlightSearch) {
+        if (!flightSearchCache.claimRevalidation(leg)) return
+        revalidationScope.launch {
+            runSuspendCatching {
+                val ids = flightSearchCache.get(leg)?.map { it.id }
+                if (ids.isNullOrEmpty()) return@runSuspendCatching
+                val seats = flightService.getAvailability(ids.joinToString(","))
+                    .availability
+                    .associate { it.id to it.availableSeats }
+                flightSearchCache.updateSeats(leg, seats)?.let { flightIndex.putAll(it) }
+            }
+        }
+    }
+
     /**
      * Retrieves a specific flight by flight number.
      *
-     * This method searches for a flight with the specified flight number,
-     * fetching data from the remote API and applying business logic
-     * filters to ensure data accuracy.
+     * This method resolves the flight from the in-memory [FlightIndex] first,
+     * so flights the user has just seen in a search need no network call.
+     * Only unknown flights are fetched, through the dedicated single-flight
+     * endpoint rather than the full flight list.
      *
      * **Data Flow:**
-     * 1. **API Call**: Fetches all flights from remote service
-     * 2. **Flight Search**: Finds flight matching the flight number
-     * 3. **Data Mapping**: Converts found DTO to domain model
-     * 4. **Result Return**: Returns matching flight or null
+     * 1. **Index Lookup**: Returns the indexed flight if present
+     * 2. **API Call**: Fetches the single flight from remote service
+     * 3. **Data Mapping**: Converts the DTO to domain model
+     * 4. **Indexing**: Records the fetched flight for later lookups
      *
      * **Business Logic:**
      * - **Flight Identification**: Searches by unique flight number
      * - **Data Consistency**: Ensures flight data accuracy
-     * - **Mock Handling**: Simulates coherent API behavior
      *
      * **Error Handling:**
      * - **Network Failures**: Returns null on API errors
      * - **Processing Errors**: Graceful fallback to null result
-     * - **Flight Not Found**: Returns null for non-existent flights
-     *
-     * **Search Strategy:**
-     * Currently fetches all flights and filters by flight number.
-     * In a production environment, this could be optimized with
-     * a direct flight number search endpoint.
-     *
-     * **Mock API Handling:**
-     * Uses empty strings for origin/destination to fetch all
-     * available flights, then filters by flight number for
-     * business logic compliance.
+     * - **Flight Not Found**: Returns null for non-existent flights (HTTP 404)
      *
      * @param flightNumber The unique flight number to search for
      * @return Result containing the matching flight or null if not found/error
      */
     override suspend fun getFlight(flightNumber: String): Result<Flight?> {
         return runSuspendCatching {
-            val response = flightService.searchFlights("", "")
-            // The Filter is needed here to mock a coherent api response
-            response.flights.find { it.flightNumber == flightNumber }?.toDomain()
+            flightIndex.getByNumber(flightNumber) ?: flightLookup.run(flightNumber) {
+                flightService.getFlight(flightNumber).toDomain()
+                    .also { flightIndex.putAll(listOf(it)) }
+            }
         }.recoverSuspendCatching {
             null
         }
     }
+
+    /**
+     * Streams the flights of a route while the responses are downloaded.
+     *
+     * The route is followed page by page by [streamAllFlights], so it is
+     * never truncated. Each search body is read unbuffered and decoded
+     * element by element by [FlightStreamDecoder]; each flight is mapped and
+     * emitted before the next one is read. Only one DTO is alive at a time,
+     * instead of the whole
+     * [fr.benchaabane.riyadhair.data.flights.api.FlightsResponse].
+     *
+     * A collector stopping early, e.g. with `take`, closes the current body
+     * and no further page is requested.
+     *
+     * @param origin The departure airport code (e.g., "RUH")
+     * @param destination The arrival airport code (e.g., "JED")
+     * @return Cold flow of flights, decoded on the IO dispatcher
+     */
+    override fun streamFlights(origin: String, destination: String): Flow<Flight> =
+        streamFlights(origin, destination, date = null)
+
+    private fun streamFlights(origin: String, destination: String, date: LocalDate?): Flow<Flight> =
+        flightService.streamAllFlights(flightStreamDecoder, origin, destination, date)
+            .map { it.toDomain() }
+            .flowOn(Dispatchers.IO)
+
+    /**
+     * Retrieves the cached flights departing in a time window, from every route.
+     *
+     * Reads the `flights` table filled by [FlightRemoteMediator]; times are
+     * compared in UTC epoch seconds, as stored.
+     *
+     * @param departingFrom Earliest departure time
+     * @param departingUntil Latest departure time
+     * @return Result containing the cached flights, or the database error
+     */
+    override suspend fun getCachedFlights(
+        departingFrom: LocalDateTime,
+        departingUntil: LocalDateTime
+    ): Result<List<Flight>> = runSuspendCatching {
+        database.flightDao().getFlightsDepartingBetween(
+            from = departingFrom.toEpochSecond(ZoneOffset.UTC),
+            to = departingUntil.toEpochSecond(ZoneOffset.UTC)
+        ).map { it.toDomain() }
+    }
+
+    /**
+     * Pages the flights of a route from the offline flight cache.
+     *
+     * The Pager reads from the Room PagingSource of the `flights` table
+     * while [FlightRemoteMediator] fetches network pages into it when the
+     * cached pages run out, or when the route's cache has timed out.
+     *
+     * @param origin The departure airport code (e.g., "RUH")
+     * @param destination The arrival airport code (e.g., "JED")
+     * @param config Page size, prefetch distance and placeholder settings
+     * @return Flow of paged flights ordered by departure time
+     */
+    @OptIn(ExperimentalPagingApi::class)
+    override fun getPagedFlights(
+        origin: String,
+        destination: String,
+        config: FlightPagingConfig
+    ): Flow<PagingData<Flight>> {
+        val flightDao = database.flightDao()
+        return Pager(
+            config = PagingConfig(
+                pageSize = config.pageSize,
+                prefetchDistance = config.prefetchDistance,
+                enablePlaceholders = config.enablePlaceholders,
+                initialLoadSize = config.initialLoadSize
+            ),
+            remoteMediator = FlightRemoteMediator(flightService, flightStreamDecoder, database, origin, destination),
+            pagingSourceFactory = { flightDao.pagingSource(origin, destination) }
+        ).flow.map { pagingData -> pagingData.map { it.toDomain() } }
+    }
 }
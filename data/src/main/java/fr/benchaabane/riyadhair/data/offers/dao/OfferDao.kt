@@ -2,7 +2,11 @@ package fr.benchaabane.riyadhair.data.offers.dao
 
 import androidx.room.Dao
 import androidx.room.Query
+import androidx.room.Transaction
 import androidx.room.Upsert
+import fr.benchaabane.riyadhair.data.db.FetchTimestampEntity
+import fr.benchaabane.riyadhair.data.db.RowDiff
+import fr.benchaabane.riyadhair.data.db.RowVersion
 import kotlinx.coroutines.flow.Flow
 
 /**
@@ -65,6 +69,18 @@ interface OfferDao {
      */
     @Query("SELECT * FROM offers ORDER BY discountPercentage DESC")
     suspend fun getOffers(): List<OfferEntity>
+
+    /**
+     * Observes the offers returned by [getOffers].
+     *
+     * The returned Flow emits the current rows immediately and re-emits
+     * every time the `offers` table is modified, which lets a single
+     * subscription pick up the result of a background refresh.
+     *
+     * @return Flow of the offers, in the same order as [getOffers]
+     */
+    @Query("SELECT * FROM offers ORDER BY discountPercentage DESC")
+    fun observeOffers(): Flow<List<OfferEntity>>
     
     /**
      * Inserts or updates multiple offers in the database.
@@ -123,4 +139,69 @@ interface OfferDao {
      */
     @Query("DELETE FROM offers")
     suspend fun clearAll()
+
+    /**
+     * Reads the identifier and content hash of every stored offer.
+     *
+     * **Query Details:**
+     * - **SQL**: `SELECT id, contentHash FROM offers`
+     * - **Use Case**: Diffing a refresh without loading whole rows
+     *
+     * @return The version of every stored offer
+     */
+    @Query("SELECT id, contentHash FROM offers")
+    suspend fun getRowVersions(): List<RowVersion>
+
+    /**
+     * Removes the given offers.
+     *
+     * @param ids Identifiers of the offers to delete
+     */
+    @Query("DELETE FROM offers WHERE id IN (:ids)")
+    suspend fun deleteByIds(ids: List<String>)
+
+    /**
+     * Makes the offers table match a complete server list, writing only what changed.
+     *
+     * The incoming offers are compared to the stored ones by id and content
+     * hash, and only the new, changed and removed rows are written, in a
+     * single transaction: readers never see a partial or empty table, and
+     * an unchanged list writes nothing, so observers of [observeOffers]
+     * are not notified at all.
+     *
+     * @param offers The complete list of offers
+     * @return The writes applied, empty when the table was up to date
+     */
+    @Transaction
+    suspend fun sync(offers: List<OfferEntity>): RowDiff<OfferEntity> {
+        val diff = RowDiff.compute(getRowVersions(), offers, OfferEntity::id, OfferEntity::contentHash)
+        if (diff.upserts.isNotEmpty()) upsertAll(diff.upserts)
+        diff.deletedIds.chunked(RowDiff.MAX_BOUND_IDS).forEach { deleteByIds(it) }
+        return diff
+    }
+
+    /**
+     * Records the fetch time of the offers, next to the rows it describes.
+     *
+     * @param timestamp The resource key and its fetch time
+     */
+    @Upsert
+    suspend fun upsertFetchTimestamp(timestamp: FetchTimestampEntity)
+
+    /**
+     * Applies a fetched list with [sync] and records its fetch time, in one transaction.
+     *
+     * A crash between the two writes can no longer leave fresh rows behind an
+     * old timestamp, or a fresh timestamp in front of old rows.
+     *
+     * @param offers The complete list of offers
+     * @param timestamp The resource key and the time the list was fetched
+     * @return The writes applied to the offers table
+     */
+    @Transaction
+    suspend fun syncFetched(offers: List<OfferEntity>, timestamp: FetchTimestampEntity): RowDiff<OfferEntity> {
+        val diff = sync(offers)
+        upsertFetchTimestamp(timestamp)
+        return diff
+    }
 }
@@ -1,7 +1,10 @@
 package fr.benchaabane.riyadhair.data.offers.dao
 
+import androidx.room.ColumnInfo
 import androidx.room.Entity
+import androidx.room.Index
 import androidx.room.PrimaryKey
+import fr.benchaabane.riyadhair.data.db.contentHashOf
 
 /**
  * Database entity representing a travel offer in the local database.
@@ -13,6 +16,7 @@ import androidx.room.PrimaryKey
  * **Database Structure:**
  * - **Table Name**: `offers`
  * - **Primary Key**: `id` (String)
+ * - **Index**: `discountPercentage`, behind the best offers ordering
  * - **Data Persistence**: Local storage for offline access
  * - **Cache Management**: Stores offer data for quick retrieval
  *
@@ -56,12 +60,16 @@ import androidx.room.PrimaryKey
  * @property validUntil Offer validity end date
  * @property description Description of the travel offer
  * @property termsAndConditions Terms and conditions for the offer
+ * @property contentHash Hash of the other columns, compared by [OfferDao.sync]
  *
  * @see OfferDao
  * @see fr.benchaabane.riyadhair.domain.offers.models.Offer
  * @see fr.benchaabane.riyadhair.data.offers.api.OfferDto
  */
-@Entity(tableName = "offers")
+@Entity(
+    tableName = "offers",
+    indices = [Index(value = ["discountPercentage"])]
+)
 data class OfferEntity(
     @PrimaryKey val id: String,
     val destinationId: String,
@@ -78,5 +86,12 @@ data class OfferEntity(
     val discountPercentage: Int,
     val validUntil: String,
     val description: String,
-    val termsAndConditions: String
+    val termsAndConditions: String,
+    @ColumnInfo(defaultValue = "0")
+    val contentHash: Long = contentHashOf(
+        id, destinationId, destinationName, destinationCityName, destinationCountryName,
+        destinationAirportCode, destinationImageUrl, destinationDescription, destinationAverageTemperature,
+        destinationTimeZone, originalPrice, discountedPrice, discountPercentage, validUntil, description,
+        termsAndConditions
+    )
 )
@@ -2,6 +2,12 @@ package fr.benchaabane.riyadhair.data.offers.repositories
 
 import fr.benchaabane.riyadhair.core.extensions.recoverSuspendCatching
 import fr.benchaabane.riyadhair.core.extensions.runSuspendCatching
+import fr.benchaabane.riyadhair.core.network.CachePolicy
+import fr.benchaabane.riyadhair.core.network.SingleFlight
+import fr.benchaabane.riyadhair.core.network.StaleWhileRevalidateResource
+import fr.benchaabane.riyadhair.data.db.FetchTimestampDao
+import fr.benchaabane.riyadhair.data.db.FetchTimestampEntity
+import fr.benchaabane.riyadhair.data.offers.api.OffersResponse
 import fr.benchaabane.riyadhair.data.offers.api.OffersService
 import fr.benchaabane.riyadhair.data.offers.dao.OfferDao
 import fr.benchaabane.riyadhair.data.offers.dao.OfferEntity
@@ -9,8 +15,14 @@ import fr.benchaabane.riyadhair.data.offers.mappers.toDomain
 import fr.benchaabane.riyadhair.data.offers.mappers.toEntity
 import fr.benchaabane.riyadhair.domain.offers.models.Offer
 import fr.benchaabane.riyadhair.domain.offers.repositories.OffersRepository
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.flow.mapNotNull
 import javax.inject.Inject
+import javax.inject.Singleton
 import kotlin.contracts.ExperimentalContracts
+import kotlin.time.Duration.Companion.days
+import kotlin.time.Duration.Companion.minutes
 
 /**
  * Implementation of the OffersRepository interface.
@@ -34,12 +46,15 @@ import kotlin.contracts.ExperimentalContracts
  *
  * **Dependencies:**
  * - **OfferDao**: Local database access for caching
+ * - **FetchTimestampDao**: Age of the cached offers for [observeBestOffers]
  * - **OffersService**: Remote API access for fresh data
  * - **Mappers**: Convert between data and domain models
  *
  * **Threading:**
  * All methods are suspending functions designed to be called from
  * coroutines in the appropriate dispatcher context.
+ * Concurrent offer requests, one-shot or observed, share a single in-flight
+ * call through [SingleFlight], which is why the repository is scoped as a singleton.
  *
  * **Usage Context:**
  * - **Use Cases**: Called by domain layer use cases
@@ -52,12 +67,20 @@ import kotlin.contracts.ExperimentalContracts
  * @see OffersService
  * @see fr.benchaabane.riyadhair.domain.offers.models.Offer
  */
+@Singleton
 @OptIn(ExperimentalContracts::class)
 class OffersRepositoryImpl @Inject constructor(
     private val offerDao: OfferDao,
-    private val offersService: OffersService
+    private val offersService: OffersService,
+    private val fetchTimestampDao: FetchTimestampDao
 ) : OffersRepository {
 
+    /**
+     * Coalesces concurrent best offers calls, from [getBestOffers] and from the
+     * revalidations of [observeBestOffers] alike, into a single network call.
+     */
+    private val bestOffersFlight = SingleFlight<Unit, OffersResponse>()
+
     /**
      * Retrieves the best available travel offers.
      *
@@ -69,7 +92,7 @@ class OffersRepositoryImpl @Inject constructor(
      *
      * **Data Flow:**
      * - **API Call**: Fetches offers from OffersService
-     * - **Cache Update**: Stores fresh data in local database
+     * - **Cache Update**: Writes only the rows that changed, with their fetch time, in one transaction
      * - **Data Conversion**: Maps entities to domain models
      * - **Fallback Logic**: Uses cached data when needed
      *
@@ -95,20 +118,60 @@ class OffersRepositoryImpl @Inject constructor(
      */
     override suspend fun getBestOffers(): Result<List<Offer>> {
         return runSuspendCatching {
-            val response = offersService.getBestOffers()
-            if (response.offers.isNullOrEmpty()) {
-                offerDao.getOffers().map { it.toDomain() }
-            } else {
-                val entities = response.offers.map { it.toEntity() }
-                offerDao.clearAll()
-                offerDao.upsertAll(entities)
-                entities.map { it.toDomain() }
-            }
+            val response = bestOffersFlight.run(Unit) { offersService.getBestOffers() }
+            val entities = saveOffers(response, System.currentTimeMillis()) ?: offerDao.getOffers()
+            entities.map { it.toDomain() }
         }.recoverSuspendCatching {
             emptyList()
         }
     }
 
+    /**
+     * Observes the best available offers with a stale-while-revalidate strategy.
+     *
+     * The cached offers are emitted right away from a single Room subscription.
+     * When they are older than [OFFERS_CACHE_POLICY] allows, a refresh runs in the
+     * background and its result reaches the collector through the same subscription.
+     *
+     * **Cache Policy:**
+     * - **Fresh** (under 15 minutes): No network call
+     * - **Stale** (under 1 day past TTL): Cached offers shown while revalidating
+     * - **Expired**: Cached offers shown as a placeholder until the refresh completes
+     *
+     * **Error Handling:**
+     * - **Network Failures**: The cached offers keep being emitted
+     * - **Empty Responses**: The cache and its timestamp are left untouched
+     *
+     * @return Flow emitting the cached offers on every change
+     */
+    override fun observeBestOffers(): Flow<List<Offer>> {
+        return object : StaleWhileRevalidateResource<List<OfferEntity>, OffersResponse>(OFFERS_CACHE_POLICY) {
+            override fun loadFromDb() = offerDao.observeOffers()
+
+            override suspend fun loadFetchedAt() = fetchTimestampDao.getFetchedAt(OFFERS_RESOURCE_KEY)
+
+            override suspend fun createCall() = bestOffersFlight.run(Unit) { offersService.getBestOffers() }
+
+            override suspend fun saveCallResult(data: OffersResponse, fetchedAt: Long) {
+                saveOffers(data, fetchedAt)
+            }
+        }.asFlow()
+            .mapNotNull { it.data }
+            .map { entities -> entities.map { it.toDomain() } }
+    }
+
+    /**
+     * Stores a fetched offer list and its fetch time, read by [observeBestOffers].
+     *
+     * @return The stored offers, or null for an empty response, which leaves the cache untouched
+     */
+    private suspend fun saveOffers(response: OffersResponse, fetchedAt: Long): List<OfferEntity>? {
+        if (response.offers.isNullOrEmpty()) return null
+        val entities = response.offers.map { it.toEntity() }
+        offerDao.syncFetched(entities, FetchTimestampEntity(OFFERS_RESOURCE_KEY, fetchedAt))
+        return entities
+    }
+
     /**
      * Seeds the local database with mock offer data.
      *
@@ -238,3 +301,7 @@ class OffersRepositoryImpl @Inject constructor(
         offerDao.upsertAll(mockOffers)
     }
 }
+
+private const val OFFERS_RESOURCE_KEY = "offers/best"
+
+private val OFFERS_CACHE_POLICY = CachePolicy(timeToLive = 15.minutes, maxStale = 1.days)
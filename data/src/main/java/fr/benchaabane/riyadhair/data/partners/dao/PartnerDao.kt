@@ -2,7 +2,11 @@ package fr.benchaabane.riyadhair.data.partners.dao
 
 import androidx.room.Dao
 import androidx.room.Query
+import androidx.room.Transaction
 import androidx.room.Upsert
+import fr.benchaabane.riyadhair.data.db.FetchTimestampEntity
+import fr.benchaabane.riyadhair.data.db.RowDiff
+import fr.benchaabane.riyadhair.data.db.RowVersion
 import kotlinx.coroutines.flow.Flow
 
 /**
@@ -66,6 +70,18 @@ interface PartnerDao {
      */
     @Query("SELECT * FROM partners WHERE isActive = 1 ORDER BY name ASC")
     suspend fun getPartners(): List<PartnerEntity>
+
+    /**
+     * Observes the partners returned by [getPartners].
+     *
+     * The returned Flow emits the current rows immediately and re-emits
+     * every time the `partners` table is modified, which lets a single
+     * subscription pick up the result of a background refresh.
+     *
+     * @return Flow of the partners, in the same order as [getPartners]
+     */
+    @Query("SELECT * FROM partners WHERE isActive = 1 ORDER BY name ASC")
+    fun observePartners(): Flow<List<PartnerEntity>>
     
     /**
      * Inserts or updates multiple partners in the database.
@@ -124,4 +140,69 @@ interface PartnerDao {
      */
     @Query("DELETE FROM partners")
     suspend fun clearAll()
+
+    /**
+     * Reads the identifier and content hash of every stored partner.
+     *
+     * **Query Details:**
+     * - **SQL**: `SELECT id, contentHash FROM partners`
+     * - **Use Case**: Diffing a refresh without loading whole rows
+     *
+     * @return The version of every stored partner
+     */
+    @Query("SELECT id, contentHash FROM partners")
+    suspend fun getRowVersions(): List<RowVersion>
+
+    /**
+     * Removes the given partners.
+     *
+     * @param ids Identifiers of the partners to delete
+     */
+    @Query("DELETE FROM partners WHERE id IN (:ids)")
+    suspend fun deleteByIds(ids: List<String>)
+
+    /**
+     * Makes the partners table match a complete server list, writing only what changed.
+     *
+     * The incoming partners are compared to the stored ones by id and content
+     * hash, and only the new, changed and removed rows are written, in a
+     * single transaction: readers never see a partial or empty table, and
+     * an unchanged list writes nothing, so observers of [observePartners]
+     * are not notified at all.
+     *
+     * @param partners The complete list of partners
+     * @return The writes applied, empty when the table was up to date
+     */
+    @Transaction
+    suspend fun sync(partners: List<PartnerEntity>): RowDiff<PartnerEntity> {
+        val diff = RowDiff.compute(getRowVersions(), partners, PartnerEntity::id, PartnerEntity::contentHash)
+        if (diff.upserts.isNotEmpty()) upsertAll(diff.upserts)
+        diff.deletedIds.chunked(RowDiff.MAX_BOUND_IDS).forEach { deleteByIds(it) }
+        return diff
+    }
+
+    /**
+     * Records the fetch time of the partners, next to the rows it describes.
+     *
+     * @param timestamp The resource key and its fetch time
+     */
+    @Upsert
+    suspend fun upsertFetchTimestamp(timestamp: FetchTimestampEntity)
+
+    /**
+     * Applies a fetched list with [sync] and records its fetch time, in one transaction.
+     *
+     * A crash between the two writes can no longer leave fresh rows behind an
+     * old timestamp, or a fresh timestamp in front of old rows.
+     *
+     * @param partners The complete list of partners
+     * @param timestamp The resource key and the time the list was fetched
+     * @return The writes applied to the partners table
+     */
+    @Transaction
+    suspend fun syncFetched(partners: List<PartnerEntity>, timestamp: FetchTimestampEntity): RowDiff<PartnerEntity> {
+        val diff = sync(partners)
+        upsertFetchTimestamp(timestamp)
+        return diff
+    }
 }
@@ -1,7 +1,10 @@
 package fr.benchaabane.riyadhair.data.partners.dao
 
+import androidx.room.ColumnInfo
 import androidx.room.Entity
+import androidx.room.Index
 import androidx.room.PrimaryKey
+import fr.benchaabane.riyadhair.data.db.contentHashOf
 
 /**
  * Database entity representing a business partner in the local database.
@@ -14,6 +17,7 @@ import androidx.room.PrimaryKey
  * **Database Structure:**
  * - **Table Name**: `partners`
  * - **Primary Key**: `id` (String)
+ * - **Index**: (`isActive`, `name`), behind the active partners query and its ordering
  * - **Data Persistence**: Local storage for offline access
  * - **Cache Management**: Stores partner data for quick retrieval
  *
@@ -49,12 +53,16 @@ import androidx.room.PrimaryKey
  * @property discountPercentage Discount percentage offered to customers (optional)
  * @property websiteUrl Partner's website URL
  * @property isActive Whether the partner is currently active
+ * @property contentHash Hash of the other columns, compared by [PartnerDao.sync]
  *
  * @see PartnerDao
  * @see fr.benchaabane.riyadhair.domain.partners.models.Partner
  * @see fr.benchaabane.riyadhair.data.partners.api.PartnerDto
  */
-@Entity(tableName = "partners")
+@Entity(
+    tableName = "partners",
+    indices = [Index(value = ["isActive", "name"])]
+)
 data class PartnerEntity(
     @PrimaryKey val id: String,
     val name: String,
@@ -63,5 +71,9 @@ data class PartnerEntity(
     val description: String,
     val discountPercentage: Int?,
     val websiteUrl: String,
-    val isActive: Boolean
+    val isActive: Boolean,
+    @ColumnInfo(defaultValue = "0")
+    val contentHash: Long = contentHashOf(
+        id, name, category, imageUrl, description, discountPercentage, websiteUrl, isActive
+    )
 )
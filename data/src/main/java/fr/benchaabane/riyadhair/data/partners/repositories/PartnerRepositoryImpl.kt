@@ -2,7 +2,13 @@ package fr.benchaabane.riyadhair.data.partners.repositories
 
 import fr.benchaabane.riyadhair.core.extensions.recoverSuspendCatching
 import fr.benchaabane.riyadhair.core.extensions.runSuspendCatching
+import fr.benchaabane.riyadhair.core.network.CachePolicy
+import fr.benchaabane.riyadhair.core.network.SingleFlight
+import fr.benchaabane.riyadhair.core.network.StaleWhileRevalidateResource
+import fr.benchaabane.riyadhair.data.db.FetchTimestampDao
+import fr.benchaabane.riyadhair.data.db.FetchTimestampEntity
 import fr.benchaabane.riyadhair.data.partners.api.PartnerService
+import fr.benchaabane.riyadhair.data.partners.api.PartnersResponse
 import fr.benchaabane.riyadhair.data.partners.dao.PartnerDao
 import fr.benchaabane.riyadhair.data.partners.dao.PartnerEntity
 import fr.benchaabane.riyadhair.data.partners.mappers.toDomain
@@ -12,8 +18,12 @@ import fr.benchaabane.riyadhair.domain.partners.models.PartnerCategory
 import fr.benchaabane.riyadhair.domain.partners.repositories.PartnerRepository
 import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.flow.mapNotNull
 import javax.inject.Inject
+import javax.inject.Singleton
 import kotlin.contracts.ExperimentalContracts
+import kotlin.time.Duration.Companion.days
+import kotlin.time.Duration.Companion.hours
 
 /**
  * Implementation of the PartnerRepository interface.
@@ -37,12 +47,15 @@ import kotlin.contracts.ExperimentalContracts
  *
  * **Dependencies:**
  * - **PartnerDao**: Local database access for caching
+ * - **FetchTimestampDao**: Age of the cached partners for [observePartners]
  * - **PartnerService**: Remote API access for fresh data
  * - **Mappers**: Convert between data and domain models
  *
  * **Threading:**
  * All methods are suspending functions designed to be called from
  * coroutines in the appropriate dispatcher context.
+ * Concurrent partner requests, one-shot or observed, share a single in-flight
+ * call through [SingleFlight], which is why the repository is scoped as a singleton.
  *
  * **Usage Context:**
  * - **Use Cases**: Called by domain layer use cases
@@ -55,12 +68,20 @@ import kotlin.contracts.ExperimentalContracts
  * @see PartnerService
  * @see fr.benchaabane.riyadhair.domain.partners.models.Partner
  */
+@Singleton
 @OptIn(ExperimentalContracts::class)
 class PartnerRepositoryImpl @Inject constructor(
     private val partnerDao: PartnerDao,
-    private val partnerService: PartnerService
+    private val partnerService: PartnerService,
+    private val fetchTimestampDao: FetchTimestampDao
 ) : PartnerRepository {
 
+    /**
+     * Coalesces concurrent partners calls, from [getPartners] and from the
+     * revalidations of [observePartners] alike, into a single network call.
+     */
+    private val partnersFlight = SingleFlight<Unit, PartnersResponse>()
+
     /**
      * Retrieves all available partners.
      *
@@ -72,7 +93,7 @@ class PartnerRepositoryImpl @Inject constructor(
      *
      * **Data Flow:**
      * - **API Call**: Fetches partners from PartnerService
-     * - **Cache Update**: Stores fresh data in local database
+     * - **Cache Update**: Writes only the rows that changed, with their fetch time, in one transaction
      * - **Data Conversion**: Maps entities to domain models
      * - **Fallback Logic**: Uses cached data when needed
      *
@@ -98,17 +119,61 @@ class PartnerRepositoryImpl @Inject constructor(
      */
     override suspend fun getPartners(): Result<List<Partner>> {
         return runSuspendCatching {
-            val response = partnerService.getPartners()
-            if (response.partners.isEmpty()) {
-                partnerDao.getPartners().map { it.toDomain() }
-            } else {
-                val entities = response.partners.map { it.toEntity() }
-                partnerDao.clearAll()
-                partnerDao.upsertAll(entities)
-                entities.map { it.toDomain() }
-            }
+            val response = partnersFlight.run(Unit) { partnerService.getPartners() }
+            val entities = savePartners(response, System.currentTimeMillis()) ?: partnerDao.getPartners()
+            entities.map { it.toDomain() }
         }.recoverSuspendCatching {
             emptyList()
         }
     }
+
+    /**
+     * Observes the active partners with a stale-while-revalidate strategy.
+     *
+     * The cached partners are emitted right away from a single Room subscription.
+     * When they are older than [PARTNERS_CACHE_POLICY] allows, a refresh runs in the
+     * background and its result reaches the collector through the same subscription.
+     *
+     * **Cache Policy:**
+     * - **Fresh** (under 1 hour): No network call
+     * - **Stale** (under 7 days past TTL): Cached partners shown while revalidating
+     * - **Expired**: Cached partners shown as a placeholder until the refresh completes
+     *
+     * **Error Handling:**
+     * - **Network Failures**: The cached partners keep being emitted
+     * - **Empty Responses**: The cache and its timestamp are left untouched
+     *
+     * @return Flow emitting the cached partners on every change
+     */
+    override fun observePartners(): Flow<List<Partner>> {
+        return object : StaleWhileRevalidateResource<List<PartnerEntity>, PartnersResponse>(PARTNERS_CACHE_POLICY) {
+            override fun loadFromDb() = partnerDao.observePartners()
+
+            override suspend fun loadFetchedAt() = fetchTimestampDao.getFetchedAt(PARTNERS_RESOURCE_KEY)
+
+            override suspend fun createCall() = partnersFlight.run(Unit) { partnerService.getPartners() }
+
+            override suspend fun saveCallResult(data: PartnersResponse, fetchedAt: Long) {
+                savePartners(data, fetchedAt)
+            }
+        }.asFlow()
+            .mapNotNull { it.data }
+            .map { entities -> entities.map { it.toDomain() } }
+    }
+
+    /**
+     * Stores a fetched partner list and its fetch time, read by [observePartners].
+     *
+     * @return The stored partners, or null for an empty response, which leaves the cache untouched
+     */
+    private suspend fun savePartners(response: PartnersResponse, fetchedAt: Long): List<PartnerEntity>? {
+        if (response.partners.isEmpty()) return null
+        val entities = response.partners.map { it.toEntity() }
+        partnerDao.syncFetched(entities, FetchTimestampEntity(PARTNERS_RESOURCE_KEY, fetchedAt))
+        return entities
+    }
 }
+
+private const val PARTNERS_RESOURCE_KEY = "partners"
+
+private val PARTNERS_CACHE_POLICY = CachePolicy(timeToLive = 1.hours, maxStale = 7.days)
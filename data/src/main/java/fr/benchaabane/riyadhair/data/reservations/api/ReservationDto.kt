@@ -1,5 +1,7 @@
 package fr.benchaabane.riyadhair.data.reservations.api
 
+import fr.benchaabane.riyadhair.data.flights.api.FlightDto
+import fr.benchaabane.riyadhair.data.flights.api.IsoInstantSerializer
 import kotlinx.serialization.Serializable
 
 /**
@@ -31,6 +33,9 @@ import kotlinx.serialization.Serializable
  * @property passengerName Full name of the passenger making the reservation
  * @property seat Assigned seat number or designation on the aircraft
  * @property status Current status of the reservation (e.g., "confirmed", "pending", "cancelled")
+ * @property departureTime Departure time of the reserved flight in epoch seconds, sent as ISO 8601
+ * @property flight The reserved flight, sent by the server to refresh the local
+ *           snapshot; never sent by the app
  *
  * @see ReservationsResponse
  * @see fr.benchaabane.riyadhair.domain.reservations.models.Reservation
@@ -41,7 +46,10 @@ data class ReservationDto(
     val flightId: String,
     val passengerName: String,
     val seat: String,
-    val status: String
+    val status: String,
+    @Serializable(with = IsoInstantSerializer::class)
+    val departureTime: Long? = null,
+    val flight: FlightDto? = null
 )
 
 /**
@@ -68,12 +76,88 @@ data class ReservationDto(
  * Uses Kotlinx Serialization for JSON parsing from API responses.
  * Designed to handle API response structures consistently.
  *
+ * **Incremental Sync:**
+ * When requested with a `since` cursor, [reservations] only holds the
+ * reservations created or updated after it, and [deleted] the tombstones
+ * of those deleted after it. A full response has no tombstones.
+ *
  * @property reservations List of reservations returned from the API
+ * @property deleted Identifiers of the reservations deleted since the cursor
+ * @property cursor Cursor to send as `since` on the next sync, or null if
+ *           the server does not support incremental sync
+ * @property hasMore Whether more changes are waiting, to fetch right away
+ *           with [cursor]
  *
  * @see ReservationDto
  * @see fr.benchaabane.riyadhair.domain.reservations.models.Reservation
  */
 @Serializable
 data class ReservationsResponse(
-    val reservations: List<ReservationDto>
+    val reservations: List<ReservationDto>,
+    val deleted: List<String> = emptyList(),
+    val cursor: String? = null,
+    val hasMore: Boolean = false
+)
+
+/**
+ * Batch of queued reservation changes sent by the sync worker.
+ *
+ * @property operations The changes, in the order they were queued
+ *
+ * @see ReservationService.syncReservations
+ */
+@Serializable
+data class ReservationBatchRequest(
+    val operations: List<ReservationOperationDto>
+)
+
+/**
+ * One queued reservation change.
+ *
+ * The server applies an operation at most once per [idempotencyKey], so a
+ * batch replayed after a lost response does not book twice.
+ *
+ * @property idempotencyKey Unique key of the operation
+ * @property operation Kind of change (e.g., "CREATE")
+ * @property reservation The reservation, as currently stored on the device
+ */
+@Serializable
+data class ReservationOperationDto(
+    val idempotencyKey: String,
+    val operation: String,
+    val reservation: ReservationDto
+)
+
+/**
+ * Outcome of a batch of reservation changes.
+ *
+ * @property results One result per processed operation; operations without
+ *           a result are sent again later
+ */
+@Serializable
+data class ReservationBatchResponse(
+    val results: List<ReservationOperationResultDto> = emptyList()
+)
+
+/**
+ * Outcome of one reservation change.
+ *
+ * **Outcomes:**
+ * - **APPLIED**: The change is stored on the server, now or by an earlier
+ *   replay of the same key; [reservation] holds the server's copy
+ * - **REJECTED**: The change can never be applied (e.g., seat taken);
+ *   [reservation] holds the server's copy if any
+ * - **RETRY**: A transient failure; the change is sent again later
+ *
+ * @property idempotencyKey Key of the operation
+ * @property outcome One of "APPLIED", "REJECTED" or "RETRY"
+ * @property reservation The reservation as stored by the server, or null
+ * @property message Reason of a rejection or transient failure, or null
+ */
+@Serializable
+data class ReservationOperationResultDto(
+    val idempotencyKey: String,
+    val outcome: String,
+    val reservation: ReservationDto? = null,
+    val message: String? = null
 )
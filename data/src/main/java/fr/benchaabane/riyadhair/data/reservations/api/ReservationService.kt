@@ -3,6 +3,7 @@ package fr.benchaabane.riyadhair.data.reservations.api
 import retrofit2.http.Body
 import retrofit2.http.GET
 import retrofit2.http.POST
+import retrofit2.http.Query
 
 /**
  * Retrofit service interface for reservation-related API operations.
@@ -71,10 +72,16 @@ interface ReservationService {
      * - **Caching Strategy**: Local storage for offline access
      * - **User Experience**: Quick access to booking history
      *
-     * @return ReservationsResponse containing the user's reservation history
+     * **Incremental Sync:**
+     * With a `since` cursor, only the changes made after it are returned,
+     * with tombstones for the deleted reservations, a page at a time; the
+     * response carries the cursor of the next call.
+     *
+     * @param since Cursor returned by the previous sync, or null for the full history
+     * @return ReservationsResponse containing the user's reservations, or the changes since the cursor
      */
     @GET("reservations")
-    suspend fun getReservations(): ReservationsResponse
+    suspend fun getReservations(@Query("since") since: String? = null): ReservationsResponse
     
     /**
      * Creates a new flight reservation.
@@ -118,4 +125,24 @@ interface ReservationService {
      */
     @POST("reservations")
     suspend fun createReservation(@Body reservation: ReservationDto): ReservationDto
+
+    /**
+     * Sends a batch of queued reservation changes.
+     *
+     * Used by the sync worker to drain the reservation outbox: one request
+     * carries up to a batch of bookings made offline, each with its
+     * idempotency key, instead of one request per booking.
+     *
+     * **API Details:**
+     * - **Endpoint**: `POST /reservations/batch`
+     * - **Request Body**: The operations, in the order they were queued
+     * - **Response**: One result per processed operation
+     *
+     * @param batch The operations to apply
+     * @return ReservationBatchResponse with the outcome of each operation
+     * @throws retrofit2.HttpException for HTTP errors (4xx, 5xx)
+     * @throws java.io.IOException for network errors
+     */
+    @POST("reservations/batch")
+    suspend fun syncReservations(@Body batch: ReservationBatchRequest): ReservationBatchResponse
 }
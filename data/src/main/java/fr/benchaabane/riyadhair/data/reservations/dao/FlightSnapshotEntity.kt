@@ -0,0 +1,53 @@
+package fr.benchaabane.riyadhair.data.reservations.dao
+
+/**
+ * Copy of the reserved flight, embedded in [ReservationEntity].
+ *
+ * The reservation list renders route, times and aircraft from this copy,
+ * read by the same paged query as the reservation itself, instead of
+ * looking up each flight. It is written at booking time from the flight
+ * being booked, and refreshed by every reservation sync that carries the
+ * flight; the departure time stays on the reservation, where it is indexed.
+ *
+ * **Database Structure:**
+ * - **Table**: Columns of `reservations`, prefixed with `flight_`
+ * - **Nullability**: Null for reservations stored before snapshots were recorded
+ *
+ * @property flightNumber Flight number shown to the passenger (e.g. "RX1001")
+ * @property airline Operating airline
+ * @property origin IATA code of the departure airport
+ * @property originCity City of the departure airport
+ * @property destination IATA code of the arrival airport
+ * @property destinationCity City of the arrival airport
+ * @property arrivalTime Arrival time in epoch seconds
+ * @property duration Flight duration, as displayed (e.g. "1h 45m")
+ * @property aircraft Aircraft type
+ *
+ * @see ReservationEntity.flight
+ */
+data class FlightSnapshotEntity(
+    val flightNumber: String,
+    val airline: String,
+    val origin: String,
+    val originCity: String,
+    val destination: String,
+    val destinationCity: String,
+    val arrivalTime: Long,
+    val duration: String,
+    val aircraft: String
+)
+
+/**
+ * Keeps the flight details of [stored] when this server copy has none.
+ *
+ * Servers that do not send the flight with a reservation must not erase
+ * the snapshot written at booking time. The snapshot only describes the
+ * flight it was taken from: a reservation moved to another flight keeps
+ * none, rather than the details of the previous one.
+ *
+ * @param stored The reservation currently stored, if any
+ * @return This reservation, completed with the stored flight details
+ */
+internal fun ReservationEntity.withSnapshotOf(stored: ReservationEntity?): ReservationEntity =
+    if (flight != null || stored == null || stored.flightId != flightId) this
+    else copy(flight = stored.flight, departureTime = departureTime ?: stored.departureTime)
@@ -1,8 +1,11 @@
 package fr.benchaabane.riyadhair.data.reservations.dao
 
+import androidx.paging.PagingSource
 import androidx.room.Dao
 import androidx.room.Query
+import androidx.room.Transaction
 import androidx.room.Upsert
+import fr.benchaabane.riyadhair.data.db.SyncCursorEntity
 import kotlinx.coroutines.flow.Flow
 
 /**
@@ -14,8 +17,10 @@ import kotlinx.coroutines.flow.Flow
  *
  * **Supported Operations:**
  * - **Read**: Retrieve reservations with reactive updates
+ * - **Paging**: Page the history tabs by travel date
  * - **Write**: Insert/update reservation data
  * - **Delete**: Remove specific reservations
+ * - **Sync**: Apply a server delta and its cursor in one transaction
  *
  * **Reactive Features:**
  * - **Flow Support**: Real-time updates when data changes
@@ -57,6 +62,72 @@ interface ReservationDao {
     @Query("SELECT * FROM reservations")
     fun observeReservations(): Flow<List<ReservationEntity>>
     
+    /**
+     * Pages the upcoming reservations, soonest departure first.
+     *
+     * Reservations without a travel date come first, as they cannot be
+     * told apart from upcoming ones.
+     *
+     * **Query Details:**
+     * - **Filter**: `status IN (:statuses)` and a departure from [now] on
+     * - **Order**: `departureTime ASC, id ASC`
+     * - **Performance**: Served by the (`status`, `departureTime`) index, so a
+     *   page never scans the rest of the history
+     *
+     * @param statuses Statuses listed in the tab
+     * @param now Current time in epoch seconds
+     * @return Room PagingSource, invalidated whenever the table changes
+     */
+    @Query(
+        """
+        SELECT * FROM reservations
+        WHERE status IN (:statuses) AND (departureTime >= :now OR departureTime IS NULL)
+        ORDER BY departureTime ASC, id ASC
+        """
+    )
+    fun upcomingPagingSource(statuses: List<String>, now: Long): PagingSource<Int, ReservationEntity>
+
+    /**
+     * Pages the past reservations, latest departure first.
+     *
+     * **Query Details:**
+     * - **Filter**: `status IN (:statuses)` and a departure before [now]
+     * - **Order**: `departureTime DESC, id DESC`
+     * - **Performance**: Served by the (`status`, `departureTime`) index
+     *
+     * @param statuses Statuses listed in the tab
+     * @param now Current time in epoch seconds
+     * @return Room PagingSource, invalidated whenever the table changes
+     */
+    @Query(
+        """
+        SELECT * FROM reservations
+        WHERE status IN (:statuses) AND departureTime < :now
+        ORDER BY departureTime DESC, id DESC
+        """
+    )
+    fun pastPagingSource(statuses: List<String>, now: Long): PagingSource<Int, ReservationEntity>
+
+    /**
+     * Pages the reservations in the given statuses, latest departure first.
+     *
+     * **Query Details:**
+     * - **Filter**: `status IN (:statuses)`, whatever the travel date
+     * - **Order**: `departureTime DESC, id DESC`
+     * - **Performance**: Served by the (`status`, `departureTime`) index
+     *
+     * @param statuses Statuses listed in the tab
+     * @return Room PagingSource, invalidated whenever the table changes
+     */
+    @Query(
+        """
+        SELECT * FROM reservations
+        WHERE status IN (:statuses)
+        ORDER BY departureTime DESC, id DESC
+        """
+    )
+    fun statusPagingSource(statuses: List<String>): PagingSource<Int, ReservationEntity>
+
     /**
      * Retrieves a specific reservation by its unique identifier.
      *
@@ -74,7 +145,21 @@ interface ReservationDao {
      */
     @Query("SELECT * FROM reservations WHERE id = :id")
     suspend fun getReservationById(id: String): ReservationEntity?
-    
+
+    /**
+     * Retrieves several reservations by their identifiers.
+     *
+     * **Query Details:**
+     * - **SQL**: `SELECT * FROM reservations WHERE id IN (:ids)`
+     * - **Result**: The reservations found, in no particular order
+     * - **Use Case**: Loading the reservations of an outbox batch at once
+     *
+     * @param ids The identifiers of the reservations to retrieve
+     * @return The reservation entities found; unknown ids are skipped
+     */
+    @Query("SELECT * FROM reservations WHERE id IN (:ids)")
+    suspend fun getReservationsByIds(ids: List<String>): List<ReservationEntity>
+
     /**
      * Inserts or updates a reservation in the database.
      *
@@ -108,4 +193,74 @@ interface ReservationDao {
      */
     @Query("DELETE FROM reservations WHERE id = :id")
     suspend fun deleteById(id: String)
+
+    /**
+     * Inserts or updates several reservations in one statement batch.
+     *
+     * @param reservations The reservation entities to insert or update
+     */
+    @Upsert
+    suspend fun upsertAll(reservations: List<ReservationEntity>)
+
+    /**
+     * Removes the reservations deleted on the server.
+     *
+     * Reservations still waiting in the outbox are kept: their pending
+     * change is newer than the server's tombstone.
+     *
+     * **Query Details:**
+     * - **SQL**: `DELETE FROM reservations WHERE id IN (:ids)`, minus the outbox ones
+     *
+     * @param ids The identifiers of the deleted reservations
+     */
+    @Query(
+        "DELETE FROM reservations WHERE id IN (:ids) " +
+            "AND id NOT IN (SELECT reservationId FROM reservation_outbox)"
+    )
+    suspend fun deleteSynced(ids: List<String>)
+
+    /**
+     * Retrieves the cursor of the last applied sync.
+     *
+     * @param resourceKey The synced resource (e.g. "reservations")
+     * @return The cursor, or null if the resource was never synced
+     */
+    @Query("SELECT cursor FROM sync_cursors WHERE resourceKey = :resourceKey")
+    suspend fun getSyncCursor(resourceKey: String): String?
+
+    /**
+     * Records the cursor of an applied sync.
+     *
+     * @param cursor The resource key and its new cursor
+     */
+    @Upsert
+    suspend fun upsertSyncCursor(cursor: SyncCursorEntity)
+
+    /**
+     * Applies one page of server changes in a single transaction.
+     *
+     * Observers of [observeReservations] are invalidated once for the whole
+     * page, instead of once per row, and the cursor only moves forward with
+     * the changes it covers. Reservations sent without their flight keep
+     * the flight snapshot already stored.
+     *
+     * @param upserts Reservations created or updated on the server
+     * @param deletedIds Identifiers of the reservations deleted on the server
+     * @param cursor The cursor to resume from, or null to keep the current one
+     */
+    @Transaction
+    suspend fun applySync(
+        upserts: List<ReservationEntity>,
+        deletedIds: List<String>,
+        cursor: SyncCursorEntity?
+    ) {
+        if (upserts.isNotEmpty()) {
+            val withoutFlight = upserts.filter { it.flight == null }.map { it.id }
+            val stored = if (withoutFlight.isEmpty()) emptyMap()
+            else getReservationsByIds(withoutFlight).associateBy { it.id }
+            upsertAll(upserts.map { it.withSnapshotOf(stored[it.id]) })
+        }
+        if (deletedIds.isNotEmpty()) deleteSynced(deletedIds)
+        if (cursor != null) upsertSyncCursor(cursor)
+    }
 }
@@ -1,6 +1,8 @@
 package fr.benchaabane.riyadhair.data.reservations.dao
 
+import androidx.room.Embedded
 import androidx.room.Entity
+import androidx.room.Index
 import androidx.room.PrimaryKey
 
 /**
@@ -13,6 +15,8 @@ import androidx.room.PrimaryKey
  * **Database Structure:**
  * - **Table Name**: `reservations`
  * - **Primary Key**: `id` (String)
+ * - **Index**: (`status`, `departureTime`), matching the history tab queries
+ * - **Flight Snapshot**: `flight_*` columns, see [FlightSnapshotEntity]
  * - **Data Persistence**: Local storage for offline access
  * - **Cache Management**: Stores reservation data for quick retrieval
  *
@@ -46,16 +50,24 @@ import androidx.room.PrimaryKey
  * @property passengerName Full name of the passenger making the reservation
  * @property seat Assigned seat number or designation on the aircraft
  * @property status Current status of the reservation (e.g., "confirmed", "pending", "cancelled")
+ * @property departureTime Departure time of the reserved flight in epoch seconds, or null if unknown
+ * @property flight Copy of the reserved flight's details, or null if unknown
  *
  * @see ReservationDao
  * @see fr.benchaabane.riyadhair.domain.reservations.models.Reservation
  * @see fr.benchaabane.riyadhair.data.reservations.api.ReservationDto
  */
-@Entity(tableName = "reservations")
+@Entity(
+    tableName = "reservations",
+    indices = [Index(value = ["status", "departureTime"])]
+)
 data class ReservationEntity(
     @PrimaryKey val id: String,
     val flightId: String,
     val passengerName: String,
     val seat: String,
-    val status: String
+    val status: String,
+    val departureTime: Long? = null,
+    @Embedded(prefix = "flight_")
+    val flight: FlightSnapshotEntity? = null
 )
@@ -0,0 +1,115 @@
+package fr.benchaabane.riyadhair.data.reservations.dao
+
+import androidx.room.Dao
+import androidx.room.Insert
+import androidx.room.Query
+import androidx.room.Transaction
+import androidx.room.Update
+import androidx.room.Upsert
+
+/**
+ * Data Access Object of the reservation outbox.
+ *
+ * Besides the outbox queries, it writes the reservation rows that go
+ * with outbox changes, so that both sides are committed in a single
+ * transaction: a booking is never stored without its pending send, and
+ * a server acknowledgement never updates a reservation without clearing
+ * its entry.
+ *
+ * **Supported Operations:**
+ * - **Enqueue**: [saveAndEnqueue] commits a booking and its outbox entry
+ * - **Drain**: [getDue] reads the next batch, [complete] applies its outcome
+ * - **Scheduling**: [getNextAttemptAt] tells when the next entry is due
+ *
+ * @see ReservationOutboxEntity
+ * @see fr.benchaabane.riyadhair.data.reservations.sync.ReservationSyncer
+ */
+@Dao
+interface ReservationOutboxDao {
+    /**
+     * Retrieves the entries due for sending, oldest first.
+     *
+     * **Query Details:**
+     * - **SQL**: `SELECT * FROM reservation_outbox WHERE nextAttemptAt <= :now ORDER BY createdAt LIMIT :limit`
+     * - **Performance**: Served by the `nextAttemptAt` index
+     *
+     * @param now Current time, in epoch milliseconds
+     * @param limit Maximum number of entries, the batch size
+     * @return The due entries, in the order they were queued
+     */
+    @Query("SELECT * FROM reservation_outbox WHERE nextAttemptAt <= :now ORDER BY createdAt LIMIT :limit")
+    suspend fun getDue(now: Long, limit: Int): List<ReservationOutboxEntity>
+
+    /**
+     * Earliest time an entry is due, in epoch milliseconds.
+     *
+     * @return The earliest next attempt time, or null when the outbox is empty
+     */
+    @Query("SELECT MIN(nextAttemptAt) FROM reservation_outbox")
+    suspend fun getNextAttemptAt(): Long?
+
+    /**
+     * Queues an outbox entry.
+     *
+     * @param entry The entry to queue
+     */
+    @Insert
+    suspend fun insert(entry: ReservationOutboxEntity)
+
+    /**
+     * Updates the retry state of outbox entries.
+     *
+     * @param entries The entries, with their new attempt count and time
+     */
+    @Update
+    suspend fun update(entries: List<ReservationOutboxEntity>)
+
+    /**
+     * Removes outbox entries.
+     *
+     * @param idempotencyKeys Keys of the entries to remove
+     */
+    @Query("DELETE FROM reservation_outbox WHERE idempotencyKey IN (:idempotencyKeys)")
+    suspend fun delete(idempotencyKeys: List<String>)
+
+    /**
+     * Inserts or updates reservation rows.
+     *
+     * @param reservations The reservations to write
+     */
+    @Upsert
+    suspend fun upsertReservations(reservations: List<ReservationEntity>)
+
+    /**
+     * Commits a booking locally, with the outbox entry that will send it.
+     *
+     * A single short transaction, with no network involved: the booking is
+     * visible to reservation observers as soon as it returns.
+     *
+     * @param reservation The reservation to store
+     * @param entry The outbox entry sending it to the server
+     */
+    @Transaction
+    suspend fun saveAndEnqueue(reservation: ReservationEntity, entry: ReservationOutboxEntity) {
+        upsertReservations(listOf(reservation))
+        insert(entry)
+    }
+
+    /**
+     * Applies the outcome of a sent batch in a single transaction.
+     *
+     * @param reservations Reservations as acknowledged by the server
+     * @param sent Keys of the entries the server has processed, removed from the outbox
+     * @param retried Entries to send again, with their new retry state
+     */
+    @Transaction
+    suspend fun complete(
+        reservations: List<ReservationEntity>,
+        sent: List<String>,
+        retried: List<ReservationOutboxEntity>
+    ) {
+        if (reservations.isNotEmpty()) upsertReservations(reservations)
+        if (sent.isNotEmpty()) delete(sent)
+        if (retried.isNotEmpty()) update(retried)
+    }
+}
@@ -0,0 +1,59 @@
+package fr.benchaabane.riyadhair.data.reservations.dao
+
+import androidx.room.Entity
+import androidx.room.Index
+import androidx.room.PrimaryKey
+
+/**
+ * Database entity of a reservation change waiting to be sent to the server.
+ *
+ * Bookings are committed locally first; each one leaves an entry in the
+ * `reservation_outbox` table, in the same transaction as the reservation
+ * row. The sync worker drains the table once the network is available and
+ * deletes the entries the server has acknowledged.
+ *
+ * **Database Structure:**
+ * - **Table Name**: `reservation_outbox`
+ * - **Primary Key**: `idempotencyKey`, sent with the operation so that a
+ *   batch replayed after a lost response is applied only once
+ * - **Index**: `nextAttemptAt`, to find the entries that are due
+ *
+ * **Retry State:**
+ * - **attempts**: Failed sends so far, driving the exponential backoff
+ * - **nextAttemptAt**: Earliest time of the next send, in epoch milliseconds
+ * - **lastError**: Reason of the last failed send, for diagnostics
+ *
+ * @property idempotencyKey Unique key of the operation (primary key)
+ * @property operation Kind of change to send
+ * @property reservationId Reservation the change applies to; its current
+ *           row is sent, so later local edits are never lost
+ * @property createdAt Time the operation was queued, in epoch milliseconds;
+ *           entries are sent in this order
+ * @property attempts Number of failed sends
+ * @property nextAttemptAt Earliest time of the next send, in epoch milliseconds
+ * @property lastError Reason of the last failed send, or null
+ *
+ * @see ReservationOutboxDao
+ * @see fr.benchaabane.riyadhair.data.reservations.sync.ReservationSyncer
+ */
+@Entity(
+    tableName = "reservation_outbox",
+    indices = [Index("nextAttemptAt")]
+)
+data class ReservationOutboxEntity(
+    @PrimaryKey val idempotencyKey: String,
+    val operation: ReservationOperation,
+    val reservationId: String,
+    val createdAt: Long,
+    val attempts: Int = 0,
+    val nextAttemptAt: Long = createdAt,
+    val lastError: String? = null
+)
+
+/**
+ * Kind of reservation change queued in the outbox.
+ */
+enum class ReservationOperation {
+    /** Books the reservation on the server. */
+    CREATE
+}
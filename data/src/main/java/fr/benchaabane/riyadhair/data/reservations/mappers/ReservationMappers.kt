@@ -1,8 +1,13 @@
 package fr.benchaabane.riyadhair.data.reservations.mappers
 
+import fr.benchaabane.riyadhair.data.flights.api.FlightDto
 import fr.benchaabane.riyadhair.data.reservations.api.ReservationDto
+import fr.benchaabane.riyadhair.data.reservations.dao.FlightSnapshotEntity
 import fr.benchaabane.riyadhair.data.reservations.dao.ReservationEntity
+import fr.benchaabane.riyadhair.domain.reservations.models.FlightSnapshot
 import fr.benchaabane.riyadhair.domain.reservations.models.Reservation
+import java.time.LocalDateTime
+import java.time.ZoneOffset
 
 /**
  * Maps a ReservationEntity to a domain Reservation model.
@@ -36,7 +41,9 @@ internal fun ReservationEntity.toDomain(): Reservation = Reservation(
     flightId = flightId,
     passengerName = passengerName,
     seat = seat,
-    status = status
+    status = status,
+    departureTime = departureTime?.let { LocalDateTime.ofEpochSecond(it, 0, ZoneOffset.UTC) },
+    flight = flight?.toDomain()
 )
 
 /**
@@ -70,7 +77,9 @@ internal fun Reservation.toEntity(): ReservationEntity = ReservationEntity(
     flightId = flightId,
     passengerName = passengerName,
     seat = seat,
-    status = status
+    status = status,
+    departureTime = departureTime?.toEpochSecond(ZoneOffset.UTC),
+    flight = flight?.toEntity()
 )
 
 /**
@@ -105,7 +114,9 @@ internal fun ReservationDto.toEntity(): ReservationEntity = ReservationEntity(
     flightId = flightId,
     passengerName = passengerName,
     seat = seat,
-    status = status
+    status = status,
+    departureTime = departureTime ?: flight?.departureTime,
+    flight = flight?.toSnapshotEntity()
 )
 
 /**
@@ -140,7 +151,9 @@ internal fun ReservationDto.toDomain(): Reservation = Reservation(
     flightId = flightId,
     passengerName = passengerName,
     seat = seat,
-    status = status
+    status = status,
+    departureTime = (departureTime ?: flight?.departureTime)?.let { LocalDateTime.ofEpochSecond(it, 0, ZoneOffset.UTC) },
+    flight = flight?.toSnapshotEntity()?.toDomain()
 )
 
 /**
@@ -175,5 +188,76 @@ internal fun Reservation.toDto(): ReservationDto = ReservationDto(
     flightId = flightId,
     passengerName = passengerName,
     seat = seat,
-    status = status
+    status = status,
+    departureTime = departureTime?.toEpochSecond(ZoneOffset.UTC)
 )
+
+/**
+ * Maps a ReservationEntity to a ReservationDto.
+ *
+ * Used by the reservation sync worker to send the stored copy of a
+ * queued booking to the server.
+ *
+ * @return ReservationDto ready for API requests
+ */
+internal fun ReservationEntity.toDto(): ReservationDto = ReservationDto(
+    id = id,
+    flightId = flightId,
+    passengerName = passengerName,
+    seat = seat,
+    status = status,
+    departureTime = departureTime
+)
+
+/**
+ * Maps a FlightSnapshotEntity to a domain FlightSnapshot model.
+ *
+ * @return FlightSnapshot with its arrival time in UTC
+ */
+internal fun FlightSnapshotEntity.toDomain(): FlightSnapshot = FlightSnapshot(
+    flightNumber = flightNumber,
+    airline = airline,
+    origin = origin,
+    originCity = originCity,
+    destination = destination,
+    destinationCity = destinationCity,
+    arrivalTime = LocalDateTime.ofEpochSecond(arrivalTime, 0, ZoneOffset.UTC),
+    duration = duration,
+    aircraft = aircraft
+)
+
+/**
+ * Maps a domain FlightSnapshot model to a FlightSnapshotEntity.
+ *
+ * @return FlightSnapshotEntity ready to be embedded in a reservation
+ */
+internal fun FlightSnapshot.toEntity(): FlightSnapshotEntity = FlightSnapshotEntity(
+    flightNumber = flightNumber,
+    airline = airline,
+    origin = origin,
+    originCity = originCity,
+    destination = destination,
+    destinationCity = destinationCity,
+    arrivalTime = arrivalTime.toEpochSecond(ZoneOffset.UTC),
+    duration = duration,
+    aircraft = aircraft
+)
+
+/**
+ * Takes the snapshot of a flight sent with a reservation.
+ *
+ * @return FlightSnapshotEntity, or null when the flight has no arrival time
+ */
+internal fun FlightDto.toSnapshotEntity(): FlightSnapshotEntity? = arrivalTime?.let { arrival ->
+    FlightSnapshotEntity(
+        flightNumber = flightNumber,
+        airline = airline.orEmpty(),
+        origin = departureAirport.code,
+        originCity = departureAirport.city,
+        destination = arrivalAirport.code,
+        destinationCity = arrivalAirport.city,
+        arrivalTime = arrival,
+        duration = duration.orEmpty(),
+        aircraft = aircraft.orEmpty()
+    )
+}
@@ -1,15 +1,31 @@
 package fr.benchaabane.riyadhair.data.reservations.repositories
 
+import androidx.paging.Pager
+import androidx.paging.PagingConfig
+import androidx.paging.PagingData
+import androidx.paging.map
+import fr.benchaabane.riyadhair.core.extensions.runSuspendCatching
+import fr.benchaabane.riyadhair.core.network.SingleFlight
+import fr.benchaabane.riyadhair.data.db.SyncCursorEntity
 import fr.benchaabane.riyadhair.data.reservations.api.ReservationService
 import fr.benchaabane.riyadhair.data.reservations.dao.ReservationDao
+import fr.benchaabane.riyadhair.data.reservations.dao.ReservationOperation
+import fr.benchaabane.riyadhair.data.reservations.dao.ReservationOutboxDao
+import fr.benchaabane.riyadhair.data.reservations.dao.ReservationOutboxEntity
 import fr.benchaabane.riyadhair.data.reservations.mappers.toDomain
-import fr.benchaabane.riyadhair.data.reservations.mappers.toDto
 import fr.benchaabane.riyadhair.data.reservations.mappers.toEntity
+import fr.benchaabane.riyadhair.data.reservations.sync.ReservationSyncScheduler
+import fr.benchaabane.riyadhair.data.reservations.sync.ReservationSyncWorker
 import fr.benchaabane.riyadhair.domain.reservations.models.Reservation
+import fr.benchaabane.riyadhair.domain.reservations.models.ReservationFilter
+import fr.benchaabane.riyadhair.domain.reservations.models.ReservationPagingConfig
 import fr.benchaabane.riyadhair.domain.reservations.repositories.ReservationRepository
 import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.map
+import java.util.UUID
 import javax.inject.Inject
+import javax.inject.Singleton
+import kotlin.contracts.ExperimentalContracts
 
 /**
  * Implementation of the ReservationRepository interface.
@@ -27,22 +43,35 @@ import javax.inject.Inject
  * **Dependencies:**
  * - **ReservationService**: For remote API operations
  * - **ReservationDao**: For local database operations
+ * - **ReservationOutboxDao**: For bookings waiting to be sent
+ * - **ReservationSyncScheduler**: For sending them in the background
  * - **Mappers**: For data transformation between layers
  *
  * **Threading:**
  * All methods are designed to work with coroutines and Flow,
- * providing non-blocking data access patterns.
+ * providing non-blocking data access patterns. Concurrent refreshes
+ * share a single in-flight call through [SingleFlight], which is why
+ * the repository is scoped as a singleton. Saves are never coalesced.
  *
  * @see ReservationRepository
  * @see ReservationService
  * @see ReservationDao
  * @see Reservation
  */
+@OptIn(ExperimentalContracts::class)
+@Singleton
 class ReservationRepositoryImpl @Inject constructor(
     private val reservationDao: ReservationDao,
-    private val reservationService: ReservationService
+    private val reservationService: ReservationService,
+    private val outboxDao: ReservationOutboxDao,
+    private val syncScheduler: ReservationSyncScheduler
 ) : ReservationRepository {
-    
+
+    /**
+     * Coalesces concurrent [refreshReservations] calls into a single sync.
+     */
+    private val refreshFlight = SingleFlight<Unit, Unit>()
+
     /**
      * Observes all reservations with reactive updates.
      *
@@ -72,54 +101,97 @@ class ReservationRepositoryImpl @Inject constructor(
         }
 
     /**
-     * Saves a reservation to both remote and local storage.
+     * Pages one tab of the reservation history from the local database.
+     *
+     * Each page is a bounded query on the (`status`, `departureTime`) index,
+     * so memory and query time do not grow with the length of the history.
+     * The split between upcoming and past is evaluated each time Room
+     * invalidates the PagingSource, so a reservation moves to the past tab
+     * at the first change after its departure.
+     *
+     * **Tab Queries:**
+     * - **UPCOMING**: [ReservationDao.upcomingPagingSource], soonest first
+     * - **PAST**: [ReservationDao.pastPagingSource], latest first
+     * - **CANCELLED**: [ReservationDao.statusPagingSource], latest first
+     *
+     * @param filter The tab to page
+     * @param config Page size, prefetch distance and placeholder settings
+     * @return A [Flow] of [PagingData] ordered by travel date
+     */
+    override fun getPagedReservations(
+        filter: ReservationFilter,
+        config: ReservationPagingConfig
+    ): Flow<PagingData<Reservation>> = Pager(
+        config = PagingConfig(
+            pageSize = config.pageSize,
+            prefetchDistance = config.prefetchDistance,
+            enablePlaceholders = config.enablePlaceholders,
+            initialLoadSize = config.initialLoadSize
+        ),
+        pagingSourceFactory = {
+            val now = System.currentTimeMillis() / 1_000
+            when (filter) {
+                ReservationFilter.UPCOMING -> reservationDao.upcomingPagingSource(filter.statuses, now)
+                ReservationFilter.PAST -> reservationDao.pastPagingSource(filter.statuses, now)
+                ReservationFilter.CANCELLED -> reservationDao.statusPagingSource(filter.statuses)
+            }
+        }
+    ).flow.map { pagingData -> pagingData.map { it.toDomain() } }
+
+    /**
+     * Books a reservation locally, and queues it for the server.
      *
-     * This method implements a smart save strategy that attempts to
-     * save data remotely first, then locally as a backup. This ensures
-     * data consistency while maintaining offline capability.
+     * The reservation and its outbox entry are committed in a single
+     * transaction, so the booking is visible at once and never waits for,
+     * or depends on, the network. [ReservationSyncWorker] then sends it,
+     * batched with the other pending bookings, once connectivity allows.
      *
      * **Save Strategy:**
-     * 1. **Remote Save**: Attempts to save to remote API first
-     * 2. **Local Backup**: Saves to local database regardless of remote success
-     * 3. **Error Handling**: Gracefully handles network failures
-     * 4. **Data Consistency**: Ensures data is always stored locally
+     * 1. **Local Commit**: Stores the reservation with a CREATE outbox entry
+     *    carrying a fresh idempotency key
+     * 2. **Sync Scheduling**: Asks WorkManager to drain the outbox
      *
      * **Error Scenarios:**
-     * - **Network Success**: Data saved both remotely and locally
-     * - **Network Failure**: Data saved locally only (offline mode)
-     * - **Database Error**: Handled by calling code
+     * - **Network Failure**: None at booking time; the worker retries with backoff
+     * - **Database Error**: Nothing is stored; handled by calling code
      *
      * @param reservation The reservation to save
      */
     override suspend fun saveReservation(reservation: Reservation) {
-        try {
-            // First try to save remotely
-            val savedReservation = reservationService.createReservation(reservation.toDto())
-            // Then save locally
-            reservationDao.upsert(savedReservation.toEntity())
-        } catch (e: Exception) {
-            // If network fails, save locally only
-            reservationDao.upsert(reservation.toEntity())
-        }
+        outboxDao.saveAndEnqueue(
+            reservation = reservation.toEntity(),
+            entry = ReservationOutboxEntity(
+                idempotencyKey = UUID.randomUUID().toString(),
+                operation = ReservationOperation.CREATE,
+                reservationId = reservation.id,
+                createdAt = System.currentTimeMillis()
+            )
+        )
+        syncScheduler.schedule()
     }
     
     /**
-     * Refreshes reservation data from the remote API.
+     * Syncs the reservations changed on the server since the last refresh.
      *
-     * This method fetches fresh reservation data from the remote service
-     * and updates the local database. It implements a full refresh strategy
-     * that replaces all local data with the latest remote data.
+     * Only the delta after the stored cursor is downloaded, instead of the
+     * whole history, and each page is applied by [ReservationDao.applySync]
+     * in a single transaction with its cursor: observers are invalidated
+     * once per page rather than once per reservation.
      *
      * **Refresh Strategy:**
-     * 1. **Remote Fetch**: Retrieves latest data from API
-     * 2. **Data Transformation**: Converts API response to database entities
-     * 3. **Local Update**: Replaces all local data with fresh data
-     * 4. **Error Handling**: Preserves local data on network failures
+     * 1. **Cursor**: Reads the cursor of the last applied sync; none means
+     *    a full download
+     * 2. **Remote Fetch**: Retrieves the changes since the cursor
+     * 3. **Bulk Apply**: Upserts the changed reservations, deletes the
+     *    tombstoned ones, and stores the new cursor, in one transaction
+     * 4. **Paging**: Repeats while the server has more changes
      *
      * **Data Flow:**
-     * - **Success**: Local database updated with fresh remote data
-     * - **Failure**: Local data preserved, no changes made
-     * - **Consistency**: Ensures local data matches remote data when successful
+     * - **Success**: Local database caught up with the server
+     * - **Failure**: Pages already applied are kept, and the next refresh
+     *   resumes from their cursor
+     * - **Pending Bookings**: Reservations still in the outbox are never
+     *   deleted by a tombstone
      *
      * **Use Cases:**
      * - **App Launch**: Initial data loading
@@ -132,13 +204,22 @@ class ReservationRepositoryImpl @Inject constructor(
      * local data, ensuring the app remains functional offline.
      */
     override suspend fun refreshReservations() {
-        try {
-            val response = reservationService.getReservations()
-            val entities = response.reservations.map { it.toEntity() }
-            // Clear and insert all reservations
-            entities.forEach { reservationDao.upsert(it) }
-        } catch (e: Exception) {
-            // Handle network error - keep local data
+        runSuspendCatching {
+            refreshFlight.run(Unit) {
+                var since = reservationDao.getSyncCursor(SYNC_RESOURCE_KEY)
+                do {
+                    val response = reservationService.getReservations(since)
+                    reservationDao.applySync(
+                        upserts = response.reservations.map { it.toEntity() },
+                        deletedIds = response.deleted,
+                        cursor = response.cursor?.let { SyncCursorEntity(SYNC_RESOURCE_KEY, it) }
+                    )
+                    val previous = since
+                    since = response.cursor
+                } while (response.hasMore && since != null && since != previous)
+            }
         }
     }
 }
+
+private const val SYNC_RESOURCE_KEY = "reservations"
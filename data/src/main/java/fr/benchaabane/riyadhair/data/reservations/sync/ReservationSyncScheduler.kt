@@ -0,0 +1,73 @@
+package fr.benchaabane.riyadhair.data.reservations.sync
+
+import android.content.Context
+import androidx.work.BackoffPolicy
+import androidx.work.Constraints
+import androidx.work.ExistingWorkPolicy
+import androidx.work.NetworkType
+import androidx.work.OneTimeWorkRequestBuilder
+import androidx.work.WorkManager
+import dagger.hilt.android.qualifiers.ApplicationContext
+import java.util.concurrent.TimeUnit
+import javax.inject.Inject
+import javax.inject.Singleton
+import kotlin.time.Duration
+
+/**
+ * Schedules [ReservationSyncWorker] runs with WorkManager.
+ *
+ * Every run requires a connected network and backs off exponentially
+ * from [ReservationSyncer.INITIAL_BACKOFF] when a batch fails.
+ *
+ * **Unique Work:**
+ * - **Sync** ([schedule]): Queued after each booking and at start-up; a
+ *   request made while a run is in progress is appended behind it, so a
+ *   booking committed during the run is never missed
+ * - **Retry** ([scheduleRetry]): The run for entries due later, replaced by
+ *   each new retry, and independent from the sync work so that a distant
+ *   retry never delays a new booking
+ *
+ * @see ReservationSyncWorker
+ */
+@Singleton
+class ReservationSyncScheduler @Inject constructor(
+    @ApplicationContext private val context: Context
+) {
+
+    private val workManager by lazy { WorkManager.getInstance(context) }
+
+    /**
+     * Drains the outbox as soon as the network is available.
+     */
+    fun schedule() {
+        workManager.enqueueUniqueWork(SYNC_WORK, ExistingWorkPolicy.APPEND_OR_REPLACE, request(Duration.ZERO))
+    }
+
+    /**
+     * Drains the outbox after [delay], once the network is available.
+     *
+     * @param delay Time until the next outbox entry is due
+     */
+    fun scheduleRetry(delay: Duration) {
+        workManager.enqueueUniqueWork(RETRY_WORK, ExistingWorkPolicy.REPLACE, request(delay))
+    }
+
+    private fun request(delay: Duration) = OneTimeWorkRequestBuilder<ReservationSyncWorker>()
+        .setConstraints(
+            Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .build()
+        )
+        .setBackoffCriteria(
+            BackoffPolicy.EXPONENTIAL,
+            ReservationSyncer.INITIAL_BACKOFF.inWholeMilliseconds,
+            TimeUnit.MILLISECONDS
+        )
+        .setInitialDelay(delay.inWholeMilliseconds.coerceAtLeast(0), TimeUnit.MILLISECONDS)
+        .build()
+
+    private companion object {
+        const val SYNC_WORK = "reservation-sync"
+        const val RETRY_WORK = "reservation-sync-retry"
+    }
+}
@@ -0,0 +1,45 @@
+package fr.benchaabane.riyadhair.data.reservations.sync
+
+import android.content.Context
+import androidx.hilt.work.HiltWorker
+import androidx.work.CoroutineWorker
+import androidx.work.WorkerParameters
+import dagger.assisted.Assisted
+import dagger.assisted.AssistedInject
+import kotlin.time.Duration.Companion.milliseconds
+
+/**
+ * WorkManager worker draining the reservation outbox.
+ *
+ * Scheduled by [ReservationSyncScheduler] with a network constraint, so it
+ * only runs once connectivity is back, and survives process death and
+ * reboots. It hands the work to [ReservationSyncer] and maps its outcome:
+ *
+ * **Outcomes:**
+ * - **DONE**: Success, the outbox is empty
+ * - **FAILED**: Retry, with WorkManager's exponential backoff
+ * - **PENDING**: Success, after scheduling a new run for the time the
+ *   next entry is due
+ *
+ * @see ReservationSyncer
+ * @see ReservationSyncScheduler
+ */
+@HiltWorker
+class ReservationSyncWorker @AssistedInject constructor(
+    @Assisted context: Context,
+    @Assisted params: WorkerParameters,
+    private val syncer: ReservationSyncer,
+    private val scheduler: ReservationSyncScheduler
+) : CoroutineWorker(context, params) {
+
+    override suspend fun doWork(): Result = when (syncer.drain()) {
+        ReservationSyncer.Outcome.DONE -> Result.success()
+        ReservationSyncer.Outcome.FAILED -> Result.retry()
+        ReservationSyncer.Outcome.PENDING -> {
+            syncer.nextAttemptAt()?.let { nextAttemptAt ->
+                scheduler.scheduleRetry((nextAttemptAt - System.currentTimeMillis()).milliseconds)
+            }
+            Result.success()
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package fr.benchaabane.riyadhair.data.reservations.sync
+
+import fr.benchaabane.riyadhair.core.extensions.runSuspendCatching
+import fr.benchaabane.riyadhair.data.reservations.api.ReservationBatchRequest
+import fr.benchaabane.riyadhair.data.reservations.api.ReservationOperationDto
+import fr.benchaabane.riyadhair.data.reservations.api.ReservationService
+import fr.benchaabane.riyadhair.data.reservations.dao.ReservationDao
+import fr.benchaabane.riyadhair.data.reservations.dao.ReservationEntity
+import fr.benchaabane.riyadhair.data.reservations.dao.ReservationOutboxDao
+import fr.benchaabane.riyadhair.data.reservations.dao.ReservationOutboxEntity
+import fr.benchaabane.riyadhair.data.reservations.dao.withSnapshotOf
+import fr.benchaabane.riyadhair.data.reservations.mappers.toDto
+import fr.benchaabane.riyadhair.data.reservations.mappers.toEntity
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import retrofit2.HttpException
+import javax.inject.Inject
+import javax.inject.Singleton
+import kotlin.contracts.ExperimentalContracts
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.hours
+import kotlin.time.Duration.Companion.seconds
+
+/**
+ * Drains the reservation outbox to the server, in batches.
+ *
+ * Called by [ReservationSyncWorker] once the network is available. The
+ * due entries are sent [BATCH_SIZE] at a time, oldest first, until none
+ * is due; each batch's outcome is applied in one transaction.
+ *
+ * **Outcomes:**
+ * - **APPLIED**: The server's copy of the reservation is stored and the
+ *   entry removed
+ * - **REJECTED**: The entry is removed and the reservation kept with the
+ *   server's copy, or marked [REJECTED_STATUS]; it is never resent
+ * - **RETRY, or no result**: The entry is rescheduled with [backoff]
+ * - **Refused Request**: A permanent client error (a 4xx other than 408
+ *   and 429) is caused by the request's content, so retrying it as is would
+ *   fail forever. The batch is split in halves and each half sent again,
+ *   until the entry the server refuses is alone; that entry is then
+ *   treated as REJECTED
+ * - **Failed Request**: Every entry of the batch is rescheduled with
+ *   [backoff] and the drain stops, as the next batch would fail too
+ *
+ * Entries whose reservation no longer exists locally are dropped. Entries
+ * are never given up on: the backoff is capped at [MAX_BACKOFF]. Drains
+ * are serialized, so overlapping worker runs never send an entry twice.
+ *
+ * @param outboxDao The outbox, and the transactions applying batch outcomes
+ * @param reservationDao Source of the reservations to send
+ * @param reservationService The batch endpoint
+ * @param clock Source of the current time, in epoch milliseconds
+ *
+ * @see ReservationOutboxEntity
+ */
+@OptIn(ExperimentalContracts::class)
+@Singleton
+class ReservationSyncer(
+    private val outboxDao: ReservationOutboxDao,
+    private val reservationDao: ReservationDao,
+    private val reservationService: ReservationService,
+    private val clock: () -> Long
+) {
+
+    @Inject
+    constructor(
+        outboxDao: ReservationOutboxDao,
+        reservationDao: ReservationDao,
+        reservationService: ReservationService
+    ) : this(outboxDao, reservationDao, reservationService, System::currentTimeMillis)
+
+    private val drainLock = Mutex()
+
+    /**
+     * Outcome of a drain.
+     */
+    enum class Outcome {
+        /** The outbox is empty. */
+        DONE,
+
+        /** Entries are left, due later; the drain should run again after [nextAttemptAt]. */
+        PENDING,
+
+        /** A batch could not be sent; the drain should run again with a backoff. */
+        FAILED
+    }
+
+    /**
+     * Sends every due entry of the outbox.
+     *
+     * @return [Outcome.DONE] when the outbox is empty afterwards
+     */
+    suspend fun drain(): Outcome = drainLock.withLock {
+        while (true) {
+            val now = clock()
+            val due = outboxDao.getDue(now, BATCH_SIZE)
+            if (due.isEmpty()) break
+            val reservations = reservationDao.getReservationsByIds(due.map { it.reservationId }).associateBy { it.id }
+            val (entries, orphans) = due.partition { it.reservationId in reservations }
+            if (orphans.isNotEmpty()) outboxDao.complete(emptyList(), orphans.map { it.idempotencyKey }, emptyList())
+            if (entries.isNotEmpty() && !send(entries, reservations, now)) return@withLock Outcome.FAILED
+        }
+        if (outboxDao.getNextAttemptAt() == null) Outcome.DONE else Outcome.PENDING
+    }
+
+    /**
+     * Sends [entries] in one request and applies the outcome in one transaction.
+     *
+     * A request refused with a permanent client error is split in halves,
+     * sent one after the other, down to the single entry that is rejected.
+     *
+     * @return false if a request failed, in which case the entries not yet
+     *         applied are rescheduled
+     */
+    private suspend fun send(
+        entries: List<ReservationOutboxEntity>,
+        reservations: Map<String, ReservationEntity>,
+        now: Long
+    ): Boolean {
+        val request = ReservationBatchRequest(
+            entries.map { entry ->
+                ReservationOperationDto(
+                    idempotencyKey = entry.idempotencyKey,
+                    operation = entry.operation.name,
+                    reservation = reservations.getValue(entry.reservationId).toDto()
+                )
+            }
+        )
+        val response = runSuspendCatching { reservationService.syncReservations(request) }
+            .getOrElse { error ->
+                if (!error.isPermanentClientError()) {
+                    outboxDao.complete(emptyList(), emptyList(), entries.map { it.retried(now, error.toString()) })
+                    return false
+                }
+                if (entries.size == 1) {
+                    val entry = entries.single()
+                    val rejected = reservations.getValue(entry.reservationId).copy(status = REJECTED_STATUS)
+                    outboxDao.complete(listOf(rejected), listOf(entry.idempotencyKey), emptyList())
+                    return true
+                }
+                val (first, second) = entries.chunked((entries.size + 1) / 2)
+                if (send(first, reservations, now)) return send(second, reservations, now)
+                outboxDao.complete(emptyList(), emptyList(), second.map { it.retried(now, error.toString()) })
+                return false
+            }
+        val results = response.results.associateBy { it.idempotencyKey }
+        val synced = entries.mapNotNull { entry ->
+            val result = results[entry.idempotencyKey] ?: return@mapNotNull null
+            val stored = reservations.getValue(entry.reservationId)
+            // Server copies without the flight keep the snapshot taken at booking time
+            when (result.outcome) {
+                APPLIED -> result.reservation?.toEntity()?.withSnapshotOf(stored) ?: stored
+                REJECTED -> result.reservation?.toEntity()?.withSnapshotOf(stored)
+                    ?: stored.copy(status = REJECTED_STATUS)
+                else -> null
+            }?.let { entry to it }
+        }
+        val sentKeys = synced.map { (entry, _) -> entry.idempotencyKey }.toSet()
+        outboxDao.complete(
+            reservations = synced.map { (_, reservation) -> reservation },
+            sent = sentKeys.toList(),
+            retried = entries.filter { it.idempotencyKey !in sentKeys }.map { entry ->
+                entry.retried(now, results[entry.idempotencyKey]?.message ?: "No result for the operation")
+            }
+        )
+        return true
+    }
+
+    /**
+     * Earliest time an entry is due, in epoch milliseconds, or null when the outbox is empty.
+     */
+    suspend fun nextAttemptAt(): Long? = outboxDao.getNextAttemptAt()
+
+    private fun Throwable.isPermanentClientError(): Boolean =
+        this is HttpException && code() in HTTP_CLIENT_ERRORS && code() != HTTP_REQUEST_TIMEOUT && code() != HTTP_TOO_MANY_REQUESTS
+
+    private fun ReservationOutboxEntity.retried(now: Long, error: String) = copy(
+        attempts = attempts + 1,
+        nextAttemptAt = now + backoff(attempts + 1).inWholeMilliseconds,
+        lastError = error
+    )
+
+    companion object {
+        /** Maximum number of operations per request. */
+        const val BATCH_SIZE = 50
+
+        /** Delay before the first retry of an entry, doubled on each failure. */
+        val INITIAL_BACKOFF = 30.seconds
+
+        /** Longest delay between two attempts of an entry. */
+        val MAX_BACKOFF = 1.hours
+
+        /** Status of a reservation the server has refused. */
+        const val REJECTED_STATUS = "REJECTED"
+
+        private const val APPLIED = "APPLIED"
+        private const val REJECTED = "REJECTED"
+        private const val HTTP_REQUEST_TIMEOUT = 408
+        private const val HTTP_TOO_MANY_REQUESTS = 429
+        private val HTTP_CLIENT_ERRORS = 400..499
+
+        /**
+         * Delay before the next attempt of an entry.
+         *
+         * @param attempts Number of failed attempts so far, at least 1
+         * @return [INITIAL_BACKOFF] doubled for each earlier failure, at most [MAX_BACKOFF]
+         */
+        fun backoff(attempts: Int): Duration =
+            minOf(INITIAL_BACKOFF * (1 shl (attempts - 1).coerceIn(0, 16)), MAX_BACKOFF)
+    }
+}
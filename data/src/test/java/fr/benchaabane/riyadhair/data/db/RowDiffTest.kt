@@ -0,0 +1,56 @@
+package fr.benchaabane.riyadhair.data.db
+
+import org.amshove.kluent.shouldBeEqualTo
+import org.amshove.kluent.shouldNotBeEqualTo
+import org.junit.Test
+
+class RowDiffTest {
+
+    private data class Row(val id: String, val value: String) {
+        val hash = contentHashOf(id, value)
+    }
+
+    @Test
+    fun `compute should be empty when nothing changed`() {
+        // Given
+        val rows = listOf(Row("1", "a"), Row("2", "b"))
+
+        // When
+        val diff = RowDiff.compute(rows.map { RowVersion(it.id, it.hash) }, rows, Row::id, Row::hash)
+
+        // Then
+        diff.isEmpty shouldBeEqualTo true
+    }
+
+    @Test
+    fun `compute should upsert new and changed rows and delete missing ones`() {
+        // Given
+        val stored = listOf(Row("1", "a"), Row("2", "b"), Row("3", "c")).map { RowVersion(it.id, it.hash) }
+        val incoming = listOf(Row("1", "a"), Row("2", "changed"), Row("4", "d"))
+
+        // When
+        val diff = RowDiff.compute(stored, incoming, Row::id, Row::hash)
+
+        // Then
+        diff.upserts shouldBeEqualTo listOf(Row("2", "changed"), Row("4", "d"))
+        diff.deletedIds shouldBeEqualTo listOf("3")
+    }
+
+    @Test
+    fun `compute should keep the last of duplicate incoming rows`() {
+        // When
+        val diff = RowDiff.compute(emptyList(), listOf(Row("1", "old"), Row("1", "new")), Row::id, Row::hash)
+
+        // Then
+        diff.upserts shouldBeEqualTo listOf(Row("1", "new"))
+    }
+
+    @Test
+    fun `contentHashOf should separate fields and be stable`() {
+        // Then
+        contentHashOf("ab", "c") shouldNotBeEqualTo contentHashOf("a", "bc")
+        contentHashOf("a", null, 1) shouldBeEqualTo contentHashOf("a", null, 1)
+        // Pinned: stored hashes must not change between app versions
+        contentHashOf("a") shouldBeEqualTo 620345593008815561L
+    }
+}
@@ -0,0 +1,65 @@
+package fr.benchaabane.riyadhair.data.flights.api
+
+import kotlinx.serialization.json.Json
+import okio.Buffer
+import org.amshove.kluent.shouldBeEqualTo
+import org.junit.Test
+
+class FlightStreamDecoderTest {
+
+    private val decoder = FlightStreamDecoder(Json { ignoreUnknownKeys = true; coerceInputValues = true })
+
+    @Test
+    fun `decode should emit flights after skipping other fields`() {
+        // Given
+        val body = """
+            {
+              "meta": {"note": "a } tricky \" string", "tags": [1, [2, 3]]},
+              "flights": [${flightJson("RA001", "RX101")}, ${flightJson("RA002", "RX102")}],
+              "total": 2
+            }
+        """.trimIndent()
+
+        // When
+        val flights = decoder.decode(Buffer().writeUtf8(body)).toList()
+
+        // Then
+        flights.map { it.id } shouldBeEqualTo listOf("RA001", "RA002")
+        flights.map { it.flightNumber } shouldBeEqualTo listOf("RX101", "RX102")
+    }
+
+    @Test
+    fun `decode should read the source only as far as consumed`() {
+        // Given
+        val source = Buffer().writeUtf8(
+            """{"flights": [${flightJson("RA001", "RX101")}, ${flightJson("RA002", "RX102")}]}"""
+        )
+        val remainingAfterFirst = source.size - flightJson("RA001", "RX101").length - """{"flights": [""".length
+
+        // When
+        val first = decoder.decode(source).first()
+
+        // Then
+        first.flightNumber shouldBeEqualTo "RX101"
+        source.size shouldBeEqualTo remainingAfterFirst
+    }
+
+    @Test
+    fun `decode should return no flight when the array is empty or missing`() {
+        // When
+        val empty = decoder.decode(Buffer().writeUtf8("""{"flights": []}""")).toList()
+        val missing = decoder.decode(Buffer().writeUtf8("""{"total": 0}""")).toList()
+
+        // Then
+        empty shouldBeEqualTo emptyList()
+        missing shouldBeEqualTo emptyList()
+    }
+
+    private fun flightJson(id: String, flightNumber: String) = """
+        {"id": "$id", "flightNumber": "$flightNumber",
+         "departureAirport": {"code": "RUH", "name": "King Khalid", "city": "Riyadh", "country": "Saudi Arabia", "timezone": "Asia/Riyadh"},
+         "arrivalAirport": {"code": "JED", "name": "King Abdulaziz", "city": "Jeddah", "country": "Saudi Arabia", "timezone": "Asia/Riyadh"},
+         "airline": "RiyadhAir", "departureTime": "2024-07-15T12:15:00Z", "arrivalTime": "2024-07-15T14:45:00Z",
+         "duration": "1h 45m", "price": 150.0, "cabinClass": "Economy", "availableSeats": 120, "aircraft": "Airbus A320"}
+    """.trimIndent()
+}
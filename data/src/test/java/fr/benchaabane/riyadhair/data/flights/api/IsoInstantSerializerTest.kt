@@ -0,0 +1,56 @@
+package fr.benchaabane.riyadhair.data.flights.api
+
+import kotlinx.serialization.SerializationException
+import kotlinx.serialization.json.Json
+import org.amshove.kluent.shouldBeEqualTo
+import org.junit.Test
+import java.time.OffsetDateTime
+
+class IsoInstantSerializerTest {
+
+    @Test
+    fun `parse should read the fixed UTC layout`() {
+        // When
+        val seconds = IsoInstantSerializer.parse("2024-07-15T12:15:00Z")
+
+        // Then
+        seconds shouldBeEqualTo OffsetDateTime.parse("2024-07-15T12:15:00Z").toEpochSecond()
+    }
+
+    @Test
+    fun `parse should apply offsets and ignore fractions`() {
+        // When
+        val withOffset = IsoInstantSerializer.parse("2024-02-29T03:30:00+03:00")
+        val withFraction = IsoInstantSerializer.parse("2024-07-15T12:15:00.250Z")
+        val withoutOffset = IsoInstantSerializer.parse("2024-07-15T12:15:00")
+
+        // Then
+        withOffset shouldBeEqualTo OffsetDateTime.parse("2024-02-29T00:30:00Z").toEpochSecond()
+        withFraction shouldBeEqualTo IsoInstantSerializer.parse("2024-07-15T12:15:00Z")
+        withoutOffset shouldBeEqualTo IsoInstantSerializer.parse("2024-07-15T12:15:00Z")
+    }
+
+    @Test
+    fun `parse should fall back to java time for other layouts`() {
+        // When
+        val seconds = IsoInstantSerializer.parse("2024-07-15T12:15Z")
+
+        // Then
+        seconds shouldBeEqualTo IsoInstantSerializer.parse("2024-07-15T12:15:00Z")
+    }
+
+    @Test(expected = SerializationException::class)
+    fun `deserialize should reject invalid timestamps`() {
+        // When
+        Json.decodeFromString(IsoInstantSerializer, "\"2024-13-45T99:00:00Z\"")
+    }
+
+    @Test
+    fun `serialize should write the instant back as UTC`() {
+        // When
+        val json = Json.encodeToString(IsoInstantSerializer, IsoInstantSerializer.parse("2024-07-15T12:15:00+02:00"))
+
+        // Then
+        json shouldBeEqualTo "\"2024-07-15T10:15:00Z\""
+    }
+}
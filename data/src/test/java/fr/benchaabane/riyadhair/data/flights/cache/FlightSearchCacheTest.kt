@@ -0,0 +1,144 @@
+package fr.benchaabane.riyadhair.data.flights.cache
+
+import fr.benchaabane.riyadhair.domain.flights.models.Airport
+import fr.benchaabane.riyadhair.domain.flights.models.CabinClass
+import fr.benchaabane.riyadhair.domain.flights.models.Flight
+import fr.benchaabane.riyadhair.domain.flights.models.FlightSearch
+import fr.benchaabane.riyadhair.domain.flights.models.PassengerCount
+import org.amshove.kluent.shouldBeEqualTo
+import org.junit.Before
+import org.junit.Test
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.ZoneOffset
+import kotlin.time.Duration.Companion.minutes
+
+class FlightSearchCacheTest {
+
+    private lateinit var cache: FlightSearchCache
+    private val today = LocalDate.of(2024, 7, 1)
+    private var now = today.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli()
+
+    @Before
+    fun setUp() {
+        // Given
+        cache = FlightSearchCache(maxEntries = 2, clock = { now })
+    }
+
+    @Test
+    fun `get should match searches of the same normalised leg`() {
+        // Given
+        val search = search(departureDate = today.plusDays(10))
+        cache.put(search, listOf(flight("RA001", seats = 9)))
+
+        // When
+        val sameLeg = cache.get(search.copy(departureAirportCode = " ruh ", returnDate = today.plusDays(20)))
+        val otherPassengers = cache.get(search.copy(passengers = PassengerCount(adults = 3)))
+        val otherCabin = cache.get(search.copy(cabinClass = CabinClass.BUSINESS))
+
+        // Then
+        sameLeg?.map { it.id } shouldBeEqualTo listOf("RA001")
+        otherPassengers shouldBeEqualTo null
+        otherCabin shouldBeEqualTo null
+    }
+
+    @Test
+    fun `timeToLive should shrink as departure approaches`() {
+        // When
+        val ttls = listOf(60L, 10L, 3L, 0L).map { days -> FlightSearchCache.timeToLive(search(today.plusDays(days)), now) }
+
+        // Then
+        ttls shouldBeEqualTo listOf(30.minutes, 10.minutes, 5.minutes, 1.minutes)
+    }
+
+    @Test
+    fun `get should drop an entry once its time to live has elapsed`() {
+        // Given
+        val search = search(departureDate = today.plusDays(3))
+        cache.put(search, listOf(flight("RA001", seats = 9)))
+
+        // When
+        now += 5.minutes.inWholeMilliseconds - 1
+        val beforeExpiry = cache.get(search)
+        now += 1
+        val atExpiry = cache.get(search)
+
+        // Then
+        beforeExpiry?.size shouldBeEqualTo 1
+        atExpiry shouldBeEqualTo null
+    }
+
+    @Test
+    fun `claimRevalidation should let one revalidation through per interval`() {
+        // Given
+        val search = search(departureDate = today.plusDays(60))
+        cache.put(search, listOf(flight("RA001", seats = 9)))
+
+        // When
+        val afterPut = cache.claimRevalidation(search)
+        now += FlightSearchCache.REVALIDATION_INTERVAL.inWholeMilliseconds
+        val first = cache.claimRevalidation(search)
+        val second = cache.claimRevalidation(search)
+
+        // Then
+        afterPut shouldBeEqualTo false
+        first shouldBeEqualTo true
+        second shouldBeEqualTo false
+        cache.claimRevalidation(search(departureDate = today.plusDays(61))) shouldBeEqualTo false
+    }
+
+    @Test
+    fun `updateSeats should refresh seats and drop flights that can no longer be booked`() {
+        // Given
+        val search = search(departureDate = today.plusDays(10))
+        cache.put(search, listOf(flight("RA001", seats = 9), flight("RA002", seats = 9), flight("RA003", seats = 9)))
+
+        // When
+        val updated = cache.updateSeats(search, mapOf("RA001" to 4, "RA002" to 1))
+
+        // Then
+        updated?.map { it.id to it.availableSeats } shouldBeEqualTo listOf("RA001" to 4)
+    }
+
+    @Test
+    fun `put should evict the least recently used leg`() {
+        // Given
+        val first = search(departureDate = today.plusDays(10))
+        val second = search(departureDate = today.plusDays(11))
+        val third = search(departureDate = today.plusDays(12))
+        cache.put(first, emptyList())
+        cache.put(second, emptyList())
+        cache.get(first)
+
+        // When
+        cache.put(third, emptyList())
+
+        // Then
+        cache.get(first) shouldBeEqualTo emptyList()
+        cache.get(second) shouldBeEqualTo null
+        cache.get(third) shouldBeEqualTo emptyList()
+    }
+
+    private fun search(departureDate: LocalDate) = FlightSearch(
+        departureAirportCode = "RUH",
+        arrivalAirportCode = "JED",
+        departureDate = departureDate,
+        passengers = PassengerCount(adults = 2),
+        cabinClass = CabinClass.ECONOMY
+    )
+
+    private fun flight(id: String, seats: Int) = Flight(
+        id = id,
+        flightNumber = "RX$id",
+        airline = "RiyadhAir",
+        departureAirport = Airport("RUH", "King Khalid International Airport", "Riyadh", "Saudi Arabia", "Asia/Riyadh"),
+        arrivalAirport = Airport("JED", "King Abdulaziz International Airport", "Jeddah", "Saudi Arabia", "Asia/Riyadh"),
+        departureTime = LocalDateTime.of(2024, 7, 11, 12, 15),
+        arrivalTime = LocalDateTime.of(2024, 7, 11, 14, 0),
+        duration = "1h 45m",
+        price = 150.0,
+        cabinClass = CabinClass.ECONOMY,
+        availableSeats = seats,
+        aircraft = "Airbus A320"
+    )
+}
@@ -0,0 +1,75 @@
+package fr.benchaabane.riyadhair.data.flights.mappers
+
+import fr.benchaabane.riyadhair.data.flights.api.AirportDto
+import fr.benchaabane.riyadhair.data.flights.api.FlightDto
+import fr.benchaabane.riyadhair.data.flights.api.IsoInstantSerializer
+import fr.benchaabane.riyadhair.data.flights.cache.AirportRegistry
+import org.amshove.kluent.shouldBe
+import org.amshove.kluent.shouldBeEqualTo
+import org.amshove.kluent.shouldNotBe
+import org.junit.Before
+import org.junit.Test
+import java.time.LocalDateTime
+
+class FlightMappersTest {
+
+    private val riyadh = AirportDto("RUH", "King Khalid International Airport", "Riyadh", "Saudi Arabia", "Asia/Riyadh")
+    private val jeddah = AirportDto("JED", "King Abdulaziz International Airport", "Jeddah", "Saudi Arabia", "Asia/Riyadh")
+
+    @Before
+    fun setUp() {
+        AirportRegistry.clear()
+    }
+
+    @Test
+    fun `toDomain should map times from epoch seconds`() {
+        // When
+        val flight = flightDto("RA001").toDomain()
+
+        // Then
+        flight.departureTime shouldBeEqualTo LocalDateTime.of(2024, 7, 15, 12, 15)
+        flight.arrivalTime shouldBeEqualTo LocalDateTime.of(2024, 7, 15, 14, 45)
+    }
+
+    @Test
+    fun `toDomain should share airports and airline names across flights`() {
+        // When
+        val first = flightDto("RA001").toDomain()
+        val second = flightDto("RA002").copy(airline = String(charArrayOf('R', 'i', 'y', 'a', 'd', 'h', 'A', 'i', 'r'))).toDomain()
+        val cached = flightDto("RA003").toEntity().toDomain()
+
+        // Then
+        second.departureAirport shouldBe first.departureAirport
+        second.arrivalAirport shouldBe first.arrivalAirport
+        second.airline shouldBe first.airline
+        cached.departureAirport shouldBe first.departureAirport
+    }
+
+    @Test
+    fun `toDomain should not reuse an airport whose details changed`() {
+        // Given
+        val before = riyadh.toDomain()
+
+        // When
+        val after = riyadh.copy(name = "King Khalid Intl").toDomain()
+
+        // Then
+        after shouldNotBe before
+        after.name shouldBeEqualTo "King Khalid Intl"
+    }
+
+    private fun flightDto(id: String) = FlightDto(
+        id = id,
+        flightNumber = "RX101",
+        departureAirport = riyadh.copy(),
+        arrivalAirport = jeddah.copy(),
+        airline = "RiyadhAir",
+        departureTime = IsoInstantSerializer.parse("2024-07-15T12:15:00Z"),
+        arrivalTime = IsoInstantSerializer.parse("2024-07-15T14:45:00Z"),
+        duration = "1h 45m",
+        price = 150.0,
+        cabinClass = "Economy",
+        availableSeats = 120,
+        aircraft = "Airbus A320"
+    )
+}
@@ -0,0 +1,73 @@
+package fr.benchaabane.riyadhair.data.flights.mappers
+
+import fr.benchaabane.riyadhair.data.flights.api.IsoInstantSerializer
+import org.amshove.kluent.shouldBeEqualTo
+import org.amshove.kluent.shouldBeLessThan
+import org.junit.Test
+import java.time.LocalDateTime
+import java.time.ZoneOffset
+
+/**
+ * Correctness and time budget of flight time parsing by [IsoInstantSerializer].
+ *
+ * Runs a few hundred flights' worth of timestamps (departure and arrival)
+ * through the serializer, checks it agrees with the legacy mapper, and
+ * bounds its average cost per timestamp. The budget is far above the
+ * expected cost, so that only a much slower parser trips it on a loaded
+ * CI machine.
+ */
+class FlightTimeParsingPerformanceTest {
+
+    private val timestamps = List(FLIGHTS * 2) { index ->
+        val day = index % 28 + 1
+        val hour = index % 24
+        val minute = index * 5 % 60
+        "2024-07-%02dT%02d:%02d:00Z".format(day, hour, minute)
+    }
+
+    @Test
+    fun `serializer fast path should match the legacy mapper`() {
+        // Given
+        val legacy = timestamps.map { LocalDateTime.parse(it.replace("Z", "")) }
+
+        // When
+        val current = timestamps.map { LocalDateTime.ofEpochSecond(IsoInstantSerializer.parse(it), 0, ZoneOffset.UTC) }
+
+        // Then
+        current shouldBeEqualTo legacy
+    }
+
+    @Test
+    fun `serializer fast path should parse a timestamp within budget`() {
+        // Given
+        val perRound = timestamps.sumOf { IsoInstantSerializer.parse(it) }
+
+        // When
+        val (nanos, checksum) = measure { text -> IsoInstantSerializer.parse(text) }
+
+        // Then
+        checksum shouldBeEqualTo perRound * (WARMUP_ROUNDS + ROUNDS)
+        nanos shouldBeLessThan BUDGET_NANOS_PER_TIMESTAMP
+    }
+
+    /**
+     * Average nanoseconds per timestamp over [ROUNDS], after [WARMUP_ROUNDS],
+     * with the sum of every parsed value, which keeps the JIT from
+     * eliminating the parsing.
+     */
+    private inline fun measure(parse: (String) -> Long): Pair<Double, Long> {
+        var sink = 0L
+        repeat(WARMUP_ROUNDS) { timestamps.forEach { sink += parse(it) } }
+        val start = System.nanoTime()
+        repeat(ROUNDS) { timestamps.forEach { sink += parse(it) } }
+        val elapsed = System.nanoTime() - start
+        return elapsed.toDouble() / (ROUNDS * timestamps.size) to sink
+    }
+
+    private companion object {
+        const val FLIGHTS = 300
+        const val WARMUP_ROUNDS = 200
+        const val ROUNDS = 500
+        const val BUDGET_NANOS_PER_TIMESTAMP = 2_000.0
+    }
+}
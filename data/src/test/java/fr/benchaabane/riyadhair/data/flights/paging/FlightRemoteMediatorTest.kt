@@ -0,0 +1,211 @@
+package fr.benchaabane.riyadhair.data.flights.paging
+
+import androidx.paging.ExperimentalPagingApi
+import androidx.paging.LoadType
+import androidx.paging.PagingConfig
+import androidx.paging.PagingState
+import androidx.paging.RemoteMediator.InitializeAction
+import androidx.paging.RemoteMediator.MediatorResult
+import androidx.room.withTransaction
+import fr.benchaabane.riyadhair.data.db.AppDatabase
+import fr.benchaabane.riyadhair.data.flights.api.AirportDto
+import fr.benchaabane.riyadhair.data.flights.api.FlightDto
+import fr.benchaabane.riyadhair.data.flights.api.FlightService
+import fr.benchaabane.riyadhair.data.flights.api.FlightStreamDecoder
+import fr.benchaabane.riyadhair.data.flights.api.FlightsResponse
+import fr.benchaabane.riyadhair.data.flights.api.IsoInstantSerializer
+import fr.benchaabane.riyadhair.data.flights.dao.FlightDao
+import fr.benchaabane.riyadhair.data.flights.dao.FlightEntity
+import fr.benchaabane.riyadhair.data.flights.dao.FlightRemoteKeyEntity
+import io.mockk.coEvery
+import io.mockk.coVerify
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.mockkStatic
+import io.mockk.unmockkStatic
+import kotlinx.coroutines.test.runTest
+import kotlinx.serialization.json.Json
+import okhttp3.ResponseBody.Companion.toResponseBody
+import org.amshove.kluent.shouldBeEqualTo
+import org.amshove.kluent.shouldBeInstanceOf
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import java.io.IOException
+
+@OptIn(ExperimentalPagingApi::class)
+class FlightRemoteMediatorTest {
+
+    private lateinit var mediator: FlightRemoteMediator
+    private lateinit var flightService: FlightService
+    private lateinit var flightDao: FlightDao
+    private val json = Json { ignoreUnknownKeys = true; coerceInputValues = true }
+    private val now = 1_000_000_000L
+    private val state = PagingState<Int, FlightEntity>(
+        pages = emptyList(),
+        anchorPosition = null,
+        config = PagingConfig(pageSize = PAGE_SIZE),
+        leadingPlaceholderCount = 0
+    )
+
+    @Before
+    fun setUp() {
+        // Given
+        flightService = mockk()
+        flightDao = mockk(relaxed = true)
+        val database = mockk<AppDatabase>()
+        every { database.flightDao() } returns flightDao
+        mockkStatic("androidx.room.RoomDatabaseKt")
+        coEvery { database.withTransaction(any<suspend () -> Any?>()) } coAnswers {
+            secondArg<suspend () -> Any?>().invoke()
+        }
+        mediator = FlightRemoteMediator(
+            flightService,
+            FlightStreamDecoder(json),
+            database,
+            origin = "RUH",
+            destination = "JED",
+            cacheTimeoutMillis = CACHE_TIMEOUT,
+            clock = { now }
+        )
+    }
+
+    @After
+    fun tearDown() {
+        unmockkStatic("androidx.room.RoomDatabaseKt")
+    }
+
+    @Test
+    fun `initialize should skip the refresh of a recently refreshed route`() = runTest {
+        // Given
+        coEvery { flightDao.getRemoteKey("RUH-JED") } returns FlightRemoteKeyEntity("RUH-JED", 2, now - 1_000)
+
+        // When
+        val action = mediator.initialize()
+
+        // Then
+        action shouldBeEqualTo InitializeAction.SKIP_INITIAL_REFRESH
+    }
+
+    @Test
+    fun `initialize should refresh an unknown or outdated route`() = runTest {
+        // Given
+        coEvery { flightDao.getRemoteKey("RUH-JED") } returnsMany listOf(
+            null,
+            FlightRemoteKeyEntity("RUH-JED", 2, now - CACHE_TIMEOUT)
+        )
+
+        // When
+        val actions = listOf(mediator.initialize(), mediator.initialize())
+
+        // Then
+        actions shouldBeEqualTo List(2) { InitializeAction.LAUNCH_INITIAL_REFRESH }
+    }
+
+    @Test
+    fun `refresh should replace the route with page one and point the remote key at page two`() = runTest {
+        // Given
+        coEvery { flightService.streamFlights("RUH", "JED", 1, PAGE_SIZE, null) } returns body("F1", "F2")
+
+        // When
+        val result = mediator.load(LoadType.REFRESH, state)
+
+        // Then
+        result.shouldBeInstanceOf<MediatorResult.Success>()
+        (result as MediatorResult.Success).endOfPaginationReached shouldBeEqualTo false
+        coVerify(exactly = 1) { flightDao.clearFlightsByRoute("RUH", "JED") }
+        coVerify { flightDao.upsertAll(match { flights -> flights.map { it.id } == listOf("F1", "F2") }) }
+        coVerify { flightDao.upsertRemoteKey(FlightRemoteKeyEntity("RUH-JED", nextPage = 2, lastUpdated = now)) }
+    }
+
+    @Test
+    fun `append should load the remote key's page and end on a short page`() = runTest {
+        // Given
+        coEvery { flightDao.getRemoteKey("RUH-JED") } returns FlightRemoteKeyEntity("RUH-JED", 3, now - 5_000)
+        coEvery { flightDao.countExisting(any()) } returns 0
+        coEvery { flightService.streamFlights("RUH", "JED", 3, PAGE_SIZE, null) } returns body("F5")
+
+        // When
+        val result = mediator.load(LoadType.APPEND, state)
+
+        // Then
+        (result as MediatorResult.Success).endOfPaginationReached shouldBeEqualTo true
+        coVerify(exactly = 0) { flightDao.clearFlightsByRoute(any(), any()) }
+        coVerify { flightDao.upsertRemoteKey(FlightRemoteKeyEntity("RUH-JED", nextPage = null, lastUpdated = now - 5_000)) }
+    }
+
+    @Test
+    fun `append should end when the page only holds cached flights`() = runTest {
+        // Given
+        coEvery { flightDao.getRemoteKey("RUH-JED") } returns FlightRemoteKeyEntity("RUH-JED", 2, now)
+        coEvery { flightDao.countExisting(listOf("F1", "F2")) } returns 2
+        coEvery { flightService.streamFlights("RUH", "JED", 2, PAGE_SIZE, null) } returns body("F1", "F2")
+
+        // When
+        val result = mediator.load(LoadType.APPEND, state)
+
+        // Then
+        (result as MediatorResult.Success).endOfPaginationReached shouldBeEqualTo true
+    }
+
+    @Test
+    fun `append should not call the API once the last page is reached`() = runTest {
+        // Given
+        coEvery { flightDao.getRemoteKey("RUH-JED") } returns FlightRemoteKeyEntity("RUH-JED", null, now)
+
+        // When
+        val result = mediator.load(LoadType.APPEND, state)
+
+        // Then
+        (result as MediatorResult.Success).endOfPaginationReached shouldBeEqualTo true
+        coVerify(exactly = 0) { flightService.streamFlights(any(), any(), any(), any(), any()) }
+    }
+
+    @Test
+    fun `prepend should always be the end of pagination`() = runTest {
+        // When
+        val result = mediator.load(LoadType.PREPEND, state)
+
+        // Then
+        (result as MediatorResult.Success).endOfPaginationReached shouldBeEqualTo true
+    }
+
+    @Test
+    fun `network failures should be reported as errors without touching the cache`() = runTest {
+        // Given
+        coEvery { flightService.streamFlights(any(), any(), any(), any(), any()) } throws IOException("offline")
+
+        // When
+        val result = mediator.load(LoadType.REFRESH, state)
+
+        // Then
+        result.shouldBeInstanceOf<MediatorResult.Error>()
+        coVerify(exactly = 0) { flightDao.clearFlightsByRoute(any(), any()) }
+        coVerify(exactly = 0) { flightDao.upsertRemoteKey(any()) }
+    }
+
+    private fun body(vararg ids: String) = json.encodeToString(
+        FlightsResponse.serializer(),
+        FlightsResponse(ids.map { flightDto(it) })
+    ).toResponseBody()
+
+    private fun flightDto(id: String) = FlightDto(
+        id = id,
+        flightNumber = "RX$id",
+        departureAirport = AirportDto("RUH", "King Khalid International Airport", "Riyadh", "Saudi Arabia", "Asia/Riyadh"),
+        arrivalAirport = AirportDto("JED", "King Abdulaziz International Airport", "Jeddah", "Saudi Arabia", "Asia/Riyadh"),
+        airline = "RiyadhAir",
+        departureTime = IsoInstantSerializer.parse("2024-07-15T12:15:00Z"),
+        arrivalTime = IsoInstantSerializer.parse("2024-07-15T14:45:00Z"),
+        duration = "1h 45m",
+        price = 150.0,
+        cabinClass = "Economy",
+        availableSeats = 120,
+        aircraft = "Airbus A320"
+    )
+
+    private companion object {
+        const val PAGE_SIZE = 2
+        const val CACHE_TIMEOUT = 60_000L
+    }
+}
@@ -0,0 +1,181 @@
+package fr.benchaabane.riyadhair.data.flights.repositories
+
+import fr.benchaabane.riyadhair.data.flights.api.AirportDto
+import fr.benchaabane.riyadhair.data.flights.api.FlightDto
+import fr.benchaabane.riyadhair.data.flights.api.FlightService
+import fr.benchaabane.riyadhair.data.flights.api.FlightStreamDecoder
+import fr.benchaabane.riyadhair.data.flights.api.FlightsResponse
+import fr.benchaabane.riyadhair.data.flights.api.IsoInstantSerializer
+import fr.benchaabane.riyadhair.data.flights.api.SEARCH_PAGE_SIZE
+import fr.benchaabane.riyadhair.data.flights.dao.FareCalendarDao
+import fr.benchaabane.riyadhair.data.flights.dao.FareCalendarEntity
+import fr.benchaabane.riyadhair.domain.flights.models.DayFare
+import io.mockk.coEvery
+import io.mockk.coVerify
+import io.mockk.just
+import io.mockk.mockk
+import io.mockk.runs
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.last
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.test.runTest
+import kotlinx.serialization.json.Json
+import okhttp3.ResponseBody.Companion.toResponseBody
+import org.amshove.kluent.shouldBeEqualTo
+import org.amshove.kluent.shouldBeLessOrEqualTo
+import org.junit.Before
+import org.junit.Test
+import java.io.IOException
+import java.time.LocalDate
+import java.time.YearMonth
+import java.time.ZoneOffset
+import java.util.concurrent.atomic.AtomicInteger
+
+class FareCalendarRepositoryImplTest {
+
+    private lateinit var repository: FareCalendarRepositoryImpl
+    private lateinit var mockFlightService: FlightService
+    private lateinit var mockFareCalendarDao: FareCalendarDao
+    private val json = Json { ignoreUnknownKeys = true; coerceInputValues = true }
+
+    private val nextMonth = YearMonth.now(ZoneOffset.UTC).plusMonths(1)
+
+    @Before
+    fun setUp() {
+        // Given
+        mockFlightService = mockk()
+        mockFareCalendarDao = mockk()
+        coEvery { mockFareCalendarDao.deleteDaysBefore(any()) } just runs
+        coEvery { mockFareCalendarDao.upsert(any()) } just runs
+        coEvery { mockFareCalendarDao.getDays(any(), any(), any(), any()) } returns emptyList()
+        repository = FareCalendarRepositoryImpl(mockFlightService, FlightStreamDecoder(json), mockFareCalendarDao)
+    }
+
+    @Test
+    fun `getFareCalendar should keep the cheapest flight of each day and cache it`() = runTest {
+        // Given
+        coEvery { mockFlightService.streamFlights("RUH", "JED", any(), any(), any()) } answers {
+            val date = arg<String>(4)
+            val day = LocalDate.parse(date).dayOfMonth
+            searchBody(flightDto(price = 300.0, date), flightDto(price = 100.0 + day, date), flightDto(price = 250.0, date))
+        }
+
+        // When
+        val calendar = repository.getFareCalendar("RUH", "JED", nextMonth).last()
+
+        // Then
+        calendar.fares shouldBeEqualTo (1..nextMonth.lengthOfMonth()).map { day ->
+            DayFare(nextMonth.atDay(day), 100.0 + day)
+        }
+        calendar.cheapest?.date shouldBeEqualTo nextMonth.atDay(1)
+        coVerify(exactly = nextMonth.lengthOfMonth()) { mockFareCalendarDao.upsert(any()) }
+        coVerify { mockFlightService.streamFlights("RUH", "JED", any(), any(), nextMonth.atDay(1).toString()) }
+    }
+
+    @Test
+    fun `getFareCalendar should serve fresh cached days without any request`() = runTest {
+        // Given
+        val fetchedAt = System.currentTimeMillis()
+        coEvery { mockFareCalendarDao.getDays("RUH", "JED", any(), any()) } returns
+            (1..nextMonth.lengthOfMonth()).map { day ->
+                FareCalendarEntity("RUH", "JED", nextMonth.atDay(day).toEpochDay(), 120.0.takeIf { day % 2 == 0 }, fetchedAt)
+            }
+
+        // When
+        val calendars = repository.getFareCalendar("RUH", "JED", nextMonth).toList()
+
+        // Then
+        calendars.size shouldBeEqualTo 1
+        calendars.single().fares.size shouldBeEqualTo nextMonth.lengthOfMonth() / 2
+        coVerify(exactly = 0) { mockFlightService.streamFlights(any(), any(), any(), any(), any()) }
+    }
+
+    @Test
+    fun `getFareCalendar should bound the day requests in flight`() = runTest {
+        // Given
+        val inFlight = AtomicInteger()
+        val maxInFlight = AtomicInteger()
+        coEvery { mockFlightService.streamFlights(any(), any(), any(), any(), any()) } coAnswers {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet()) { current, next -> maxOf(current, next) }
+            delay(5)
+            inFlight.decrementAndGet()
+            searchBody(flightDto(price = 150.0, arg(4)))
+        }
+
+        // When
+        repository.getFareCalendar("RUH", "JED", nextMonth).last()
+
+        // Then
+        maxInFlight.get() shouldBeLessOrEqualTo 4
+        coVerify(exactly = nextMonth.lengthOfMonth()) { mockFlightService.streamFlights(any(), any(), any(), any(), any()) }
+    }
+
+    @Test
+    fun `getFareCalendar should leave failed days out and not cache them`() = runTest {
+        // Given
+        val failingDay = nextMonth.atDay(10).toString()
+        coEvery { mockFlightService.streamFlights(any(), any(), any(), any(), any()) } answers {
+            if (arg<String>(4) == failingDay) throw IOException("Network error")
+            searchBody(flightDto(price = 150.0, arg(4)))
+        }
+
+        // When
+        val calendar = repository.getFareCalendar("RUH", "JED", nextMonth).last()
+
+        // Then
+        calendar.fares.map { it.date.toString() }.contains(failingDay) shouldBeEqualTo false
+        calendar.fares.size shouldBeEqualTo nextMonth.lengthOfMonth() - 1
+        coVerify(exactly = nextMonth.lengthOfMonth() - 1) { mockFareCalendarDao.upsert(any()) }
+    }
+
+    @Test
+    fun `getFareCalendar should ignore flights departing on another day`() = runTest {
+        // Given
+        coEvery { mockFlightService.streamFlights(any(), any(), any(), any(), any()) } answers {
+            val date = LocalDate.parse(arg<String>(4))
+            searchBody(flightDto(price = 90.0, date.plusDays(1).toString()), flightDto(price = 150.0, date.toString()))
+        }
+
+        // When
+        val calendar = repository.getFareCalendar("RUH", "JED", nextMonth).last()
+
+        // Then
+        calendar.fares.map { it.minPrice }.distinct() shouldBeEqualTo listOf(150.0)
+    }
+
+    @Test
+    fun `getFareCalendar should follow every page of a day`() = runTest {
+        // Given
+        coEvery { mockFlightService.streamFlights("RUH", "JED", 1, SEARCH_PAGE_SIZE, any()) } answers {
+            searchBody(*Array(SEARCH_PAGE_SIZE) { flightDto(price = 200.0 + it, arg(4)) })
+        }
+        coEvery { mockFlightService.streamFlights("RUH", "JED", 2, SEARCH_PAGE_SIZE, any()) } answers {
+            searchBody(flightDto(price = 80.0, arg(4)))
+        }
+
+        // When
+        val calendar = repository.getFareCalendar("RUH", "JED", nextMonth).last()
+
+        // Then
+        calendar.fares.map { it.minPrice }.distinct() shouldBeEqualTo listOf(80.0)
+        coVerify(exactly = 0) { mockFlightService.streamFlights(any(), any(), 3, any(), any()) }
+    }
+
+    private fun searchBody(vararg flights: FlightDto) =
+        json.encodeToString(FlightsResponse.serializer(), FlightsResponse(flights.toList())).toResponseBody()
+
+    private fun flightDto(price: Double, date: String) = FlightDto(
+        id = "RA$price",
+        flightNumber = "RX101",
+        departureAirport = AirportDto("RUH", "King Khalid International Airport", "Riyadh", "Saudi Arabia", "Asia/Riyadh"),
+        arrivalAirport = AirportDto("JED", "King Abdulaziz International Airport", "Jeddah", "Saudi Arabia", "Asia/Riyadh"),
+        airline = "RiyadhAir",
+        departureTime = IsoInstantSerializer.parse("${date}T12:15:00Z"),
+        arrivalTime = IsoInstantSerializer.parse("${date}T14:45:00Z"),
+        duration = "1h 45m",
+        price = price,
+        cabinClass = "Economy",
+        availableSeats = 120,
+        aircraft = "Airbus A320"
+    )
+}
@@ -0,0 +1,261 @@
+package fr.benchaabane.riyadhair.data.flights.repositories
+
+import fr.benchaabane.riyadhair.data.db.AppDatabase
+import fr.benchaabane.riyadhair.data.flights.api.AirportDto
+import fr.benchaabane.riyadhair.data.flights.api.AvailabilityResponse
+import fr.benchaabane.riyadhair.data.flights.api.FlightDto
+import fr.benchaabane.riyadhair.data.flights.api.FlightService
+import fr.benchaabane.riyadhair.data.flights.api.FlightStreamDecoder
+import fr.benchaabane.riyadhair.data.flights.api.FlightsResponse
+import fr.benchaabane.riyadhair.data.flights.api.IsoInstantSerializer
+import fr.benchaabane.riyadhair.data.flights.api.SEARCH_PAGE_SIZE
+import fr.benchaabane.riyadhair.data.flights.api.SeatAvailabilityDto
+import fr.benchaabane.riyadhair.data.flights.cache.FlightIndex
+import fr.benchaabane.riyadhair.data.flights.cache.FlightSearchCache
+import fr.benchaabane.riyadhair.domain.flights.models.CabinClass
+import fr.benchaabane.riyadhair.domain.flights.models.FlightSearch
+import fr.benchaabane.riyadhair.domain.flights.models.PassengerCount
+import io.mockk.coEvery
+import io.mockk.coVerify
+import io.mockk.mockk
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.take
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.test.runTest
+import kotlinx.serialization.json.Json
+import okhttp3.ResponseBody.Companion.toResponseBody
+import org.amshove.kluent.shouldBeEqualTo
+import org.junit.Before
+import org.junit.Test
+import retrofit2.HttpException
+import retrofit2.Response
+import java.io.IOException
+import java.time.LocalDate
+import java.time.ZoneOffset
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class FlightRepositoryImplTest {
+
+    private lateinit var repository: FlightRepositoryImpl
+    private lateinit var mockFlightService: FlightService
+    private lateinit var flightIndex: FlightIndex
+    private var now = 0L
+    private val json = Json { ignoreUnknownKeys = true; coerceInputValues = true }
+
+    @Before
+    fun setUp() {
+        // Given
+        mockFlightService = mockk()
+        flightIndex = FlightIndex()
+        repository = FlightRepositoryImpl(
+            mockFlightService,
+            flightIndex,
+            mockk<AppDatabase>(relaxed = true),
+            FlightStreamDecoder(json),
+            FlightSearchCache(maxEntries = 8, clock = { now })
+        )
+    }
+
+    @Test
+    fun `searchFlights should serve a repeated search from the cache and revalidate its seats`() = runTest {
+        // Given
+        now = System.currentTimeMillis()
+        val search = flightSearch(departureDate = LocalDate.now(ZoneOffset.UTC).plusDays(60))
+        coEvery { mockFlightService.streamFlights("RUH", "JED", any(), any(), search.departureDate.toString()) } returns
+            searchBody(flightDto("RA001", "RX101", search.departureDate), flightDto("RA002", "RX102", search.departureDate))
+        coEvery { mockFlightService.getAvailability("RA001,RA002") } returns
+            AvailabilityResponse(listOf(SeatAvailabilityDto("RA001", 3)))
+        repository.searchFlights(search)
+
+        // When
+        now += FlightSearchCache.REVALIDATION_INTERVAL.inWholeMilliseconds
+        val result = repository.searchFlights(search.copy(departureAirportCode = " ruh", returnDate = search.departureDate.plusDays(7)))
+
+        // Then
+        result.getOrNull()?.map { it.flightNumber } shouldBeEqualTo listOf("RX101", "RX102")
+        coVerify(exactly = 1) { mockFlightService.streamFlights(any(), any(), any(), any(), any()) }
+        coVerify(timeout = 1_000) { mockFlightService.getAvailability("RA001,RA002") }
+    }
+
+    @Test
+    fun `searchFlights should search again once the cached leg has expired`() = runTest {
+        // Given
+        now = System.currentTimeMillis()
+        val search = flightSearch(departureDate = LocalDate.now(ZoneOffset.UTC))
+        coEvery { mockFlightService.streamFlights("RUH", "JED", any(), any(), any()) } returns
+            searchBody(flightDto("RA001", "RX101", search.departureDate)) andThen
+            searchBody(flightDto("RA002", "RX102", search.departureDate))
+        repository.searchFlights(search)
+
+        // When
+        now += FlightSearchCache.timeToLive(search, now).inWholeMilliseconds
+        val result = repository.searchFlights(search)
+
+        // Then
+        result.getOrNull()?.map { it.flightNumber } shouldBeEqualTo listOf("RX102")
+        coVerify(exactly = 2) { mockFlightService.streamFlights(any(), any(), any(), any(), any()) }
+        coVerify(exactly = 0) { mockFlightService.getAvailability(any()) }
+    }
+
+    @Test
+    fun `searchFlights should not cache a failed search`() = runTest {
+        // Given
+        now = System.currentTimeMillis()
+        val search = flightSearch(departureDate = LocalDate.now(ZoneOffset.UTC).plusDays(10))
+        coEvery { mockFlightService.streamFlights("RUH", "JED", any(), any(), any()) } throws
+            IOException("Network error") andThen searchBody(flightDto("RA001", "RX101", search.departureDate))
+
+        // When
+        val failed = repository.searchFlights(search)
+        val retried = repository.searchFlights(search)
+
+        // Then
+        failed.getOrNull() shouldBeEqualTo emptyList()
+        retried.getOrNull()?.map { it.flightNumber } shouldBeEqualTo listOf("RX101")
+    }
+
+    @Test
+    fun `searchFlights should only cache the flights departing on the searched day`() = runTest {
+        // Given
+        now = System.currentTimeMillis()
+        val search = flightSearch(departureDate = LocalDate.now(ZoneOffset.UTC).plusDays(30))
+        coEvery { mockFlightService.streamFlights("RUH", "JED", any(), any(), any()) } returns searchBody(
+            flightDto("RA001", "RX101", search.departureDate),
+            flightDto("RA002", "RX102", search.departureDate.plusDays(1))
+        )
+
+        // When
+        val result = repository.searchFlights(search)
+        val cached = repository.searchFlights(search)
+
+        // Then
+        result.getOrNull()?.map { it.flightNumber } shouldBeEqualTo listOf("RX101")
+        cached.getOrNull()?.map { it.flightNumber } shouldBeEqualTo listOf("RX101")
+        coVerify(exactly = 1) { mockFlightService.streamFlights(any(), any(), any(), any(), any()) }
+    }
+
+    @Test
+    fun `getFlight should resolve a searched flight without network`() = runTest {
+        // Given
+        coEvery { mockFlightService.streamFlights("RUH", "JED", 1, SEARCH_PAGE_SIZE, null) } returns searchBody(flightDto("RA001", "RX101"))
+        repository.getFlights("RUH", "JED")
+
+        // When
+        val result = repository.getFlight("RX101")
+
+        // Then
+        result.getOrNull()?.id shouldBeEqualTo "RA001"
+        flightIndex.getById("RA001")?.flightNumber shouldBeEqualTo "RX101"
+        coVerify(exactly = 0) { mockFlightService.getFlight(any()) }
+    }
+
+    @Test
+    fun `streamFlights should emit every flight of the response in order`() = runTest {
+        // Given
+        coEvery { mockFlightService.streamFlights("RUH", "JED", 1, SEARCH_PAGE_SIZE, null) } returns searchBody(
+            flightDto("RA001", "RX101"),
+            flightDto("RA002", "RX102")
+        )
+
+        // When
+        val flights = repository.streamFlights("RUH", "JED").toList()
+
+        // Then
+        flights.map { it.flightNumber } shouldBeEqualTo listOf("RX101", "RX102")
+        coVerify(exactly = 0) { mockFlightService.searchFlights(any(), any(), any(), any()) }
+    }
+
+    @Test
+    fun `getFlights should follow the pages of the route until a short page`() = runTest {
+        // Given
+        val firstPage = List(SEARCH_PAGE_SIZE) { flightDto("RA$it", "RX$it") }
+        coEvery { mockFlightService.streamFlights("RUH", "JED", 1, SEARCH_PAGE_SIZE, null) } returns
+            searchBody(*firstPage.toTypedArray())
+        coEvery { mockFlightService.streamFlights("RUH", "JED", 2, SEARCH_PAGE_SIZE, null) } returns
+            searchBody(flightDto("RA100", "RX100"))
+
+        // When
+        val result = repository.getFlights("RUH", "JED")
+
+        // Then
+        result.getOrNull()?.size shouldBeEqualTo SEARCH_PAGE_SIZE + 1
+        result.getOrNull()?.last()?.flightNumber shouldBeEqualTo "RX100"
+        coVerify(exactly = 2) { mockFlightService.streamFlights(any(), any(), any(), any(), any()) }
+    }
+
+    @Test
+    fun `streamFlights should not request the next page once the collector stops`() = runTest {
+        // Given
+        val firstPage = List(SEARCH_PAGE_SIZE) { flightDto("RA$it", "RX$it") }
+        coEvery { mockFlightService.streamFlights("RUH", "JED", 1, SEARCH_PAGE_SIZE, null) } returns
+            searchBody(*firstPage.toTypedArray())
+
+        // When
+        val flights = repository.streamFlights("RUH", "JED").take(5).toList()
+
+        // Then
+        flights.size shouldBeEqualTo 5
+        coVerify(exactly = 1) { mockFlightService.streamFlights(any(), any(), any(), any(), any()) }
+    }
+
+    @Test
+    fun `getFlight should fetch a single flight when not indexed`() = runTest {
+        // Given
+        coEvery { mockFlightService.getFlight("RX102") } returns flightDto("RA002", "RX102")
+
+        // When
+        val first = repository.getFlight("RX102")
+        val second = repository.getFlight("RX102")
+
+        // Then
+        first.getOrNull()?.flightNumber shouldBeEqualTo "RX102"
+        second.getOrNull()?.flightNumber shouldBeEqualTo "RX102"
+        coVerify(exactly = 1) { mockFlightService.getFlight("RX102") }
+        coVerify(exactly = 0) { mockFlightService.searchFlights(any(), any(), any(), any()) }
+    }
+
+    @Test
+    fun `getFlight should return null when flight does not exist`() = runTest {
+        // Given
+        coEvery { mockFlightService.getFlight("XX000") } throws HttpException(
+            Response.error<FlightDto>(404, "{}".toResponseBody())
+        )
+
+        // When
+        val result = repository.getFlight("XX000")
+
+        // Then
+        result.isSuccess shouldBeEqualTo true
+        result.getOrNull() shouldBeEqualTo null
+    }
+
+    private fun flightSearch(departureDate: LocalDate) = FlightSearch(
+        departureAirportCode = "RUH",
+        arrivalAirportCode = "JED",
+        departureDate = departureDate,
+        passengers = PassengerCount(adults = 2),
+        cabinClass = CabinClass.ECONOMY
+    )
+
+    private fun searchBody(vararg flights: FlightDto) =
+        json.encodeToString(FlightsResponse.serializer(), FlightsResponse(flights.toList())).toResponseBody()
+
+    private fun flightDto(
+        id: String,
+        flightNumber: String,
+        departureDate: LocalDate = LocalDate.of(2024, 7, 15)
+    ) = FlightDto(
+        id = id,
+        flightNumber = flightNumber,
+        departureAirport = AirportDto("RUH", "King Khalid International Airport", "Riyadh", "Saudi Arabia", "Asia/Riyadh"),
+        arrivalAirport = AirportDto("JED", "King Abdulaziz International Airport", "Jeddah", "Saudi Arabia", "Asia/Riyadh"),
+        airline = "RiyadhAir",
+        departureTime = IsoInstantSerializer.parse("${departureDate}T12:15:00Z"),
+        arrivalTime = IsoInstantSerializer.parse("${departureDate}T14:45:00Z"),
+        duration = "1h 45m",
+        price = 150.0,
+        cabinClass = "Economy",
+        availableSeats = 120,
+        aircraft = "Airbus A320"
+    )
+}
@@ -0,0 +1,277 @@
+package fr.benchaabane.riyadhair.data.loadtest
+
+import fr.benchaabane.riyadhair.data.db.AppDatabase
+import fr.benchaabane.riyadhair.data.flights.api.FlightService
+import fr.benchaabane.riyadhair.data.flights.api.FlightStreamDecoder
+import fr.benchaabane.riyadhair.data.flights.cache.FlightIndex
+import fr.benchaabane.riyadhair.data.flights.cache.FlightSearchCache
+import fr.benchaabane.riyadhair.data.flights.repositories.FlightRepositoryImpl
+import fr.benchaabane.riyadhair.data.offers.api.OffersService
+import fr.benchaabane.riyadhair.data.offers.repositories.OffersRepositoryImpl
+import fr.benchaabane.riyadhair.data.partners.api.PartnerService
+import fr.benchaabane.riyadhair.data.partners.repositories.PartnerRepositoryImpl
+import fr.benchaabane.riyadhair.data.reservations.api.ReservationService
+import fr.benchaabane.riyadhair.data.reservations.repositories.ReservationRepositoryImpl
+import fr.benchaabane.riyadhair.domain.flights.models.CabinClass
+import fr.benchaabane.riyadhair.domain.flights.models.FlightSearch
+import fr.benchaabane.riyadhair.domain.flights.models.PassengerCount
+import io.mockk.mockk
+import kotlinx.coroutines.flow.count
+import kotlinx.coroutines.flow.take
+import kotlinx.serialization.json.Json
+import okhttp3.MediaType.Companion.toMediaType
+import okhttp3.OkHttpClient
+import okhttp3.mockwebserver.MockWebServer
+import org.amshove.kluent.shouldBeEqualTo
+import org.junit.After
+import org.junit.Assume.assumeTrue
+import org.junit.Before
+import org.junit.Test
+import retrofit2.Retrofit
+import retrofit2.converter.kotlinx.serialization.asConverterFactory
+import java.io.File
+import java.util.concurrent.TimeUnit
+
+/**
+ * End-to-end load test of the data layer against a [SyntheticDataset].
+ *
+ * The repositories run with their real Retrofit services, OkHttp client,
+ * decoders, caches and mappers, against a local [MockWebServer] serving
+ * the dataset through [SyntheticBackend]. Room needs an Android runtime,
+ * so the DAOs are the map-backed ones of [InMemoryTable], and the flight
+ * database, only used by paging, is a mock.
+ *
+ * Each scenario checks what the repositories return, and prints its
+ * throughput, latency percentiles and peak heap from [LoadHarness].
+ * Timings are reported, not asserted, to keep the test stable on CI.
+ *
+ * **Running:**
+ * The test is excluded from the unit test suite and runs on its own, in a
+ * 2 GB heap, with `./gradlew :data:loadTest`.
+ *
+ * **Size:**
+ * 10^3 flights by default; run with `-Ploadtest.flights=1000000` for a
+ * production-sized backend. `-Ploadtest.fixturesDir=<dir>` also writes the
+ * dataset as `assets/mock` fixtures.
+ */
+class DataLayerLoadTest {
+
+    private val dataset = SyntheticDataset(flightCount = System.getProperty("loadtest.flights")?.toIntOrNull() ?: 1_000)
+    private val json = Json { ignoreUnknownKeys = true; coerceInputValues = true }
+    private lateinit var server: MockWebServer
+    private lateinit var retrofit: Retrofit
+
+    @Before
+    fun setUp() {
+        // Given
+        server = MockWebServer()
+        server.dispatcher = SyntheticBackend(dataset)
+        server.start()
+        retrofit = Retrofit.Builder()
+            .baseUrl(server.url("/"))
+            .client(
+                OkHttpClient.Builder()
+                    .readTimeout(1, TimeUnit.MINUTES)
+                    .build()
+            )
+            .addConverterFactory(json.asConverterFactory("application/json".toMediaType()))
+            .build()
+        println(
+            "Dataset: ${dataset.flightCount} flights, ${dataset.airportCount} airports, ${dataset.routeCount} routes, " +
+                "${dataset.offerCount} offers, ${dataset.partnerCount} partners, ${dataset.reservationCount} reservations"
+        )
+    }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+    }
+
+    @Test
+    fun `route searches should return every flight of every route`() {
+        // Given
+        val repository = flightRepository()
+        val routes = dataset.routesBySize().take(ROUTE_SEARCHES)
+
+        // When
+        val report = LoadHarness.run("getFlights (cold)", routes.size, CONCURRENCY) { index ->
+            val route = routes[index]
+            repository.getFlights(dataset.origin(route), dataset.destination(route)).getOrThrow().size
+        }
+
+        // Then
+        println(report)
+        report.items shouldBeEqualTo routes.map { dataset.flightsOf(it).size }
+    }
+
+    @Test
+    fun `dated searches should be served from the cache once warm`() {
+        // Given
+        val repository = flightRepository(FlightSearchCache(maxEntries = DATED_SEARCHES, clock = System::currentTimeMillis))
+        val flights = List(DATED_SEARCHES) { index -> index.toLong() * dataset.flightCount / DATED_SEARCHES }
+            .map(Long::toInt)
+            .distinctBy { dataset.routeOf(it) to dataset.departureDate(it) }
+        val searches = flights.map { flight ->
+            val route = dataset.routeOf(flight)
+            FlightSearch(
+                departureAirportCode = dataset.origin(route),
+                arrivalAirportCode = dataset.destination(route),
+                departureDate = dataset.departureDate(flight),
+                passengers = PassengerCount(adults = 2),
+                cabinClass = CabinClass.ECONOMY
+            )
+        }
+
+        // When
+        val misses = LoadHarness.run("searchFlights (miss)", searches.size, CONCURRENCY) { index ->
+            repository.searchFlights(searches[index]).getOrThrow().size
+        }
+        val hits = LoadHarness.run("searchFlights (hit)", searches.size, CONCURRENCY) { index ->
+            repository.searchFlights(searches[index]).getOrThrow().size
+        }
+
+        // Then
+        println(misses)
+        println(hits)
+        misses.items shouldBeEqualTo flights.map { flight ->
+            dataset.flightsOf(dataset.routeOf(flight), dataset.departureDate(flight))
+                .count { dataset.availableSeats(it) >= 2 }
+        }
+        hits.items shouldBeEqualTo misses.items
+    }
+
+    @Test
+    fun `streamed searches should stop downloading once enough flights are read`() {
+        // Given
+        val repository = flightRepository()
+        val routes = dataset.routesBySize().take(ROUTE_SEARCHES)
+
+        // When
+        val report = LoadHarness.run("streamFlights take(5)", routes.size, CONCURRENCY) { index ->
+            val route = routes[index]
+            repository.streamFlights(dataset.origin(route), dataset.destination(route)).take(5).count()
+        }
+
+        // Then
+        println(report)
+        report.items shouldBeEqualTo routes.map { minOf(dataset.flightsOf(it).size, 5) }
+    }
+
+    @Test
+    fun `single flight lookups should fetch unknown flights`() {
+        // Given
+        val repository = flightRepository()
+        val lookups = minOf(FLIGHT_LOOKUPS, dataset.flightCount)
+
+        // When
+        val report = LoadHarness.run("getFlight (miss)", lookups, CONCURRENCY) { index ->
+            val flight = index.toLong() * dataset.flightCount / lookups
+            if (repository.getFlight(dataset.flightNumber(flight.toInt())).getOrThrow() != null) 1 else 0
+        }
+
+        // Then
+        println(report)
+        report.totalItems shouldBeEqualTo lookups.toLong()
+    }
+
+    @Test
+    fun `whole-route downloads should decode every flight, streamed or buffered`() {
+        // Given
+        val service = retrofit.create(FlightService::class.java)
+        val decoder = FlightStreamDecoder(json)
+        val route = dataset.routesBySize().first()
+        val origin = dataset.origin(route)
+        val destination = dataset.destination(route)
+        val size = dataset.flightsOf(route).size
+
+        // When
+        val streamed = LoadHarness.run("route download (streamed)", WHOLE_ROUTE_DOWNLOADS) {
+            service.streamFlights(origin, destination, limit = size).use { body ->
+                decoder.decode(body.source()).count()
+            }
+        }
+        val buffered = LoadHarness.run("route download (buffered)", WHOLE_ROUTE_DOWNLOADS) {
+            service.searchFlights(origin, destination, limit = size).flights.size
+        }
+
+        // Then
+        println(streamed)
+        println(buffered)
+        streamed.items shouldBeEqualTo List(WHOLE_ROUTE_DOWNLOADS) { size }
+        buffered.items shouldBeEqualTo streamed.items
+    }
+
+    @Test
+    fun `collection refreshes should store every item`() {
+        // Given
+        val offerDao = InMemoryOfferDao()
+        val partnerDao = InMemoryPartnerDao()
+        val reservationDao = InMemoryReservationDao()
+        val offers = OffersRepositoryImpl(offerDao, retrofit.create(OffersService::class.java), InMemoryFetchTimestampDao())
+        val partners = PartnerRepositoryImpl(partnerDao, retrofit.create(PartnerService::class.java), InMemoryFetchTimestampDao())
+        val reservations = ReservationRepositoryImpl(
+            reservationDao,
+            retrofit.create(ReservationService::class.java),
+            outboxDao = mockk(relaxed = true),
+            syncScheduler = mockk(relaxed = true)
+        )
+
+        // When
+        val offerReport = LoadHarness.run("getBestOffers", COLLECTION_REFRESHES) {
+            offers.getBestOffers().getOrThrow().size
+        }
+        val offerWrites = offerDao.table.writes
+        val partnerReport = LoadHarness.run("getPartners", COLLECTION_REFRESHES) {
+            partners.getPartners().getOrThrow().size
+        }
+        val partnerWrites = partnerDao.table.writes
+        offers.getBestOffers().getOrThrow()
+        partners.getPartners().getOrThrow()
+        val reservationReport = LoadHarness.run("refreshReservations", COLLECTION_REFRESHES) {
+            reservations.refreshReservations()
+            reservationDao.table.size
+        }
+
+        // Then
+        println(offerReport)
+        println(partnerReport)
+        println(reservationReport)
+        offerDao.table.size shouldBeEqualTo dataset.offerCount
+        partnerDao.table.size shouldBeEqualTo dataset.partnerCount
+        // Unchanged payloads are diffed away without a single write
+        offerDao.table.writes shouldBeEqualTo offerWrites
+        partnerDao.table.writes shouldBeEqualTo partnerWrites
+        reservationReport.items shouldBeEqualTo List(COLLECTION_REFRESHES) { dataset.reservationCount }
+    }
+
+    @Test
+    fun `fixtures should be written to the requested directory`() {
+        // Given
+        val directory = System.getProperty("loadtest.fixturesDir")
+        assumeTrue("Set -Ploadtest.fixturesDir to write the fixtures", directory != null)
+
+        // When
+        dataset.writeFixtures(File(directory!!))
+
+        // Then
+        listOf("flights.json", "best-offers.json", "partners.json", "reservations.json")
+            .all { File(directory, it).length() > 0 } shouldBeEqualTo true
+    }
+
+    private fun flightRepository(searchCache: FlightSearchCache = FlightSearchCache()) = FlightRepositoryImpl(
+        retrofit.create(FlightService::class.java),
+        FlightIndex(),
+        mockk<AppDatabase>(relaxed = true),
+        FlightStreamDecoder(json),
+        searchCache
+    )
+
+    private companion object {
+        const val CONCURRENCY = 8
+        const val ROUTE_SEARCHES = 500
+        const val DATED_SEARCHES = 500
+        const val FLIGHT_LOOKUPS = 500
+        const val WHOLE_ROUTE_DOWNLOADS = 3
+        const val COLLECTION_REFRESHES = 3
+    }
+}
@@ -0,0 +1,138 @@
+package fr.benchaabane.riyadhair.data.loadtest
+
+import androidx.paging.PagingSource
+import fr.benchaabane.riyadhair.data.db.FetchTimestampDao
+import fr.benchaabane.riyadhair.data.db.FetchTimestampEntity
+import fr.benchaabane.riyadhair.data.db.RowVersion
+import fr.benchaabane.riyadhair.data.db.SyncCursorEntity
+import fr.benchaabane.riyadhair.data.offers.dao.OfferDao
+import fr.benchaabane.riyadhair.data.offers.dao.OfferEntity
+import fr.benchaabane.riyadhair.data.partners.dao.PartnerDao
+import fr.benchaabane.riyadhair.data.partners.dao.PartnerEntity
+import fr.benchaabane.riyadhair.data.reservations.dao.ReservationDao
+import fr.benchaabane.riyadhair.data.reservations.dao.ReservationEntity
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.map
+
+/**
+ * A table of rows keyed by id, standing in for a Room table in the load tests.
+ *
+ * Room needs an Android runtime, so the load tests measure the network,
+ * decoding and mapping side of the repositories against map-backed DAOs.
+ * Unlike relaxed mocks, they keep no record of their calls, which would
+ * otherwise show up in the heap measures. Observers are notified through
+ * a version counter, bumped on every write.
+ */
+class InMemoryTable<T>(private val key: (T) -> String) {
+    private val rows = LinkedHashMap<String, T>()
+    private val version = MutableStateFlow(0L)
+
+    val size: Int get() = synchronized(rows) { rows.size }
+
+    /** Number of writes so far, including those that changed nothing. */
+    val writes: Long get() = version.value
+
+    fun all(): List<T> = synchronized(rows) { rows.values.toList() }
+
+    fun get(id: String): T? = synchronized(rows) { rows[id] }
+
+    fun observe(): Flow<List<T>> = version.map { all() }
+
+    fun upsert(items: List<T>) = write { items.forEach { rows[key(it)] = it } }
+
+    fun delete(id: String) = write { rows.remove(id) }
+
+    fun clear() = write { rows.clear() }
+
+    private fun write(change: () -> Unit) {
+        synchronized(rows) {
+            change()
+            version.value++
+        }
+    }
+}
+
+class InMemoryOfferDao(
+    private val fetchTimestamps: InMemoryFetchTimestampDao = InMemoryFetchTimestampDao()
+) : OfferDao {
+    val table = InMemoryTable(OfferEntity::id)
+
+    override suspend fun getOffers(): List<OfferEntity> = table.all().sortedByDescending { it.discountPercentage }
+
+    override fun observeOffers(): Flow<List<OfferEntity>> =
+        table.observe().map { rows -> rows.sortedByDescending { it.discountPercentage } }
+
+    override suspend fun upsertAll(offers: List<OfferEntity>) = table.upsert(offers)
+
+    override suspend fun clearAll() = table.clear()
+
+    override suspend fun getRowVersions(): List<RowVersion> = table.all().map { RowVersion(it.id, it.contentHash) }
+
+    override suspend fun deleteByIds(ids: List<String>) = ids.forEach(table::delete)
+
+    override suspend fun upsertFetchTimestamp(timestamp: FetchTimestampEntity) = fetchTimestamps.upsert(timestamp)
+}
+
+class InMemoryPartnerDao(
+    private val fetchTimestamps: InMemoryFetchTimestampDao = InMemoryFetchTimestampDao()
+) : PartnerDao {
+    val table = InMemoryTable(PartnerEntity::id)
+
+    override suspend fun getPartners(): List<PartnerEntity> = table.all()
+
+    override fun observePartners(): Flow<List<PartnerEntity>> =
+        table.observe().map { rows -> rows.filter { it.isActive }.sortedBy { it.name } }
+
+    override suspend fun upsertAll(partners: List<PartnerEntity>) = table.upsert(partners)
+
+    override suspend fun clearAll() = table.clear()
+
+    override suspend fun getRowVersions(): List<RowVersion> = table.all().map { RowVersion(it.id, it.contentHash) }
+
+    override suspend fun deleteByIds(ids: List<String>) = ids.forEach(table::delete)
+
+    override suspend fun upsertFetchTimestamp(timestamp: FetchTimestampEntity) = fetchTimestamps.upsert(timestamp)
+}
+
+class InMemoryReservationDao : ReservationDao {
+    val table = InMemoryTable(ReservationEntity::id)
+    private val cursors = InMemoryTable(SyncCursorEntity::resourceKey)
+
+    override fun observeReservations(): Flow<List<ReservationEntity>> = table.observe()
+
+    override fun upcomingPagingSource(statuses: List<String>, now: Long): PagingSource<Int, ReservationEntity> =
+        throw UnsupportedOperationException("Reservation paging is not load tested")
+
+    override fun pastPagingSource(statuses: List<String>, now: Long): PagingSource<Int, ReservationEntity> =
+        throw UnsupportedOperationException("Reservation paging is not load tested")
+
+    override fun statusPagingSource(statuses: List<String>): PagingSource<Int, ReservationEntity> =
+        throw UnsupportedOperationException("Reservation paging is not load tested")
+
+    override suspend fun getReservationById(id: String): ReservationEntity? = table.get(id)
+
+    override suspend fun getReservationsByIds(ids: List<String>): List<ReservationEntity> = ids.mapNotNull(table::get)
+
+    override suspend fun upsert(reservation: ReservationEntity) = table.upsert(listOf(reservation))
+
+    override suspend fun deleteById(id: String) = table.delete(id)
+
+    override suspend fun upsertAll(reservations: List<ReservationEntity>) = table.upsert(reservations)
+
+    override suspend fun deleteSynced(ids: List<String>) = ids.forEach(table::delete)
+
+    override suspend fun getSyncCursor(resourceKey: String): String? = cursors.get(resourceKey)?.cursor
+
+    override suspend fun upsertSyncCursor(cursor: SyncCursorEntity) = cursors.upsert(listOf(cursor))
+}
+
+class InMemoryFetchTimestampDao : FetchTimestampDao {
+    val table = InMemoryTable(FetchTimestampEntity::resourceKey)
+
+    override suspend fun getFetchedAt(resourceKey: String): Long? = table.get(resourceKey)?.fetchedAt
+
+    override suspend fun upsert(timestamp: FetchTimestampEntity) = table.upsert(listOf(timestamp))
+
+    override suspend fun delete(resourceKey: String) = table.delete(resourceKey)
+}
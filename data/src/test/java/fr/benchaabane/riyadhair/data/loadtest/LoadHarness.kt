@@ -0,0 +1,133 @@
+package fr.benchaabane.riyadhair.data.loadtest
+
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.runBlocking
+import java.lang.management.ManagementFactory
+import java.lang.management.MemoryType
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Runs a load scenario and measures its throughput, latency and heap.
+ *
+ * A scenario is a number of operations, each a suspending call numbered
+ * from 0, run by [concurrency] workers on the IO dispatcher. Every
+ * operation reports how many items it handled (flights, offers, ...),
+ * which the caller checks for correctness; the harness only measures.
+ *
+ * **Measures:**
+ * - **Throughput**: Operations and items per second of wall-clock time
+ * - **Latency**: p50, p95, p99 and max of the individual operations
+ * - **Peak Heap**: Highest heap usage during the run, above the heap
+ *   left after a GC before it. Pools peak at different times and their
+ *   peaks are summed, so this is an upper bound.
+ */
+object LoadHarness {
+
+    private val heapPools = ManagementFactory.getMemoryPoolMXBeans().filter { it.type == MemoryType.HEAP }
+
+    /**
+     * Runs [operations] operations of a scenario.
+     *
+     * @param name Name of the scenario, for the report
+     * @param operations Number of operations
+     * @param concurrency Number of operations in flight at once
+     * @param operation The operation, given its number, returning the number of items it handled
+     * @return The measures of the run, and the items handled by each operation
+     */
+    fun run(
+        name: String,
+        operations: Int,
+        concurrency: Int = 1,
+        operation: suspend (Int) -> Int
+    ): LoadReport {
+        val latencies = LongArray(operations)
+        val items = IntArray(operations)
+        val next = AtomicInteger()
+        val handled = AtomicLong()
+        System.gc()
+        val baseline = heapPools.sumOf { it.usage.used }
+        heapPools.forEach { it.resetPeakUsage() }
+        val start = System.nanoTime()
+        runBlocking {
+            coroutineScope {
+                repeat(concurrency) {
+                    launch(Dispatchers.IO) {
+                        while (true) {
+                            val index = next.getAndIncrement()
+                            if (index >= operations) break
+                            val started = System.nanoTime()
+                            items[index] = operation(index)
+                            latencies[index] = System.nanoTime() - started
+                            handled.addAndGet(items[index].toLong())
+                        }
+                    }
+                }
+            }
+        }
+        val elapsed = System.nanoTime() - start
+        val peak = heapPools.sumOf { it.peakUsage.used }
+        return LoadReport(
+            name = name,
+            operations = operations,
+            concurrency = concurrency,
+            elapsedNanos = elapsed,
+            latencyNanos = latencies.sorted(),
+            items = items.toList(),
+            totalItems = handled.get(),
+            peakHeapBytes = (peak - baseline).coerceAtLeast(0)
+        )
+    }
+}
+
+/**
+ * Measures of one scenario run by [LoadHarness].
+ *
+ * @property name Name of the scenario
+ * @property operations Number of operations run
+ * @property concurrency Number of operations in flight at once
+ * @property elapsedNanos Wall-clock duration of the run
+ * @property latencyNanos Duration of every operation, sorted
+ * @property items Items handled by each operation, by operation number
+ * @property totalItems Items handled by the whole run
+ * @property peakHeapBytes Peak heap usage above the baseline
+ */
+data class LoadReport(
+    val name: String,
+    val operations: Int,
+    val concurrency: Int,
+    val elapsedNanos: Long,
+    val latencyNanos: List<Long>,
+    val items: List<Int>,
+    val totalItems: Long,
+    val peakHeapBytes: Long
+) {
+
+    /** Operations per second. */
+    val throughput: Double get() = operations / seconds
+
+    /** Items per second. */
+    val itemThroughput: Double get() = totalItems / seconds
+
+    private val seconds: Double get() = elapsedNanos / 1e9
+
+    /**
+     * Latency percentile, nearest-rank, in milliseconds.
+     *
+     * @param percent Percentile, from 0 (exclusive) to 100
+     */
+    fun percentileMillis(percent: Int): Double {
+        val rank = (latencyNanos.size * percent + 99) / 100
+        return latencyNanos[(rank - 1).coerceIn(0, latencyNanos.lastIndex)] / 1e6
+    }
+
+    override fun toString(): String =
+        "%-28s ops=%-6d x%-3d %9.1f ops/s %11.0f items/s  p50=%7.2fms p95=%7.2fms p99=%7.2fms max=%8.2fms  heap+%.1fMB"
+            .format(
+                name, operations, concurrency, throughput, itemThroughput,
+                percentileMillis(50), percentileMillis(95), percentileMillis(99), percentileMillis(100),
+                peakHeapBytes / (1024.0 * 1024.0)
+            )
+}
@@ -0,0 +1,100 @@
+package fr.benchaabane.riyadhair.data.loadtest
+
+import okhttp3.HttpUrl
+import okhttp3.mockwebserver.Dispatcher
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.RecordedRequest
+import okio.Buffer
+import okio.BufferedSink
+import okio.ByteString
+import java.time.LocalDate
+
+/**
+ * [MockWebServer][okhttp3.mockwebserver.MockWebServer] dispatcher serving a [SyntheticDataset].
+ *
+ * Implements the endpoints of the app's `MockInterceptor` over real HTTP,
+ * so the repositories are measured with their actual Retrofit, OkHttp and
+ * socket stack:
+ *
+ * **Endpoints:**
+ * - **Search** (`/flights`): Flights of the `origin` / `destination` route,
+ *   of the `date` day when given, by departure time, cut into pages by
+ *   `page` and `limit`. The limit is not capped, so a whole route can be
+ *   downloaded in one response. `X-Total-Count` holds the matching count.
+ * - **Single Flight** (`/flights/{flightNumber}`): The flight, or HTTP 404
+ * - **Availability** (`/flights/availability`): Seats left on the `ids` flights
+ * - **Offers, Partners, Reservations**: The whole collection, encoded once
+ *
+ * Unknown paths return HTTP 404.
+ *
+ * @param dataset The dataset to serve
+ */
+class SyntheticBackend(private val dataset: SyntheticDataset) : Dispatcher() {
+
+    private val offers by lazy { encode(dataset::writeOffers) }
+
+    private val partners by lazy { encode(dataset::writePartners) }
+
+    private val reservations by lazy { encode(dataset::writeReservations) }
+
+    override fun dispatch(request: RecordedRequest): MockResponse {
+        val url = request.requestUrl ?: return notFound()
+        return when (val path = url.encodedPath) {
+            "/flights" -> searchFlights(url)
+            "/flights/availability" -> availability(url.queryParameter("ids").orEmpty())
+            "/offers/best" -> ok(Buffer().write(offers))
+            "/partners" -> ok(Buffer().write(partners))
+            "/reservations" -> ok(Buffer().write(reservations))
+            else -> if (path.startsWith(FLIGHT_PREFIX)) singleFlight(path.removePrefix(FLIGHT_PREFIX)) else notFound()
+        }
+    }
+
+    private fun searchFlights(url: HttpUrl): MockResponse {
+        val route = dataset.route(url.queryParameter("origin").orEmpty(), url.queryParameter("destination").orEmpty())
+        val date = url.queryParameter("date")?.let(LocalDate::parse)
+        val flights = when {
+            route == null -> IntArray(0)
+            date == null -> dataset.flightsOf(route)
+            else -> dataset.flightsOf(route, date)
+        }
+        val page = url.queryParameter("page")?.toIntOrNull()?.coerceAtLeast(1) ?: 1
+        val limit = url.queryParameter("limit")?.toIntOrNull()?.coerceAtLeast(1) ?: DEFAULT_LIMIT
+        val from = minOf((page - 1).toLong() * limit, flights.size.toLong()).toInt()
+        val to = minOf(from.toLong() + limit, flights.size.toLong()).toInt()
+        val body = Buffer().also { dataset.writeFlights(it, flights.copyOfRange(from, to)) }
+        return ok(body).addHeader(TOTAL_COUNT_HEADER, flights.size)
+    }
+
+    private fun singleFlight(flightNumber: String): MockResponse {
+        val flight = dataset.flightByNumber(flightNumber) ?: return notFound()
+        return ok(Buffer().also { dataset.writeFlight(it, flight) })
+    }
+
+    private fun availability(ids: String): MockResponse {
+        val body = Buffer().writeUtf8("{\"availability\":[")
+        ids.split(',').mapNotNull(dataset::flightById).forEachIndexed { index, flight ->
+            if (index > 0) body.writeByte(','.code)
+            body.writeUtf8("{\"id\":\"${dataset.flightId(flight)}\",\"availableSeats\":${dataset.availableSeats(flight)}}")
+        }
+        return ok(body.writeUtf8("]}"))
+    }
+
+    private fun encode(content: (BufferedSink) -> Unit): ByteString =
+        Buffer().also(content).readByteString()
+
+    private fun ok(body: Buffer) = MockResponse()
+        .setResponseCode(200)
+        .addHeader("Content-Type", "application/json")
+        .setBody(body)
+
+    private fun notFound() = MockResponse()
+        .setResponseCode(404)
+        .addHeader("Content-Type", "application/json")
+        .setBody("{}")
+
+    private companion object {
+        const val FLIGHT_PREFIX = "/flights/"
+        const val TOTAL_COUNT_HEADER = "X-Total-Count"
+        const val DEFAULT_LIMIT = 20
+    }
+}
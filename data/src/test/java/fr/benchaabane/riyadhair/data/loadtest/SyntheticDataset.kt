@@ -0,0 +1,350 @@
+package fr.benchaabane.riyadhair.data.loadtest
+
+import fr.benchaabane.riyadhair.domain.partners.models.PartnerCategory
+import okio.BufferedSink
+import okio.ByteString
+import okio.ByteString.Companion.encodeUtf8
+import okio.buffer
+import okio.sink
+import java.io.File
+import java.time.Instant
+import java.time.LocalDate
+import java.time.ZoneOffset
+import kotlin.random.Random
+
+/**
+ * Reproducible fixture set at production volume, for load tests of the data layer.
+ *
+ * `mock/flights.json` holds a few dozen flights, far from what a real
+ * search backend serves. This dataset describes [flightCount] flights
+ * (from 10^3 to 10^6) over [airportCount] airports, plus offers, partners
+ * and reservations, in the JSON shape of the `assets/mock` fixtures.
+ *
+ * **Reproducibility:**
+ * - **Seeded**: The same parameters always give the same bytes
+ * - **Per Item**: Each flight, offer, partner and reservation is drawn from
+ *   its own generator seeded with [seed] and its index, so it can be encoded
+ *   alone, in any order, without generating the ones before it
+ *
+ * **Shape:**
+ * - **Airports**: Synthetic three-letter codes, "AAA", "AAB", ...
+ * - **Routes**: [ROUTES_PER_AIRPORT] distinct routes leave each airport
+ * - **Skew**: Flights are spread over the routes with a cubic skew, so a
+ *   handful of trunk routes carry thousands of flights, as hubs do, while
+ *   most routes carry a few
+ * - **Dates**: Departures spread over the year following [FIRST_DEPARTURE],
+ *   every route sorted by departure time
+ *
+ * **Memory:**
+ * Only the route and departure time of each flight are kept, about 16 bytes
+ * per flight; the flights are encoded on demand, so a million flights fit
+ * in a test JVM and [writeFixtures] streams them straight to disk.
+ *
+ * @param flightCount Number of flights
+ * @param airportCount Number of airports, at most 17 576
+ * @param offerCount Number of best offers
+ * @param partnerCount Number of partners
+ * @param reservationCount Number of reservations, on random flights
+ * @param seed Seed of every random draw
+ */
+class SyntheticDataset(
+    val flightCount: Int,
+    val airportCount: Int = 300,
+    val offerCount: Int = 5_000,
+    val partnerCount: Int = 2_000,
+    val reservationCount: Int = 5_000,
+    val seed: Long = 42
+) {
+
+    init {
+        require(flightCount > 0) { "flightCount must be positive" }
+        require(airportCount in 2..MAX_AIRPORTS) { "airportCount must be in 2..$MAX_AIRPORTS" }
+    }
+
+    /** Number of distinct routes the flights are spread over. */
+    val routeCount = minOf(airportCount * ROUTES_PER_AIRPORT, airportCount * (airportCount - 1))
+
+    private val airportCodes = Array(airportCount) { index ->
+        buildString {
+            append('A' + index / 676)
+            append('A' + index / 26 % 26)
+            append('A' + index % 26)
+        }
+    }
+
+    private val airportIndex = airportCodes.withIndex().associate { (index, code) -> code to index }
+
+    private val airportJson: Array<ByteString> = Array(airportCount) { index ->
+        val code = airportCodes[index]
+        val country = COUNTRIES[index % COUNTRIES.size]
+        (
+            "{\"code\":\"$code\",\"name\":\"$code International Airport\",\"city\":\"City $code\"," +
+                "\"country\":\"${country.first}\",\"timezone\":\"${country.second}\"}"
+            ).encodeUtf8()
+    }
+
+    private val routeOfFlight = IntArray(flightCount)
+
+    private val departureTimes = LongArray(flightCount)
+
+    private val flightsByRoute: Array<IntArray>
+
+    init {
+        val random = Random(seed)
+        val routeSizes = IntArray(routeCount)
+        for (flight in 0 until flightCount) {
+            val u = random.nextDouble()
+            val route = minOf((routeCount * u * u * u).toInt(), routeCount - 1)
+            routeOfFlight[flight] = route
+            routeSizes[route]++
+            departureTimes[flight] = FIRST_DEPARTURE +
+                random.nextLong(DEPARTURE_DAYS) * SECONDS_PER_DAY +
+                random.nextLong(SLOTS_PER_DAY) * SLOT_SECONDS
+        }
+        val fill = IntArray(routeCount)
+        val routes = Array(routeCount) { IntArray(routeSizes[it]) }
+        for (flight in 0 until flightCount) {
+            val route = routeOfFlight[flight]
+            routes[route][fill[route]++] = flight
+        }
+        flightsByRoute = Array(routeCount) { route ->
+            routes[route].sortedBy { departureTimes[it] }.toIntArray()
+        }
+    }
+
+    /** Origin code of a route. */
+    fun origin(route: Int): String = airportCodes[route % airportCount]
+
+    /** Destination code of a route, always different from its origin. */
+    fun destination(route: Int): String = airportCodes[(route % airportCount + 1 + route / airportCount) % airportCount]
+
+    /**
+     * The route between two airports.
+     *
+     * @return The route index, or null if no flight is scheduled between them
+     */
+    fun route(origin: String, destination: String): Int? {
+        val from = airportIndex[origin] ?: return null
+        val to = airportIndex[destination] ?: return null
+        val offset = (to - from + airportCount) % airportCount - 1
+        val route = offset * airportCount + from
+        return route.takeIf { offset >= 0 && it < routeCount }
+    }
+
+    /** Flights of a route, sorted by departure time. */
+    fun flightsOf(route: Int): IntArray = flightsByRoute[route]
+
+    /** Flights of a route departing on [date], in UTC, sorted by departure time. */
+    fun flightsOf(route: Int, date: LocalDate): IntArray {
+        val flights = flightsByRoute[route]
+        val from = date.atStartOfDay().toEpochSecond(ZoneOffset.UTC)
+        val first = lowerBound(flights, from)
+        val last = lowerBound(flights, from + SECONDS_PER_DAY)
+        return flights.copyOfRange(first, last)
+    }
+
+    /** Routes sorted from the busiest to the quietest. */
+    fun routesBySize(): List<Int> = (0 until routeCount).sortedByDescending { flightsByRoute[it].size }
+
+    /** Route of a flight. */
+    fun routeOf(flight: Int): Int = routeOfFlight[flight]
+
+    /** Departure day of a flight, in UTC. */
+    fun departureDate(flight: Int): LocalDate =
+        Instant.ofEpochSecond(departureTimes[flight]).atOffset(ZoneOffset.UTC).toLocalDate()
+
+    /** Id of a flight, e.g. "SY0000042". */
+    fun flightId(flight: Int): String = "SY%07d".format(flight)
+
+    /** Flight number of a flight, e.g. "RX1042". */
+    fun flightNumber(flight: Int): String = "RX${FIRST_FLIGHT_NUMBER + flight}"
+
+    /** The flight with this id, or null. */
+    fun flightById(id: String): Int? =
+        id.removePrefix("SY").takeIf { id.startsWith("SY") }?.toIntOrNull()?.takeIf { it in 0 until flightCount }
+
+    /** The flight with this number, or null. */
+    fun flightByNumber(number: String): Int? =
+        number.removePrefix("RX").takeIf { number.startsWith("RX") }?.toIntOrNull()
+            ?.minus(FIRST_FLIGHT_NUMBER)?.takeIf { it in 0 until flightCount }
+
+    /** Seats left on a flight. */
+    fun availableSeats(flight: Int): Int = flightRandom(flight).nextInt(MAX_SEATS + 1)
+
+    /**
+     * Writes one flight as a `FlightDto` JSON object.
+     */
+    fun writeFlight(sink: BufferedSink, flight: Int) {
+        val random = flightRandom(flight)
+        val seats = random.nextInt(MAX_SEATS + 1)
+        val route = routeOfFlight[flight]
+        val minutes = 45 + random.nextInt(14 * 60)
+        val departure = departureTimes[flight]
+        sink.writeUtf8("{\"id\":\"").writeUtf8(flightId(flight))
+            .writeUtf8("\",\"flightNumber\":\"").writeUtf8(flightNumber(flight))
+            .writeUtf8("\",\"airline\":\"RiyadhAir\",\"departureAirport\":")
+            .write(airportJson[route % airportCount])
+            .writeUtf8(",\"arrivalAirport\":")
+            .write(airportJson[airportIndex.getValue(destination(route))])
+            .writeUtf8(",\"departureTime\":\"").writeUtf8(Instant.ofEpochSecond(departure).toString())
+            .writeUtf8("\",\"arrivalTime\":\"").writeUtf8(Instant.ofEpochSecond(departure + minutes * 60L).toString())
+            .writeUtf8("\",\"duration\":\"${minutes / 60}h ${minutes % 60}m\"")
+            .writeUtf8(",\"price\":${100 + random.nextInt(4_900)}.00,\"currency\":\"SAR\"")
+            .writeUtf8(",\"cabinClass\":\"${CABIN_CLASSES[random.nextInt(CABIN_CLASSES.size)]}\"")
+            .writeUtf8(",\"availableSeats\":$seats")
+            .writeUtf8(",\"aircraft\":\"${AIRCRAFTS[random.nextInt(AIRCRAFTS.size)]}\",\"stops\":[]}")
+    }
+
+    /**
+     * Writes a `FlightsResponse` with the given flights, in order.
+     */
+    fun writeFlights(sink: BufferedSink, flights: IntArray) {
+        sink.writeUtf8("{\"flights\":[")
+        flights.forEachIndexed { index, flight ->
+            if (index > 0) sink.writeByte(','.code)
+            writeFlight(sink, flight)
+        }
+        sink.writeUtf8("]}")
+    }
+
+    /**
+     * Writes an `OffersResponse` with every offer.
+     */
+    fun writeOffers(sink: BufferedSink) {
+        sink.writeUtf8("{\"offers\":[")
+        repeat(offerCount) { offer ->
+            if (offer > 0) sink.writeByte(','.code)
+            val random = itemRandom(OFFERS, offer)
+            val airport = airportCodes[random.nextInt(airportCount)]
+            val country = COUNTRIES[random.nextInt(COUNTRIES.size)]
+            val discount = 5 + random.nextInt(60)
+            val original = 200 + random.nextInt(3_000)
+            sink.writeUtf8(
+                "{\"id\":\"offer$offer\",\"destination\":{\"id\":\"dest$offer\",\"name\":\"City $airport\"," +
+                    "\"cityName\":\"City $airport\",\"countryName\":\"${country.first}\",\"airportCode\":\"$airport\"," +
+                    "\"imageUrl\":\"https://images.riyadhair.com/destinations/$airport.jpg\"," +
+                    "\"description\":\"Discover City $airport\",\"averageTemperature\":\"${10 + random.nextInt(30)}°C\"," +
+                    "\"timeZone\":\"${country.second}\"},\"originalPrice\":$original.00," +
+                    "\"discountedPrice\":${original * (100 - discount) / 100}.00,\"discountPercentage\":$discount," +
+                    "\"validUntil\":\"${LocalDate.of(2025, 1, 1).plusDays(random.nextLong(DEPARTURE_DAYS))}\"," +
+                    "\"description\":\"Offer $offer to City $airport\"," +
+                    "\"termsAndConditions\":\"Valid for travel until the offer expires\"}"
+            )
+        }
+        sink.writeUtf8("]}")
+    }
+
+    /**
+     * Writes a `PartnersResponse` with every partner.
+     */
+    fun writePartners(sink: BufferedSink) {
+        sink.writeUtf8("{\"partners\":[")
+        repeat(partnerCount) { partner ->
+            if (partner > 0) sink.writeByte(','.code)
+            val random = itemRandom(PARTNERS, partner)
+            val category = PartnerCategory.entries[random.nextInt(PartnerCategory.entries.size)]
+            sink.writeUtf8(
+                "{\"id\":\"partner$partner\",\"name\":\"Partner $partner\",\"category\":\"${category.name}\"," +
+                    "\"imageUrl\":\"https://images.riyadhair.com/partners/$partner.jpg\"," +
+                    "\"description\":\"${category.displayName} with Partner $partner\"," +
+                    "\"discountPercentage\":${5 + random.nextInt(30)}," +
+                    "\"websiteUrl\":\"https://partner$partner.example.com\"," +
+                    "\"isActive\":${random.nextInt(10) > 0}}"
+            )
+        }
+        sink.writeUtf8("]}")
+    }
+
+    /**
+     * Writes a `ReservationsResponse` with every reservation.
+     */
+    fun writeReservations(sink: BufferedSink) {
+        sink.writeUtf8("{\"reservations\":[")
+        repeat(reservationCount) { reservation ->
+            if (reservation > 0) sink.writeByte(','.code)
+            val random = itemRandom(RESERVATIONS, reservation)
+            val flight = random.nextInt(flightCount)
+            sink.writeUtf8(
+                "{\"id\":\"RES$reservation\",\"flightId\":\"${flightId(flight)}\"," +
+                    "\"passengerName\":\"Passenger $reservation\"," +
+                    "\"seat\":\"${1 + random.nextInt(60)}${'A' + random.nextInt(6)}\"," +
+                    "\"status\":\"${RESERVATION_STATUSES[random.nextInt(RESERVATION_STATUSES.size)]}\"," +
+                    "\"departureTime\":\"${Instant.ofEpochSecond(departureTimes[flight])}\",\"flight\":"
+            )
+            writeFlight(sink, flight)
+            sink.writeByte('}'.code)
+        }
+        sink.writeUtf8("]}")
+    }
+
+    /**
+     * Writes the dataset as a set of `assets/mock` fixtures.
+     *
+     * Files are streamed, so even a million flights (about 700 MB of JSON)
+     * are written without being held in memory.
+     *
+     * @param directory Destination of `flights.json`, `best-offers.json`,
+     *        `partners.json` and `reservations.json`, created if missing
+     */
+    fun writeFixtures(directory: File) {
+        directory.mkdirs()
+        write(File(directory, "flights.json")) { writeFlights(it, IntArray(flightCount) { flight -> flight }) }
+        write(File(directory, "best-offers.json"), ::writeOffers)
+        write(File(directory, "partners.json"), ::writePartners)
+        write(File(directory, "reservations.json"), ::writeReservations)
+    }
+
+    private fun write(file: File, content: (BufferedSink) -> Unit) {
+        file.sink().buffer().use(content)
+    }
+
+    private fun flightRandom(flight: Int) = itemRandom(FLIGHTS, flight)
+
+    private fun itemRandom(kind: Int, index: Int) = Random(seed * 31 + kind.toLong() * Int.MAX_VALUE + index)
+
+    private fun lowerBound(flights: IntArray, time: Long): Int {
+        var low = 0
+        var high = flights.size
+        while (low < high) {
+            val middle = (low + high) ushr 1
+            if (departureTimes[flights[middle]] < time) low = middle + 1 else high = middle
+        }
+        return low
+    }
+
+    companion object {
+        /** Routes leaving each airport. */
+        const val ROUTES_PER_AIRPORT = 8
+
+        /** 2025-01-01T00:00:00Z, the first possible departure. */
+        const val FIRST_DEPARTURE = 1_735_689_600L
+
+        private const val MAX_AIRPORTS = 26 * 26 * 26
+        private const val FIRST_FLIGHT_NUMBER = 1_000
+        private const val MAX_SEATS = 300
+        private const val DEPARTURE_DAYS = 365L
+        private const val SECONDS_PER_DAY = 86_400L
+        private const val SLOT_SECONDS = 300L
+        private const val SLOTS_PER_DAY = SECONDS_PER_DAY / SLOT_SECONDS
+        private const val FLIGHTS = 0
+        private const val OFFERS = 1
+        private const val PARTNERS = 2
+        private const val RESERVATIONS = 3
+
+        private val CABIN_CLASSES = listOf("Economy", "Premium Economy", "Business", "First")
+        private val AIRCRAFTS = listOf("Airbus A320", "Airbus A321neo", "Boeing 787-9", "Boeing 777-300ER")
+        private val RESERVATION_STATUSES = listOf("CONFIRMED", "PENDING", "CANCELLED")
+        private val COUNTRIES = listOf(
+            "Saudi Arabia" to "Asia/Riyadh",
+            "United Arab Emirates" to "Asia/Dubai",
+            "France" to "Europe/Paris",
+            "United Kingdom" to "Europe/London",
+            "United States" to "America/New_York",
+            "Japan" to "Asia/Tokyo",
+            "India" to "Asia/Kolkata",
+            "Egypt" to "Africa/Cairo",
+            "Brazil" to "America/Sao_Paulo",
+            "Australia" to "Australia/Sydney"
+        )
+    }
+}
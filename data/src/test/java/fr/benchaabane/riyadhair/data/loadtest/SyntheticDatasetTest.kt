@@ -0,0 +1,81 @@
+package fr.benchaabane.riyadhair.data.loadtest
+
+import fr.benchaabane.riyadhair.data.flights.api.FlightsResponse
+import kotlinx.serialization.json.Json
+import okio.Buffer
+import org.amshove.kluent.shouldBeEqualTo
+import org.amshove.kluent.shouldNotBeEqualTo
+import org.junit.Test
+
+class SyntheticDatasetTest {
+
+    private val json = Json { ignoreUnknownKeys = true; coerceInputValues = true }
+
+    @Test
+    fun `datasets with the same seed should encode the same bytes`() {
+        // Given
+        val first = SyntheticDataset(flightCount = 2_000, offerCount = 50, seed = 7)
+        val second = SyntheticDataset(flightCount = 2_000, offerCount = 50, seed = 7)
+        val other = SyntheticDataset(flightCount = 2_000, offerCount = 50, seed = 8)
+
+        // When
+        val encoded = listOf(first, second, other).map { dataset ->
+            Buffer().also { sink ->
+                dataset.writeFlights(sink, IntArray(dataset.flightCount) { it })
+                dataset.writeOffers(sink)
+            }.readByteString()
+        }
+
+        // Then
+        encoded[0] shouldBeEqualTo encoded[1]
+        encoded[0] shouldNotBeEqualTo encoded[2]
+    }
+
+    @Test
+    fun `every flight should belong to exactly one route, sorted by departure time`() {
+        // Given
+        val dataset = SyntheticDataset(flightCount = 5_000, airportCount = 50)
+
+        // When
+        val routes = (0 until dataset.routeCount).map { dataset.flightsOf(it) }
+
+        // Then
+        routes.sumOf { it.size } shouldBeEqualTo dataset.flightCount
+        routes.flatMap { it.toList() }.toSet().size shouldBeEqualTo dataset.flightCount
+        (0 until dataset.routeCount).all { route ->
+            dataset.route(dataset.origin(route), dataset.destination(route)) == route
+        } shouldBeEqualTo true
+        routes.first().toList() shouldBeEqualTo routes.first().sortedBy { dataset.departureDate(it) }
+    }
+
+    @Test
+    fun `busiest routes should carry far more flights than the average`() {
+        // Given
+        val dataset = SyntheticDataset(flightCount = 10_000)
+
+        // When
+        val busiest = dataset.flightsOf(dataset.routesBySize().first()).size
+
+        // Then
+        (busiest > 20 * dataset.flightCount / dataset.routeCount) shouldBeEqualTo true
+    }
+
+    @Test
+    fun `dated route flights should decode as flights of that route and day`() {
+        // Given
+        val dataset = SyntheticDataset(flightCount = 1_000)
+        val flight = 123
+        val route = dataset.routeOf(flight)
+        val date = dataset.departureDate(flight)
+
+        // When
+        val body = Buffer().also { dataset.writeFlights(it, dataset.flightsOf(route, date)) }
+        val flights = json.decodeFromString(FlightsResponse.serializer(), body.readUtf8()).flights
+
+        // Then
+        flights.map { it.id }.contains(dataset.flightId(flight)) shouldBeEqualTo true
+        flights.map { it.departureAirport.code to it.arrivalAirport.code }.distinct() shouldBeEqualTo
+            listOf(dataset.origin(route) to dataset.destination(route))
+        flights.all { it.departureTime!! / 86_400 == date.toEpochDay() } shouldBeEqualTo true
+    }
+}
@@ -1,5 +1,8 @@
 package fr.benchaabane.riyadhair.data.offers.repositories
 
+import fr.benchaabane.riyadhair.data.db.FetchTimestampDao
+import fr.benchaabane.riyadhair.data.db.FetchTimestampEntity
+import fr.benchaabane.riyadhair.data.db.RowDiff
 import fr.benchaabane.riyadhair.data.offers.api.DestinationDto
 import fr.benchaabane.riyadhair.data.offers.api.OffersResponse
 import fr.benchaabane.riyadhair.data.offers.api.OffersService
@@ -10,11 +13,19 @@ import fr.benchaabane.riyadhair.data.offers.mappers.toDomain
 import fr.benchaabane.riyadhair.domain.offers.models.Offer
 import io.mockk.coEvery
 import io.mockk.coVerify
+import io.mockk.every
 import io.mockk.mockk
+import kotlinx.coroutines.CompletableDeferred
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.async
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.flow.take
+import kotlinx.coroutines.flow.toList
 import kotlinx.coroutines.test.StandardTestDispatcher
 import kotlinx.coroutines.test.resetMain
+import kotlinx.coroutines.test.runCurrent
 import kotlinx.coroutines.test.runTest
 import kotlinx.coroutines.test.setMain
 import org.amshove.kluent.shouldBeEqualTo
@@ -29,6 +40,7 @@ class OffersRepositoryImplTest {
     private lateinit var repository: OffersRepositoryImpl
     private lateinit var mockOfferDao: OfferDao
     private lateinit var mockOffersService: OffersService
+    private lateinit var mockFetchTimestampDao: FetchTimestampDao
     private val testDispatcher = StandardTestDispatcher()
 
     @Before
@@ -36,7 +48,8 @@ class OffersRepositoryImplTest {
         // Given
         mockOfferDao = mockk(relaxed = true)
         mockOffersService = mockk(relaxed = true)
-        repository = OffersRepositoryImpl(mockOfferDao, mockOffersService)
+        mockFetchTimestampDao = mockk(relaxed = true)
+        repository = OffersRepositoryImpl(mockOfferDao, mockOffersService, mockFetchTimestampDao)
         Dispatchers.setMain(testDispatcher)
     }
 
@@ -71,8 +84,7 @@ class OffersRepositoryImplTest {
             )
         )
         coEvery { mockOffersService.getBestOffers() } returns OffersResponse(apiOffers)
-        coEvery { mockOfferDao.clearAll() } returns Unit
-        coEvery { mockOfferDao.upsertAll(any()) } returns Unit
+        coEvery { mockOfferDao.syncFetched(any(), any()) } returns RowDiff(emptyList(), emptyList())
 
         // When
         val result = repository.getBestOffers()
@@ -81,8 +93,13 @@ class OffersRepositoryImplTest {
         result.isSuccess shouldBeEqualTo true
         result.getOrNull()?.size shouldBeEqualTo 1
         result.getOrNull()?.first()?.id shouldBeEqualTo "1"
-        coVerify { mockOfferDao.clearAll() }
-        coVerify { mockOfferDao.upsertAll(any()) }
+        coVerify(exactly = 1) {
+            mockOfferDao.syncFetched(
+                match { offers -> offers.map { it.id } == listOf("1") },
+                match<FetchTimestampEntity> { it.resourceKey == "offers/best" }
+            )
+        }
+        coVerify(exactly = 0) { mockOfferDao.clearAll() }
     }
 
     @Test
@@ -118,8 +135,7 @@ class OffersRepositoryImplTest {
         result.isSuccess shouldBeEqualTo true
         result.getOrNull()?.size shouldBeEqualTo 1
         result.getOrNull()?.first()?.id shouldBeEqualTo "2"
-        coVerify(exactly = 0) { mockOfferDao.clearAll() }
-        coVerify(exactly = 0) { mockOfferDao.upsertAll(any()) }
+        coVerify(exactly = 0) { mockOfferDao.syncFetched(any(), any()) }
     }
 
     @Test
@@ -136,4 +152,114 @@ class OffersRepositoryImplTest {
         result.getOrNull()?.isEmpty() shouldBeEqualTo true
     }
 
+    @Test
+    fun `observeBestOffers should emit cached offers without calling API when fresh`() = runTest {
+        // Given
+        val dbOffers = listOf(
+            OfferEntity(
+                id = "3",
+                destinationId = "dest3",
+                destinationName = "Tokyo",
+                destinationCityName = "Tokyo",
+                destinationCountryName = "Japan",
+                destinationAirportCode = "NRT",
+                destinationImageUrl = "https://example.com/tokyo.jpg",
+                destinationDescription = "Shibuya",
+                destinationAverageTemperature = "18°C",
+                destinationTimeZone = "JST",
+                originalPrice = 1200.0,
+                discountedPrice = 900.0,
+                discountPercentage = 25,
+                validUntil = "2024-12-31",
+                description = "Modern city",
+                termsAndConditions = "Valid until end of year"
+            )
+        )
+        every { mockOfferDao.observeOffers() } returns flowOf(dbOffers)
+        coEvery { mockFetchTimestampDao.getFetchedAt(any()) } returns System.currentTimeMillis()
+
+        // When
+        val offers = repository.observeBestOffers().first()
+
+        // Then
+        offers shouldBeEqualTo dbOffers.map { it.toDomain() }
+        coVerify(exactly = 0) { mockOffersService.getBestOffers() }
+    }
+
+    @Test
+    fun `observeBestOffers should refresh cache when never fetched`() = runTest {
+        // Given
+        every { mockOfferDao.observeOffers() } returns flowOf(emptyList())
+        coEvery { mockFetchTimestampDao.getFetchedAt(any()) } returns null
+        coEvery { mockOffersService.getBestOffers() } returns OffersResponse(emptyList())
+
+        // When
+        val emissions = repository.observeBestOffers().take(2).toList()
+
+        // Then
+        emissions shouldBeEqualTo listOf(emptyList(), emptyList())
+        coVerify { mockOffersService.getBestOffers() }
+        coVerify(exactly = 0) { mockOfferDao.syncFetched(any(), any()) }
+    }
+
+    @Test
+    fun `observeBestOffers should save the refreshed offers and their fetch time together`() = runTest {
+        // Given
+        val apiOffer = OfferDto(
+            id = "4",
+            destination = DestinationDto(
+                id = "dest4",
+                name = "Dubai",
+                cityName = "Dubai",
+                countryName = "UAE",
+                airportCode = "DXB",
+                imageUrl = "https://example.com/dubai.jpg",
+                description = "Skyline",
+                averageTemperature = "30°C",
+                timeZone = "GST"
+            ),
+            originalPrice = 700.0,
+            discountedPrice = 490.0,
+            discountPercentage = 30,
+            validUntil = "2024-12-31",
+            description = "Desert city",
+            termsAndConditions = "Valid until end of year"
+        )
+        every { mockOfferDao.observeOffers() } returns flowOf(emptyList())
+        coEvery { mockFetchTimestampDao.getFetchedAt(any()) } returns null
+        coEvery { mockOffersService.getBestOffers() } returns OffersResponse(listOf(apiOffer))
+        coEvery { mockOfferDao.syncFetched(any(), any()) } returns RowDiff(emptyList(), emptyList())
+
+        // When
+        repository.observeBestOffers().take(2).toList()
+
+        // Then
+        coVerify(exactly = 1) {
+            mockOfferDao.syncFetched(
+                match { offers -> offers.map { it.id } == listOf("4") },
+                match<FetchTimestampEntity> { it.resourceKey == "offers/best" }
+            )
+        }
+        coVerify(exactly = 0) { mockFetchTimestampDao.upsert(any()) }
+    }
+
+    @Test
+    fun `getBestOffers and observeBestOffers should share one in-flight call`() = runTest {
+        // Given
+        val response = CompletableDeferred<OffersResponse>()
+        every { mockOfferDao.observeOffers() } returns flowOf(emptyList())
+        coEvery { mockFetchTimestampDao.getFetchedAt(any()) } returns null
+        coEvery { mockOffersService.getBestOffers() } coAnswers { response.await() }
+
+        // When
+        val oneShot = async { repository.getBestOffers() }
+        val observed = async { repository.observeBestOffers().take(2).toList() }
+        runCurrent()
+        response.complete(OffersResponse(emptyList()))
+        oneShot.await()
+        observed.await()
+
+        // Then
+        coVerify(exactly = 1) { mockOffersService.getBestOffers() }
+    }
 }
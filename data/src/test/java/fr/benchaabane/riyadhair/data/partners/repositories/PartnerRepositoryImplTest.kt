@@ -0,0 +1,151 @@
+package fr.benchaabane.riyadhair.data.partners.repositories
+
+import fr.benchaabane.riyadhair.data.db.FetchTimestampDao
+import fr.benchaabane.riyadhair.data.db.FetchTimestampEntity
+import fr.benchaabane.riyadhair.data.db.RowDiff
+import fr.benchaabane.riyadhair.data.partners.api.PartnerDto
+import fr.benchaabane.riyadhair.data.partners.api.PartnerService
+import fr.benchaabane.riyadhair.data.partners.api.PartnersResponse
+import fr.benchaabane.riyadhair.data.partners.dao.PartnerDao
+import fr.benchaabane.riyadhair.data.partners.dao.PartnerEntity
+import fr.benchaabane.riyadhair.data.partners.mappers.toDomain
+import io.mockk.coEvery
+import io.mockk.coVerify
+import io.mockk.every
+import io.mockk.mockk
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.async
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.flow.take
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import org.amshove.kluent.shouldBeEqualTo
+import org.junit.Before
+import org.junit.Test
+import java.io.IOException
+
+class PartnerRepositoryImplTest {
+
+    private lateinit var repository: PartnerRepositoryImpl
+    private lateinit var partnerDao: PartnerDao
+    private lateinit var partnerService: PartnerService
+    private lateinit var fetchTimestampDao: FetchTimestampDao
+
+    @Before
+    fun setUp() {
+        // Given
+        partnerDao = mockk(relaxed = true)
+        partnerService = mockk()
+        fetchTimestampDao = mockk(relaxed = true)
+        repository = PartnerRepositoryImpl(partnerDao, partnerService, fetchTimestampDao)
+        coEvery { partnerDao.syncFetched(any(), any()) } returns RowDiff(emptyList(), emptyList())
+    }
+
+    @Test
+    fun `getPartners should store and return the partners from the API`() = runTest {
+        // Given
+        coEvery { partnerService.getPartners() } returns PartnersResponse(listOf(dto("P1")))
+
+        // When
+        val result = repository.getPartners()
+
+        // Then
+        result.getOrNull()?.map { it.id } shouldBeEqualTo listOf("P1")
+        coVerify(exactly = 1) {
+            partnerDao.syncFetched(
+                match { partners -> partners.map { it.id } == listOf("P1") },
+                match<FetchTimestampEntity> { it.resourceKey == "partners" }
+            )
+        }
+    }
+
+    @Test
+    fun `getPartners should return an empty list when the API fails`() = runTest {
+        // Given
+        coEvery { partnerService.getPartners() } throws IOException("offline")
+
+        // When
+        val result = repository.getPartners()
+
+        // Then
+        result.getOrNull() shouldBeEqualTo emptyList()
+        coVerify(exactly = 0) { partnerDao.syncFetched(any(), any()) }
+    }
+
+    @Test
+    fun `observePartners should emit cached partners without calling the API when fresh`() = runTest {
+        // Given
+        every { partnerDao.observePartners() } returns flowOf(listOf(entity("P3")))
+        coEvery { fetchTimestampDao.getFetchedAt("partners") } returns System.currentTimeMillis()
+
+        // When
+        val partners = repository.observePartners().first()
+
+        // Then
+        partners shouldBeEqualTo listOf(entity("P3").toDomain())
+        coVerify(exactly = 0) { partnerService.getPartners() }
+    }
+
+    @Test
+    fun `observePartners should save the refreshed partners and their fetch time together`() = runTest {
+        // Given
+        every { partnerDao.observePartners() } returns flowOf(emptyList())
+        coEvery { fetchTimestampDao.getFetchedAt("partners") } returns null
+        coEvery { partnerService.getPartners() } returns PartnersResponse(listOf(dto("P4")))
+
+        // When
+        repository.observePartners().take(2).toList()
+
+        // Then
+        coVerify(exactly = 1) {
+            partnerDao.syncFetched(
+                match { partners -> partners.map { it.id } == listOf("P4") },
+                match<FetchTimestampEntity> { it.resourceKey == "partners" }
+            )
+        }
+        coVerify(exactly = 0) { fetchTimestampDao.upsert(any()) }
+    }
+
+    @Test
+    fun `getPartners and observePartners should share one in-flight call`() = runTest {
+        // Given
+        val response = CompletableDeferred<PartnersResponse>()
+        every { partnerDao.observePartners() } returns flowOf(emptyList())
+        coEvery { fetchTimestampDao.getFetchedAt("partners") } returns null
+        coEvery { partnerService.getPartners() } coAnswers { response.await() }
+
+        // When
+        val oneShot = async { repository.getPartners() }
+        val observed = async { repository.observePartners().take(2).toList() }
+        runCurrent()
+        response.complete(PartnersResponse(listOf(dto("P5"))))
+        oneShot.await()
+        observed.await()
+
+        // Then
+        coVerify(exactly = 1) { partnerService.getPartners() }
+    }
+
+    private fun dto(id: String) = PartnerDto(
+        id = id,
+        name = "Partner $id",
+        category = "Hotel",
+        imageUrl = "https://example.com/$id.jpg",
+        description = "Partner $id",
+        discountPercentage = 10,
+        websiteUrl = "https://example.com/$id"
+    )
+
+    private fun entity(id: String) = PartnerEntity(
+        id = id,
+        name = "Partner $id",
+        category = "Hotel",
+        imageUrl = "https://example.com/$id.jpg",
+        description = "Partner $id",
+        discountPercentage = 10,
+        websiteUrl = "https://example.com/$id",
+        isActive = true
+    )
+}
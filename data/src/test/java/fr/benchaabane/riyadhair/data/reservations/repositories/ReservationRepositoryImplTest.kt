@@ -0,0 +1,144 @@
+package fr.benchaabane.riyadhair.data.reservations.repositories
+
+import fr.benchaabane.riyadhair.data.db.SyncCursorEntity
+import fr.benchaabane.riyadhair.data.reservations.api.ReservationDto
+import fr.benchaabane.riyadhair.data.reservations.api.ReservationService
+import fr.benchaabane.riyadhair.data.reservations.api.ReservationsResponse
+import fr.benchaabane.riyadhair.data.reservations.dao.ReservationDao
+import fr.benchaabane.riyadhair.data.reservations.dao.ReservationEntity
+import io.mockk.coEvery
+import io.mockk.coVerify
+import io.mockk.coVerifyOrder
+import io.mockk.mockk
+import kotlinx.coroutines.test.runTest
+import org.junit.Before
+import org.junit.Test
+import java.io.IOException
+
+class ReservationRepositoryImplTest {
+
+    private lateinit var repository: ReservationRepositoryImpl
+    private lateinit var reservationDao: ReservationDao
+    private lateinit var reservationService: ReservationService
+
+    @Before
+    fun setUp() {
+        // Given
+        reservationDao = mockk(relaxed = true)
+        reservationService = mockk()
+        repository = ReservationRepositoryImpl(
+            reservationDao,
+            reservationService,
+            outboxDao = mockk(relaxed = true),
+            syncScheduler = mockk(relaxed = true)
+        )
+    }
+
+    @Test
+    fun `refreshReservations should download everything on the first sync`() = runTest {
+        // Given
+        coEvery { reservationDao.getSyncCursor("reservations") } returns null
+        coEvery { reservationService.getReservations(null) } returns ReservationsResponse(
+            reservations = listOf(dto("R1"), dto("R2")),
+            cursor = "c1"
+        )
+
+        // When
+        repository.refreshReservations()
+
+        // Then
+        coVerify(exactly = 1) {
+            reservationDao.applySync(
+                upserts = listOf(entity("R1"), entity("R2")),
+                deletedIds = emptyList(),
+                cursor = SyncCursorEntity("reservations", "c1")
+            )
+        }
+        coVerify(exactly = 0) { reservationDao.upsert(any()) }
+    }
+
+    @Test
+    fun `refreshReservations should apply the changes and tombstones since the stored cursor`() = runTest {
+        // Given
+        coEvery { reservationDao.getSyncCursor("reservations") } returns "c1"
+        coEvery { reservationService.getReservations("c1") } returns ReservationsResponse(
+            reservations = listOf(dto("R3")),
+            deleted = listOf("R1"),
+            cursor = "c2"
+        )
+
+        // When
+        repository.refreshReservations()
+
+        // Then
+        coVerify(exactly = 1) {
+            reservationDao.applySync(listOf(entity("R3")), listOf("R1"), SyncCursorEntity("reservations", "c2"))
+        }
+    }
+
+    @Test
+    fun `refreshReservations should follow the cursor while the server has more changes`() = runTest {
+        // Given
+        coEvery { reservationDao.getSyncCursor("reservations") } returns "c1"
+        coEvery { reservationService.getReservations("c1") } returns ReservationsResponse(
+            reservations = listOf(dto("R1")),
+            cursor = "c2",
+            hasMore = true
+        )
+        coEvery { reservationService.getReservations("c2") } returns ReservationsResponse(
+            reservations = emptyList(),
+            deleted = listOf("R2"),
+            cursor = "c3"
+        )
+
+        // When
+        repository.refreshReservations()
+
+        // Then
+        coVerifyOrder {
+            reservationDao.applySync(listOf(entity("R1")), emptyList(), SyncCursorEntity("reservations", "c2"))
+            reservationDao.applySync(emptyList(), listOf("R2"), SyncCursorEntity("reservations", "c3"))
+        }
+        coVerify(exactly = 0) { reservationService.getReservations("c3") }
+    }
+
+    @Test
+    fun `refreshReservations should stop when the server repeats the cursor`() = runTest {
+        // Given
+        coEvery { reservationDao.getSyncCursor("reservations") } returns "c1"
+        coEvery { reservationService.getReservations("c1") } returns ReservationsResponse(
+            reservations = emptyList(),
+            cursor = "c1",
+            hasMore = true
+        )
+
+        // When
+        repository.refreshReservations()
+
+        // Then
+        coVerify(exactly = 1) { reservationService.getReservations("c1") }
+    }
+
+    @Test
+    fun `refreshReservations should keep local data when the network fails`() = runTest {
+        // Given
+        coEvery { reservationDao.getSyncCursor("reservations") } returns "c1"
+        coEvery { reservationService.getReservations(any()) } throws IOException("offline")
+
+        // When
+        repository.refreshReservations()
+
+        // Then
+        coVerify(exactly = 0) { reservationDao.applySync(any(), any(), any()) }
+    }
+
+    private fun dto(id: String) = ReservationDto(id, "RA001", "Passenger $id", "12A", "CONFIRMED")
+
+    private fun entity(id: String) = ReservationEntity(
+        id = id,
+        flightId = "RA001",
+        passengerName = "Passenger $id",
+        seat = "12A",
+        status = "CONFIRMED"
+    )
+}
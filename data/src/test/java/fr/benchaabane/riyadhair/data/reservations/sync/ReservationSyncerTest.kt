@@ -0,0 +1,285 @@
+package fr.benchaabane.riyadhair.data.reservations.sync
+
+import fr.benchaabane.riyadhair.data.reservations.api.ReservationBatchRequest
+import fr.benchaabane.riyadhair.data.reservations.api.ReservationBatchResponse
+import fr.benchaabane.riyadhair.data.reservations.api.ReservationDto
+import fr.benchaabane.riyadhair.data.reservations.api.ReservationOperationResultDto
+import fr.benchaabane.riyadhair.data.reservations.api.ReservationService
+import fr.benchaabane.riyadhair.data.reservations.dao.FlightSnapshotEntity
+import fr.benchaabane.riyadhair.data.reservations.dao.ReservationDao
+import fr.benchaabane.riyadhair.data.reservations.dao.ReservationEntity
+import fr.benchaabane.riyadhair.data.reservations.dao.ReservationOperation
+import fr.benchaabane.riyadhair.data.reservations.dao.ReservationOutboxDao
+import fr.benchaabane.riyadhair.data.reservations.dao.ReservationOutboxEntity
+import io.mockk.coEvery
+import io.mockk.coVerify
+import io.mockk.mockk
+import io.mockk.slot
+import kotlinx.coroutines.test.runTest
+import okhttp3.ResponseBody.Companion.toResponseBody
+import org.amshove.kluent.shouldBeEqualTo
+import org.junit.Before
+import org.junit.Test
+import retrofit2.HttpException
+import retrofit2.Response
+import java.io.IOException
+import kotlin.time.Duration.Companion.hours
+import kotlin.time.Duration.Companion.minutes
+import kotlin.time.Duration.Companion.seconds
+
+class ReservationSyncerTest {
+
+    private lateinit var syncer: ReservationSyncer
+    private lateinit var outboxDao: ReservationOutboxDao
+    private lateinit var reservationDao: ReservationDao
+    private lateinit var reservationService: ReservationService
+    private val now = 1_000_000L
+
+    @Before
+    fun setUp() {
+        // Given
+        outboxDao = mockk(relaxed = true)
+        reservationDao = mockk()
+        reservationService = mockk()
+        syncer = ReservationSyncer(outboxDao, reservationDao, reservationService, clock = { now })
+        coEvery { reservationDao.getReservationsByIds(any()) } answers {
+            firstArg<List<String>>().map { reservation(it) }
+        }
+    }
+
+    @Test
+    fun `drain should send due entries in one batch and store the server copies`() = runTest {
+        // Given
+        coEvery { outboxDao.getDue(now, ReservationSyncer.BATCH_SIZE) } returnsMany
+            listOf(listOf(entry("k1", "R1"), entry("k2", "R2")), emptyList())
+        coEvery { outboxDao.getNextAttemptAt() } returns null
+        val request = slot<ReservationBatchRequest>()
+        coEvery { reservationService.syncReservations(capture(request)) } returns ReservationBatchResponse(
+            listOf(applied("k1", "R1"), applied("k2", "R2"))
+        )
+
+        // When
+        val outcome = syncer.drain()
+
+        // Then
+        outcome shouldBeEqualTo ReservationSyncer.Outcome.DONE
+        request.captured.operations.map { it.idempotencyKey to it.operation } shouldBeEqualTo
+            listOf("k1" to "CREATE", "k2" to "CREATE")
+        coVerify(exactly = 1) { reservationService.syncReservations(any()) }
+        coVerify {
+            outboxDao.complete(
+                reservations = listOf(reservation("R1", "CONFIRMED"), reservation("R2", "CONFIRMED")),
+                sent = listOf("k1", "k2"),
+                retried = emptyList()
+            )
+        }
+    }
+
+    @Test
+    fun `drain should reschedule the whole batch with a backoff when the request fails`() = runTest {
+        // Given
+        coEvery { outboxDao.getDue(now, any()) } returns listOf(entry("k1", "R1", attempts = 2))
+        coEvery { reservationService.syncReservations(any()) } throws IOException("offline")
+
+        // When
+        val outcome = syncer.drain()
+
+        // Then
+        outcome shouldBeEqualTo ReservationSyncer.Outcome.FAILED
+        coVerify {
+            outboxDao.complete(
+                reservations = emptyList(),
+                sent = emptyList(),
+                retried = listOf(
+                    entry("k1", "R1", attempts = 3).copy(
+                        nextAttemptAt = now + 2.minutes.inWholeMilliseconds,
+                        lastError = IOException("offline").toString()
+                    )
+                )
+            )
+        }
+    }
+
+    @Test
+    fun `drain should isolate and reject the entry of a batch refused with a client error`() = runTest {
+        // Given
+        coEvery { outboxDao.getDue(now, any()) } returnsMany
+            listOf(listOf(entry("k1", "R1"), entry("k2", "R2"), entry("k3", "R3")), emptyList())
+        coEvery { outboxDao.getNextAttemptAt() } returns null
+        coEvery { reservationService.syncReservations(any()) } answers {
+            val operations = firstArg<ReservationBatchRequest>().operations
+            if (operations.any { it.idempotencyKey == "k2" }) throw httpError(422)
+            ReservationBatchResponse(operations.map { applied(it.idempotencyKey, it.reservation.id) })
+        }
+
+        // When
+        val outcome = syncer.drain()
+
+        // Then
+        outcome shouldBeEqualTo ReservationSyncer.Outcome.DONE
+        coVerify {
+            outboxDao.complete(listOf(reservation("R1", "CONFIRMED")), listOf("k1"), emptyList())
+            outboxDao.complete(listOf(reservation("R2", ReservationSyncer.REJECTED_STATUS)), listOf("k2"), emptyList())
+            outboxDao.complete(listOf(reservation("R3", "CONFIRMED")), listOf("k3"), emptyList())
+        }
+    }
+
+    @Test
+    fun `drain should reschedule the whole batch when the server is rate limiting`() = runTest {
+        // Given
+        coEvery { outboxDao.getDue(now, any()) } returns listOf(entry("k1", "R1"), entry("k2", "R2"))
+        coEvery { reservationService.syncReservations(any()) } throws httpError(429)
+
+        // When
+        val outcome = syncer.drain()
+
+        // Then
+        outcome shouldBeEqualTo ReservationSyncer.Outcome.FAILED
+        coVerify(exactly = 1) { reservationService.syncReservations(any()) }
+        coVerify {
+            outboxDao.complete(
+                reservations = emptyList(),
+                sent = emptyList(),
+                retried = match { retried -> retried.map { it.idempotencyKey to it.attempts } == listOf("k1" to 1, "k2" to 1) }
+            )
+        }
+    }
+
+    @Test
+    fun `drain should mark rejected bookings and retry the unanswered ones later`() = runTest {
+        // Given
+        coEvery { outboxDao.getDue(now, any()) } returnsMany
+            listOf(listOf(entry("k1", "R1"), entry("k2", "R2"), entry("k3", "R3")), emptyList())
+        coEvery { outboxDao.getNextAttemptAt() } returns now + 30_000
+        coEvery { reservationService.syncReservations(any()) } returns ReservationBatchResponse(
+            listOf(
+                ReservationOperationResultDto("k1", "REJECTED", message = "Seat taken"),
+                ReservationOperationResultDto("k2", "RETRY", message = "Busy")
+            )
+        )
+
+        // When
+        val outcome = syncer.drain()
+
+        // Then
+        outcome shouldBeEqualTo ReservationSyncer.Outcome.PENDING
+        coVerify {
+            outboxDao.complete(
+                reservations = listOf(reservation("R1").copy(status = ReservationSyncer.REJECTED_STATUS)),
+                sent = listOf("k1"),
+                retried = listOf(
+                    entry("k2", "R2", attempts = 1).copy(nextAttemptAt = now + 30_000, lastError = "Busy"),
+                    entry("k3", "R3", attempts = 1)
+                        .copy(nextAttemptAt = now + 30_000, lastError = "No result for the operation")
+                )
+            )
+        }
+    }
+
+    @Test
+    fun `drain should drop entries whose reservation was deleted without calling the server`() = runTest {
+        // Given
+        coEvery { outboxDao.getDue(now, any()) } returnsMany listOf(listOf(entry("k1", "GONE")), emptyList())
+        coEvery { reservationDao.getReservationsByIds(listOf("GONE")) } returns emptyList()
+        coEvery { outboxDao.getNextAttemptAt() } returns null
+
+        // When
+        val outcome = syncer.drain()
+
+        // Then
+        outcome shouldBeEqualTo ReservationSyncer.Outcome.DONE
+        coVerify(exactly = 0) { reservationService.syncReservations(any()) }
+        coVerify { outboxDao.complete(emptyList(), listOf("k1"), emptyList()) }
+    }
+
+    @Test
+    fun `drain should keep the booking's flight snapshot when the server copy has none`() = runTest {
+        // Given
+        val snapshot = FlightSnapshotEntity("RX1001", "RiyadhAir", "RUH", "Riyadh", "JED", "Jeddah", 5_400, "1h 30m", "A321")
+        coEvery { outboxDao.getDue(now, any()) } returnsMany listOf(listOf(entry("k1", "R1")), emptyList())
+        coEvery { reservationDao.getReservationsByIds(listOf("R1")) } returns
+            listOf(reservation("R1").copy(departureTime = 0, flight = snapshot))
+        coEvery { outboxDao.getNextAttemptAt() } returns null
+        coEvery { reservationService.syncReservations(any()) } returns ReservationBatchResponse(
+            listOf(applied("k1", "R1"))
+        )
+
+        // When
+        syncer.drain()
+
+        // Then
+        coVerify {
+            outboxDao.complete(
+                reservations = listOf(reservation("R1", "CONFIRMED").copy(departureTime = 0, flight = snapshot)),
+                sent = listOf("k1"),
+                retried = emptyList()
+            )
+        }
+    }
+
+    @Test
+    fun `drain should drop the flight snapshot of a booking the server moved to another flight`() = runTest {
+        // Given
+        val snapshot = FlightSnapshotEntity("RX1001", "RiyadhAir", "RUH", "Riyadh", "JED", "Jeddah", 5_400, "1h 30m", "A321")
+        coEvery { outboxDao.getDue(now, any()) } returnsMany listOf(listOf(entry("k1", "R1")), emptyList())
+        coEvery { reservationDao.getReservationsByIds(listOf("R1")) } returns
+            listOf(reservation("R1").copy(departureTime = 0, flight = snapshot))
+        coEvery { outboxDao.getNextAttemptAt() } returns null
+        coEvery { reservationService.syncReservations(any()) } returns ReservationBatchResponse(
+            listOf(
+                ReservationOperationResultDto(
+                    idempotencyKey = "k1",
+                    outcome = "APPLIED",
+                    reservation = ReservationDto("R1", "RA002", "Passenger R1", "12A", "CONFIRMED")
+                )
+            )
+        )
+
+        // When
+        syncer.drain()
+
+        // Then
+        coVerify {
+            outboxDao.complete(
+                reservations = listOf(reservation("R1", "CONFIRMED").copy(flightId = "RA002")),
+                sent = listOf("k1"),
+                retried = emptyList()
+            )
+        }
+    }
+
+    @Test
+    fun `backoff should double on each failure up to the cap`() {
+        // When
+        val delays = (1..10).map { ReservationSyncer.backoff(it) }
+
+        // Then
+        delays.take(4) shouldBeEqualTo listOf(30.seconds, 1.minutes, 2.minutes, 4.minutes)
+        delays.last() shouldBeEqualTo 1.hours
+    }
+
+    private fun httpError(code: Int) = HttpException(Response.error<Any>(code, "".toResponseBody()))
+
+    private fun entry(key: String, reservationId: String, attempts: Int = 0) = ReservationOutboxEntity(
+        idempotencyKey = key,
+        operation = ReservationOperation.CREATE,
+        reservationId = reservationId,
+        createdAt = now - 1_000,
+        attempts = attempts,
+        nextAttemptAt = now - 1_000
+    )
+
+    private fun reservation(id: String, status: String = "PENDING") = ReservationEntity(
+        id = id,
+        flightId = "RA001",
+        passengerName = "Passenger $id",
+        seat = "12A",
+        status = status
+    )
+
+    private fun applied(key: String, id: String) = ReservationOperationResultDto(
+        idempotencyKey = key,
+        outcome = "APPLIED",
+        reservation = ReservationDto(id, "RA001", "Passenger $id", "12A", "CONFIRMED")
+    )
+}
@@ -0,0 +1,163 @@
+package fr.benchaabane.riyadhair.designsystem.components.datepicker
+
+import androidx.compose.foundation.BorderStroke
+import androidx.compose.foundation.layout.Arrangement
+import androidx.compose.foundation.layout.Column
+import androidx.compose.foundation.layout.PaddingValues
+import androidx.compose.foundation.layout.padding
+import androidx.compose.foundation.lazy.LazyRow
+import androidx.compose.foundation.lazy.items
+import androidx.compose.material3.CardDefaults
+import androidx.compose.material3.MaterialTheme
+import androidx.compose.material3.OutlinedCard
+import androidx.compose.material3.Text
+import androidx.compose.runtime.Composable
+import androidx.compose.runtime.Immutable
+import androidx.compose.runtime.remember
+import androidx.compose.ui.Alignment
+import androidx.compose.ui.Modifier
+import androidx.compose.ui.text.font.FontWeight
+import androidx.compose.ui.tooling.preview.Preview
+import androidx.compose.ui.unit.dp
+import fr.benchaabane.riyadhair.designsystem.theme.RiyadhAirColors
+import fr.benchaabane.riyadhair.designsystem.theme.RiyadhAirSpacing
+import fr.benchaabane.riyadhair.designsystem.theme.RiyadhAirTheme
+import java.time.Instant
+import java.time.LocalDate
+import java.time.ZoneOffset
+import java.time.format.TextStyle
+import java.util.Locale
+
+/**
+ * Price shown under a day of a date picker.
+ *
+ * @property label Formatted price (e.g., "149 €"), displayed as is
+ * @property isCheapest Whether this is the cheapest day of the month, highlighted
+ */
+@Immutable
+data class DayPriceBadge(
+    val label: String,
+    val isCheapest: Boolean = false
+)
+
+/**
+ * A horizontal strip of price badges for the days of a displayed month.
+ *
+ * Material 3 date pickers do not allow custom day cells, so the prices of
+ * a fare calendar are drawn in this strip, right under the calendar. Each
+ * badge shows the day and its price; tapping it selects the day.
+ *
+ * **Day Keys:**
+ * Days are identified like Material 3 date pickers do: UTC midnight in
+ * epoch milliseconds. Only the days of the displayed month are shown.
+ *
+ * **Visual States:**
+ * - **Selected**: Sky blue border
+ * - **Cheapest**: Price in the success color, bold
+ *
+ * @param displayedMonthMillis Any instant of the displayed month, in epoch milliseconds (UTC)
+ * @param dayPrices Price badges keyed by day, in UTC-midnight epoch milliseconds
+ * @param selectedDateMillis The selected day, or null
+ * @param onDaySelected Callback invoked with the tapped day
+ * @param modifier Modifier to apply to the strip
+ */
+@Composable
+fun DayPriceStrip(
+    displayedMonthMillis: Long,
+    dayPrices: Map<Long, DayPriceBadge>,
+    selectedDateMillis: Long?,
+    onDaySelected: (Long) -> Unit,
+    modifier: Modifier = Modifier
+) {
+    val monthDays = remember(displayedMonthMillis, dayPrices) {
+        val month = Instant.ofEpochMilli(displayedMonthMillis).atOffset(ZoneOffset.UTC)
+        dayPrices.entries
+            .filter { (day, _) ->
+                val date = Instant.ofEpochMilli(day).atOffset(ZoneOffset.UTC)
+                date.year == month.year && date.month == month.month
+            }
+            .sortedBy { it.key }
+    }
+    if (monthDays.isEmpty()) return
+
+    LazyRow(
+        modifier = modifier,
+        contentPadding = PaddingValues(horizontal = RiyadhAirSpacing.lg),
+        horizontalArrangement = Arrangement.spacedBy(RiyadhAirSpacing.sm)
+    ) {
+        items(monthDays, key = { it.key }) { (day, badge) ->
+            DayPriceChip(
+                dayMillis = day,
+                badge = badge,
+                isSelected = day == selectedDateMillis,
+                onClick = { onDaySelected(day) }
+            )
+        }
+    }
+}
+
+@Composable
+private fun DayPriceChip(
+    dayMillis: Long,
+    badge: DayPriceBadge,
+    isSelected: Boolean,
+    onClick: () -> Unit
+) {
+    val date = remember(dayMillis) { LocalDate.ofEpochDay(Math.floorDiv(dayMillis, MILLIS_PER_DAY)) }
+    OutlinedCard(
+        onClick = onClick,
+        border = BorderStroke(
+            width = if (isSelected) 2.dp else 1.dp,
+            color = if (isSelected) RiyadhAirColors.SkyBlue else MaterialTheme.colorScheme.outlineVariant
+        ),
+        colors = CardDefaults.outlinedCardColors(containerColor = MaterialTheme.colorScheme.surface)
+    ) {
+        Column(
+            modifier = Modifier.padding(horizontal = RiyadhAirSpacing.md, vertical = RiyadhAirSpacing.sm),
+            horizontalAlignment = Alignment.CenterHorizontally
+        ) {
+            Text(
+                text = date.dayOfWeek.getDisplayName(TextStyle.SHORT, Locale.getDefault()),
+                style = MaterialTheme.typography.labelSmall,
+                color = MaterialTheme.colorScheme.onSurfaceVariant
+            )
+            Text(
+                text = date.dayOfMonth.toString(),
+                style = MaterialTheme.typography.titleSmall,
+                fontWeight = FontWeight.Bold
+            )
+            Text(
+                text = badge.label,
+                style = MaterialTheme.typography.labelSmall,
+                fontWeight = if (badge.isCheapest) FontWeight.Bold else FontWeight.Normal,
+                color = if (badge.isCheapest) RiyadhAirColors.Success else MaterialTheme.colorScheme.onSurface
+            )
+        }
+    }
+}
+
+private const val MILLIS_PER_DAY = 24 * 60 * 60 * 1000L
+
+/**
+ * Preview function for DayPriceStrip.
+ *
+ * Shows a week of prices with the cheapest day highlighted and another day selected.
+ */
+@Preview(showBackground = true)
+@Composable
+private fun DayPriceStripPreview() {
+    RiyadhAirTheme {
+        val firstDay = LocalDate.of(2024, 7, 15).toEpochDay() * MILLIS_PER_DAY
+        DayPriceStrip(
+            displayedMonthMillis = firstDay,
+            dayPrices = (0 until 7).associate { offset ->
+                firstDay + offset * MILLIS_PER_DAY to DayPriceBadge(
+                    label = "${149 + offset * 12} €",
+                    isCheapest = offset == 0
+                )
+            },
+            selectedDateMillis = firstDay + 2 * MILLIS_PER_DAY,
+            onDaySelected = {}
+        )
+    }
+}
@@ -18,11 +18,14 @@ import androidx.compose.material3.Text
 import androidx.compose.material3.TextButton
 import androidx.compose.material3.rememberDatePickerState
 import androidx.compose.runtime.Composable
+import androidx.compose.runtime.LaunchedEffect
 import androidx.compose.runtime.derivedStateOf
 import androidx.compose.runtime.getValue
 import androidx.compose.runtime.mutableStateOf
 import androidx.compose.runtime.remember
+import androidx.compose.runtime.rememberUpdatedState
 import androidx.compose.runtime.setValue
+import androidx.compose.runtime.snapshotFlow
 import androidx.compose.ui.Alignment
 import androidx.compose.ui.Modifier
 import androidx.compose.ui.draw.shadow
@@ -49,6 +52,7 @@ import java.util.Locale
  * - **Custom Formatting**: Configurable date format with locale support
  * - **Icon Integration**: Date range icon for visual identification
  * - **State Management**: Handles date selection and display state
+ * - **Price Badges**: Optional per-day prices, shown in a [DayPriceStrip] under the calendar
  *
  * **User Interaction Flow:**
  * 1. User sees formatted date in text field (or placeholder if no date selected)
@@ -63,6 +67,11 @@ import java.util.Locale
  * - Automatically adapts to system locale
  * - Handles null dates gracefully
  *
+ * **Fare Calendar:**
+ * While the calendar is open, [onDisplayedMonthChanged] reports the month
+ * being displayed, so the caller can load that month's prices and drop the
+ * previous month's requests. Prices are passed back through [dayPrices].
+ *
  * **Usage Examples:**
  * ```kotlin
  * var selectedDate by remember { mutableStateOf<Long?>(null) }
@@ -90,6 +99,9 @@ import java.util.Locale
  * @param placeholder Optional placeholder text when no date is selected
  * @param enabled Whether the date picker is interactive
  * @param dateFormat The format string for displaying the selected date
+ * @param dayPrices Price badges keyed by day, in UTC-midnight epoch milliseconds
+ * @param onDisplayedMonthChanged Callback invoked with the displayed month, in epoch milliseconds,
+ *        when the calendar opens and each time it changes
  */
 @OptIn(ExperimentalMaterial3Api::class)
 @Composable
@@ -100,12 +112,15 @@ fun RiyadhAirDatePicker(
     label: String? = null,
     placeholder: String? = null,
     enabled: Boolean = true,
-    dateFormat: String = "MMM dd, yyyy"
+    dateFormat: String = "MMM dd, yyyy",
+    dayPrices: Map<Long, DayPriceBadge> = emptyMap(),
+    onDisplayedMonthChanged: (Long) -> Unit = {}
 ) {
     var showDatePicker by remember { mutableStateOf(false) }
     val datePickerState = rememberDatePickerState(
         initialSelectedDateMillis = selectedDate
     )
+    val currentOnDisplayedMonthChanged by rememberUpdatedState(onDisplayedMonthChanged)
     
     val formattedDate by remember(selectedDate) {
         derivedStateOf {
@@ -128,6 +143,11 @@ fun RiyadhAirDatePicker(
         )
         
         if (showDatePicker) {
+            LaunchedEffect(datePickerState) {
+                snapshotFlow { datePickerState.displayedMonthMillis }
+                    .collect { currentOnDisplayedMonthChanged(it) }
+            }
+
             Popup(
                 onDismissRequest = { showDatePicker = false },
                 alignment = Alignment.TopStart
@@ -148,6 +168,13 @@ fun RiyadhAirDatePicker(
                             title = null,
                             headline = null
                         )
+
+                        DayPriceStrip(
+                            displayedMonthMillis = datePickerState.displayedMonthMillis,
+                            dayPrices = dayPrices,
+                            selectedDateMillis = datePickerState.selectedDateMillis,
+                            onDaySelected = { datePickerState.selectedDateMillis = it }
+                        )
                         
                         // Action buttons
                         Row(
@@ -0,0 +1,49 @@
+package fr.benchaabane.riyadhair.domain.flights.itinerary
+
+import fr.benchaabane.riyadhair.domain.flights.models.Flight
+import java.time.Duration
+import java.time.LocalDateTime
+
+/**
+ * A journey made of one or more consecutive flight legs.
+ *
+ * @property legs The flights taken, in travel order
+ */
+data class Itinerary(
+    val legs: List<Flight>
+) {
+    val departureTime: LocalDateTime get() = legs.first().departureTime
+    val arrivalTime: LocalDateTime get() = legs.last().arrivalTime
+    val connections: Int get() = legs.size - 1
+    val totalPrice: Double get() = legs.sumOf { it.price }
+    val totalDuration: Duration get() = Duration.between(departureTime, arrivalTime)
+}
+
+/**
+ * Minimum connection times applied between two legs at the connecting airport.
+ *
+ * The flight data has no terminal or country-pair information, so the
+ * connection type is derived from airport time zones: a connection is
+ * treated as domestic when the inbound origin, the connecting airport and
+ * the outbound destination share the same time zone, and as international
+ * otherwise (e.g., RUH → JED → DMM is domestic, RUH → DXB → LHR is not).
+ *
+ * @property domestic Minimum connection time for domestic connections
+ * @property international Minimum connection time for any other connection
+ */
+data class MinimumConnectionTimes(
+    val domestic: Duration = Duration.ofMinutes(45),
+    val international: Duration = Duration.ofMinutes(90)
+) {
+    /**
+     * Returns the minimum time between landing with [inbound] and leaving with [outbound].
+     */
+    fun between(inbound: Flight, outbound: Flight): Duration {
+        val hub = inbound.arrivalAirport.timezone
+        return if (inbound.departureAirport.timezone == hub && outbound.arrivalAirport.timezone == hub) {
+            domestic
+        } else {
+            international
+        }
+    }
+}
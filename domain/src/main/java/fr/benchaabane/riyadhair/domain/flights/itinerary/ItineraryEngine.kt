@@ -0,0 +1,204 @@
+package fr.benchaabane.riyadhair.domain.flights.itinerary
+
+import fr.benchaabane.riyadhair.domain.flights.models.Flight
+import java.time.LocalDateTime
+import java.time.ZoneOffset
+
+/**
+ * Connecting itinerary search over a set of flight legs.
+ *
+ * The legs form a time-expanded network: airports are nodes and each leg is
+ * a connection from its origin at its departure minute to its destination at
+ * its arrival minute. Searches use a round-based Connection Scan Algorithm:
+ * round k scans every leg once, in departure order, and keeps for each
+ * airport the earliest arrivals reachable with exactly k legs.
+ *
+ * **Labels:**
+ * The minimum connection time depends on the inbound leg, so the earliest
+ * arrival at an airport is not always the best one to connect from: a
+ * later domestic arrival can make a domestic connection that an earlier
+ * international arrival misses. Each airport therefore holds one label per
+ * round and per connection class (arrival minute, leg that reached it and
+ * label it came from): one for arrivals from the airport's own time zone,
+ * one for any other. Memory is bounded by `2 × maxLegs × airports` whatever
+ * the number of legs. The result is the Pareto set over (arrival time,
+ * number of legs): an itinerary with more legs is only kept if it arrives
+ * earlier.
+ *
+ * **Connections:**
+ * A leg can follow a label only if it departs at least the
+ * [MinimumConnectionTimes] after the label's arrival, classified with the
+ * airports' time zones.
+ *
+ * **Preprocessing:**
+ * Legs are sorted once and every attribute used by the scan is stored in
+ * primitive arrays (epoch minutes, airport indexes, time-zone indexes), so a
+ * search over thousands of legs takes well under a millisecond on the JVM.
+ *
+ * **Threading:**
+ * The engine is immutable after construction; searches can run concurrently.
+ *
+ * @param legs The flights that can be combined
+ * @param connectionTimes Minimum connection times between legs
+ *
+ * @see Itinerary
+ */
+class ItineraryEngine(
+    legs: List<Flight>,
+    connectionTimes: MinimumConnectionTimes = MinimumConnectionTimes()
+) {
+
+    private val legs: List<Flight> = legs.sortedBy { it.departureTime }
+
+    private val airportIndexes = HashMap<String, Int>()
+
+    private val departure = IntArray(this.legs.size)
+    private val arrival = IntArray(this.legs.size)
+    private val origin = IntArray(this.legs.size)
+    private val destination = IntArray(this.legs.size)
+
+    private val domesticMinutes = connectionTimes.domestic.toMinutes().toInt()
+    private val internationalMinutes = connectionTimes.international.toMinutes().toInt()
+
+    /**
+     * Time-zone index of each airport; connection types compare these ints,
+     * following the same rule as [MinimumConnectionTimes.between].
+     */
+    private val airportZones: IntArray
+
+    init {
+        val zoneIndexes = HashMap<String, Int>()
+        val zones = ArrayList<Int>()
+        fun indexOf(code: String, timezone: String): Int = airportIndexes.getOrPut(code) {
+            zones.add(zoneIndexes.getOrPut(timezone) { zoneIndexes.size })
+            zones.lastIndex
+        }
+        this.legs.forEachIndexed { index, leg ->
+            departure[index] = epochMinutes(leg.departureTime)
+            arrival[index] = epochMinutes(leg.arrivalTime)
+            origin[index] = indexOf(leg.departureAirport.code, leg.departureAirport.timezone)
+            destination[index] = indexOf(leg.arrivalAirport.code, leg.arrivalAirport.timezone)
+        }
+        airportZones = zones.toIntArray()
+    }
+
+    /**
+     * Finds the Pareto-optimal itineraries between two airports.
+     *
+     * @param from IATA code of the departure airport
+     * @param to IATA code of the arrival airport
+     * @param earliestDeparture Earliest time the first leg may depart
+     * @param maxLegs Maximum number of legs per itinerary
+     * @return Itineraries with strictly decreasing arrival time as legs are
+     *         added, fewest legs first; empty if the airports are not connected
+     */
+    fun search(
+        from: String,
+        to: String,
+        earliestDeparture: LocalDateTime,
+        maxLegs: Int = DEFAULT_MAX_LEGS
+    ): List<Itinerary> {
+        val source = airportIndexes[from] ?: return emptyList()
+        val target = airportIndexes[to] ?: return emptyList()
+        if (source == target) return emptyList()
+
+        val labels = airportZones.size * CLASSES
+        val start = epochMinutes(earliestDeparture)
+        val rounds = ArrayList<IntArray>(maxLegs)
+        val parents = ArrayList<IntArray>(maxLegs)
+        var previousArrival = IntArray(labels) { UNREACHED }.also { it[label(source, DOMESTIC)] = start }
+        var previousLeg = IntArray(labels) { NO_LEG }
+        var bestAtTarget = UNREACHED
+        val itineraries = ArrayList<Itinerary>()
+
+        for (round in 1..maxLegs) {
+            val roundArrival = IntArray(labels) { UNREACHED }
+            val roundLeg = IntArray(labels) { NO_LEG }
+            val roundParent = IntArray(labels) { NO_LEG }
+            var improved = false
+
+            for (leg in legs.indices) {
+                if (arrival[leg] >= bestAtTarget) continue
+                val parent = boardingLabel(leg, previousArrival, previousLeg)
+                if (parent == NO_LEG) continue
+                val next = destination[leg]
+                if (next == source) continue
+                val reached = label(next, if (airportZones[origin[leg]] == airportZones[next]) DOMESTIC else INTERNATIONAL)
+                if (arrival[leg] < roundArrival[reached]) {
+                    roundArrival[reached] = arrival[leg]
+                    roundLeg[reached] = leg
+                    roundParent[reached] = parent
+                    improved = true
+                }
+            }
+
+            rounds.add(roundLeg)
+            parents.add(roundParent)
+            val targetLabel = earliestLabel(target, roundArrival)
+            if (roundArrival[targetLabel] < bestAtTarget) {
+                bestAtTarget = roundArrival[targetLabel]
+                itineraries.add(Itinerary(legsTo(targetLabel, rounds, parents)))
+            }
+            if (!improved) break
+            previousArrival = roundArrival
+            previousLeg = roundLeg
+        }
+        return itineraries
+    }
+
+    /**
+     * The label [leg] can be boarded from, preferring the domestic one, or [NO_LEG] if none makes the connection.
+     */
+    private fun boardingLabel(leg: Int, previousArrival: IntArray, previousLeg: IntArray): Int {
+        for (connectionClass in 0 until CLASSES) {
+            val from = label(origin[leg], connectionClass)
+            val reachedAt = previousArrival[from]
+            if (reachedAt == UNREACHED) continue
+            val inbound = previousLeg[from]
+            val ready = if (inbound == NO_LEG) reachedAt else reachedAt + connectionMinutes(inbound, leg)
+            if (departure[leg] >= ready) return from
+        }
+        return NO_LEG
+    }
+
+    private fun earliestLabel(airport: Int, arrivals: IntArray): Int {
+        val domestic = label(airport, DOMESTIC)
+        val international = label(airport, INTERNATIONAL)
+        return if (arrivals[international] < arrivals[domestic]) international else domestic
+    }
+
+    /**
+     * Walks the per-round labels back from [target] to rebuild the legs taken.
+     */
+    private fun legsTo(target: Int, rounds: List<IntArray>, parents: List<IntArray>): List<Flight> {
+        val path = ArrayList<Flight>(rounds.size)
+        var at = target
+        for (round in rounds.indices.reversed()) {
+            path.add(legs[rounds[round][at]])
+            at = parents[round][at]
+        }
+        path.reverse()
+        return path
+    }
+
+    private fun connectionMinutes(inbound: Int, outbound: Int): Int {
+        val hub = airportZones[destination[inbound]]
+        val domestic = airportZones[origin[inbound]] == hub && airportZones[destination[outbound]] == hub
+        return if (domestic) domesticMinutes else internationalMinutes
+    }
+
+    private fun label(airport: Int, connectionClass: Int): Int = airport * CLASSES + connectionClass
+
+    private fun epochMinutes(time: LocalDateTime): Int =
+        Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), SECONDS_PER_MINUTE).toInt()
+
+    private companion object {
+        const val DEFAULT_MAX_LEGS = 3
+        const val UNREACHED = Int.MAX_VALUE
+        const val NO_LEG = -1
+        const val DOMESTIC = 0
+        const val INTERNATIONAL = 1
+        const val CLASSES = 2
+        const val SECONDS_PER_MINUTE = 60L
+    }
+}
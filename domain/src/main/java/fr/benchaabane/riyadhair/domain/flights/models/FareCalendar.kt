@@ -0,0 +1,36 @@
+package fr.benchaabane.riyadhair.domain.flights.models
+
+import java.time.LocalDate
+import java.time.YearMonth
+
+/**
+ * Cheapest fare of a route on one departure day.
+ *
+ * @property date The departure day
+ * @property minPrice Lowest price among the day's flights
+ * @property currency Currency of [minPrice]
+ */
+data class DayFare(
+    val date: LocalDate,
+    val minPrice: Double,
+    val currency: String = "EUR"
+)
+
+/**
+ * Per-day minimum fares of a route over one month, for flexible-date search.
+ *
+ * Days without any flight, days in the past and days whose fare is not
+ * known yet are absent from [fares].
+ *
+ * @property month The month covered by the calendar
+ * @property fares Known day fares, in date order
+ */
+data class FareCalendar(
+    val month: YearMonth,
+    val fares: List<DayFare> = emptyList()
+) {
+    /**
+     * The cheapest day of the month, or null if no fare is known.
+     */
+    val cheapest: DayFare? get() = fares.minByOrNull { it.minPrice }
+}
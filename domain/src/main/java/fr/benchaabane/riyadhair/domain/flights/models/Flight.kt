@@ -36,7 +36,36 @@ data class FlightSearch(
     val passengers: PassengerCount,
     val cabinClass: CabinClass,
     val isRoundTrip: Boolean = returnDate != null
-)
+) {
+    /**
+     * The outbound leg of this search, in a canonical form.
+     *
+     * Airport codes are trimmed and upper-cased and the return date is
+     * dropped, so equal legs compare equal whatever the search they come
+     * from; this is the key under which leg results are cached.
+     */
+    fun outboundLeg(): FlightSearch = FlightSearch(
+        departureAirportCode = departureAirportCode.trim().uppercase(),
+        arrivalAirportCode = arrivalAirportCode.trim().uppercase(),
+        departureDate = departureDate,
+        passengers = passengers,
+        cabinClass = cabinClass
+    )
+
+    /**
+     * The return leg of this search, in the same canonical form as [outboundLeg].
+     *
+     * A one-way search has no return date; its return leg departs on the
+     * outbound day, as the results screen always offers a return flight.
+     */
+    fun returnLeg(): FlightSearch = FlightSearch(
+        departureAirportCode = arrivalAirportCode,
+        arrivalAirportCode = departureAirportCode,
+        departureDate = returnDate ?: departureDate,
+        passengers = passengers,
+        cabinClass = cabinClass
+    ).outboundLeg()
+}
 
 data class PassengerCount(
     val adults: Int = 1,
@@ -66,4 +95,21 @@ data class SelectedFlights(
     val outboundFlight: Flight?,
     val returnFlight: Flight? = null,
     val totalPrice: Double = (outboundFlight?.price ?: 0.0) + (returnFlight?.price ?: 0.0)
-)
\ No newline at end of file
+)
+
+enum class LegDirection {
+    OUTBOUND,
+    RETURN
+}
+
+data class RoundTripLeg(
+    val direction: LegDirection,
+    val result: Result<List<Flight>>
+)
+
+data class FlightPagingConfig(
+    val pageSize: Int = 20,
+    val prefetchDistance: Int = pageSize,
+    val enablePlaceholders: Boolean = true,
+    val initialLoadSize: Int = pageSize * 2
+)
@@ -0,0 +1,167 @@
+package fr.benchaabane.riyadhair.domain.flights.models
+
+import java.time.ZoneOffset
+
+/**
+ * Columnar (struct-of-arrays) view of a flight result set.
+ *
+ * Every attribute used to sort or filter flights is stored once, at build
+ * time, in a primitive array indexed by the flight's position in the batch.
+ * Sorting and filtering then compare ints and longs without boxing, pointer
+ * chasing or string parsing; [Flight] objects are only touched to display them.
+ *
+ * **Columns:**
+ * - **departureMinutes / arrivalMinutes**: Epoch minutes, UTC
+ * - **priceMinor**: Price in minor currency units (e.g., cents)
+ * - **durationMinutes**: Block time in minutes
+ * - **stops**: Number of intermediate stops
+ * - **originIndex / destinationIndex**: Indexes into [airports]
+ * - **airlineIndex**: Index into [airlines]
+ * - **cabinOrdinal**: [CabinClass] ordinal
+ *
+ * **Views:**
+ * [get], [asList] and [view] return the original [Flight] instances; no
+ * flight is copied or rebuilt from the columns.
+ *
+ * The column arrays are exposed for fast read access and must not be modified.
+ *
+ * @property airports Distinct airports of the batch, in first-seen order
+ * @property airlines Distinct airline names of the batch, in first-seen order
+ *
+ * @see FlightBatch.of
+ */
+class FlightBatch private constructor(
+    private val flights: List<Flight>,
+    val airports: List<Airport>,
+    val airlines: List<String>,
+    val departureMinutes: IntArray,
+    val arrivalMinutes: IntArray,
+    val priceMinor: LongArray,
+    val durationMinutes: IntArray,
+    val stops: IntArray,
+    val originIndex: IntArray,
+    val destinationIndex: IntArray,
+    val airlineIndex: IntArray,
+    val cabinOrdinal: IntArray
+) {
+
+    /**
+     * Number of flights in the batch.
+     */
+    val size: Int get() = flights.size
+
+    /**
+     * Returns the flight at [index], as given to [of].
+     */
+    operator fun get(index: Int): Flight = flights[index]
+
+    /**
+     * Returns the flights in batch order, without copying.
+     */
+    fun asList(): List<Flight> = flights
+
+    /**
+     * Returns a read-only list of the flights at the given positions, in that order.
+     *
+     * The list is backed by [positions] and the batch: nothing is copied, so
+     * a sort permutation or a filter result can be handed to the UI as is.
+     *
+     * @param positions Flight positions in this batch
+     * @return Live view of the selected flights
+     */
+    fun view(positions: IntArray): List<Flight> = object : AbstractList<Flight>() {
+        override val size: Int get() = positions.size
+        override fun get(index: Int): Flight = flights[positions[index]]
+    }
+
+    companion object {
+
+        private const val MINOR_UNITS = 100
+        private const val SECONDS_PER_MINUTE = 60L
+        private const val MINUTES_PER_HOUR = 60
+        private val DURATION_PATTERN = Regex("""(?:(\d+)\s*h)?\s*(?:(\d+)\s*m)?""")
+
+        /**
+         * An empty batch.
+         */
+        val EMPTY: FlightBatch = of(emptyList())
+
+        /**
+         * Builds the columns of a result set in a single pass.
+         *
+         * Airports and airlines are interned into the batch's own tables, so
+         * their indexes can be compared directly.
+         *
+         * @param flights The flights, in the order positions will refer to
+         * @return The columnar batch
+         */
+        fun of(flights: List<Flight>): FlightBatch {
+            val size = flights.size
+            val airports = ArrayList<Airport>()
+            val airportIndexes = HashMap<Airport, Int>()
+            val airlines = ArrayList<String>()
+            val airlineIndexes = HashMap<String, Int>()
+
+            val departureMinutes = IntArray(size)
+            val arrivalMinutes = IntArray(size)
+            val priceMinor = LongArray(size)
+            val durationMinutes = IntArray(size)
+            val stops = IntArray(size)
+            val originIndex = IntArray(size)
+            val destinationIndex = IntArray(size)
+            val airlineIndex = IntArray(size)
+            val cabinOrdinal = IntArray(size)
+
+            flights.forEachIndexed { index, flight ->
+                departureMinutes[index] = epochMinutes(flight.departureTime.toEpochSecond(ZoneOffset.UTC))
+                arrivalMinutes[index] = epochMinutes(flight.arrivalTime.toEpochSecond(ZoneOffset.UTC))
+                priceMinor[index] = Math.round(flight.price * MINOR_UNITS)
+                durationMinutes[index] = parseDurationMinutes(flight.duration)
+                    ?: (arrivalMinutes[index] - departureMinutes[index])
+                stops[index] = flight.stops.size
+                originIndex[index] = airportIndexes.getOrPut(flight.departureAirport) {
+                    airports.add(flight.departureAirport)
+                    airports.lastIndex
+                }
+                destinationIndex[index] = airportIndexes.getOrPut(flight.arrivalAirport) {
+                    airports.add(flight.arrivalAirport)
+                    airports.lastIndex
+                }
+                airlineIndex[index] = airlineIndexes.getOrPut(flight.airline) {
+                    airlines.add(flight.airline)
+                    airlines.lastIndex
+                }
+                cabinOrdinal[index] = flight.cabinClass.ordinal
+            }
+
+            return FlightBatch(
+                flights = flights,
+                airports = airports,
+                airlines = airlines,
+                departureMinutes = departureMinutes,
+                arrivalMinutes = arrivalMinutes,
+                priceMinor = priceMinor,
+                durationMinutes = durationMinutes,
+                stops = stops,
+                originIndex = originIndex,
+                destinationIndex = destinationIndex,
+                airlineIndex = airlineIndex,
+                cabinOrdinal = cabinOrdinal
+            )
+        }
+
+        private fun epochMinutes(epochSeconds: Long): Int = Math.floorDiv(epochSeconds, SECONDS_PER_MINUTE).toInt()
+
+        /**
+         * Parses durations such as "1h 45m", "2h" or "50m"; null when unparsable.
+         */
+        private fun parseDurationMinutes(duration: String): Int? {
+            if (duration.isBlank()) return null
+            val match = DURATION_PATTERN.matchEntire(duration.trim()) ?: return null
+            val hours = match.groupValues[1].toIntOrNull()
+            val minutes = match.groupValues[2].toIntOrNull()
+            if (hours == null && minutes == null) return null
+            return (hours ?: 0) * MINUTES_PER_HOUR + (minutes ?: 0)
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package fr.benchaabane.riyadhair.domain.flights.query
+
+/**
+ * Fixed-size bitset over the positions of a flight result set.
+ *
+ * Unlike `java.util.BitSet`, it can count an intersection without
+ * materializing it, which is what facet counting does for every value.
+ */
+internal class FlightBits(val size: Int) {
+
+    private val words = LongArray((size + Long.SIZE_BITS - 1) / Long.SIZE_BITS)
+
+    operator fun get(position: Int): Boolean =
+        words[position ushr WORD_SHIFT] and (1L shl position) != 0L
+
+    fun set(position: Int) {
+        words[position ushr WORD_SHIFT] = words[position ushr WORD_SHIFT] or (1L shl position)
+    }
+
+    fun setAll(): FlightBits = apply {
+        words.fill(-1L)
+        val tail = size % Long.SIZE_BITS
+        if (tail != 0) words[words.lastIndex] = (1L shl tail) - 1
+    }
+
+    fun copyFrom(other: FlightBits): FlightBits = apply { other.words.copyInto(words) }
+
+    fun clear(): FlightBits = apply { words.fill(0L) }
+
+    fun or(other: FlightBits): FlightBits = apply {
+        for (index in words.indices) words[index] = words[index] or other.words[index]
+    }
+
+    fun and(other: FlightBits): FlightBits = apply {
+        for (index in words.indices) words[index] = words[index] and other.words[index]
+    }
+
+    /**
+     * Number of positions set in both this bitset and [other].
+     */
+    fun countAnd(other: FlightBits): Int {
+        var count = 0
+        for (index in words.indices) count += java.lang.Long.bitCount(words[index] and other.words[index])
+        return count
+    }
+
+    private companion object {
+        const val WORD_SHIFT = 6
+    }
+}
@@ -0,0 +1,66 @@
+package fr.benchaabane.riyadhair.domain.flights.query
+
+import fr.benchaabane.riyadhair.domain.flights.models.CabinClass
+import fr.benchaabane.riyadhair.domain.flights.models.Flight
+
+enum class FlightSort {
+    PRICE,
+    DURATION,
+    DEPARTURE,
+    ARRIVAL
+}
+
+/**
+ * Filters applied to a flight result set; an empty or null criterion matches every flight.
+ *
+ * @property airlines Airline names to keep
+ * @property maxStops Maximum number of stops, 0 for direct flights only
+ * @property departureHours Hours of the day (0..23) the departure must fall in
+ * @property cabinClasses Cabin classes to keep
+ */
+data class FlightFilter(
+    val airlines: Set<String> = emptySet(),
+    val maxStops: Int? = null,
+    val departureHours: IntRange? = null,
+    val cabinClasses: Set<CabinClass> = emptySet()
+)
+
+/**
+ * Number of flights matching each facet value.
+ *
+ * Each dimension is counted with the filters of the other dimensions
+ * applied but not its own, so the counts tell how many flights selecting
+ * a value would add.
+ *
+ * @property airlines Flights per airline name
+ * @property stops Flights per number of stops
+ * @property departureHours Flights per hour of departure (0..23), only hours with flights
+ * @property cabinClasses Flights per cabin class
+ */
+data class FlightFacets(
+    val airlines: Map<String, Int> = emptyMap(),
+    val stops: Map<Int, Int> = emptyMap(),
+    val departureHours: Map<Int, Int> = emptyMap(),
+    val cabinClasses: Map<CabinClass, Int> = emptyMap()
+)
+
+/**
+ * Outcome of a query over a flight result set.
+ *
+ * @property flights Matching flights in sort order, a view over the result set
+ * @property positions Positions of the matching flights in the result set, in sort order
+ * @property facets Facet counts for the applied filter
+ */
+data class FlightQueryResult(
+    val flights: List<Flight>,
+    val positions: IntArray,
+    val facets: FlightFacets
+) {
+    override fun equals(other: Any?): Boolean =
+        other is FlightQueryResult &&
+            positions.contentEquals(other.positions) &&
+            flights == other.flights &&
+            facets == other.facets
+
+    override fun hashCode(): Int = 31 * positions.contentHashCode() + facets.hashCode()
+}
@@ -0,0 +1,177 @@
+package fr.benchaabane.riyadhair.domain.flights.query
+
+import fr.benchaabane.riyadhair.domain.flights.models.CabinClass
+import fr.benchaabane.riyadhair.domain.flights.models.FlightBatch
+
+/**
+ * Sort and filter engine over one flight result set.
+ *
+ * Everything that does not depend on the user's choices is computed once,
+ * when the engine is built, so changing a sort or a filter never re-sorts
+ * or re-maps the flights.
+ *
+ * **Indexes:**
+ * - **Sort Permutations**: One position array per [FlightSort], built on first
+ *   use by sorting packed primitive keys
+ * - **Value Bitsets**: One bitset per airline, stop count, departure hour and
+ *   cabin class, marking the flights having that value
+ *
+ * **Filtering:**
+ * Each filter dimension keeps its own mask, the union of the bitsets of its
+ * selected values. A query only rebuilds the masks of the dimensions whose
+ * selection changed, then intersects the masks: O(n/64) per dimension.
+ *
+ * **Facets:**
+ * Facet counts of a dimension are intersections of its value bitsets with
+ * the masks of the other dimensions. They are cached and only recounted
+ * when another dimension's selection changed.
+ *
+ * **Threading:**
+ * Queries are synchronized on the engine, so it can be shared by coroutines.
+ *
+ * @param batch The result set, in columnar form
+ *
+ * @see FlightBatch
+ * @see FlightFilter
+ */
+class FlightQueryEngine(private val batch: FlightBatch) {
+
+    private val size = batch.size
+
+    private val everything = FlightBits(size).setAll()
+
+    private val permutations = arrayOfNulls<IntArray>(FlightSort.entries.size)
+
+    private val departureHour = IntArray(size) { Math.floorMod(batch.departureMinutes[it], MINUTES_PER_DAY) / MINUTES_PER_HOUR }
+
+    private val airlines = Dimension(bucketsOf(batch.airlines.size, batch.airlineIndex))
+
+    private val stops = Dimension(bucketsOf((batch.stops.maxOrNull() ?: -1) + 1, batch.stops))
+
+    private val departureHours = Dimension(bucketsOf(HOURS_PER_DAY, departureHour))
+
+    private val cabinClasses = Dimension(bucketsOf(CabinClass.entries.size, batch.cabinOrdinal))
+
+    private val dimensions = listOf(airlines, stops, departureHours, cabinClasses)
+
+    private val matched = FlightBits(size)
+
+    /**
+     * Applies a filter and a sort to the result set.
+     *
+     * @param filter The filter to apply
+     * @param sort The order of the returned flights
+     * @return Matching flights in order, with facet counts for [filter]
+     */
+    fun query(filter: FlightFilter, sort: FlightSort): FlightQueryResult = synchronized(this) {
+        airlines.select(
+            filter.airlines.mapNotNullTo(HashSet()) { name -> batch.airlines.indexOf(name).takeIf { it >= 0 } },
+            filter.airlines.isEmpty()
+        )
+        stops.select(filter.maxStops?.let { max -> (0..max).toSet() }.orEmpty(), filter.maxStops == null)
+        departureHours.select(filter.departureHours?.toSet().orEmpty(), filter.departureHours == null)
+        cabinClasses.select(filter.cabinClasses.mapTo(HashSet()) { it.ordinal }, filter.cabinClasses.isEmpty())
+
+        matched.copyFrom(everything)
+        dimensions.forEach { matched.and(it.mask) }
+
+        val order = permutation(sort)
+        var count = 0
+        val positions = IntArray(order.size)
+        order.forEach { position -> if (matched[position]) positions[count++] = position }
+        val matchedPositions = positions.copyOf(count)
+
+        FlightQueryResult(
+            flights = batch.view(matchedPositions),
+            positions = matchedPositions,
+            facets = FlightFacets(
+                airlines = airlines.facet().withKeys { batch.airlines[it] },
+                stops = stops.facet().withKeys { it },
+                departureHours = departureHours.facet().withKeys { it }.filterValues { it > 0 },
+                cabinClasses = cabinClasses.facet().withKeys { CabinClass.entries[it] }
+            )
+        )
+    }
+
+    /**
+     * Returns the positions of every flight in [sort] order, building it on first use.
+     */
+    private fun permutation(sort: FlightSort): IntArray =
+        permutations[sort.ordinal] ?: when (sort) {
+            FlightSort.PRICE -> sortedBy { batch.priceMinor[it] }
+            FlightSort.DURATION -> sortedBy { batch.durationMinutes[it].toLong() }
+            FlightSort.DEPARTURE -> sortedBy { batch.departureMinutes[it].toLong() }
+            FlightSort.ARRIVAL -> sortedBy { batch.arrivalMinutes[it].toLong() }
+        }.also { permutations[sort.ordinal] = it }
+
+    /**
+     * Sorts positions by key, ties kept in batch order, without boxing.
+     *
+     * Each key is packed with its position into one long, so a primitive
+     * sort of the longs is a stable sort of the positions.
+     */
+    private inline fun sortedBy(key: (Int) -> Long): IntArray {
+        val packed = LongArray(size) { position ->
+            (key(position).coerceIn(0L, Int.MAX_VALUE.toLong()) shl Int.SIZE_BITS) or position.toLong()
+        }
+        packed.sort()
+        return IntArray(size) { packed[it].toInt() }
+    }
+
+    private fun bucketsOf(count: Int, values: IntArray): Array<FlightBits> {
+        val buckets = Array(count) { FlightBits(size) }
+        values.forEachIndexed { position, value -> buckets[value].set(position) }
+        return buckets
+    }
+
+    private inline fun <K> IntArray.withKeys(key: (Int) -> K): Map<K, Int> =
+        indices.associate { key(it) to this[it] }
+
+    /**
+     * One filter dimension: value bitsets, current selection, mask and cached facet.
+     */
+    private inner class Dimension(private val buckets: Array<FlightBits>) {
+
+        val mask = FlightBits(size).copyFrom(everything)
+
+        private var selection: Set<Int>? = null
+
+        private var counts: IntArray? = null
+
+        private val others = FlightBits(size)
+
+        /**
+         * Updates the selection, rebuilding the mask only if it changed.
+         *
+         * @param values Selected value indexes
+         * @param all Whether the dimension is unfiltered, regardless of [values]
+         */
+        fun select(values: Set<Int>, all: Boolean) {
+            val next = if (all) null else values
+            if (next == selection) return
+            selection = next
+            if (next == null) {
+                mask.copyFrom(everything)
+            } else {
+                mask.clear()
+                next.forEach { value -> buckets.getOrNull(value)?.let { mask.or(it) } }
+            }
+            dimensions.forEach { if (it !== this) it.counts = null }
+        }
+
+        /**
+         * Counts each value over the flights matching every other dimension.
+         */
+        fun facet(): IntArray = counts ?: run {
+            others.copyFrom(everything)
+            dimensions.forEach { if (it !== this) others.and(it.mask) }
+            IntArray(buckets.size) { buckets[it].countAnd(others) }
+        }.also { counts = it }
+    }
+
+    private companion object {
+        const val HOURS_PER_DAY = 24
+        const val MINUTES_PER_HOUR = 60
+        const val MINUTES_PER_DAY = HOURS_PER_DAY * MINUTES_PER_HOUR
+    }
+}
@@ -0,0 +1,46 @@
+package fr.benchaabane.riyadhair.domain.flights.repositories
+
+import fr.benchaabane.riyadhair.domain.flights.models.FareCalendar
+import kotlinx.coroutines.flow.Flow
+import java.time.YearMonth
+
+/**
+ * Repository interface for the flexible-date fare calendar.
+ *
+ * The fare calendar gives the minimum price of a route for each day of a
+ * month, so users can compare departure dates without running one search
+ * per day.
+ *
+ * **Data Sources:**
+ * - **Local Database**: Per route and day minimum prices, kept for a limited time
+ * - **Remote API**: One dated search per day that is missing or outdated
+ *
+ * **Threading:**
+ * The returned flow does its work on a background dispatcher; cancelling
+ * its collection cancels the pending day requests.
+ *
+ * @see FareCalendar
+ */
+interface FareCalendarRepository {
+    /**
+     * Observes the per-day minimum fares of a route over one month.
+     *
+     * The cached days are emitted first, then a new calendar is emitted each
+     * time a missing day has been fetched. The flow completes once every day
+     * of the month has been resolved; days whose request failed are left out.
+     *
+     * **Usage:**
+     * ```kotlin
+     * fareCalendarRepository.getFareCalendar("RUH", "JED", YearMonth.of(2024, 7))
+     *     .collect { calendar -> println(calendar.cheapest) }
+     * ```
+     *
+     * @param origin The departure airport code
+     * @param destination The arrival airport code
+     * @param month The month to cover; past days are skipped
+     * @return A cold [Flow] of increasingly complete calendars
+     *
+     * @see FareCalendar
+     */
+    fun getFareCalendar(origin: String, destination: String, month: YearMonth): Flow<FareCalendar>
+}
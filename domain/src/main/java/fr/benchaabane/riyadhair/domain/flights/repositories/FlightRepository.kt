@@ -1,6 +1,11 @@
 package fr.benchaabane.riyadhair.domain.flights.repositories
 
+import androidx.paging.PagingData
 import fr.benchaabane.riyadhair.domain.flights.models.Flight
+import fr.benchaabane.riyadhair.domain.flights.models.FlightPagingConfig
+import fr.benchaabane.riyadhair.domain.flights.models.FlightSearch
+import kotlinx.coroutines.flow.Flow
+import java.time.LocalDateTime
 
 /**
  * Repository interface for flight-related data operations.
@@ -89,7 +94,36 @@ interface FlightRepository {
      * @see Result
      */
     suspend fun getFlights(origin: String, destination: String): Result<List<Flight>>
-    
+
+    /**
+     * Retrieves the flights of one leg of a dated search.
+     *
+     * Unlike [getFlights], results are restricted to the departure day and
+     * cached under the normalised leg (route, day, passengers and cabin), so
+     * repeating a search, or coming back to its results, is served from
+     * memory. The cache lifetime shortens as departure approaches, and the
+     * seats of a reused result are revalidated.
+     *
+     * **Usage:**
+     * ```kotlin
+     * val search = FlightSearch(
+     *     departureAirportCode = "RUH",
+     *     arrivalAirportCode = "JED",
+     *     departureDate = LocalDate.of(2024, 7, 15),
+     *     passengers = PassengerCount(adults = 2),
+     *     cabinClass = CabinClass.ECONOMY
+     * )
+     * flightRepository.searchFlights(search).onSuccess { flights -> show(flights) }
+     * ```
+     *
+     * @param search The search whose outbound leg is retrieved; use
+     *        [FlightSearch.returnLeg] to retrieve the return flights
+     * @return A [Result] containing the flights of the leg that can seat every passenger
+     *
+     * @see FlightSearch
+     */
+    suspend fun searchFlights(search: FlightSearch): Result<List<Flight>>
+
     /**
      * Retrieves a specific flight by its flight number.
      *
@@ -131,4 +165,72 @@ interface FlightRepository {
      * @see Result
      */
     suspend fun getFlight(flightNumber: String): Result<Flight?>
-}
\ No newline at end of file
+
+    /**
+     * Streams the flights between two airports as they are received.
+     *
+     * Unlike [getFlights], flights are emitted one by one while the search
+     * response is still being downloaded, so the first results can be shown
+     * early and the full result list is never held in memory.
+     *
+     * **Usage:**
+     * ```kotlin
+     * flightRepository.streamFlights("RUH", "JED")
+     *     .take(5)
+     *     .collect { flight -> println(flight.flightNumber) }
+     * ```
+     *
+     * @param origin The departure airport code
+     * @param destination The arrival airport code
+     * @return A cold [Flow] of the route's flights in response order;
+     *         network and decoding errors are thrown to the collector
+     *
+     * @see Flight
+     */
+    fun streamFlights(origin: String, destination: String): Flow<Flight>
+
+    /**
+     * Retrieves every locally cached flight departing in a time window.
+     *
+     * Only flights already fetched by previous searches are returned, across
+     * all routes; no network call is made. These legs are the input of the
+     * connecting itinerary search.
+     *
+     * @param departingFrom Earliest departure time
+     * @param departingUntil Latest departure time
+     * @return A [Result] containing the cached flights ordered by departure time
+     *
+     * @see Flight
+     */
+    suspend fun getCachedFlights(
+        departingFrom: LocalDateTime,
+        departingUntil: LocalDateTime
+    ): Result<List<Flight>>
+
+    /**
+     * Pages the flights between two airports from the local flight cache.
+     *
+     * Pages are read from the local database and topped up from the
+     * network only when the cached pages run out, so a repeated search
+     * of a route renders immediately.
+     *
+     * **Usage:**
+     * ```kotlin
+     * flightRepository.getPagedFlights("RUH", "JED", FlightPagingConfig(prefetchDistance = 10))
+     *     .cachedIn(viewModelScope)
+     * ```
+     *
+     * @param origin The departure airport code
+     * @param destination The arrival airport code
+     * @param config Page size, prefetch distance and placeholder settings
+     * @return A [Flow] of [PagingData] ordered by departure time
+     *
+     * @see Flight
+     * @see PagingData
+     */
+    fun getPagedFlights(
+        origin: String,
+        destination: String,
+        config: FlightPagingConfig = FlightPagingConfig()
+    ): Flow<PagingData<Flight>>
+}
@@ -0,0 +1,100 @@
+package fr.benchaabane.riyadhair.domain.flights.usecases
+
+import fr.benchaabane.riyadhair.domain.flights.models.Flight
+import fr.benchaabane.riyadhair.domain.flights.models.SelectedFlights
+import java.time.Duration
+import java.util.PriorityQueue
+
+/**
+ * Use case for finding the best outbound/return combinations of a round trip.
+ *
+ * Rather than scoring the whole cross product of both legs, this use case
+ * sorts each leg by score once and walks the pair grid lazily with a
+ * min-heap, best pairs first, stopping as soon as [maxResults] valid pairs
+ * have been found.
+ *
+ * **Pairing Strategy:**
+ * 1. **Leg Sorting**: Outbound and return flights are sorted by leg score
+ * 2. **Lazy Merge**: Starting from the two best flights, each popped pair
+ *    pushes its two successors on the grid, so pairs leave the heap in
+ *    increasing total score
+ * 3. **Ground Time**: Pairs whose return leaves less than [minGroundTime]
+ *    after the outbound lands are skipped, but their successors are still explored
+ *
+ * **Scoring:**
+ * The total score of a pair is the sum of its leg scores; by default the
+ * leg price, so the result is the cheapest combinations. Ties are broken
+ * by the outbound leg's rank, then the return leg's. Any additive
+ * per-leg score (e.g., price weighted by duration) keeps the ordering exact.
+ *
+ * **Complexity:**
+ * O((n + m) log(n + m)) to sort the legs, then O(p log p) for the p pairs
+ * visited, instead of O(n·m) for the full cross product.
+ *
+ * @property minGroundTime Minimum time between the outbound arrival and the return departure
+ *
+ * @sample
+ * ```kotlin
+ * val combinations = getBestRoundTripsUseCase(outboundFlights, returnFlights, maxResults = 5)
+ * combinations.first().totalPrice
+ * ```
+ *
+ * @see SelectedFlights
+ */
+class GetBestRoundTripsUseCase(
+    private val minGroundTime: Duration = DEFAULT_MIN_GROUND_TIME
+) {
+    /**
+     * Returns the best combinations of an outbound and a return flight.
+     *
+     * @param outboundFlights Candidate flights for the outbound leg
+     * @param returnFlights Candidate flights for the return leg
+     * @param maxResults Maximum number of combinations to return
+     * @param legScore Score of one leg, lower is better; defaults to the flight price
+     * @return Up to [maxResults] combinations, best total score first
+     */
+    operator fun invoke(
+        outboundFlights: List<Flight>,
+        returnFlights: List<Flight>,
+        maxResults: Int = DEFAULT_MAX_RESULTS,
+        legScore: (Flight) -> Double = Flight::price
+    ): List<SelectedFlights> {
+        if (maxResults <= 0 || outboundFlights.isEmpty() || returnFlights.isEmpty()) return emptyList()
+
+        val outbound = outboundFlights.map { it to legScore(it) }.sortedBy { it.second }
+        val inbound = returnFlights.map { it to legScore(it) }.sortedBy { it.second }
+
+        val candidates = PriorityQueue<Candidate>(
+            compareBy<Candidate>({ it.score }, { it.outboundIndex }, { it.returnIndex })
+        )
+        val visited = HashSet<Long>()
+        val results = ArrayList<SelectedFlights>(maxResults)
+
+        fun push(outboundIndex: Int, returnIndex: Int) {
+            if (outboundIndex >= outbound.size || returnIndex >= inbound.size) return
+            if (!visited.add(outboundIndex.toLong() * inbound.size + returnIndex)) return
+            val score = outbound[outboundIndex].second + inbound[returnIndex].second
+            candidates.add(Candidate(outboundIndex, returnIndex, score))
+        }
+
+        push(0, 0)
+        while (results.size < maxResults) {
+            val candidate = candidates.poll() ?: break
+            val outboundFlight = outbound[candidate.outboundIndex].first
+            val returnFlight = inbound[candidate.returnIndex].first
+            if (!returnFlight.departureTime.isBefore(outboundFlight.arrivalTime.plus(minGroundTime))) {
+                results.add(SelectedFlights(outboundFlight = outboundFlight, returnFlight = returnFlight))
+            }
+            push(candidate.outboundIndex + 1, candidate.returnIndex)
+            push(candidate.outboundIndex, candidate.returnIndex + 1)
+        }
+        return results
+    }
+
+    private class Candidate(val outboundIndex: Int, val returnIndex: Int, val score: Double)
+
+    private companion object {
+        const val DEFAULT_MAX_RESULTS = 10
+        val DEFAULT_MIN_GROUND_TIME: Duration = Duration.ofHours(2)
+    }
+}
@@ -0,0 +1,41 @@
+package fr.benchaabane.riyadhair.domain.flights.usecases
+
+import fr.benchaabane.riyadhair.domain.flights.models.FareCalendar
+import fr.benchaabane.riyadhair.domain.flights.repositories.FareCalendarRepository
+import kotlinx.coroutines.flow.Flow
+import java.time.YearMonth
+
+/**
+ * Use case for observing the per-day minimum fares of a route over one month.
+ *
+ * **Usage Pattern:**
+ * The date picker requests the month it displays; collecting the flow of a
+ * newly displayed month should cancel the previous one, which stops the
+ * day requests that are no longer needed.
+ *
+ * @property fareCalendarRepository The fare calendar repository interface for data access
+ *
+ * @sample
+ * ```kotlin
+ * fareJob?.cancel()
+ * fareJob = viewModelScope.launch {
+ *     getFareCalendarUseCase("RUH", "JED", YearMonth.of(2024, 7))
+ *         .collect { calendar -> showBadges(calendar.fares) }
+ * }
+ * ```
+ *
+ * @see FareCalendar
+ * @see FareCalendarRepository
+ */
+class GetFareCalendarUseCase(private val fareCalendarRepository: FareCalendarRepository) {
+    /**
+     * Observes the fare calendar of a route.
+     *
+     * @param origin The departure airport code
+     * @param destination The arrival airport code
+     * @param month The month to cover
+     * @return A [Flow] of increasingly complete calendars for [month]
+     */
+    operator fun invoke(origin: String, destination: String, month: YearMonth): Flow<FareCalendar> =
+        fareCalendarRepository.getFareCalendar(origin, destination, month)
+}
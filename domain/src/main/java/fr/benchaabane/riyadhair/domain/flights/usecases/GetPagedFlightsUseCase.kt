@@ -0,0 +1,51 @@
+package fr.benchaabane.riyadhair.domain.flights.usecases
+
+import androidx.paging.PagingData
+import fr.benchaabane.riyadhair.domain.flights.models.Flight
+import fr.benchaabane.riyadhair.domain.flights.models.FlightPagingConfig
+import fr.benchaabane.riyadhair.domain.flights.repositories.FlightRepository
+import kotlinx.coroutines.flow.Flow
+
+/**
+ * Use case for paging the flights between two airports.
+ *
+ * Unlike [SearchFlightsUseCase], which loads the whole result list at once,
+ * this use case streams results page by page, so memory and first-frame time
+ * stay flat no matter how many flights a route returns.
+ *
+ * **Paging Behavior:**
+ * - **Page Size**: Number of flights loaded per page
+ * - **Prefetch Distance**: How far from the end of the loaded items the next page is requested
+ * - **Placeholders**: Whether unloaded items are represented as nulls so the list keeps its full size
+ *
+ * **Architecture Layer:**
+ * This use case belongs to the Domain layer and depends on the FlightRepository
+ * interface. The paging settings are chosen when the use case is provided, so
+ * every screen paging flights shares the same configuration.
+ *
+ * @property flightRepository The flight repository interface for data access
+ * @property config The paging settings applied to every search
+ *
+ * @sample
+ * ```kotlin
+ * val flights = getPagedFlightsUseCase(origin = "RUH", destination = "JED")
+ *     .cachedIn(viewModelScope)
+ * ```
+ *
+ * @see FlightPagingConfig
+ * @see FlightRepository.getPagedFlights
+ */
+class GetPagedFlightsUseCase(
+    private val flightRepository: FlightRepository,
+    private val config: FlightPagingConfig = FlightPagingConfig()
+) {
+    /**
+     * Pages the flights between the specified origin and destination.
+     *
+     * @param origin The departure airport code
+     * @param destination The arrival airport code
+     * @return A [Flow] of [PagingData] ordered by departure time
+     */
+    operator fun invoke(origin: String, destination: String): Flow<PagingData<Flight>> =
+        flightRepository.getPagedFlights(origin, destination, config)
+}
@@ -1,6 +1,7 @@
 package fr.benchaabane.riyadhair.domain.flights.usecases
 
 import fr.benchaabane.riyadhair.domain.flights.models.Flight
+import fr.benchaabane.riyadhair.domain.flights.models.FlightSearch
 import fr.benchaabane.riyadhair.domain.flights.repositories.FlightRepository
 
 /**
@@ -98,4 +99,18 @@ class SearchFlightsUseCase(private val flightRepository: FlightRepository) {
      */
     suspend operator fun invoke(origin: String, destination: String): Result<List<Flight>> =
         flightRepository.getFlights(origin, destination)
-}
\ No newline at end of file
+
+    /**
+     * Searches for the flights of the outbound leg of a dated search.
+     *
+     * Results are cached per normalised leg by the repository, so repeated
+     * searches and back-navigation to the results are served from memory.
+     *
+     * @param search The route, departure day, passengers and cabin to search
+     * @return A [Result] containing the flights of the leg
+     *
+     * @see FlightSearch
+     */
+    suspend operator fun invoke(search: FlightSearch): Result<List<Flight>> =
+        flightRepository.searchFlights(search)
+}
@@ -0,0 +1,63 @@
+package fr.benchaabane.riyadhair.domain.flights.usecases
+
+import fr.benchaabane.riyadhair.domain.flights.itinerary.Itinerary
+import fr.benchaabane.riyadhair.domain.flights.itinerary.ItineraryEngine
+import fr.benchaabane.riyadhair.domain.flights.itinerary.MinimumConnectionTimes
+import fr.benchaabane.riyadhair.domain.flights.repositories.FlightRepository
+import java.time.Duration
+import java.time.LocalDateTime
+
+/**
+ * Use case for finding connecting itineraries between two airports.
+ *
+ * Direct searches only return flights of the requested route. This use case
+ * combines the legs cached by previous searches, across all routes, into
+ * itineraries with connections, using [ItineraryEngine].
+ *
+ * **Search Window:**
+ * Only legs departing between the requested time and [searchWindow] later
+ * are considered, which bounds both the database read and the network the
+ * engine builds.
+ *
+ * **Architecture Layer:**
+ * This use case belongs to the Domain layer and depends on the FlightRepository
+ * interface; connection rules are chosen when the use case is provided.
+ *
+ * @property flightRepository The flight repository interface for data access
+ * @property connectionTimes Minimum connection times between legs
+ * @property maxLegs Maximum number of legs per itinerary
+ * @property searchWindow How far after the earliest departure legs are considered
+ *
+ * @sample
+ * ```kotlin
+ * searchItinerariesUseCase("RUH", "LHR", LocalDateTime.of(2024, 7, 15, 0, 0))
+ *     .onSuccess { itineraries -> itineraries.forEach { println(it.connections) } }
+ * ```
+ *
+ * @see ItineraryEngine
+ * @see FlightRepository.getCachedFlights
+ */
+class SearchItinerariesUseCase(
+    private val flightRepository: FlightRepository,
+    private val connectionTimes: MinimumConnectionTimes = MinimumConnectionTimes(),
+    private val maxLegs: Int = 3,
+    private val searchWindow: Duration = Duration.ofDays(2)
+) {
+    /**
+     * Finds the Pareto-optimal itineraries (arrival time vs. number of legs).
+     *
+     * @param origin The departure airport code
+     * @param destination The arrival airport code
+     * @param earliestDeparture Earliest time the first leg may depart
+     * @return A [Result] with the itineraries, fewest legs first, or the repository error
+     */
+    suspend operator fun invoke(
+        origin: String,
+        destination: String,
+        earliestDeparture: LocalDateTime
+    ): Result<List<Itinerary>> =
+        flightRepository.getCachedFlights(earliestDeparture, earliestDeparture.plus(searchWindow))
+            .map { legs ->
+                ItineraryEngine(legs, connectionTimes).search(origin, destination, earliestDeparture, maxLegs)
+            }
+}
@@ -0,0 +1,83 @@
+package fr.benchaabane.riyadhair.domain.flights.usecases
+
+import fr.benchaabane.riyadhair.domain.flights.models.Flight
+import fr.benchaabane.riyadhair.domain.flights.models.FlightSearch
+import fr.benchaabane.riyadhair.domain.flights.models.LegDirection
+import fr.benchaabane.riyadhair.domain.flights.models.RoundTripLeg
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.channelFlow
+import kotlinx.coroutines.launch
+
+/**
+ * Use case for searching both legs of a round trip concurrently.
+ *
+ * The outbound and return searches are started at the same time as children
+ * of the collecting coroutine, so a round trip costs the latency of the slower
+ * leg instead of the sum of both. Each leg is emitted as soon as it completes.
+ *
+ * **Emission Contract:**
+ * - Exactly one [RoundTripLeg] per [LegDirection], in completion order
+ * - A failing leg is emitted with a failed [Result] and does not affect the other leg
+ * - The flow completes once both legs have been emitted
+ * - Cancelling the collector cancels both searches
+ *
+ * **Architecture Layer:**
+ * This use case belongs to the Domain layer and composes [SearchFlightsUseCase],
+ * so it inherits its error handling for each individual leg.
+ *
+ * @property searchFlightsUseCase The single-leg search use case
+ *
+ * @sample
+ * ```kotlin
+ * searchRoundTripUseCase(origin = "RUH", destination = "LHR")
+ *     .collect { leg ->
+ *         when (leg.direction) {
+ *             LegDirection.OUTBOUND -> showOutbound(leg.result)
+ *             LegDirection.RETURN -> showReturn(leg.result)
+ *         }
+ *     }
+ * ```
+ *
+ * @see SearchFlightsUseCase
+ * @see RoundTripLeg
+ */
+class SearchRoundTripUseCase(private val searchFlightsUseCase: SearchFlightsUseCase) {
+    /**
+     * Searches the outbound and return legs between two airports.
+     *
+     * @param origin The departure airport code of the outbound leg
+     * @param destination The arrival airport code of the outbound leg
+     * @return A [Flow] emitting each leg as soon as its search completes
+     */
+    operator fun invoke(origin: String, destination: String): Flow<RoundTripLeg> = searchLegs(
+        outbound = { searchFlightsUseCase(origin, destination) },
+        inbound = { searchFlightsUseCase(destination, origin) }
+    )
+
+    /**
+     * Searches the outbound and return legs of a dated search.
+     *
+     * The return leg departs on the return date, or on the outbound day for
+     * a one-way search. Both legs are served from the repository's search
+     * cache when the same leg was searched recently.
+     *
+     * @param search The route, dates, passengers and cabin to search
+     * @return A [Flow] emitting each leg as soon as its search completes
+     */
+    operator fun invoke(search: FlightSearch): Flow<RoundTripLeg> = searchLegs(
+        outbound = { searchFlightsUseCase(search.outboundLeg()) },
+        inbound = { searchFlightsUseCase(search.returnLeg()) }
+    )
+
+    private fun searchLegs(
+        outbound: suspend () -> Result<List<Flight>>,
+        inbound: suspend () -> Result<List<Flight>>
+    ): Flow<RoundTripLeg> = channelFlow {
+        launch {
+            send(RoundTripLeg(LegDirection.OUTBOUND, outbound()))
+        }
+        launch {
+            send(RoundTripLeg(LegDirection.RETURN, inbound()))
+        }
+    }
+}
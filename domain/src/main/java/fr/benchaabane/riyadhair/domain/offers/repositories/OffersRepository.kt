@@ -5,4 +5,5 @@ import kotlinx.coroutines.flow.Flow
 
 interface OffersRepository {
     suspend fun getBestOffers(): Result<List<Offer>>
+    fun observeBestOffers(): Flow<List<Offer>>
 }
@@ -0,0 +1,26 @@
+package fr.benchaabane.riyadhair.domain.offers.usecases
+
+import fr.benchaabane.riyadhair.domain.offers.models.Offer
+import fr.benchaabane.riyadhair.domain.offers.repositories.OffersRepository
+import kotlinx.coroutines.flow.Flow
+import javax.inject.Inject
+
+/**
+ * Use case for observing the best available offers.
+ * 
+ * Unlike [GetBestOffersUseCase], which returns a single snapshot, this use case
+ * emits the cached offers immediately and emits again whenever a background
+ * refresh updates them.
+ * 
+ * @property repository The offers repository interface for data access
+ */
+class ObserveBestOffersUseCase @Inject constructor(
+    private val repository: OffersRepository
+) {
+    /**
+     * Observes the best available offers.
+     * 
+     * @return A [Flow] emitting the current list of best offers on every change.
+     */
+    operator fun invoke(): Flow<List<Offer>> = repository.observeBestOffers()
+}
@@ -5,4 +5,5 @@ import kotlinx.coroutines.flow.Flow
 
 interface PartnerRepository {
     suspend fun getPartners(): Result<List<Partner>>
+    fun observePartners(): Flow<List<Partner>>
 }
@@ -0,0 +1,26 @@
+package fr.benchaabane.riyadhair.domain.partners.usecases
+
+import fr.benchaabane.riyadhair.domain.partners.models.Partner
+import fr.benchaabane.riyadhair.domain.partners.repositories.PartnerRepository
+import kotlinx.coroutines.flow.Flow
+import javax.inject.Inject
+
+/**
+ * Use case for observing available partners.
+ * 
+ * Unlike [GetPartnersUseCase], which returns a single snapshot, this use case
+ * emits the cached partners immediately and emits again whenever a background
+ * refresh updates them.
+ * 
+ * @property repository The partner repository interface for data access
+ */
+class ObservePartnersUseCase @Inject constructor(
+    private val repository: PartnerRepository
+) {
+    /**
+     * Observes the list of available partners.
+     * 
+     * @return A [Flow] emitting the current list of partners on every change.
+     */
+    operator fun invoke(): Flow<List<Partner>> = repository.observePartners()
+}
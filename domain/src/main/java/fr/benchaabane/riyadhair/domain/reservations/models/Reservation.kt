@@ -1,5 +1,8 @@
 package fr.benchaabane.riyadhair.domain.reservations.models
 
+import fr.benchaabane.riyadhair.domain.flights.models.Flight
+import java.time.LocalDateTime
+
 /**
  * Represents a flight reservation in the RiyadhAir system.
  *
@@ -32,11 +35,98 @@ package fr.benchaabane.riyadhair.domain.reservations.models
  * @param passengerName Full name of the passenger
  * @param seat Assigned seat number or designation
  * @param status Current status of the reservation (e.g., "Confirmed", "Pending", "Cancelled")
+ * @param departureTime Departure time of the reserved flight, in UTC, or null
+ *        for reservations stored before travel dates were recorded
+ * @param flight Details of the reserved flight as of the last sync, or null
+ *        when unknown
  */
 data class Reservation(
     val id: String,
     val flightId: String,
     val passengerName: String,
     val seat: String,
-    val status: String
+    val status: String,
+    val departureTime: LocalDateTime? = null,
+    val flight: FlightSnapshot? = null
+)
+
+/**
+ * Details of a reserved flight, copied into the reservation.
+ *
+ * Lets reservation lists show the route, times and aircraft without
+ * loading each flight. The copy is taken when booking and refreshed by
+ * each reservation sync.
+ *
+ * @param flightNumber Flight number shown to the passenger
+ * @param airline Operating airline
+ * @param origin IATA code of the departure airport
+ * @param originCity City of the departure airport
+ * @param destination IATA code of the arrival airport
+ * @param destinationCity City of the arrival airport
+ * @param arrivalTime Arrival time, in UTC
+ * @param duration Flight duration, as displayed
+ * @param aircraft Aircraft type
+ */
+data class FlightSnapshot(
+    val flightNumber: String,
+    val airline: String,
+    val origin: String,
+    val originCity: String,
+    val destination: String,
+    val destinationCity: String,
+    val arrivalTime: LocalDateTime,
+    val duration: String,
+    val aircraft: String
+) {
+    companion object {
+        /**
+         * Takes the snapshot of a flight being booked.
+         *
+         * @param flight The flight being booked
+         * @return Its snapshot
+         */
+        fun of(flight: Flight): FlightSnapshot = FlightSnapshot(
+            flightNumber = flight.flightNumber,
+            airline = flight.airline,
+            origin = flight.departureAirport.code,
+            originCity = flight.departureAirport.city,
+            destination = flight.arrivalAirport.code,
+            destinationCity = flight.arrivalAirport.city,
+            arrivalTime = flight.arrivalTime,
+            duration = flight.duration,
+            aircraft = flight.aircraft
+        )
+    }
+}
+
+/**
+ * Tabs of the reservation history, each paged on its own.
+ *
+ * **Tabs:**
+ * - **UPCOMING**: Active reservations departing from now on, soonest first;
+ *   reservations without a travel date are listed here, first
+ * - **PAST**: Active reservations that already departed, latest first
+ * - **CANCELLED**: Cancelled and rejected reservations, latest first
+ *
+ * @property statuses Reservation statuses listed in the tab
+ */
+enum class ReservationFilter(val statuses: List<String>) {
+    UPCOMING(listOf("PENDING", "CONFIRMED")),
+    PAST(listOf("PENDING", "CONFIRMED")),
+    CANCELLED(listOf("CANCELLED", "REJECTED"))
+}
+
+/**
+ * Paging settings of the reservation history.
+ *
+ * @property pageSize Number of reservations loaded per page
+ * @property prefetchDistance How far from the end of the loaded items the next page is requested
+ * @property enablePlaceholders Whether unloaded items are represented as nulls
+ * @property initialLoadSize Number of reservations loaded by the first page
+ */
+data class ReservationPagingConfig(
+    val pageSize: Int = 20,
+    val prefetchDistance: Int = pageSize,
+    val enablePlaceholders: Boolean = true,
+    val initialLoadSize: Int = pageSize * 2
 )
\ No newline at end of file
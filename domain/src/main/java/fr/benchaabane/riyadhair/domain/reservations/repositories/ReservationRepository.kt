@@ -1,10 +1,17 @@
 package fr.benchaabane.riyadhair.domain.reservations.repositories
 
+import androidx.paging.PagingData
 import fr.benchaabane.riyadhair.domain.reservations.models.Reservation
+import fr.benchaabane.riyadhair.domain.reservations.models.ReservationFilter
+import fr.benchaabane.riyadhair.domain.reservations.models.ReservationPagingConfig
 import kotlinx.coroutines.flow.Flow
 
 interface ReservationRepository {
     fun observeReservations(): Flow<List<Reservation>>
+    fun getPagedReservations(
+        filter: ReservationFilter,
+        config: ReservationPagingConfig = ReservationPagingConfig()
+    ): Flow<PagingData<Reservation>>
     suspend fun saveReservation(reservation: Reservation)
     suspend fun refreshReservations()
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package fr.benchaabane.riyadhair.domain.reservations.usecases
+
+import androidx.paging.PagingData
+import fr.benchaabane.riyadhair.domain.reservations.models.Reservation
+import fr.benchaabane.riyadhair.domain.reservations.models.ReservationFilter
+import fr.benchaabane.riyadhair.domain.reservations.models.ReservationPagingConfig
+import fr.benchaabane.riyadhair.domain.reservations.repositories.ReservationRepository
+import kotlinx.coroutines.flow.Flow
+
+/**
+ * Use case for paging one tab of the reservation history.
+ *
+ * Unlike [ObserveReservationsUseCase], which emits every reservation on
+ * each change, this use case loads the tab page by page, so memory and
+ * query time stay flat for accounts with years of bookings.
+ *
+ * @property reservationRepository The reservation repository interface for data access
+ * @property config The paging settings applied to every tab
+ *
+ * @sample
+ * ```kotlin
+ * val upcoming = getPagedReservationsUseCase(ReservationFilter.UPCOMING)
+ *     .cachedIn(viewModelScope)
+ * ```
+ *
+ * @see ReservationFilter
+ * @see ReservationRepository.getPagedReservations
+ */
+class GetPagedReservationsUseCase(
+    private val reservationRepository: ReservationRepository,
+    private val config: ReservationPagingConfig = ReservationPagingConfig()
+) {
+    /**
+     * Pages the reservations of a tab.
+     *
+     * @param filter The tab to page
+     * @return A [Flow] of [PagingData] ordered by travel date
+     */
+    operator fun invoke(filter: ReservationFilter): Flow<PagingData<Reservation>> =
+        reservationRepository.getPagedReservations(filter, config)
+}
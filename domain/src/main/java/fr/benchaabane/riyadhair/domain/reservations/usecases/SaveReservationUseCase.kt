@@ -1,5 +1,7 @@
 package fr.benchaabane.riyadhair.domain.reservations.usecases
 
+import fr.benchaabane.riyadhair.domain.flights.models.Flight
+import fr.benchaabane.riyadhair.domain.reservations.models.FlightSnapshot
 import fr.benchaabane.riyadhair.domain.reservations.models.Reservation
 import fr.benchaabane.riyadhair.domain.reservations.repositories.ReservationRepository
 
@@ -21,4 +23,23 @@ class SaveReservationUseCase(private val reservationRepository: ReservationRepos
      */
     suspend operator fun invoke(reservation: Reservation): Result<Unit> =
         runCatching { reservationRepository.saveReservation(reservation) }
+
+    /**
+     * Books a flight, storing a snapshot of it with the reservation.
+     *
+     * The travel date and flight details are copied into the reservation,
+     * so that reservation lists can show them without loading the flight.
+     *
+     * @param reservation The reservation object to be saved
+     * @param flight The flight being booked
+     * @return A [Result] indicating success or failure of the save operation.
+     */
+    suspend operator fun invoke(reservation: Reservation, flight: Flight): Result<Unit> =
+        invoke(
+            reservation.copy(
+                flightId = flight.id,
+                departureTime = flight.departureTime,
+                flight = FlightSnapshot.of(flight)
+            )
+        )
 }
\ No newline at end of file
@@ -0,0 +1,96 @@
+package fr.benchaabane.riyadhair.domain.flights.itinerary
+
+import fr.benchaabane.riyadhair.domain.flights.models.Airport
+import fr.benchaabane.riyadhair.domain.flights.models.CabinClass
+import fr.benchaabane.riyadhair.domain.flights.models.Flight
+import org.amshove.kluent.shouldBeEqualTo
+import org.amshove.kluent.shouldBeGreaterThan
+import org.amshove.kluent.shouldBeLessThan
+import org.junit.Test
+import java.time.Duration
+import java.time.LocalDateTime
+import kotlin.random.Random
+
+/**
+ * Correctness and time budget of [ItineraryEngine] over a synthetic network.
+ *
+ * Builds a seeded random network of [AIRPORTS] airports over a few time
+ * zones with [LEGS] legs spread over two days, then times engine
+ * construction and random searches. Every returned itinerary is checked for
+ * continuity and connection times. The budgets are far above the expected
+ * costs, so that only an algorithmic regression trips them on a loaded CI
+ * machine.
+ */
+class ItineraryEnginePerformanceTest {
+
+    private val random = Random(SEED)
+    private val start = LocalDateTime.of(2024, 7, 15, 0, 0)
+    private val connectionTimes = MinimumConnectionTimes()
+
+    private val airports = List(AIRPORTS) { index ->
+        Airport("A%02d".format(index), "Airport $index", "City $index", "Country ${index % ZONES}", "Zone/${index % ZONES}")
+    }
+
+    private val legs = List(LEGS) { index ->
+        val from = airports.random(random)
+        val to = (airports - from).random(random)
+        val departure = start.plusMinutes(random.nextLong(TWO_DAYS_MINUTES))
+        Flight(
+            id = "L$index",
+            flightNumber = "RX$index",
+            airline = "RiyadhAir",
+            departureAirport = from,
+            arrivalAirport = to,
+            departureTime = departure,
+            arrivalTime = departure.plusMinutes(random.nextLong(45, 600)),
+            duration = "",
+            price = random.nextInt(100, 2_000).toDouble(),
+            cabinClass = CabinClass.ECONOMY,
+            availableSeats = 100,
+            aircraft = "Airbus A320"
+        )
+    }
+
+    @Test
+    fun `search should answer random queries over thousands of legs within budget`() {
+        // Given
+        val buildStart = System.nanoTime()
+        val engine = ItineraryEngine(legs, connectionTimes)
+        val buildNanos = System.nanoTime() - buildStart
+        val queries = List(QUERIES) { airports.random(random) to airports.random(random) }
+            .filter { (from, to) -> from != to }
+
+        // When
+        repeat(WARMUP_ROUNDS) { queries.forEach { (from, to) -> engine.search(from.code, to.code, start) } }
+        val searchStart = System.nanoTime()
+        val results = queries.map { (from, to) -> engine.search(from.code, to.code, start) }
+        val searchNanos = System.nanoTime() - searchStart
+
+        // Then
+        results.flatten().forEach { itinerary -> assertValid(itinerary) }
+        results.sumOf { it.size } shouldBeGreaterThan 0
+        buildNanos / 1e6 shouldBeLessThan BUILD_BUDGET_MILLIS
+        searchNanos / 1e6 / queries.size shouldBeLessThan SEARCH_BUDGET_MILLIS_PER_QUERY
+    }
+
+    private fun assertValid(itinerary: Itinerary) {
+        itinerary.departureTime.isBefore(start) shouldBeEqualTo false
+        itinerary.legs.zipWithNext().forEach { (inbound, outbound) ->
+            outbound.departureAirport shouldBeEqualTo inbound.arrivalAirport
+            val ground = Duration.between(inbound.arrivalTime, outbound.departureTime)
+            (ground >= connectionTimes.between(inbound, outbound)) shouldBeEqualTo true
+        }
+    }
+
+    private companion object {
+        const val SEED = 42
+        const val AIRPORTS = 60
+        const val ZONES = 6
+        const val LEGS = 5_000
+        const val QUERIES = 200
+        const val WARMUP_ROUNDS = 5
+        const val TWO_DAYS_MINUTES = 2 * 24 * 60L
+        const val BUILD_BUDGET_MILLIS = 1_000.0
+        const val SEARCH_BUDGET_MILLIS_PER_QUERY = 50.0
+    }
+}
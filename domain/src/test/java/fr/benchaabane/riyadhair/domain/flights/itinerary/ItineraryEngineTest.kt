@@ -0,0 +1,118 @@
+package fr.benchaabane.riyadhair.domain.flights.itinerary
+
+import fr.benchaabane.riyadhair.domain.flights.models.Airport
+import fr.benchaabane.riyadhair.domain.flights.models.CabinClass
+import fr.benchaabane.riyadhair.domain.flights.models.Flight
+import org.amshove.kluent.shouldBeEqualTo
+import org.junit.Test
+import java.time.LocalDateTime
+
+class ItineraryEngineTest {
+
+    private val riyadh = Airport("RUH", "King Khalid International Airport", "Riyadh", "Saudi Arabia", "Asia/Riyadh")
+    private val jeddah = Airport("JED", "King Abdulaziz International Airport", "Jeddah", "Saudi Arabia", "Asia/Riyadh")
+    private val dammam = Airport("DMM", "King Fahd International Airport", "Dammam", "Saudi Arabia", "Asia/Riyadh")
+    private val medina = Airport("MED", "Prince Mohammad bin Abdulaziz International Airport", "Medina", "Saudi Arabia", "Asia/Riyadh")
+    private val dubai = Airport("DXB", "Dubai International Airport", "Dubai", "United Arab Emirates", "Asia/Dubai")
+    private val london = Airport("LHR", "Heathrow Airport", "London", "United Kingdom", "Europe/London")
+    private val day = LocalDateTime.of(2024, 7, 15, 0, 0)
+
+    @Test
+    fun `search should keep a connection only when it arrives earlier than fewer legs`() {
+        // Given
+        val engine = ItineraryEngine(
+            listOf(
+                leg("RX201", riyadh, london, departHour = 20, minutes = 420),
+                leg("RX301", riyadh, dubai, departHour = 6, minutes = 120),
+                leg("EK001", dubai, london, departHour = 10, minutes = 480)
+            )
+        )
+
+        // When
+        val itineraries = engine.search("RUH", "LHR", day)
+
+        // Then
+        itineraries.map { itinerary -> itinerary.legs.map { it.flightNumber } } shouldBeEqualTo listOf(
+            listOf("RX201"),
+            listOf("RX301", "EK001")
+        )
+        itineraries.last().connections shouldBeEqualTo 1
+    }
+
+    @Test
+    fun `search should apply the domestic or international minimum connection time`() {
+        // Given
+        val engine = ItineraryEngine(
+            listOf(
+                leg("RX101", riyadh, jeddah, departHour = 8, minutes = 120),
+                leg("RX501", jeddah, dammam, departHour = 10, departMinute = 50, minutes = 120),
+                leg("RX601", jeddah, dubai, departHour = 10, departMinute = 50, minutes = 150)
+            )
+        )
+
+        // When
+        val domestic = engine.search("RUH", "DMM", day)
+        val international = engine.search("RUH", "DXB", day)
+
+        // Then
+        domestic.single().legs.map { it.flightNumber } shouldBeEqualTo listOf("RX101", "RX501")
+        international shouldBeEqualTo emptyList()
+    }
+
+    @Test
+    fun `search should connect from a later domestic arrival when an earlier international one misses the connection`() {
+        // Given
+        val engine = ItineraryEngine(
+            listOf(
+                leg("RX301", riyadh, dubai, departHour = 6, minutes = 120),
+                leg("EK801", dubai, jeddah, departHour = 9, departMinute = 30, minutes = 150),
+                leg("RX401", riyadh, dammam, departHour = 6, minutes = 60),
+                leg("RX402", dammam, jeddah, departHour = 8, minutes = 270),
+                leg("RX701", jeddah, medina, departHour = 13, departMinute = 15, minutes = 60)
+            )
+        )
+
+        // When
+        val itineraries = engine.search("RUH", "MED", day)
+
+        // Then
+        itineraries.single().legs.map { it.flightNumber } shouldBeEqualTo listOf("RX401", "RX402", "RX701")
+    }
+
+    @Test
+    fun `search should ignore legs departing before the earliest departure`() {
+        // Given
+        val engine = ItineraryEngine(listOf(leg("RX101", riyadh, jeddah, departHour = 8, minutes = 120)))
+
+        // When
+        val itineraries = engine.search("RUH", "JED", day.withHour(9))
+
+        // Then
+        itineraries shouldBeEqualTo emptyList()
+    }
+
+    private fun leg(
+        flightNumber: String,
+        from: Airport,
+        to: Airport,
+        departHour: Int,
+        minutes: Long,
+        departMinute: Int = 0
+    ): Flight {
+        val departure = day.withHour(departHour).withMinute(departMinute)
+        return Flight(
+            id = flightNumber,
+            flightNumber = flightNumber,
+            airline = "RiyadhAir",
+            departureAirport = from,
+            arrivalAirport = to,
+            departureTime = departure,
+            arrivalTime = departure.plusMinutes(minutes),
+            duration = "",
+            price = 100.0,
+            cabinClass = CabinClass.ECONOMY,
+            availableSeats = 100,
+            aircraft = "Airbus A320"
+        )
+    }
+}
@@ -0,0 +1,79 @@
+package fr.benchaabane.riyadhair.domain.flights.models
+
+import org.amshove.kluent.shouldBe
+import org.amshove.kluent.shouldBeEqualTo
+import org.junit.Test
+import java.time.LocalDateTime
+import java.time.ZoneOffset
+
+class FlightBatchTest {
+
+    private val riyadh = Airport("RUH", "King Khalid International Airport", "Riyadh", "Saudi Arabia", "Asia/Riyadh")
+    private val london = Airport("LHR", "Heathrow Airport", "London", "United Kingdom", "Europe/London")
+    private val dubai = Airport("DXB", "Dubai International Airport", "Dubai", "United Arab Emirates", "Asia/Dubai")
+
+    @Test
+    fun `of should store flight attributes as primitive columns`() {
+        // Given
+        val departure = LocalDateTime.of(2024, 7, 15, 8, 0)
+        val flights = listOf(
+            flight("RX101", departure, duration = "6h 30m", price = 450.99, airline = "RiyadhAir"),
+            flight("EK001", departure.plusHours(2), duration = "", price = 399.0, airline = "Emirates", stops = listOf(dubai))
+        )
+
+        // When
+        val batch = FlightBatch.of(flights)
+
+        // Then
+        batch.size shouldBeEqualTo 2
+        batch.departureMinutes[0] shouldBeEqualTo (departure.toEpochSecond(ZoneOffset.UTC) / 60).toInt()
+        batch.priceMinor.toList() shouldBeEqualTo listOf(45_099L, 39_900L)
+        batch.durationMinutes.toList() shouldBeEqualTo listOf(390, 390)
+        batch.stops.toList() shouldBeEqualTo listOf(0, 1)
+        batch.airlines shouldBeEqualTo listOf("RiyadhAir", "Emirates")
+        batch.airports shouldBeEqualTo listOf(riyadh, london)
+        batch.originIndex.toList() shouldBeEqualTo listOf(0, 0)
+        batch.destinationIndex.toList() shouldBeEqualTo listOf(1, 1)
+    }
+
+    @Test
+    fun `view should return the original flights in the given order`() {
+        // Given
+        val flights = listOf(
+            flight("RX101", LocalDateTime.of(2024, 7, 15, 8, 0)),
+            flight("RX103", LocalDateTime.of(2024, 7, 15, 12, 0))
+        )
+        val batch = FlightBatch.of(flights)
+
+        // When
+        val view = batch.view(intArrayOf(1, 0))
+
+        // Then
+        view.map { it.flightNumber } shouldBeEqualTo listOf("RX103", "RX101")
+        view[0] shouldBe flights[1]
+        batch[0] shouldBe flights[0]
+    }
+
+    private fun flight(
+        flightNumber: String,
+        departure: LocalDateTime,
+        duration: String = "6h 30m",
+        price: Double = 450.0,
+        airline: String = "RiyadhAir",
+        stops: List<Airport> = emptyList()
+    ) = Flight(
+        id = flightNumber,
+        flightNumber = flightNumber,
+        airline = airline,
+        departureAirport = riyadh,
+        arrivalAirport = london,
+        departureTime = departure,
+        arrivalTime = departure.plusMinutes(390),
+        duration = duration,
+        price = price,
+        cabinClass = CabinClass.ECONOMY,
+        availableSeats = 100,
+        aircraft = "Boeing 787",
+        stops = stops
+    )
+}
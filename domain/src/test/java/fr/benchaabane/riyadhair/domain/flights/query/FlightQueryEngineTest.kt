@@ -0,0 +1,111 @@
+package fr.benchaabane.riyadhair.domain.flights.query
+
+import fr.benchaabane.riyadhair.domain.flights.models.Airport
+import fr.benchaabane.riyadhair.domain.flights.models.CabinClass
+import fr.benchaabane.riyadhair.domain.flights.models.Flight
+import fr.benchaabane.riyadhair.domain.flights.models.FlightBatch
+import org.amshove.kluent.shouldBeEqualTo
+import org.junit.Before
+import org.junit.Test
+import java.time.LocalDateTime
+
+class FlightQueryEngineTest {
+
+    private val riyadh = Airport("RUH", "King Khalid International Airport", "Riyadh", "Saudi Arabia", "Asia/Riyadh")
+    private val london = Airport("LHR", "Heathrow Airport", "London", "United Kingdom", "Europe/London")
+    private val dubai = Airport("DXB", "Dubai International Airport", "Dubai", "United Arab Emirates", "Asia/Dubai")
+
+    private lateinit var engine: FlightQueryEngine
+
+    @Before
+    fun setUp() {
+        // Given
+        engine = FlightQueryEngine(
+            FlightBatch.of(
+                listOf(
+                    flight("RX101", "RiyadhAir", hour = 8, minutes = 390, price = 650.0),
+                    flight("EK001", "Emirates", hour = 2, minutes = 540, price = 420.0, stops = listOf(dubai)),
+                    flight("RX103", "RiyadhAir", hour = 14, minutes = 385, price = 980.0, cabin = CabinClass.BUSINESS),
+                    flight("BA001", "British Airways", hour = 21, minutes = 400, price = 540.0)
+                )
+            )
+        )
+    }
+
+    @Test
+    fun `query should order flights by each sort`() {
+        // When
+        val byPrice = engine.query(FlightFilter(), FlightSort.PRICE)
+        val byDuration = engine.query(FlightFilter(), FlightSort.DURATION)
+        val byDeparture = engine.query(FlightFilter(), FlightSort.DEPARTURE)
+
+        // Then
+        byPrice.flights.map { it.flightNumber } shouldBeEqualTo listOf("EK001", "BA001", "RX101", "RX103")
+        byDuration.flights.map { it.flightNumber } shouldBeEqualTo listOf("RX103", "RX101", "BA001", "EK001")
+        byDeparture.flights.map { it.flightNumber } shouldBeEqualTo listOf("EK001", "RX101", "RX103", "BA001")
+    }
+
+    @Test
+    fun `query should combine filters across dimensions`() {
+        // When
+        val result = engine.query(
+            FlightFilter(airlines = setOf("RiyadhAir", "Emirates"), maxStops = 0, departureHours = 6..17),
+            FlightSort.PRICE
+        )
+
+        // Then
+        result.flights.map { it.flightNumber } shouldBeEqualTo listOf("RX101", "RX103")
+    }
+
+    @Test
+    fun `query should count each facet without its own filter`() {
+        // When
+        val result = engine.query(FlightFilter(airlines = setOf("RiyadhAir"), maxStops = 0), FlightSort.PRICE)
+
+        // Then
+        result.facets.airlines shouldBeEqualTo mapOf("RiyadhAir" to 2, "Emirates" to 0, "British Airways" to 1)
+        result.facets.stops shouldBeEqualTo mapOf(0 to 2, 1 to 0)
+        result.facets.cabinClasses[CabinClass.BUSINESS] shouldBeEqualTo 1
+        result.facets.departureHours shouldBeEqualTo mapOf(8 to 1, 14 to 1)
+    }
+
+    @Test
+    fun `query should recount facets when a filter is relaxed`() {
+        // Given
+        engine.query(FlightFilter(cabinClasses = setOf(CabinClass.BUSINESS)), FlightSort.PRICE)
+
+        // When
+        val result = engine.query(FlightFilter(), FlightSort.PRICE)
+
+        // Then
+        result.flights.size shouldBeEqualTo 4
+        result.facets.airlines shouldBeEqualTo mapOf("RiyadhAir" to 2, "Emirates" to 1, "British Airways" to 1)
+    }
+
+    private fun flight(
+        flightNumber: String,
+        airline: String,
+        hour: Int,
+        minutes: Long,
+        price: Double,
+        cabin: CabinClass = CabinClass.ECONOMY,
+        stops: List<Airport> = emptyList()
+    ): Flight {
+        val departure = LocalDateTime.of(2024, 7, 15, hour, 0)
+        return Flight(
+            id = flightNumber,
+            flightNumber = flightNumber,
+            airline = airline,
+            departureAirport = riyadh,
+            arrivalAirport = london,
+            departureTime = departure,
+            arrivalTime = departure.plusMinutes(minutes),
+            duration = "",
+            price = price,
+            cabinClass = cabin,
+            availableSeats = 100,
+            aircraft = "Boeing 787",
+            stops = stops
+        )
+    }
+}
@@ -0,0 +1,93 @@
+package fr.benchaabane.riyadhair.domain.flights.usecases
+
+import fr.benchaabane.riyadhair.domain.flights.models.Airport
+import fr.benchaabane.riyadhair.domain.flights.models.CabinClass
+import fr.benchaabane.riyadhair.domain.flights.models.Flight
+import org.amshove.kluent.shouldBeEqualTo
+import org.junit.Test
+import java.time.Duration
+import java.time.LocalDateTime
+
+class GetBestRoundTripsUseCaseTest {
+
+    private val riyadh = Airport("RUH", "King Khalid International Airport", "Riyadh", "Saudi Arabia", "Asia/Riyadh")
+    private val london = Airport("LHR", "Heathrow Airport", "London", "United Kingdom", "Europe/London")
+    private val useCase = GetBestRoundTripsUseCase(minGroundTime = Duration.ofHours(2))
+
+    @Test
+    fun `invoke should return the cheapest pairs first`() {
+        // Given
+        val outbound = listOf(
+            flight("RX101", riyadh, london, day = 1, price = 500.0),
+            flight("RX103", riyadh, london, day = 1, price = 300.0),
+            flight("RX105", riyadh, london, day = 2, price = 400.0)
+        )
+        val inbound = listOf(
+            flight("RX102", london, riyadh, day = 8, price = 350.0),
+            flight("RX104", london, riyadh, day = 9, price = 250.0)
+        )
+
+        // When
+        val pairs = useCase(outbound, inbound, maxResults = 3)
+
+        // Then
+        pairs.map { it.outboundFlight?.flightNumber to it.returnFlight?.flightNumber } shouldBeEqualTo listOf(
+            "RX103" to "RX104",
+            "RX103" to "RX102",
+            "RX105" to "RX104"
+        )
+        pairs.map { it.totalPrice } shouldBeEqualTo listOf(550.0, 650.0, 650.0)
+    }
+
+    @Test
+    fun `invoke should skip pairs without enough ground time`() {
+        // Given
+        val outbound = listOf(
+            flight("RX101", riyadh, london, day = 1, price = 100.0),
+            flight("RX103", riyadh, london, day = 1, hour = 2, price = 200.0)
+        )
+        val inbound = listOf(
+            flight("RX102", london, riyadh, day = 1, hour = 15, price = 100.0)
+        )
+
+        // When
+        val pairs = useCase(outbound, inbound)
+
+        // Then
+        pairs.map { it.outboundFlight?.flightNumber } shouldBeEqualTo listOf("RX103")
+    }
+
+    @Test
+    fun `invoke should return nothing when a leg is empty`() {
+        // When
+        val pairs = useCase(listOf(flight("RX101", riyadh, london, day = 1, price = 100.0)), emptyList())
+
+        // Then
+        pairs shouldBeEqualTo emptyList()
+    }
+
+    private fun flight(
+        flightNumber: String,
+        from: Airport,
+        to: Airport,
+        day: Int,
+        price: Double,
+        hour: Int = 8
+    ): Flight {
+        val departure = LocalDateTime.of(2024, 7, day, hour, 0)
+        return Flight(
+            id = flightNumber,
+            flightNumber = flightNumber,
+            airline = "RiyadhAir",
+            departureAirport = from,
+            arrivalAirport = to,
+            departureTime = departure,
+            arrivalTime = departure.plusHours(6),
+            duration = "6h 0m",
+            price = price,
+            cabinClass = CabinClass.ECONOMY,
+            availableSeats = 100,
+            aircraft = "Boeing 787"
+        )
+    }
+}
@@ -0,0 +1,43 @@
+package fr.benchaabane.riyadhair.domain.flights.usecases
+
+import androidx.paging.PagingData
+import fr.benchaabane.riyadhair.domain.flights.models.Flight
+import fr.benchaabane.riyadhair.domain.flights.models.FlightPagingConfig
+import fr.benchaabane.riyadhair.domain.flights.repositories.FlightRepository
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.verify
+import kotlinx.coroutines.flow.flowOf
+import org.amshove.kluent.shouldBeEqualTo
+import org.junit.Test
+
+class GetPagedFlightsUseCaseTest {
+
+    @Test
+    fun `invoke should page the route with the provided configuration`() {
+        // Given
+        val mockRepository = mockk<FlightRepository>()
+        val config = FlightPagingConfig(pageSize = 30, prefetchDistance = 5, enablePlaceholders = false)
+        val pagedFlights = flowOf(PagingData.empty<Flight>())
+        every { mockRepository.getPagedFlights("RUH", "JED", config) } returns pagedFlights
+        val useCase = GetPagedFlightsUseCase(mockRepository, config)
+
+        // When
+        val result = useCase(origin = "RUH", destination = "JED")
+
+        // Then
+        result shouldBeEqualTo pagedFlights
+        verify(exactly = 1) { mockRepository.getPagedFlights("RUH", "JED", config) }
+    }
+
+    @Test
+    fun `default configuration should prefetch one page with placeholders`() {
+        // When
+        val config = FlightPagingConfig()
+
+        // Then
+        config.prefetchDistance shouldBeEqualTo config.pageSize
+        config.enablePlaceholders shouldBeEqualTo true
+        config.initialLoadSize shouldBeEqualTo config.pageSize * 2
+    }
+}
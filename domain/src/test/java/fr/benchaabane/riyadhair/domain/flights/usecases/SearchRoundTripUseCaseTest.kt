@@ -0,0 +1,128 @@
+package fr.benchaabane.riyadhair.domain.flights.usecases
+
+import fr.benchaabane.riyadhair.domain.flights.models.Airport
+import fr.benchaabane.riyadhair.domain.flights.models.CabinClass
+import fr.benchaabane.riyadhair.domain.flights.models.Flight
+import fr.benchaabane.riyadhair.domain.flights.models.FlightSearch
+import fr.benchaabane.riyadhair.domain.flights.models.LegDirection
+import fr.benchaabane.riyadhair.domain.flights.models.PassengerCount
+import fr.benchaabane.riyadhair.domain.flights.repositories.FlightRepository
+import io.mockk.coEvery
+import io.mockk.mockk
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.test.currentTime
+import kotlinx.coroutines.test.runTest
+import org.amshove.kluent.shouldBeEqualTo
+import org.junit.Before
+import org.junit.Test
+import java.time.LocalDate
+import java.time.LocalDateTime
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class SearchRoundTripUseCaseTest {
+
+    private lateinit var useCase: SearchRoundTripUseCase
+    private lateinit var mockRepository: FlightRepository
+
+    @Before
+    fun setUp() {
+        // Given
+        mockRepository = mockk()
+        useCase = SearchRoundTripUseCase(SearchFlightsUseCase(mockRepository))
+    }
+
+    @Test
+    fun `invoke should search both legs concurrently`() = runTest {
+        // Given
+        coEvery { mockRepository.getFlights("RUH", "LHR") } coAnswers {
+            delay(300)
+            Result.success(listOf(flight("RX101", "RUH", "LHR")))
+        }
+        coEvery { mockRepository.getFlights("LHR", "RUH") } coAnswers {
+            delay(500)
+            Result.success(listOf(flight("RX102", "LHR", "RUH")))
+        }
+
+        // When
+        val legs = useCase(origin = "RUH", destination = "LHR").toList()
+
+        // Then
+        currentTime shouldBeEqualTo 500L
+        legs.map { it.direction } shouldBeEqualTo listOf(LegDirection.OUTBOUND, LegDirection.RETURN)
+    }
+
+    @Test
+    fun `invoke should emit the faster leg first`() = runTest {
+        // Given
+        coEvery { mockRepository.getFlights("RUH", "LHR") } coAnswers {
+            delay(500)
+            Result.success(emptyList())
+        }
+        coEvery { mockRepository.getFlights("LHR", "RUH") } coAnswers {
+            delay(100)
+            Result.success(emptyList())
+        }
+
+        // When
+        val legs = useCase(origin = "RUH", destination = "LHR").toList()
+
+        // Then
+        legs.map { it.direction } shouldBeEqualTo listOf(LegDirection.RETURN, LegDirection.OUTBOUND)
+    }
+
+    @Test
+    fun `invoke should keep the other leg when one leg fails`() = runTest {
+        // Given
+        val returnFlights = listOf(flight("RX102", "LHR", "RUH"))
+        coEvery { mockRepository.getFlights("RUH", "LHR") } returns Result.failure(Exception("Network error"))
+        coEvery { mockRepository.getFlights("LHR", "RUH") } returns Result.success(returnFlights)
+
+        // When
+        val legs = useCase(origin = "RUH", destination = "LHR").toList().associateBy { it.direction }
+
+        // Then
+        legs.getValue(LegDirection.OUTBOUND).result.isFailure shouldBeEqualTo true
+        legs.getValue(LegDirection.RETURN).result.getOrNull() shouldBeEqualTo returnFlights
+    }
+
+    @Test
+    fun `invoke with a dated search should search each leg on its own day`() = runTest {
+        // Given
+        val search = FlightSearch(
+            departureAirportCode = "ruh",
+            arrivalAirportCode = "LHR ",
+            departureDate = LocalDate.of(2025, 3, 1),
+            returnDate = LocalDate.of(2025, 3, 8),
+            passengers = PassengerCount(adults = 2, children = 1),
+            cabinClass = CabinClass.BUSINESS
+        )
+        val outbound = FlightSearch("RUH", "LHR", LocalDate.of(2025, 3, 1), null, PassengerCount(2, 1), CabinClass.BUSINESS)
+        val inbound = FlightSearch("LHR", "RUH", LocalDate.of(2025, 3, 8), null, PassengerCount(2, 1), CabinClass.BUSINESS)
+        coEvery { mockRepository.searchFlights(outbound) } returns Result.success(listOf(flight("RX101", "RUH", "LHR")))
+        coEvery { mockRepository.searchFlights(inbound) } returns Result.success(listOf(flight("RX102", "LHR", "RUH")))
+
+        // When
+        val legs = useCase(search).toList().associateBy { it.direction }
+
+        // Then
+        legs.getValue(LegDirection.OUTBOUND).result.getOrNull()?.map { it.flightNumber } shouldBeEqualTo listOf("RX101")
+        legs.getValue(LegDirection.RETURN).result.getOrNull()?.map { it.flightNumber } shouldBeEqualTo listOf("RX102")
+    }
+
+    private fun flight(number: String, from: String, to: String) = Flight(
+        id = number,
+        flightNumber = number,
+        airline = "Riyadh Air",
+        departureAirport = Airport(code = from, name = from, city = from, country = "", timezone = "UTC"),
+        arrivalAirport = Airport(code = to, name = to, city = to, country = "", timezone = "UTC"),
+        departureTime = LocalDateTime.of(2025, 3, 1, 10, 0),
+        arrivalTime = LocalDateTime.of(2025, 3, 1, 16, 0),
+        duration = "6h 0m",
+        price = 450.0,
+        cabinClass = CabinClass.ECONOMY,
+        availableSeats = 150,
+        aircraft = "Boeing 787"
+    )
+}
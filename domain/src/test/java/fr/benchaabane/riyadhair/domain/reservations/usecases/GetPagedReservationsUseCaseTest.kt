@@ -0,0 +1,43 @@
+package fr.benchaabane.riyadhair.domain.reservations.usecases
+
+import androidx.paging.PagingData
+import fr.benchaabane.riyadhair.domain.reservations.models.Reservation
+import fr.benchaabane.riyadhair.domain.reservations.models.ReservationFilter
+import fr.benchaabane.riyadhair.domain.reservations.models.ReservationPagingConfig
+import fr.benchaabane.riyadhair.domain.reservations.repositories.ReservationRepository
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.verify
+import kotlinx.coroutines.flow.flowOf
+import org.amshove.kluent.shouldBeEqualTo
+import org.junit.Test
+
+class GetPagedReservationsUseCaseTest {
+
+    @Test
+    fun `invoke should page the tab with the provided configuration`() {
+        // Given
+        val mockRepository = mockk<ReservationRepository>()
+        val config = ReservationPagingConfig(pageSize = 30, prefetchDistance = 5)
+        val pagedReservations = flowOf(PagingData.empty<Reservation>())
+        every { mockRepository.getPagedReservations(ReservationFilter.PAST, config) } returns pagedReservations
+        val useCase = GetPagedReservationsUseCase(mockRepository, config)
+
+        // When
+        val result = useCase(ReservationFilter.PAST)
+
+        // Then
+        result shouldBeEqualTo pagedReservations
+        verify(exactly = 1) { mockRepository.getPagedReservations(ReservationFilter.PAST, config) }
+    }
+
+    @Test
+    fun `cancelled tab should not share statuses with the active tabs`() {
+        // When
+        val active = ReservationFilter.UPCOMING.statuses + ReservationFilter.PAST.statuses
+
+        // Then
+        active.intersect(ReservationFilter.CANCELLED.statuses.toSet()) shouldBeEqualTo emptySet()
+        ReservationFilter.UPCOMING.statuses shouldBeEqualTo ReservationFilter.PAST.statuses
+    }
+}
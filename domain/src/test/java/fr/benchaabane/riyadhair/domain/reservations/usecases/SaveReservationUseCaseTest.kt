@@ -0,0 +1,67 @@
+package fr.benchaabane.riyadhair.domain.reservations.usecases
+
+import fr.benchaabane.riyadhair.domain.flights.models.Airport
+import fr.benchaabane.riyadhair.domain.flights.models.CabinClass
+import fr.benchaabane.riyadhair.domain.flights.models.Flight
+import fr.benchaabane.riyadhair.domain.reservations.models.FlightSnapshot
+import fr.benchaabane.riyadhair.domain.reservations.models.Reservation
+import fr.benchaabane.riyadhair.domain.reservations.repositories.ReservationRepository
+import io.mockk.coJustRun
+import io.mockk.coVerify
+import io.mockk.mockk
+import kotlinx.coroutines.test.runTest
+import org.amshove.kluent.shouldBeEqualTo
+import org.junit.Test
+import java.time.LocalDateTime
+
+class SaveReservationUseCaseTest {
+
+    @Test
+    fun `invoke with a flight should store the flight snapshot with the reservation`() = runTest {
+        // Given
+        val mockRepository = mockk<ReservationRepository>()
+        coJustRun { mockRepository.saveReservation(any()) }
+        val departure = LocalDateTime.of(2026, 3, 1, 8, 30)
+        val flight = Flight(
+            id = "F1",
+            flightNumber = "RX1001",
+            airline = "RiyadhAir",
+            departureAirport = Airport("RUH", "King Khalid International", "Riyadh", "Saudi Arabia", "AST"),
+            arrivalAirport = Airport("JED", "King Abdulaziz International", "Jeddah", "Saudi Arabia", "AST"),
+            departureTime = departure,
+            arrivalTime = departure.plusMinutes(100),
+            duration = "1h 40m",
+            price = 450.0,
+            cabinClass = CabinClass.ECONOMY,
+            availableSeats = 12,
+            aircraft = "A321neo"
+        )
+        val reservation = Reservation("R1", flightId = "", passengerName = "Jane Doe", seat = "12A", status = "PENDING")
+        val useCase = SaveReservationUseCase(mockRepository)
+
+        // When
+        val result = useCase(reservation, flight)
+
+        // Then
+        result.isSuccess shouldBeEqualTo true
+        coVerify(exactly = 1) {
+            mockRepository.saveReservation(
+                reservation.copy(
+                    flightId = "F1",
+                    departureTime = departure,
+                    flight = FlightSnapshot(
+                        flightNumber = "RX1001",
+                        airline = "RiyadhAir",
+                        origin = "RUH",
+                        originCity = "Riyadh",
+                        destination = "JED",
+                        destinationCity = "Jeddah",
+                        arrivalTime = departure.plusMinutes(100),
+                        duration = "1h 40m",
+                        aircraft = "A321neo"
+                    )
+                )
+            )
+        }
+    }
+}
@@ -5,8 +5,8 @@ import androidx.lifecycle.viewModelScope
 import dagger.hilt.android.lifecycle.HiltViewModel
 import fr.benchaabane.riyadhair.core.dispatcher.BackgroundDispatcher
 import fr.benchaabane.riyadhair.domain.account.usecases.GetAccountUseCase
-import fr.benchaabane.riyadhair.domain.offers.usecases.GetBestOffersUseCase
-import fr.benchaabane.riyadhair.domain.partners.usecases.GetPartnersUseCase
+import fr.benchaabane.riyadhair.domain.offers.usecases.ObserveBestOffersUseCase
+import fr.benchaabane.riyadhair.domain.partners.usecases.ObservePartnersUseCase
 import fr.benchaabane.riyadhair.presentation.account.toUi
 import fr.benchaabane.riyadhair.presentation.offers.toUi
 import fr.benchaabane.riyadhair.presentation.partners.toUi
@@ -17,7 +17,6 @@ import kotlinx.coroutines.delay
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.StateFlow
 import kotlinx.coroutines.flow.asStateFlow
-import kotlinx.coroutines.flow.combine
 import kotlinx.coroutines.flow.update
 import kotlinx.coroutines.launch
 import javax.inject.Inject
@@ -57,14 +56,14 @@ import javax.inject.Inject
  * - Real-time data synchronization
  * 
  * @property getAccountUseCase Use case for retrieving account information
- * @property getBestOffersUseCase Use case for retrieving best offers
- * @property getPartnersUseCase Use case for retrieving partners information
+ * @property observeBestOffersUseCase Use case for observing best offers
+ * @property observePartnersUseCase Use case for observing partners information
  */
 @HiltViewModel
 class HomeViewModel @Inject constructor(
     private val getAccountUseCase: GetAccountUseCase,
-    private val getBestOffersUseCase: GetBestOffersUseCase,
-    private val getPartnersUseCase: GetPartnersUseCase,
+    private val observeBestOffersUseCase: ObserveBestOffersUseCase,
+    private val observePartnersUseCase: ObservePartnersUseCase,
     @BackgroundDispatcher
     private val backgroundDispatcher: CoroutineDispatcher = Dispatchers.IO
 ) : ViewModel() {
@@ -142,21 +141,21 @@ class HomeViewModel @Inject constructor(
     /**
      * Observes best offers data and updates the UI state accordingly.
      * 
-     * This method launches a coroutine to fetch best offers information
-     * and updates the UI state with the result or error. If offers
-     * are available, it also starts the carousel animation automatically.
+     * This method launches a coroutine collecting the best offers stream.
+     * Cached offers arrive first and a background refresh, if any, emits
+     * again once it has been persisted. The carousel is started the first
+     * time offers become available.
      * 
      * **Data Flow:**
-     * - Fetches best offers using the injected use case
+     * - Collects best offers using the injected use case
      * - Maps domain models to UI models using extension function
-     * - Updates UI state with successful results
+     * - Updates UI state on every emission
      * - Automatically starts carousel if offers are available
-     * - Handles failures (currently marked as TODO)
      * 
      * **Carousel Integration:**
      * - Checks if offers list is not empty
-     * - Automatically starts carousel animation
-     * - Ensures smooth user experience with immediate content
+     * - Starts carousel animation only if it is not already running
+     * - Keeps the current offer index within the new list bounds
      * 
      * **State Updates:**
      * - Updates offers list in UI state
@@ -165,37 +164,35 @@ class HomeViewModel @Inject constructor(
      */
     private fun observeBestOffers() {
         viewModelScope.launch(backgroundDispatcher) {
-            getBestOffersUseCase.invoke()
-                .onSuccess { bestOffers ->
-                    _uiState.update {
-                        _uiState.value.copy(
+            observeBestOffersUseCase.invoke()
+                .collect { bestOffers ->
+                    _uiState.update { state ->
+                        state.copy(
                             bestOffers = bestOffers.map { it.toUi() },
+                            currentOfferIndex = state.currentOfferIndex
+                                .takeIf { it < bestOffers.size } ?: 0,
                         )
                     }
 
                     // Start carousel if offers are available
-                    if (bestOffers.isNotEmpty()) {
+                    if (bestOffers.isNotEmpty() && carouselJob?.isActive != true) {
                         startCarousel()
                     }
                 }
-                .onFailure {
-                    // TODO Handle failure here
-                }
         }
     }
 
     /**
      * Observes partners data and updates the UI state accordingly.
      * 
-     * This method launches a coroutine to fetch partners information
-     * and updates the UI state with the result or error. It handles
-     * both success and failure scenarios gracefully.
+     * This method launches a coroutine collecting the partners stream.
+     * Cached partners arrive first and a background refresh, if any,
+     * emits again once it has been persisted.
      * 
      * **Data Flow:**
-     * - Fetches partners data using the injected use case
+     * - Collects partners data using the injected use case
      * - Maps domain models to UI models using extension function
-     * - Updates UI state with successful results
-     * - Handles failures (currently marked as TODO)
+     * - Updates UI state on every emission
      * 
      * **State Updates:**
      * - Updates partners list in UI state
@@ -204,17 +201,14 @@ class HomeViewModel @Inject constructor(
      */
     private fun observePartners() {
         viewModelScope.launch(backgroundDispatcher) {
-            getPartnersUseCase.invoke()
-                .onSuccess { partners ->
-                    _uiState.update {
-                        _uiState.value.copy(
+            observePartnersUseCase.invoke()
+                .collect { partners ->
+                    _uiState.update { state ->
+                        state.copy(
                             partners = partners.map { it.toUi() },
                         )
                     }
                 }
-                .onFailure {
-                    // TODO Handle failure here
-                }
         }
     }
 
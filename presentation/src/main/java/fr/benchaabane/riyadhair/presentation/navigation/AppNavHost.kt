@@ -25,6 +25,9 @@ import androidx.navigation.compose.currentBackStackEntryAsState
 import androidx.navigation.compose.rememberNavController
 import androidx.navigation.navArgument
 import fr.benchaabane.riyadhair.designsystem.icons.RiyadhAirIcons
+import fr.benchaabane.riyadhair.domain.flights.models.CabinClass
+import fr.benchaabane.riyadhair.domain.flights.models.FlightSearch
+import fr.benchaabane.riyadhair.domain.flights.models.PassengerCount
 import fr.benchaabane.riyadhair.presentation.account.AccountScreen
 import fr.benchaabane.riyadhair.presentation.checkout.CheckoutScreen
 import fr.benchaabane.riyadhair.presentation.home.HomeScreen
@@ -33,6 +36,7 @@ import fr.benchaabane.riyadhair.presentation.reservations.ReservationsScreen
 import fr.benchaabane.riyadhair.presentation.search.SearchResultsScreen
 import fr.benchaabane.riyadhair.presentation.search.SearchScreen
 import fr.benchaabane.riyadhair.presentation.navigation.NavigationRoutes
+import java.time.LocalDate
 
 /**
  * Main navigation host for the RiyadhAir application.
@@ -179,25 +183,58 @@ fun AppNavHost(navController: NavHostController = rememberNavController()) {
             }
             composable(NavigationRoutes.SEARCH) {
                 SearchScreen(
-                    onShowResult = { departure, arrival ->
-                        navController.navigate("${NavigationRoutes.SEARCH_RESULTS}/$departure/$arrival")
+                    onShowResult = { search ->
+                        navController.navigate(
+                            "${NavigationRoutes.SEARCH_RESULTS}/${search.departureAirportCode}/${search.arrivalAirportCode}" +
+                                "?departureDate=${search.departureDate}" +
+                                (search.returnDate?.let { "&returnDate=$it" } ?: "") +
+                                "&adults=${search.passengers.adults}" +
+                                "&children=${search.passengers.children}" +
+                                "&infants=${search.passengers.infants}" +
+                                "&cabin=${search.cabinClass.name}"
+                        )
                     }
                 )
             }
             composable(
-                "${NavigationRoutes.SEARCH_RESULTS}/{departure}/{arrival}",
+                "${NavigationRoutes.SEARCH_RESULTS}/{departure}/{arrival}" +
+                    "?departureDate={departureDate}&returnDate={returnDate}" +
+                    "&adults={adults}&children={children}&infants={infants}&cabin={cabin}",
                 arguments = listOf(
                     navArgument("departure") { type = NavType.StringType },
-                    navArgument("arrival") { type = NavType.StringType }
+                    navArgument("arrival") { type = NavType.StringType },
+                    navArgument("departureDate") { type = NavType.StringType; nullable = true; defaultValue = null },
+                    navArgument("returnDate") { type = NavType.StringType; nullable = true; defaultValue = null },
+                    navArgument("adults") { type = NavType.IntType; defaultValue = 1 },
+                    navArgument("children") { type = NavType.IntType; defaultValue = 0 },
+                    navArgument("infants") { type = NavType.IntType; defaultValue = 0 },
+                    navArgument("cabin") { type = NavType.StringType; defaultValue = CabinClass.ECONOMY.name }
                 )) { backStackEntry ->
-                val departure = backStackEntry.arguments?.getString("departure") ?: ""
-                val arrival = backStackEntry.arguments?.getString("arrival") ?: ""
+                val arguments = backStackEntry.arguments
+                val departure = arguments?.getString("departure") ?: ""
+                val arrival = arguments?.getString("arrival") ?: ""
+                // Dated searches are cached per leg, so coming back here from checkout is instant
+                val search = arguments?.getString("departureDate")?.let { departureDate ->
+                    FlightSearch(
+                        departureAirportCode = departure,
+                        arrivalAirportCode = arrival,
+                        departureDate = LocalDate.parse(departureDate),
+                        returnDate = arguments.getString("returnDate")?.let(LocalDate::parse),
+                        passengers = PassengerCount(
+                            adults = arguments.getInt("adults"),
+                            children = arguments.getInt("children"),
+                            infants = arguments.getInt("infants")
+                        ),
+                        cabinClass = CabinClass.valueOf(arguments.getString("cabin") ?: CabinClass.ECONOMY.name)
+                    )
+                }
                 SearchResultsScreen(
                     onProceedToCheckout = { outBoundFlightNumber, returnFlightNumber ->
                         navController.navigate("checkout/$outBoundFlightNumber/$returnFlightNumber")
                     },
                     departure = departure,
-                    arrival = arrival
+                    arrival = arrival,
+                    search = search
                 )
             }
             composable(
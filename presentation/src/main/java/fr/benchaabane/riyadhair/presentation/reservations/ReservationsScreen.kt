@@ -1,10 +1,38 @@
 package fr.benchaabane.riyadhair.presentation.reservations
 
+import androidx.compose.foundation.background
+import androidx.compose.foundation.layout.Box
+import androidx.compose.foundation.layout.Column
+import androidx.compose.foundation.layout.PaddingValues
+import androidx.compose.foundation.layout.fillMaxSize
+import androidx.compose.foundation.layout.fillMaxWidth
+import androidx.compose.foundation.layout.height
+import androidx.compose.foundation.layout.padding
 import androidx.compose.foundation.lazy.LazyColumn
-import androidx.compose.foundation.lazy.items
+import androidx.compose.material3.CircularProgressIndicator
+import androidx.compose.material3.ListItem
+import androidx.compose.material3.MaterialTheme
+import androidx.compose.material3.Tab
+import androidx.compose.material3.TabRow
 import androidx.compose.material3.Text
 import androidx.compose.runtime.Composable
+import androidx.compose.runtime.getValue
+import androidx.compose.ui.Alignment
+import androidx.compose.ui.Modifier
+import androidx.compose.ui.res.stringResource
+import androidx.compose.ui.unit.dp
 import androidx.hilt.navigation.compose.hiltViewModel
+import androidx.lifecycle.compose.collectAsStateWithLifecycle
+import androidx.paging.LoadState
+import androidx.paging.compose.LazyPagingItems
+import androidx.paging.compose.collectAsLazyPagingItems
+import androidx.paging.compose.itemKey
+import fr.benchaabane.riyadhair.designsystem.theme.RiyadhAirShapes
+import fr.benchaabane.riyadhair.designsystem.theme.RiyadhAirSpacing
+import fr.benchaabane.riyadhair.domain.reservations.models.Reservation
+import fr.benchaabane.riyadhair.domain.reservations.models.ReservationFilter
+import fr.benchaabane.riyadhair.presentation.R
+import java.time.format.DateTimeFormatter
 
 /**
  * Screen for displaying user flight reservations.
@@ -15,13 +43,14 @@ import androidx.hilt.navigation.compose.hiltViewModel
  * an organized way for users to view their booking history.
  *
  * **Screen Features:**
- * - **Reservation List**: Scrollable list of all user reservations
+ * - **History Tabs**: Upcoming, past and cancelled reservations
+ * - **Paged List**: Reservations loaded page by page, by travel date
  * - **Real-time Updates**: Automatically reflects reservation changes
- * - **Efficient Rendering**: LazyColumn for optimal performance
- * - **Data Integration**: Seamless connection with ViewModel state
+ * - **Efficient Rendering**: LazyColumn over Paging items, with placeholders
  *
  * **Data Display:**
- * - **Reservation ID**: Unique identifier for each booking
+ * - **Flight Details**: Route, times and aircraft from the reservation's
+ *   flight snapshot, read by the same paged query, with no network call
  * - **Status Information**: Current status of each reservation
  * - **Dynamic Content**: Updates automatically when data changes
  * - **User Context**: Personalized reservation information
@@ -35,7 +64,8 @@ import androidx.hilt.navigation.compose.hiltViewModel
  * **Performance Features:**
  * - **Lazy Loading**: Only renders visible reservation items
  * - **Efficient Updates**: Minimal recomposition during data changes
- * - **Memory Management**: Optimized for large reservation lists
+ * - **Memory Management**: Only the pages near the visible items are held,
+ *   so years of history cost no more than a single page
  * - **State Observation**: Efficient state flow integration
  *
  * **Integration Points:**
@@ -53,7 +83,6 @@ import androidx.hilt.navigation.compose.hiltViewModel
  *
  * **Future Enhancements:**
  * - **Detailed Views**: Expandable reservation details
- * - **Filtering Options**: Sort and filter reservations
  * - **Action Buttons**: Modify or cancel reservations
  * - **Search Functionality**: Find specific reservations
  * - **Status Updates**: Real-time status notifications
@@ -68,12 +97,116 @@ import androidx.hilt.navigation.compose.hiltViewModel
  */
 @Composable
 fun ReservationsScreen(viewModel: ReservationsViewModel = hiltViewModel()) {
-    val list = viewModel.reservations
-    LazyColumn { 
-        items(list.value) { r -> 
-            Text("${'$'}{r.id} - ${'$'}{r.status}") 
-        } 
+    val selectedFilter by viewModel.selectedFilter.collectAsStateWithLifecycle()
+    // Each tab is paged independently, only the tab on screen is collected
+    val reservations = viewModel.reservations(selectedFilter).collectAsLazyPagingItems()
+
+    Column(modifier = Modifier.fillMaxSize()) {
+        TabRow(selectedTabIndex = selectedFilter.ordinal) {
+            ReservationFilter.entries.forEach { filter ->
+                Tab(
+                    selected = filter == selectedFilter,
+                    onClick = { viewModel.selectFilter(filter) },
+                    text = { Text(stringResource(filter.label)) }
+                )
+            }
+        }
+        ReservationList(reservations)
     }
 }
 
+@Composable
+private fun ReservationList(reservations: LazyPagingItems<Reservation>) {
+    val isLoading = reservations.loadState.refresh is LoadState.Loading ||
+        reservations.loadState.append is LoadState.Loading
+
+    if (!isLoading && reservations.itemCount == 0) {
+        Box(modifier = Modifier.fillMaxSize(), contentAlignment = Alignment.Center) {
+            Text(stringResource(R.string.reservations_empty))
+        }
+        return
+    }
+
+    LazyColumn(
+        modifier = Modifier.fillMaxSize(),
+        contentPadding = PaddingValues(vertical = RiyadhAirSpacing.sm)
+    ) {
+        items(
+            count = reservations.itemCount,
+            key = reservations.itemKey { it.id }
+        ) { index ->
+            val reservation = reservations[index]
+            if (reservation == null) {
+                // Placeholder for a reservation whose page is not loaded yet
+                Box(
+                    modifier = Modifier
+                        .fillMaxWidth()
+                        .padding(horizontal = RiyadhAirSpacing.lg, vertical = RiyadhAirSpacing.sm)
+                        .height(RESERVATION_PLACEHOLDER_HEIGHT)
+                        .background(
+                            color = MaterialTheme.colorScheme.surfaceVariant.copy(alpha = 0.5f),
+                            shape = RiyadhAirShapes.medium
+                        )
+                )
+            } else {
+                ReservationItem(reservation)
+            }
+        }
+
+        if (isLoading) {
+            item {
+                Box(
+                    modifier = Modifier
+                        .fillMaxWidth()
+                        .padding(RiyadhAirSpacing.lg),
+                    contentAlignment = Alignment.Center
+                ) {
+                    CircularProgressIndicator()
+                }
+            }
+        }
+    }
+}
+
+@Composable
+private fun ReservationItem(reservation: Reservation) {
+    // Everything comes from the reservation row and its flight snapshot: no flight lookup
+    val flight = reservation.flight
+    ListItem(
+        overlineContent = reservation.departureTime?.let { departure ->
+            { Text(departure.format(DEPARTURE_FORMATTER)) }
+        },
+        headlineContent = {
+            Text(
+                if (flight == null) reservation.flightId
+                else "${flight.originCity} (${flight.origin}) → ${flight.destinationCity} (${flight.destination})"
+            )
+        },
+        supportingContent = {
+            Text(
+                listOfNotNull(
+                    flight?.flightNumber,
+                    reservation.departureTime?.let { departure ->
+                        flight?.let { "${departure.format(TIME_FORMATTER)} – ${it.arrivalTime.format(TIME_FORMATTER)}" }
+                    },
+                    flight?.aircraft?.takeIf { it.isNotEmpty() },
+                    "${reservation.passengerName} · ${reservation.seat}"
+                ).joinToString(" · ")
+            )
+        },
+        trailingContent = { Text(reservation.status) }
+    )
+}
+
+private val ReservationFilter.label: Int
+    get() = when (this) {
+        ReservationFilter.UPCOMING -> R.string.reservations_upcoming
+        ReservationFilter.PAST -> R.string.reservations_past
+        ReservationFilter.CANCELLED -> R.string.reservations_cancelled
+    }
+
+private val DEPARTURE_FORMATTER = DateTimeFormatter.ofPattern("EEE d MMM yyyy")
+
+private val TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm")
 
+private val RESERVATION_PLACEHOLDER_HEIGHT = 72.dp
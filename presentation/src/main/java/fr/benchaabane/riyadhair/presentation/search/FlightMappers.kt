@@ -1,6 +1,11 @@
 package fr.benchaabane.riyadhair.presentation.search
 
+import fr.benchaabane.riyadhair.domain.flights.itinerary.Itinerary
+import fr.benchaabane.riyadhair.domain.flights.models.FareCalendar
 import fr.benchaabane.riyadhair.domain.flights.models.Flight
+import fr.benchaabane.riyadhair.domain.flights.models.SelectedFlights
+import kotlin.math.roundToInt
+import kotlin.math.roundToLong
 
 /**
  * Maps domain Flight model to presentation FlightUiModel.
@@ -55,8 +60,61 @@ internal fun Flight.toUi() = FlightUiModel(
     arrivalAirportCode = arrivalAirport.code,
     departureCity = departureAirport.city,
     arrivalCity = arrivalAirport.city,
-    price = "$price EUR",
+    price = price.toPriceLabel(),
     cabin = cabinClass.displayName,
     availableSeats = availableSeats,
     aircraftType = aircraft
-)
\ No newline at end of file
+)
+
+/**
+ * Maps a suggested round-trip combination to a RoundTripUiModel.
+ *
+ * Both legs must be set; the total price uses the same "EUR" format as
+ * single flights, so that summing two fares never shows rounding noise.
+ *
+ * @return RoundTripUiModel formatted for presentation layer consumption
+ */
+internal fun SelectedFlights.toRoundTripUi() = RoundTripUiModel(
+    outbound = requireNotNull(outboundFlight).toUi(),
+    inbound = requireNotNull(returnFlight).toUi(),
+    totalPrice = totalPrice.toPriceLabel()
+)
+
+/**
+ * Maps an itinerary with connections to an ItineraryUiModel.
+ *
+ * The total price uses the same "EUR" format as single flights.
+ *
+ * @return ItineraryUiModel formatted for presentation layer consumption
+ */
+internal fun Itinerary.toItineraryUi() = ItineraryUiModel(
+    legs = legs.map { it.toUi() },
+    via = legs.drop(1).map { it.departureAirport.code },
+    totalPrice = totalPrice.toPriceLabel()
+)
+
+/**
+ * Formats a price in euros the way flight cards display it, rounded to the cent.
+ */
+private fun Double.toPriceLabel() = "${(this * CENTS_PER_UNIT).roundToLong() / CENTS_PER_UNIT} EUR"
+
+private const val CENTS_PER_UNIT = 100.0
+
+/**
+ * Maps a fare calendar to one UI model per known day.
+ *
+ * Prices are rounded to whole units to fit in a day badge; the cheapest
+ * day of the month is flagged for highlighting.
+ *
+ * @return The calendar's days in date order
+ */
+internal fun FareCalendar.toUi(): List<DayFareUiModel> {
+    val cheapestDate = cheapest?.date
+    return fares.map { fare ->
+        DayFareUiModel(
+            date = fare.date,
+            price = "${fare.minPrice.roundToInt()} ${fare.currency}",
+            isCheapest = fare.date == cheapestDate
+        )
+    }
+}
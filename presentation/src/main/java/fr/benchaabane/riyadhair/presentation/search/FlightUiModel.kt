@@ -1,6 +1,7 @@
 package fr.benchaabane.riyadhair.presentation.search
 
 import androidx.compose.runtime.Immutable
+import java.time.LocalDate
 
 /**
  * UI model for displaying flight information in the search results.
@@ -72,4 +73,46 @@ data class FlightUiModel(
     val cabin: String,
     val availableSeats: Int,
     val aircraftType: String,
-)
\ No newline at end of file
+)
+
+/**
+ * UI model for one suggested outbound/return combination.
+ *
+ * @param outbound The outbound flight
+ * @param inbound The return flight
+ * @param totalPrice Combined price of both legs, formatted for display
+ */
+@Immutable
+data class RoundTripUiModel(
+    val outbound: FlightUiModel,
+    val inbound: FlightUiModel,
+    val totalPrice: String,
+)
+
+/**
+ * UI model for one itinerary with connections.
+ *
+ * @param legs The flights taken, in travel order
+ * @param via Codes of the connecting airports, in travel order
+ * @param totalPrice Combined price of all legs, formatted for display
+ */
+@Immutable
+data class ItineraryUiModel(
+    val legs: List<FlightUiModel>,
+    val via: List<String>,
+    val totalPrice: String,
+)
+
+/**
+ * UI model for one day of the fare calendar.
+ *
+ * @param date The departure day
+ * @param price Minimum price of the day, formatted for a compact badge
+ * @param isCheapest Whether this is the cheapest known day of the month
+ */
+@Immutable
+data class DayFareUiModel(
+    val date: LocalDate,
+    val price: String,
+    val isCheapest: Boolean,
+)
@@ -15,6 +15,8 @@ import androidx.compose.foundation.layout.padding
 import androidx.compose.foundation.layout.size
 import androidx.compose.foundation.layout.width
 import androidx.compose.foundation.lazy.LazyColumn
+import androidx.compose.foundation.lazy.LazyRow
+import androidx.compose.foundation.lazy.items
 import androidx.compose.foundation.lazy.itemsIndexed
 import androidx.compose.foundation.lazy.rememberLazyListState
 import androidx.compose.foundation.shape.CircleShape
@@ -24,6 +26,7 @@ import androidx.compose.material3.CardDefaults
 import androidx.compose.material3.CircularProgressIndicator
 import androidx.compose.material3.Divider
 import androidx.compose.material3.ExperimentalMaterial3Api
+import androidx.compose.material3.FilterChip
 import androidx.compose.material3.MaterialTheme
 import androidx.compose.material3.Surface
 import androidx.compose.material3.Text
@@ -42,11 +45,19 @@ import androidx.compose.ui.tooling.preview.Preview
 import androidx.compose.ui.unit.dp
 import androidx.compose.ui.res.stringResource
 import androidx.hilt.navigation.compose.hiltViewModel
+import androidx.paging.LoadState
+import androidx.paging.compose.collectAsLazyPagingItems
+import androidx.paging.compose.itemKey
 import androidx.lifecycle.compose.collectAsStateWithLifecycle
 import fr.benchaabane.riyadhair.designsystem.theme.RiyadhAirColors
 import fr.benchaabane.riyadhair.designsystem.theme.RiyadhAirShapes
 import fr.benchaabane.riyadhair.designsystem.theme.RiyadhAirSpacing
 import fr.benchaabane.riyadhair.designsystem.theme.RiyadhAirTheme
+import fr.benchaabane.riyadhair.domain.flights.models.FlightSearch
+import fr.benchaabane.riyadhair.domain.flights.models.LegDirection
+import fr.benchaabane.riyadhair.domain.flights.query.FlightFacets
+import fr.benchaabane.riyadhair.domain.flights.query.FlightFilter
+import fr.benchaabane.riyadhair.domain.flights.query.FlightSort
 import fr.benchaabane.riyadhair.presentation.search.components.FlightCard
 
 @OptIn(ExperimentalMaterial3Api::class)
@@ -57,20 +68,61 @@ fun SearchResultsScreen(
     onProceedToCheckout: (String?, String?) -> Unit,
     departure: String,
     arrival: String,
+    search: FlightSearch? = null,
 ) {
-    // Mock data for demonstration
-    val flights = viewModel.state.collectAsStateWithLifecycle()
-    var isLoading by remember { mutableStateOf(false) }
+    val state by viewModel.state.collectAsStateWithLifecycle()
 
     var selectedOutboundFlight by remember { mutableStateOf<FlightUiModel?>(null) }
     var selectedReturnFlight by remember { mutableStateOf<FlightUiModel?>(null) }
 
     var currentStep by remember { mutableStateOf(SearchStep.OUTBOUND) }
 
+    val direction = if (currentStep == SearchStep.RETURN) LegDirection.RETURN else LegDirection.OUTBOUND
+
+    // Route searches are paged from the flight cache, one leg at a time;
+    // dated searches are loaded whole into the state, once
+    val pagedFlights = if (search == null) viewModel.pagedFlights(direction).collectAsLazyPagingItems() else null
+    val legFlights = if (direction == LegDirection.OUTBOUND) state.flights else state.returnFlights
+    val legError = if (direction == LegDirection.OUTBOUND) state.outboundError else state.returnError
+    val isLoading = if (pagedFlights != null) {
+        pagedFlights.loadState.refresh is LoadState.Loading || pagedFlights.loadState.append is LoadState.Loading
+    } else {
+        if (direction == LegDirection.OUTBOUND) state.isOutboundLoading else state.isReturnLoading
+    }
+
+    val flightCard: @Composable (FlightUiModel, Int) -> Unit = { flight, index ->
+        val isSelected = when (currentStep) {
+            SearchStep.OUTBOUND, SearchStep.OUTBOUND_ONLY ->
+                selectedOutboundFlight?.flightNumber == flight.flightNumber
+
+            SearchStep.RETURN ->
+                selectedReturnFlight?.flightNumber == flight.flightNumber
+        }
+
+        FlightCard(
+            flight = flight,
+            onSelectFlight = { selectedFlight ->
+                when (currentStep) {
+                    SearchStep.OUTBOUND, SearchStep.OUTBOUND_ONLY -> {
+                        selectedOutboundFlight = selectedFlight
+                        viewModel.selectDepartureFlight(selectedFlight)
+                    }
+
+                    SearchStep.RETURN -> {
+                        selectedReturnFlight = selectedFlight
+                        viewModel.selectReturnFlight(selectedFlight)
+                    }
+                }
+            },
+            isSelected = isSelected,
+            animationDelay = index.coerceAtMost(MAX_ANIMATED_INDEX) * 50
+        )
+    }
+
     val listState = rememberLazyListState()
 
     LaunchedEffect(Unit) {
-        viewModel.search(from = departure, to = arrival)
+        if (search != null) viewModel.search(search) else viewModel.search(from = departure, to = arrival)
     }
 
     Column(modifier = modifier.fillMaxSize()) {
@@ -82,6 +134,17 @@ fun SearchResultsScreen(
             modifier = Modifier.padding(RiyadhAirSpacing.lg)
         )
 
+        // Sort and filter controls, for the dated results held in the state
+        if (search != null) {
+            FlightQueryBar(
+                sort = if (direction == LegDirection.OUTBOUND) state.outboundSort else state.returnSort,
+                filter = if (direction == LegDirection.OUTBOUND) state.outboundFilter else state.returnFilter,
+                facets = if (direction == LegDirection.OUTBOUND) state.outboundFacets else state.returnFacets,
+                onSortChange = { sort -> viewModel.sortFlights(direction, sort) },
+                onFilterChange = { filter -> viewModel.filterFlights(direction, filter) }
+            )
+        }
+
         // Flight list
         LazyColumn(
             state = listState,
@@ -89,38 +152,75 @@ fun SearchResultsScreen(
             contentPadding = PaddingValues(RiyadhAirSpacing.lg),
             verticalArrangement = Arrangement.spacedBy(RiyadhAirSpacing.md)
         ) {
-            itemsIndexed(if (currentStep == SearchStep.OUTBOUND) flights.value.flights else flights.value.returnFlights) { index, flight ->
-                val isSelected = when (currentStep) {
-                    SearchStep.OUTBOUND, SearchStep.OUTBOUND_ONLY ->
-                        selectedOutboundFlight?.flightNumber == flight.flightNumber
-
-                    SearchStep.RETURN ->
-                        selectedReturnFlight?.flightNumber == flight.flightNumber
+            if (pagedFlights != null) {
+                items(
+                    count = pagedFlights.itemCount,
+                    key = pagedFlights.itemKey { it.flightNumber }
+                ) { index ->
+                    val flight = pagedFlights[index]
+                    if (flight == null) {
+                        // Placeholder for a flight whose page is not loaded yet
+                        Box(
+                            modifier = Modifier
+                                .fillMaxWidth()
+                                .height(FLIGHT_PLACEHOLDER_HEIGHT)
+                                .background(
+                                    color = MaterialTheme.colorScheme.surfaceVariant.copy(alpha = 0.5f),
+                                    shape = RiyadhAirShapes.medium
+                                )
+                        )
+                    } else {
+                        flightCard(flight, index)
+                    }
                 }
-
-                FlightCard(
-                    flight = flight,
-                    onSelectFlight = { selectedFlight ->
-                        when (currentStep) {
-                            SearchStep.OUTBOUND -> {
-                                selectedOutboundFlight = selectedFlight
-                                viewModel.selectDepartureFlight(selectedFlight)
+            } else {
+                // Cheapest outbound/return pairs, picking both legs in one tap
+                if (currentStep == SearchStep.OUTBOUND && state.bestRoundTrips.isNotEmpty()) {
+                    item(key = "best_round_trips") {
+                        RoundTripSuggestions(
+                            roundTrips = state.bestRoundTrips,
+                            onSelectRoundTrip = { roundTrip ->
+                                selectedOutboundFlight = roundTrip.outbound
+                                selectedReturnFlight = roundTrip.inbound
+                                viewModel.selectDepartureFlight(roundTrip.outbound)
+                                viewModel.selectReturnFlight(roundTrip.inbound)
+                                currentStep = SearchStep.RETURN
                             }
+                        )
+                    }
+                }
 
-                            SearchStep.OUTBOUND_ONLY -> {
-                                selectedOutboundFlight = selectedFlight
-                                viewModel.selectDepartureFlight(selectedFlight)
-                            }
+                // Outbound itineraries with connections, next to the direct flights
+                if (currentStep != SearchStep.RETURN && state.connectingItineraries.isNotEmpty()) {
+                    item(key = "connecting_itineraries") {
+                        ConnectingItineraries(itineraries = state.connectingItineraries)
+                    }
+                }
 
-                            SearchStep.RETURN -> {
-                                selectedReturnFlight = selectedFlight
-                                viewModel.selectReturnFlight(selectedFlight)
-                            }
-                        }
-                    },
-                    isSelected = isSelected,
-                    animationDelay = index * 50
-                )
+                itemsIndexed(
+                    items = legFlights,
+                    key = { _, flight -> flight.flightNumber }
+                ) { index, flight ->
+                    flightCard(flight, index)
+                }
+
+                if (!isLoading && legFlights.isEmpty()) {
+                    item {
+                        Text(
+                            text = if (legError != null) {
+                                stringResource(fr.benchaabane.riyadhair.presentation.R.string.error_occurred)
+                            } else {
+                                stringResource(fr.benchaabane.riyadhair.presentation.R.string.search_no_flights)
+                            },
+                            style = MaterialTheme.typography.bodyLarge,
+                            color = MaterialTheme.colorScheme.onSurfaceVariant,
+                            textAlign = TextAlign.Center,
+                            modifier = Modifier
+                                .fillMaxWidth()
+                                .padding(RiyadhAirSpacing.lg)
+                        )
+                    }
+                }
             }
 
             if (isLoading) {
@@ -189,8 +289,8 @@ fun SearchResultsScreen(
 
                                 SearchStep.RETURN -> {
                                     onProceedToCheckout(
-                                        flights.value.selectedDepartureFlight?.flightNumber,
-                                        flights.value.selectedReturnFlight?.flightNumber
+                                        selectedOutboundFlight?.flightNumber,
+                                        selectedReturnFlight?.flightNumber
                                     )
                                 }
                             }
@@ -267,6 +367,183 @@ private fun SearchProgressIndicator(
     }
 }
 
+@Composable
+private fun FlightQueryBar(
+    sort: FlightSort,
+    filter: FlightFilter,
+    facets: FlightFacets,
+    onSortChange: (FlightSort) -> Unit,
+    onFilterChange: (FlightFilter) -> Unit,
+    modifier: Modifier = Modifier
+) {
+    Column(
+        modifier = modifier.fillMaxWidth(),
+        verticalArrangement = Arrangement.spacedBy(RiyadhAirSpacing.xs)
+    ) {
+        LazyRow(
+            contentPadding = PaddingValues(horizontal = RiyadhAirSpacing.lg),
+            horizontalArrangement = Arrangement.spacedBy(RiyadhAirSpacing.sm)
+        ) {
+            items(FlightSort.entries) { option ->
+                FilterChip(
+                    selected = option == sort,
+                    onClick = { onSortChange(option) },
+                    label = { Text(text = option.label(), style = MaterialTheme.typography.labelLarge) }
+                )
+            }
+        }
+
+        // Facet counts are those of the applied filter, so each chip tells how many flights it keeps
+        LazyRow(
+            contentPadding = PaddingValues(horizontal = RiyadhAirSpacing.lg),
+            horizontalArrangement = Arrangement.spacedBy(RiyadhAirSpacing.sm)
+        ) {
+            val directFlights = facets.stops[0] ?: 0
+            if (directFlights > 0) {
+                item {
+                    FilterChip(
+                        selected = filter.maxStops == 0,
+                        onClick = { onFilterChange(filter.copy(maxStops = if (filter.maxStops == 0) null else 0)) },
+                        label = {
+                            Text(
+                                text = "${stringResource(fr.benchaabane.riyadhair.presentation.R.string.filter_direct_flights)} ($directFlights)",
+                                style = MaterialTheme.typography.labelLarge
+                            )
+                        }
+                    )
+                }
+            }
+            items(facets.airlines.entries.toList(), key = { it.key }) { (airline, count) ->
+                val isSelected = airline in filter.airlines
+                FilterChip(
+                    selected = isSelected,
+                    onClick = {
+                        onFilterChange(filter.copy(airlines = if (isSelected) filter.airlines - airline else filter.airlines + airline))
+                    },
+                    label = { Text(text = "$airline ($count)", style = MaterialTheme.typography.labelLarge) }
+                )
+            }
+        }
+    }
+}
+
+@Composable
+private fun RoundTripSuggestions(
+    roundTrips: List<RoundTripUiModel>,
+    onSelectRoundTrip: (RoundTripUiModel) -> Unit,
+    modifier: Modifier = Modifier
+) {
+    Column(
+        modifier = modifier.fillMaxWidth(),
+        verticalArrangement = Arrangement.spacedBy(RiyadhAirSpacing.sm)
+    ) {
+        Text(
+            text = stringResource(fr.benchaabane.riyadhair.presentation.R.string.best_round_trips_title),
+            style = MaterialTheme.typography.titleMedium,
+            fontWeight = FontWeight.Bold
+        )
+
+        LazyRow(horizontalArrangement = Arrangement.spacedBy(RiyadhAirSpacing.md)) {
+            items(roundTrips, key = { "${it.outbound.flightNumber}-${it.inbound.flightNumber}" }) { roundTrip ->
+                Card(
+                    onClick = { onSelectRoundTrip(roundTrip) },
+                    shape = RiyadhAirShapes.medium,
+                    colors = CardDefaults.cardColors(
+                        containerColor = RiyadhAirColors.RoyalPurple.copy(alpha = 0.1f)
+                    )
+                ) {
+                    Column(
+                        modifier = Modifier.padding(RiyadhAirSpacing.md),
+                        verticalArrangement = Arrangement.spacedBy(RiyadhAirSpacing.xs)
+                    ) {
+                        Text(
+                            text = "${roundTrip.outbound.flightNumber} · ${roundTrip.outbound.departureTime}",
+                            style = MaterialTheme.typography.labelMedium,
+                            color = MaterialTheme.colorScheme.onSurfaceVariant
+                        )
+                        Text(
+                            text = "${roundTrip.inbound.flightNumber} · ${roundTrip.inbound.departureTime}",
+                            style = MaterialTheme.typography.labelMedium,
+                            color = MaterialTheme.colorScheme.onSurfaceVariant
+                        )
+                        Text(
+                            text = roundTrip.totalPrice,
+                            style = MaterialTheme.typography.titleMedium,
+                            fontWeight = FontWeight.Bold,
+                            color = RiyadhAirColors.SkyBlue
+                        )
+                    }
+                }
+            }
+        }
+    }
+}
+
+@Composable
+private fun ConnectingItineraries(
+    itineraries: List<ItineraryUiModel>,
+    modifier: Modifier = Modifier
+) {
+    Column(
+        modifier = modifier.fillMaxWidth(),
+        verticalArrangement = Arrangement.spacedBy(RiyadhAirSpacing.sm)
+    ) {
+        Text(
+            text = stringResource(fr.benchaabane.riyadhair.presentation.R.string.connecting_flights_title),
+            style = MaterialTheme.typography.titleMedium,
+            fontWeight = FontWeight.Bold
+        )
+
+        LazyRow(horizontalArrangement = Arrangement.spacedBy(RiyadhAirSpacing.md)) {
+            items(itineraries, key = { itinerary -> itinerary.legs.joinToString("-") { it.flightNumber } }) { itinerary ->
+                Card(
+                    shape = RiyadhAirShapes.medium,
+                    colors = CardDefaults.cardColors(
+                        containerColor = RiyadhAirColors.RoyalPurple.copy(alpha = 0.1f)
+                    )
+                ) {
+                    Column(
+                        modifier = Modifier.padding(RiyadhAirSpacing.md),
+                        verticalArrangement = Arrangement.spacedBy(RiyadhAirSpacing.xs)
+                    ) {
+                        Text(
+                            text = stringResource(
+                                fr.benchaabane.riyadhair.presentation.R.string.connecting_flights_via,
+                                itinerary.via.joinToString(", ")
+                            ),
+                            style = MaterialTheme.typography.labelLarge,
+                            fontWeight = FontWeight.Bold
+                        )
+                        itinerary.legs.forEach { leg ->
+                            Text(
+                                text = "${leg.flightNumber} · ${leg.departureAirportCode} ${leg.departureTime} → ${leg.arrivalAirportCode} ${leg.arrivalTime}",
+                                style = MaterialTheme.typography.labelMedium,
+                                color = MaterialTheme.colorScheme.onSurfaceVariant
+                            )
+                        }
+                        Text(
+                            text = itinerary.totalPrice,
+                            style = MaterialTheme.typography.titleMedium,
+                            fontWeight = FontWeight.Bold,
+                            color = RiyadhAirColors.SkyBlue
+                        )
+                    }
+                }
+            }
+        }
+    }
+}
+
+@Composable
+private fun FlightSort.label(): String = stringResource(
+    when (this) {
+        FlightSort.PRICE -> fr.benchaabane.riyadhair.presentation.R.string.sort_by_price
+        FlightSort.DURATION -> fr.benchaabane.riyadhair.presentation.R.string.sort_by_duration
+        FlightSort.DEPARTURE -> fr.benchaabane.riyadhair.presentation.R.string.sort_by_departure
+        FlightSort.ARRIVAL -> fr.benchaabane.riyadhair.presentation.R.string.sort_by_arrival
+    }
+)
+
 @Composable
 private fun ProgressStep(
     number: String,
@@ -361,6 +638,14 @@ private fun SelectedFlightSummary(
     }
 }
 
+private val FLIGHT_PLACEHOLDER_HEIGHT = 160.dp
+
+/**
+ * Items further down the list appear without a staggered delay, so that
+ * scrolling into a freshly loaded page never waits on the entry animation.
+ */
+private const val MAX_ANIMATED_INDEX = 10
+
 private enum class SearchStep {
     OUTBOUND,
     OUTBOUND_ONLY,
@@ -33,6 +33,7 @@ import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.tooling.preview.Preview
 import androidx.compose.ui.unit.dp
 import androidx.hilt.navigation.compose.hiltViewModel
+import androidx.lifecycle.compose.collectAsStateWithLifecycle
 import androidx.compose.ui.res.stringResource
 import fr.benchaabane.riyadhair.designsystem.icons.RiyadhAirIcons
 
@@ -40,6 +41,7 @@ import fr.benchaabane.riyadhair.designsystem.theme.RiyadhAirShapes
 import fr.benchaabane.riyadhair.designsystem.theme.RiyadhAirSpacing
 import fr.benchaabane.riyadhair.designsystem.theme.RiyadhAirTheme
 import fr.benchaabane.riyadhair.domain.flights.models.CabinClass
+import fr.benchaabane.riyadhair.domain.flights.models.FlightSearch
 import fr.benchaabane.riyadhair.domain.flights.models.PassengerCount
 import fr.benchaabane.riyadhair.presentation.home.HomeViewModel
 import fr.benchaabane.riyadhair.presentation.search.components.DateSelectionCard
@@ -56,8 +58,10 @@ import java.time.LocalDate
 fun SearchScreen(
     modifier: Modifier = Modifier,
     viewModel: SearchViewModel = hiltViewModel(),
-    onShowResult: (String, String) -> Unit
+    onShowResult: (FlightSearch) -> Unit
 ) {
+    val state by viewModel.state.collectAsStateWithLifecycle()
+
     var departureAirportCode by remember { mutableStateOf("RUH") }
     var departureAirportCity by remember { mutableStateOf("Riyadh") }
     var destinationAirportCode by remember { mutableStateOf("JED") }
@@ -74,13 +78,26 @@ fun SearchScreen(
     var isSelectingDeparture by remember { mutableStateOf(true) }
     var isContentVisible by remember { mutableStateOf(false) }
 
+    fun showResults() {
+        val departure = departureDate ?: return
+        onShowResult(
+            FlightSearch(
+                departureAirportCode = departureAirportCode,
+                arrivalAirportCode = destinationAirportCode,
+                departureDate = departure,
+                returnDate = returnDate,
+                passengers = passengerCount,
+                cabinClass = cabinClass
+            )
+        )
+    }
 
     LaunchedEffect(Unit) {
         delay(100)
         isContentVisible = true
         viewModel.event.collectLatest {
             when (it) {
-                is SearchEvent.RedirectToResult -> onShowResult(departureAirportCode, destinationAirportCode)
+                is SearchEvent.RedirectToResult -> showResults()
             }
         }
     }
@@ -137,6 +154,10 @@ fun SearchScreen(
                 onDateRangeSelected = { departure, returnD ->
                     departureDate = departure
                     returnDate = returnD
+                },
+                fareCalendar = state.fareCalendar,
+                onDisplayedMonthChanged = { month ->
+                    viewModel.loadFareCalendar(departureAirportCode, destinationAirportCode, month)
                 }
             )
 
@@ -144,11 +165,7 @@ fun SearchScreen(
 
             // Search Button
             Button(
-                onClick = {
-                    if (departureDate != null) {
-                        onShowResult(departureAirportCode, destinationAirportCode)
-                    }
-                },
+                onClick = { showResults() },
                 enabled = departureDate != null,
                 modifier = Modifier
                     .fillMaxWidth()
@@ -207,6 +224,6 @@ fun SearchScreen(
 @Composable
 fun SearchScreenPreview() {
     RiyadhAirTheme {
-        SearchScreen(onShowResult = { dep, arr -> })
+        SearchScreen(onShowResult = {})
     }
 }
@@ -2,18 +2,45 @@ package fr.benchaabane.riyadhair.presentation.search
 
 import androidx.lifecycle.ViewModel
 import androidx.lifecycle.viewModelScope
+import androidx.paging.PagingData
+import androidx.paging.cachedIn
+import androidx.paging.map
 import dagger.hilt.android.lifecycle.HiltViewModel
 import fr.benchaabane.riyadhair.core.dispatcher.BackgroundDispatcher
+import fr.benchaabane.riyadhair.domain.flights.models.Flight
+import fr.benchaabane.riyadhair.domain.flights.models.FlightBatch
+import fr.benchaabane.riyadhair.domain.flights.models.FlightSearch
+import fr.benchaabane.riyadhair.domain.flights.models.LegDirection
+import fr.benchaabane.riyadhair.domain.flights.models.RoundTripLeg
+import fr.benchaabane.riyadhair.domain.flights.query.FlightFacets
+import fr.benchaabane.riyadhair.domain.flights.query.FlightFilter
+import fr.benchaabane.riyadhair.domain.flights.query.FlightQueryEngine
+import fr.benchaabane.riyadhair.domain.flights.query.FlightSort
+import fr.benchaabane.riyadhair.domain.flights.usecases.GetBestRoundTripsUseCase
+import fr.benchaabane.riyadhair.domain.flights.usecases.GetFareCalendarUseCase
 import fr.benchaabane.riyadhair.domain.flights.usecases.GetFlightDetailsUseCase
-import fr.benchaabane.riyadhair.domain.flights.usecases.SearchFlightsUseCase
+import fr.benchaabane.riyadhair.domain.flights.usecases.GetPagedFlightsUseCase
+import fr.benchaabane.riyadhair.domain.flights.usecases.SearchItinerariesUseCase
+import fr.benchaabane.riyadhair.domain.flights.usecases.SearchRoundTripUseCase
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.MutableSharedFlow
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.asSharedFlow
 import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.flow.catch
+import kotlinx.coroutines.flow.filterNotNull
+import kotlinx.coroutines.flow.flatMapLatest
+import kotlinx.coroutines.flow.flowOn
+import kotlinx.coroutines.flow.map
 import kotlinx.coroutines.flow.update
 import kotlinx.coroutines.launch
+import kotlinx.coroutines.withContext
+import java.time.YearMonth
+import java.util.concurrent.ConcurrentHashMap
 import javax.inject.Inject
 
 /**
@@ -35,13 +62,36 @@ import javax.inject.Inject
  * including search results, selected flights, and UI state. All state updates
  * are performed through the `_state` MutableStateFlow.
  *
+ * **Result Sources:**
+ * Each search is fetched once, from one source:
+ * - **Route searches** ([search] by airports): Paged from the offline flight
+ *   cache through [pagedFlights]; nothing is loaded into [SearchState]
+ * - **Dated searches** ([search] by [FlightSearch]): Both legs loaded into
+ *   [SearchState], where they can be sorted, filtered and paired, along
+ *   with the outbound itineraries with connections
+ *
+ * **Sorting and Filtering:**
+ * Each leg's results are indexed once by a [FlightQueryEngine] and mapped
+ * to UI models once. Changing a sort or a filter re-queries the engine off
+ * the main thread and only reorders the already mapped UI models; the
+ * resulting facet counts are published in [SearchState].
+ *
+ * **Fare Calendar:**
+ * The date picker reports the month it displays through [loadFareCalendar];
+ * only the latest month is loaded, the previous one being cancelled with
+ * its pending day requests.
+ *
  * **Event Handling:**
  * Uses SharedFlow for one-time events like navigation triggers, ensuring
  * events are not lost during configuration changes.
  *
  * **Dependencies:**
- * - **SearchFlightsUseCase**: For searching available flights
+ * - **SearchRoundTripUseCase**: For searching both legs of a round trip concurrently
+ * - **GetPagedFlightsUseCase**: For paging search results from the offline flight cache
  * - **GetFlightDetailsUseCase**: For retrieving detailed flight information
+ * - **GetBestRoundTripsUseCase**: For suggesting the cheapest outbound/return combinations
+ * - **GetFareCalendarUseCase**: For the per-day minimum prices shown in the date picker
+ * - **SearchItinerariesUseCase**: For the outbound itineraries with connections
  *
  * **Threading:**
  * Uses `viewModelScope` for coroutine management to ensure proper cleanup
@@ -49,14 +99,19 @@ import javax.inject.Inject
  *
  * @see SearchState
  * @see SearchEvent
- * @see SearchFlightsUseCase
+ * @see SearchRoundTripUseCase
+ * @see GetPagedFlightsUseCase
  * @see GetFlightDetailsUseCase
  * @see HiltViewModel
  */
 @HiltViewModel
 class SearchViewModel @Inject constructor(
-    private val searchFlightsUseCase: SearchFlightsUseCase,
+    private val searchRoundTripUseCase: SearchRoundTripUseCase,
+    private val getPagedFlightsUseCase: GetPagedFlightsUseCase,
     private val getFlightDetailsUseCase: GetFlightDetailsUseCase,
+    private val getBestRoundTripsUseCase: GetBestRoundTripsUseCase,
+    private val getFareCalendarUseCase: GetFareCalendarUseCase,
+    private val searchItinerariesUseCase: SearchItinerariesUseCase,
     @BackgroundDispatcher
     private val backgroundDispatcher: CoroutineDispatcher = Dispatchers.IO
 ) : ViewModel() {
@@ -67,62 +122,233 @@ class SearchViewModel @Inject constructor(
     private val _event = MutableSharedFlow<SearchEvent>()
     val event = _event.asSharedFlow()
 
+    private var searchJob: Job? = null
+
+    private var fareCalendarJob: Job? = null
+
+    private var fareCalendarRequest: FareCalendarRequest? = null
+
+    private val searchRoute = MutableStateFlow<SearchRoute?>(null)
+
+    private val legResults = ConcurrentHashMap<LegDirection, LegResults>()
+
+    private val queryJobs = ConcurrentHashMap<LegDirection, Job>()
+
+    private val pagedOutboundFlights = pagedFlightsOf { route ->
+        getPagedFlightsUseCase(origin = route.from, destination = route.to)
+    }
+
+    private val pagedReturnFlights = pagedFlightsOf { route ->
+        getPagedFlightsUseCase(origin = route.to, destination = route.from)
+    }
+
     /**
-     * Searches for flights between two airports.
+     * Pages the results of the current route search for one leg of the journey.
      *
-     * This method performs a comprehensive flight search for both outbound
-     * and return flights, updating the UI state with the results. It searches
-     * in both directions to support round-trip bookings.
+     * Results are read page by page from the offline flight cache, so memory
+     * and first-frame time do not depend on how many flights the route has.
+     * The returned flow is cached in the ViewModel scope: it survives
+     * configuration changes and switches to the new route on every route [search].
      *
-     * **Search Strategy:**
-     * 1. **Outbound Search**: Searches from origin to destination
-     * 2. **Return Search**: Searches from destination to origin
-     * 3. **State Updates**: Updates UI state with search results
-     * 4. **Error Handling**: Currently logs failures (TODO: implement proper error handling)
+     * **Usage:**
+     * ```kotlin
+     * val flights = viewModel.pagedFlights(LegDirection.OUTBOUND).collectAsLazyPagingItems()
+     * ```
      *
-     * **Parameters:**
-     * - **from**: Origin airport code (e.g., "RUH", "JED")
-     * - **to**: Destination airport code (e.g., "DXB", "LHR")
+     * @param direction The leg whose results should be paged
+     * @return Flow of paged flights for [direction], empty until a route [search]
+     */
+    fun pagedFlights(direction: LegDirection): Flow<PagingData<FlightUiModel>> =
+        when (direction) {
+            LegDirection.OUTBOUND -> pagedOutboundFlights
+            LegDirection.RETURN -> pagedReturnFlights
+        }
+
+    /**
+     * Searches for flights between two airports, whatever the date.
      *
-     * **State Updates:**
-     * - **flights**: Outbound flight options
-     * - **returnFlights**: Return flight options
+     * A route can hold any number of flights, so its results are not loaded
+     * here: both legs are paged from the offline flight cache by [pagedFlights],
+     * which switches to the new route. Any dated search still loading is cancelled.
      *
      * **Usage:**
      * ```kotlin
      * searchViewModel.search("RUH", "JED")
+     * val outbound = searchViewModel.pagedFlights(LegDirection.OUTBOUND)
      * ```
      *
-     * **Note:**
-     * This method launches a coroutine in the ViewModel scope to ensure
-     * proper lifecycle management and cancellation.
-     *
      * @param from The origin airport code
      * @param to The destination airport code
      */
     fun search(from: String, to: String) {
-        viewModelScope.launch(backgroundDispatcher) {
-            searchFlightsUseCase.invoke(origin = from, destination = to)
-                .onSuccess { flights ->
-                    _state.update {
-                        _state.value.copy(
-                            flights = flights.map { it.toUi() }
+        searchJob?.cancel()
+        legResults.clear()
+        _state.update { it.copy(isOutboundLoading = false, isReturnLoading = false) }
+        searchRoute.value = SearchRoute(from = from, to = to)
+    }
+
+    /**
+     * Searches for the flights of a dated search.
+     *
+     * Both legs are restricted to their day and searched concurrently, so the
+     * results are complete after the slower of the two searches rather than
+     * after both back to back. They are served from the repository's search
+     * cache when the same legs were searched recently: coming back to the
+     * results from checkout, or repeating a search from the search screen,
+     * is instant.
+     *
+     * **Search Strategy:**
+     * 1. **Concurrent Search**: Outbound and return legs start at the same time
+     * 2. **Progressive Updates**: Each leg is published as soon as it completes
+     * 3. **Per-Leg Errors**: A failing leg records its error without affecting the other
+     * 4. **Connections**: Itineraries with connections to the destination are
+     *    built from the cached legs of every route, alongside the direct legs
+     *
+     * **State Updates:**
+     * - **flights** / **isOutboundLoading** / **outboundError**: Outbound leg
+     * - **returnFlights** / **isReturnLoading** / **returnError**: Return leg
+     * - **bestRoundTrips**: Cheapest valid combinations, once both legs are loaded
+     * - **connectingItineraries**: Outbound itineraries with at least one connection
+     *
+     * **Usage:**
+     * ```kotlin
+     * searchViewModel.search(
+     *     FlightSearch("RUH", "JED", departureDate, returnDate, PassengerCount(adults = 2), CabinClass.ECONOMY)
+     * )
+     * ```
+     *
+     * @param search The route, dates, passengers and cabin to search
+     */
+    fun search(search: FlightSearch) {
+        launchSearch(searchRoundTripUseCase.invoke(search), search.outboundLeg())
+    }
+
+    private fun launchSearch(legs: Flow<RoundTripLeg>, outbound: FlightSearch) {
+        searchJob?.cancel()
+        legResults.clear()
+        _state.update {
+            it.copy(
+                isOutboundLoading = true,
+                isReturnLoading = true,
+                outboundError = null,
+                returnError = null,
+                flights = emptyList(),
+                returnFlights = emptyList(),
+                outboundFilter = FlightFilter(),
+                returnFilter = FlightFilter(),
+                bestRoundTrips = emptyList(),
+                connectingItineraries = emptyList()
+            )
+        }
+        searchJob = viewModelScope.launch(backgroundDispatcher) {
+            launch { searchConnections(outbound) }
+            legs.collect { leg ->
+                val results = LegResults.of(leg.result.getOrNull().orEmpty())
+                val error = leg.result.exceptionOrNull()?.let { it.message ?: DEFAULT_SEARCH_ERROR }
+                legResults[leg.direction] = results
+                queryJobs.remove(leg.direction)?.cancel()
+                _state.update {
+                    val (flights, facets) = results.query(it.filterOf(leg.direction), it.sortOf(leg.direction))
+                    when (leg.direction) {
+                        LegDirection.OUTBOUND -> it.copy(
+                            flights = flights,
+                            outboundFacets = facets,
+                            isOutboundLoading = false,
+                            outboundError = error
                         )
-                    }
-                }
-                .onFailure {
-                    // TODO handle failure
-                }
-            searchFlightsUseCase.invoke(origin = to, destination = from)
-                .onSuccess { flights ->
-                    _state.update {
-                        _state.value.copy(
-                            returnFlights = flights.map { it.toUi() }
+                        LegDirection.RETURN -> it.copy(
+                            returnFlights = flights,
+                            returnFacets = facets,
+                            isReturnLoading = false,
+                            returnError = error
                         )
                     }
                 }
-                .onFailure {
-                    // TODO handle failure
+                pairLegs()
+            }
+        }
+    }
+
+    /**
+     * Filters the results of one leg.
+     *
+     * Only the filter dimensions that changed are recomputed, as bitset
+     * operations over the leg's indexed results; the flights are not
+     * re-mapped. Filters are reset by every new [search].
+     *
+     * **State Updates:**
+     * - **outboundFilter** / **returnFilter**: The applied filter, immediately
+     * - **flights** / **returnFlights**: The matching flights, in the current sort order
+     * - **outboundFacets** / **returnFacets**: Facet counts for the new filter
+     *
+     * @param direction The leg to filter
+     * @param filter The filter to apply, replacing the previous one
+     */
+    fun filterFlights(direction: LegDirection, filter: FlightFilter) {
+        _state.update {
+            when (direction) {
+                LegDirection.OUTBOUND -> it.copy(outboundFilter = filter)
+                LegDirection.RETURN -> it.copy(returnFilter = filter)
+            }
+        }
+        queryFlights(direction)
+    }
+
+    /**
+     * Sorts the results of one leg.
+     *
+     * The order of each [FlightSort] is computed once per search and reused,
+     * so switching back and forth between sorts costs no re-sort.
+     *
+     * @param direction The leg to sort
+     * @param sort The new order of the flights
+     */
+    fun sortFlights(direction: LegDirection, sort: FlightSort) {
+        _state.update {
+            when (direction) {
+                LegDirection.OUTBOUND -> it.copy(outboundSort = sort)
+                LegDirection.RETURN -> it.copy(returnSort = sort)
+            }
+        }
+        queryFlights(direction)
+    }
+
+    /**
+     * Loads the per-day minimum prices of a route for the month being displayed.
+     *
+     * Any previous month still loading is cancelled, so scrolling through
+     * the calendar never queues requests for months that are no longer
+     * visible. Requesting the month already loaded is a no-op.
+     *
+     * **State Updates:**
+     * - **fareCalendar**: Cleared, then updated as each day's price arrives
+     *
+     * **Error Handling:**
+     * The calendar only decorates the date picker: a failure keeps the days
+     * already shown, and the month is requested again next time it is displayed.
+     *
+     * **Usage:**
+     * ```kotlin
+     * searchViewModel.loadFareCalendar("RUH", "JED", YearMonth.of(2024, 7))
+     * ```
+     *
+     * @param from The origin airport code
+     * @param to The destination airport code
+     * @param month The displayed month
+     */
+    fun loadFareCalendar(from: String, to: String, month: YearMonth) {
+        val request = FareCalendarRequest(from = from, to = to, month = month)
+        if (request == fareCalendarRequest) return
+        fareCalendarRequest = request
+        fareCalendarJob?.cancel()
+        _state.update { it.copy(fareCalendar = emptyList()) }
+        fareCalendarJob = viewModelScope.launch {
+            getFareCalendarUseCase(origin = from, destination = to, month = month)
+                .map { calendar -> calendar.toUi() }
+                .flowOn(backgroundDispatcher)
+                .catch { if (fareCalendarRequest == request) fareCalendarRequest = null }
+                .collect { fareCalendar ->
+                    _state.update { it.copy(fareCalendar = fareCalendar) }
                 }
         }
     }
@@ -138,7 +364,7 @@ class SearchViewModel @Inject constructor(
      * 1. **Outbound Flight**: Retrieves details for departure flight
      * 2. **Return Flight**: Retrieves details for return flight
      * 3. **State Updates**: Updates UI state with flight details
-     * 4. **Parallel Processing**: Both flights are processed simultaneously
+     * 4. **Parallel Processing**: Both lookups run concurrently as children of one coroutine
      *
      * **Parameters:**
      * - **outBoundFlightNumber**: Flight number for departure (e.g., "RX101")
@@ -162,22 +388,26 @@ class SearchViewModel @Inject constructor(
      */
     fun getFlightDetails(outBoundFlightNumber: String, returnFlightNumber: String) {
         viewModelScope.launch(backgroundDispatcher) {
-            getFlightDetailsUseCase.invoke(flightNumber = outBoundFlightNumber)
-                .onSuccess { flight ->
-                    _state.update {
-                        _state.value.copy(
-                            selectedDepartureFlight = flight?.toUi()
-                        )
+            launch {
+                getFlightDetailsUseCase.invoke(flightNumber = outBoundFlightNumber)
+                    .onSuccess { flight ->
+                        _state.update {
+                            it.copy(
+                                selectedDepartureFlight = flight?.toUi()
+                            )
+                        }
                     }
-                }
-            getFlightDetailsUseCase.invoke(flightNumber = returnFlightNumber)
-                .onSuccess { flight ->
-                    _state.update {
-                        _state.value.copy(
-                            selectedReturnFlight = flight?.toUi()
-                        )
+            }
+            launch {
+                getFlightDetailsUseCase.invoke(flightNumber = returnFlightNumber)
+                    .onSuccess { flight ->
+                        _state.update {
+                            it.copy(
+                                selectedReturnFlight = flight?.toUi()
+                            )
+                        }
                     }
-                }
+            }
         }
     }
 
@@ -230,17 +460,137 @@ class SearchViewModel @Inject constructor(
             )
         }
     }
+
+    /**
+     * Publishes the best outbound/return combinations once both legs are loaded.
+     *
+     * Pairs are found by a lazy merge over the price-sorted legs rather than
+     * the full cross product; see [GetBestRoundTripsUseCase].
+     */
+    private fun pairLegs() {
+        val outbound = legResults[LegDirection.OUTBOUND] ?: return
+        val inbound = legResults[LegDirection.RETURN] ?: return
+        val combinations = getBestRoundTripsUseCase(outbound.flights, inbound.flights)
+        _state.update { it.copy(bestRoundTrips = combinations.map { combination -> combination.toRoundTripUi() }) }
+    }
+
+    /**
+     * Publishes the itineraries with connections of a leg.
+     *
+     * Direct flights are already listed with the leg's results, so only
+     * itineraries with at least one connection are kept. A failure leaves
+     * the list empty: connections only complement the direct results.
+     */
+    private suspend fun searchConnections(leg: FlightSearch) {
+        val itineraries = searchItinerariesUseCase(
+            origin = leg.departureAirportCode,
+            destination = leg.arrivalAirportCode,
+            earliestDeparture = leg.departureDate.atStartOfDay()
+        ).getOrNull().orEmpty()
+        val connecting = itineraries.filter { it.connections > 0 }.map { it.toItineraryUi() }
+        _state.update { it.copy(connectingItineraries = connecting) }
+    }
+
+    /**
+     * Re-queries a leg with its current filter and sort, superseding any pending query.
+     *
+     * The pending query is cancelled before the new one starts, and results
+     * are published on the main thread once the query returns, so a
+     * superseded query can never overwrite the results of a later one.
+     */
+    private fun queryFlights(direction: LegDirection) {
+        val results = legResults[direction] ?: return
+        queryJobs.remove(direction)?.cancel()
+        queryJobs[direction] = viewModelScope.launch {
+            val current = _state.value
+            val (flights, facets) = withContext(backgroundDispatcher) {
+                results.query(current.filterOf(direction), current.sortOf(direction))
+            }
+            _state.update {
+                when (direction) {
+                    LegDirection.OUTBOUND -> it.copy(flights = flights, outboundFacets = facets)
+                    LegDirection.RETURN -> it.copy(returnFlights = flights, returnFacets = facets)
+                }
+            }
+        }
+    }
+
+    @OptIn(ExperimentalCoroutinesApi::class)
+    private fun pagedFlightsOf(
+        source: (SearchRoute) -> Flow<PagingData<Flight>>
+    ): Flow<PagingData<FlightUiModel>> =
+        searchRoute
+            .filterNotNull()
+            .flatMapLatest { route -> source(route) }
+            .map { pagingData -> pagingData.map { it.toUi() } }
+            .cachedIn(viewModelScope)
+}
+
+private data class SearchRoute(
+    val from: String,
+    val to: String
+)
+
+private data class FareCalendarRequest(
+    val from: String,
+    val to: String,
+    val month: YearMonth
+)
+
+/**
+ * Indexed results of one leg: the query engine and the UI models, mapped once.
+ */
+private class LegResults(
+    val flights: List<Flight>,
+    private val engine: FlightQueryEngine,
+    private val uiModels: List<FlightUiModel>
+) {
+    fun query(filter: FlightFilter, sort: FlightSort): Pair<List<FlightUiModel>, FlightFacets> {
+        val result = engine.query(filter, sort)
+        return result.positions.map { uiModels[it] } to result.facets
+    }
+
+    companion object {
+        fun of(flights: List<Flight>) = LegResults(
+            flights = flights,
+            engine = FlightQueryEngine(FlightBatch.of(flights)),
+            uiModels = flights.map { it.toUi() }
+        )
+    }
+}
+
+private fun SearchState.filterOf(direction: LegDirection) = when (direction) {
+    LegDirection.OUTBOUND -> outboundFilter
+    LegDirection.RETURN -> returnFilter
+}
+
+private fun SearchState.sortOf(direction: LegDirection) = when (direction) {
+    LegDirection.OUTBOUND -> outboundSort
+    LegDirection.RETURN -> returnSort
 }
 
 data class SearchState(
     val flights: List<FlightUiModel> = emptyList(),
     val returnFlights: List<FlightUiModel> = emptyList(),
     val selectedDepartureFlight: FlightUiModel? = null,
-    val selectedReturnFlight: FlightUiModel? = null
+    val selectedReturnFlight: FlightUiModel? = null,
+    val isOutboundLoading: Boolean = false,
+    val isReturnLoading: Boolean = false,
+    val outboundError: String? = null,
+    val returnError: String? = null,
+    val outboundFilter: FlightFilter = FlightFilter(),
+    val returnFilter: FlightFilter = FlightFilter(),
+    val outboundSort: FlightSort = FlightSort.DEPARTURE,
+    val returnSort: FlightSort = FlightSort.DEPARTURE,
+    val outboundFacets: FlightFacets = FlightFacets(),
+    val returnFacets: FlightFacets = FlightFacets(),
+    val bestRoundTrips: List<RoundTripUiModel> = emptyList(),
+    val connectingItineraries: List<ItineraryUiModel> = emptyList(),
+    val fareCalendar: List<DayFareUiModel> = emptyList()
 )
 
 sealed class SearchEvent {
     data object RedirectToResult : SearchEvent()
 }
 
-
+private const val DEFAULT_SEARCH_ERROR = "Unable to load flights"
@@ -8,11 +8,18 @@ import androidx.compose.ui.Modifier
 import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.tooling.preview.Preview
 import androidx.compose.ui.res.stringResource
+import fr.benchaabane.riyadhair.designsystem.components.datepicker.DayPriceBadge
+import fr.benchaabane.riyadhair.designsystem.components.datepicker.DayPriceStrip
 import fr.benchaabane.riyadhair.designsystem.icons.RiyadhAirIcons
 import fr.benchaabane.riyadhair.designsystem.theme.RiyadhAirShapes
 import fr.benchaabane.riyadhair.designsystem.theme.RiyadhAirSpacing
 import fr.benchaabane.riyadhair.designsystem.theme.RiyadhAirTheme
+import fr.benchaabane.riyadhair.domain.flights.models.LegDirection
+import fr.benchaabane.riyadhair.presentation.search.DayFareUiModel
+import java.time.Instant
 import java.time.LocalDate
+import java.time.YearMonth
+import java.time.ZoneOffset
 import java.time.format.DateTimeFormatter
 import java.util.Locale
 
@@ -36,6 +43,12 @@ import java.util.Locale
  * - **Date Picker**: Material Design 3 date picker component
  * - **Action Buttons**: Cancel and confirm/next buttons with dynamic text
  * - **Header Text**: Context-aware titles for each selection step
+ * - **Fare Badges**: Per-day minimum prices of the displayed month, under the calendar
+ *
+ * **Fare Calendar:**
+ * The sheet reports the displayed month and the leg being picked through
+ * [onDisplayedMonthChanged]; the caller loads that leg's fare calendar and
+ * passes it back in [fareCalendar]. Tapping a fare badge selects its day.
  *
  * **State Management:**
  * - **Temporary Dates**: Stores selections until final confirmation
@@ -68,6 +81,8 @@ import java.util.Locale
  * @param onDismiss Callback when the bottom sheet is dismissed
  * @param onDatesSelected Callback with the final selected dates
  * @param modifier Modifier to apply to the bottom sheet container
+ * @param fareCalendar Minimum prices of the displayed month for the leg being picked
+ * @param onDisplayedMonthChanged Callback with the leg being picked and the displayed month
  */
 @OptIn(ExperimentalMaterial3Api::class)
 @Composable
@@ -78,7 +93,9 @@ fun DatePickerBottomSheet(
     returnDate: LocalDate?,
     onDismiss: () -> Unit,
     onDatesSelected: (LocalDate?, LocalDate?) -> Unit,
-    modifier: Modifier = Modifier
+    modifier: Modifier = Modifier,
+    fareCalendar: List<DayFareUiModel> = emptyList(),
+    onDisplayedMonthChanged: (LegDirection, YearMonth) -> Unit = { _, _ -> }
 ) {
     var tempDepartureDate by remember { mutableStateOf(departureDate) }
     var tempReturnDate by remember { mutableStateOf(returnDate) }
@@ -90,6 +107,17 @@ fun DatePickerBottomSheet(
             DatePickerStep.RETURN -> tempReturnDate?.toEpochDay()?.times(24 * 60 * 60 * 1000)
         }
     )
+    val currentOnDisplayedMonthChanged by rememberUpdatedState(onDisplayedMonthChanged)
+    val dayPrices = remember(fareCalendar) { fareCalendar.toDayPriceBadges() }
+
+    LaunchedEffect(datePickerState, currentStep) {
+        val direction = when (currentStep) {
+            DatePickerStep.DEPARTURE -> LegDirection.OUTBOUND
+            DatePickerStep.RETURN -> LegDirection.RETURN
+        }
+        snapshotFlow { datePickerState.displayedMonthMillis }
+            .collect { currentOnDisplayedMonthChanged(direction, it.toYearMonth()) }
+    }
     
     ModalBottomSheet(
         onDismissRequest = onDismiss,
@@ -147,6 +175,14 @@ fun DatePickerBottomSheet(
                 state = datePickerState,
                 modifier = Modifier.fillMaxWidth()
             )
+
+            DayPriceStrip(
+                displayedMonthMillis = datePickerState.displayedMonthMillis,
+                dayPrices = dayPrices,
+                selectedDateMillis = datePickerState.selectedDateMillis,
+                onDaySelected = { datePickerState.selectedDateMillis = it },
+                modifier = Modifier.fillMaxWidth()
+            )
             
             Spacer(modifier = Modifier.height(RiyadhAirSpacing.lg))
             
@@ -282,6 +318,21 @@ private fun DateStepChip(
     )
 }
 
+/**
+ * Keys the fare calendar days the way Material 3 date pickers identify days:
+ * UTC midnight in epoch milliseconds.
+ */
+internal fun List<DayFareUiModel>.toDayPriceBadges(): Map<Long, DayPriceBadge> =
+    associate { fare ->
+        fare.date.toEpochDay() * 24 * 60 * 60 * 1000L to DayPriceBadge(label = fare.price, isCheapest = fare.isCheapest)
+    }
+
+/**
+ * Month of a date picker's displayed-month instant, read in UTC like the picker does.
+ */
+internal fun Long.toYearMonth(): YearMonth =
+    YearMonth.from(Instant.ofEpochMilli(this).atOffset(ZoneOffset.UTC))
+
 /**
  * Enumeration representing the different steps in the date picker flow.
  *
@@ -13,12 +13,15 @@ import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.tooling.preview.Preview
 import androidx.compose.ui.unit.dp
 import androidx.compose.ui.res.stringResource
+import fr.benchaabane.riyadhair.designsystem.components.datepicker.DayPriceStrip
 import fr.benchaabane.riyadhair.designsystem.icons.RiyadhAirIcons
 import fr.benchaabane.riyadhair.designsystem.theme.RiyadhAirColors
 import fr.benchaabane.riyadhair.designsystem.theme.RiyadhAirShapes
 import fr.benchaabane.riyadhair.designsystem.theme.RiyadhAirSpacing
 import fr.benchaabane.riyadhair.designsystem.theme.RiyadhAirTheme
+import fr.benchaabane.riyadhair.presentation.search.DayFareUiModel
 import java.time.LocalDate
+import java.time.YearMonth
 import java.time.format.DateTimeFormatter
 import java.util.Locale
 
@@ -57,6 +60,8 @@ import java.util.Locale
  * - **Confirmation Flow**: Clear confirm/cancel actions
  * - **State Management**: Handles temporary and final date selections
  * - **Accessibility**: Proper content descriptions and keyboard navigation
+ * - **Fare Badges**: Outbound minimum prices of the displayed month under the calendar;
+ *   tapping a badge starts a new range on that day, or ends the current one
  *
  * **Layout Structure:**
  * - **Header Section**: Icon, title, and navigation arrow
@@ -102,6 +107,8 @@ import java.util.Locale
  * @param returnDate The selected return date (can be null for one-way trips)
  * @param onDateRangeSelected Callback with the final selected date range
  * @param modifier Modifier to apply to the date selection card container
+ * @param fareCalendar Outbound minimum prices of the displayed month
+ * @param onDisplayedMonthChanged Callback with the month displayed by the open date picker
  */
 @OptIn(ExperimentalMaterial3Api::class)
 @Composable
@@ -109,8 +116,11 @@ fun DateSelectionCard(
     departureDate: LocalDate?,
     returnDate: LocalDate?,
     onDateRangeSelected: (LocalDate?, LocalDate?) -> Unit,
-    modifier: Modifier = Modifier
+    modifier: Modifier = Modifier,
+    fareCalendar: List<DayFareUiModel> = emptyList(),
+    onDisplayedMonthChanged: (YearMonth) -> Unit = {}
 ) {
+    val currentOnDisplayedMonthChanged by rememberUpdatedState(onDisplayedMonthChanged)
     var showDateRangePicker by remember { mutableStateOf(false) }
     val dateFormatter = DateTimeFormatter.ofPattern("EEE dd MMM", Locale.FRENCH)
     
@@ -218,6 +228,12 @@ fun DateSelectionCard(
     // Date Range Picker Dialog
     if (showDateRangePicker) {
         val dateRangePickerState = rememberDateRangePickerState()
+        val dayPrices = remember(fareCalendar) { fareCalendar.toDayPriceBadges() }
+
+        LaunchedEffect(dateRangePickerState) {
+            snapshotFlow { dateRangePickerState.displayedMonthMillis }
+                .collect { currentOnDisplayedMonthChanged(it.toYearMonth()) }
+        }
         
         DatePickerDialog(
             onDismissRequest = { showDateRangePicker = false },
@@ -261,7 +277,24 @@ fun DateSelectionCard(
                         modifier = Modifier.padding(horizontal = RiyadhAirSpacing.lg)
                     )
                 },
-                modifier = Modifier.fillMaxWidth()
+                modifier = Modifier
+                    .fillMaxWidth()
+                    .weight(1f)
+            )
+
+            DayPriceStrip(
+                displayedMonthMillis = dateRangePickerState.displayedMonthMillis,
+                dayPrices = dayPrices,
+                selectedDateMillis = dateRangePickerState.selectedStartDateMillis,
+                onDaySelected = { day ->
+                    val start = dateRangePickerState.selectedStartDateMillis
+                    if (start != null && dateRangePickerState.selectedEndDateMillis == null && day > start) {
+                        dateRangePickerState.setSelection(start, day)
+                    } else {
+                        dateRangePickerState.setSelection(day, null)
+                    }
+                },
+                modifier = Modifier.padding(bottom = RiyadhAirSpacing.sm)
             )
         }
     }
@@ -6,18 +6,20 @@ import fr.benchaabane.riyadhair.domain.account.models.LoyaltyTier
 import fr.benchaabane.riyadhair.domain.account.usecases.GetAccountUseCase
 import fr.benchaabane.riyadhair.domain.offers.models.Offer
 import fr.benchaabane.riyadhair.domain.offers.models.Destination
-import fr.benchaabane.riyadhair.domain.offers.usecases.GetBestOffersUseCase
+import fr.benchaabane.riyadhair.domain.offers.usecases.ObserveBestOffersUseCase
 import fr.benchaabane.riyadhair.domain.partners.models.Partner
 import fr.benchaabane.riyadhair.domain.partners.models.PartnerCategory
-import fr.benchaabane.riyadhair.domain.partners.usecases.GetPartnersUseCase
+import fr.benchaabane.riyadhair.domain.partners.usecases.ObservePartnersUseCase
 import fr.benchaabane.riyadhair.presentation.account.toUi
 import fr.benchaabane.riyadhair.presentation.offers.toUi
 import fr.benchaabane.riyadhair.presentation.partners.toUi
 import io.mockk.coEvery
+import io.mockk.every
 import io.mockk.mockk
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.flow.flowOf
 import kotlinx.coroutines.test.StandardTestDispatcher
 import kotlinx.coroutines.test.advanceUntilIdle
 import kotlinx.coroutines.test.resetMain
@@ -34,16 +36,16 @@ class HomeViewModelTest {
 
     private lateinit var viewModel: HomeViewModel
     private lateinit var mockGetAccountUseCase: GetAccountUseCase
-    private lateinit var mockGetBestOffersUseCase: GetBestOffersUseCase
-    private lateinit var mockGetPartnersUseCase: GetPartnersUseCase
+    private lateinit var mockObserveBestOffersUseCase: ObserveBestOffersUseCase
+    private lateinit var mockObservePartnersUseCase: ObservePartnersUseCase
     private val testDispatcher = StandardTestDispatcher()
 
     @Before
     fun setUp() {
         // Given
         mockGetAccountUseCase = mockk()
-        mockGetBestOffersUseCase = mockk()
-        mockGetPartnersUseCase = mockk()
+        mockObserveBestOffersUseCase = mockk()
+        mockObservePartnersUseCase = mockk()
         Dispatchers.setMain(testDispatcher)
     }
 
@@ -56,14 +58,14 @@ class HomeViewModelTest {
     fun `HomeViewModel should initialize with empty state`() = runTest {
         // Given
         coEvery { mockGetAccountUseCase.invoke() } returns Result.success(null)
-        coEvery { mockGetBestOffersUseCase.invoke() } returns Result.success(emptyList())
-        coEvery { mockGetPartnersUseCase.invoke() } returns Result.success(emptyList())
+        every { mockObserveBestOffersUseCase.invoke() } returns flowOf(emptyList())
+        every { mockObservePartnersUseCase.invoke() } returns flowOf(emptyList())
 
         // When
         viewModel = HomeViewModel(
             mockGetAccountUseCase,
-            mockGetBestOffersUseCase,
-            mockGetPartnersUseCase,
+            mockObserveBestOffersUseCase,
+            mockObservePartnersUseCase,
             testDispatcher
         )
         advanceUntilIdle()
@@ -94,14 +96,14 @@ class HomeViewModelTest {
             profileImageUrl = null
         )
         coEvery { mockGetAccountUseCase.invoke() } returns Result.success(mockAccount)
-        coEvery { mockGetBestOffersUseCase.invoke() } returns Result.success(emptyList())
-        coEvery { mockGetPartnersUseCase.invoke() } returns Result.success(emptyList())
+        every { mockObserveBestOffersUseCase.invoke() } returns flowOf(emptyList())
+        every { mockObservePartnersUseCase.invoke() } returns flowOf(emptyList())
 
         // When
         viewModel = HomeViewModel(
             mockGetAccountUseCase,
-            mockGetBestOffersUseCase,
-            mockGetPartnersUseCase,
+            mockObserveBestOffersUseCase,
+            mockObservePartnersUseCase,
             testDispatcher
         )
         advanceUntilIdle()
@@ -140,14 +142,14 @@ class HomeViewModelTest {
             )
         )
         coEvery { mockGetAccountUseCase.invoke() } returns Result.success(null)
-        coEvery { mockGetBestOffersUseCase.invoke() } returns Result.success(mockOffers)
-        coEvery { mockGetPartnersUseCase.invoke() } returns Result.success(emptyList())
+        every { mockObserveBestOffersUseCase.invoke() } returns flowOf(mockOffers)
+        every { mockObservePartnersUseCase.invoke() } returns flowOf(emptyList())
 
         // When
         viewModel = HomeViewModel(
             mockGetAccountUseCase,
-            mockGetBestOffersUseCase,
-            mockGetPartnersUseCase,
+            mockObserveBestOffersUseCase,
+            mockObservePartnersUseCase,
             testDispatcher
         )
         advanceUntilIdle()
@@ -174,14 +176,14 @@ class HomeViewModelTest {
             )
         )
         coEvery { mockGetAccountUseCase.invoke() } returns Result.success(null)
-        coEvery { mockGetBestOffersUseCase.invoke() } returns Result.success(emptyList())
-        coEvery { mockGetPartnersUseCase.invoke() } returns Result.success(mockPartners)
+        every { mockObserveBestOffersUseCase.invoke() } returns flowOf(emptyList())
+        every { mockObservePartnersUseCase.invoke() } returns flowOf(mockPartners)
 
         // When
         viewModel = HomeViewModel(
             mockGetAccountUseCase,
-            mockGetBestOffersUseCase,
-            mockGetPartnersUseCase,
+            mockObserveBestOffersUseCase,
+            mockObservePartnersUseCase,
             testDispatcher
         )
         advanceUntilIdle()
@@ -197,14 +199,14 @@ class HomeViewModelTest {
     fun `HomeViewModel should handle account failure gracefully`() = runTest {
         // Given
         coEvery { mockGetAccountUseCase.invoke() } returns Result.failure(Exception("Network error"))
-        coEvery { mockGetBestOffersUseCase.invoke() } returns Result.success(emptyList())
-        coEvery { mockGetPartnersUseCase.invoke() } returns Result.success(emptyList())
+        every { mockObserveBestOffersUseCase.invoke() } returns flowOf(emptyList())
+        every { mockObservePartnersUseCase.invoke() } returns flowOf(emptyList())
 
         // When
         viewModel = HomeViewModel(
             mockGetAccountUseCase,
-            mockGetBestOffersUseCase,
-            mockGetPartnersUseCase,
+            mockObserveBestOffersUseCase,
+            mockObservePartnersUseCase,
             testDispatcher
         )
         advanceUntilIdle()
@@ -0,0 +1,70 @@
+package fr.benchaabane.riyadhair.presentation.reservations
+
+import androidx.paging.PagingData
+import fr.benchaabane.riyadhair.domain.reservations.models.ReservationFilter
+import fr.benchaabane.riyadhair.domain.reservations.usecases.GetPagedReservationsUseCase
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.verify
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.test.StandardTestDispatcher
+import kotlinx.coroutines.test.resetMain
+import kotlinx.coroutines.test.setMain
+import org.amshove.kluent.shouldBe
+import org.amshove.kluent.shouldBeEqualTo
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class ReservationsViewModelTest {
+
+    private lateinit var viewModel: ReservationsViewModel
+    private lateinit var mockGetPagedReservations: GetPagedReservationsUseCase
+    private val testDispatcher = StandardTestDispatcher()
+
+    @Before
+    fun setUp() {
+        // Given
+        Dispatchers.setMain(testDispatcher)
+        mockGetPagedReservations = mockk()
+        every { mockGetPagedReservations(any()) } returns flowOf(PagingData.empty())
+        viewModel = ReservationsViewModel(mockGetPagedReservations)
+    }
+
+    @After
+    fun tearDown() {
+        Dispatchers.resetMain()
+    }
+
+    @Test
+    fun `ReservationsViewModel should show the upcoming tab first`() {
+        // Then
+        viewModel.selectedFilter.value shouldBeEqualTo ReservationFilter.UPCOMING
+    }
+
+    @Test
+    fun `selectFilter should switch tabs`() {
+        // When
+        viewModel.selectFilter(ReservationFilter.CANCELLED)
+
+        // Then
+        viewModel.selectedFilter.value shouldBeEqualTo ReservationFilter.CANCELLED
+    }
+
+    @Test
+    fun `reservations should keep one paged stream per tab`() {
+        // When
+        val first = viewModel.reservations(ReservationFilter.PAST)
+        viewModel.selectFilter(ReservationFilter.PAST)
+        val second = viewModel.reservations(ReservationFilter.PAST)
+
+        // Then
+        second shouldBe first
+        ReservationFilter.entries.forEach { filter ->
+            verify(exactly = 1) { mockGetPagedReservations(filter) }
+        }
+    }
+}
@@ -3,6 +3,7 @@ package fr.benchaabane.riyadhair.presentation.search
 import fr.benchaabane.riyadhair.domain.flights.models.Flight
 import fr.benchaabane.riyadhair.domain.flights.models.Airport
 import fr.benchaabane.riyadhair.domain.flights.models.CabinClass
+import fr.benchaabane.riyadhair.domain.flights.models.SelectedFlights
 import org.amshove.kluent.shouldBeEqualTo
 import org.junit.Before
 import org.junit.Test
@@ -70,6 +71,23 @@ class FlightMappersTest {
         result.aircraftType shouldBeEqualTo "Boeing 777"
     }
 
+    @Test
+    fun `toRoundTripUi should format the total price like single flights`() {
+        // Given
+        val combination = SelectedFlights(
+            outboundFlight = mockFlight.copy(price = 389.9),
+            returnFlight = mockFlight.copy(id = "2", flightNumber = "AF002", price = 390.2)
+        )
+
+        // When
+        val result = combination.toRoundTripUi()
+
+        // Then
+        result.outbound.price shouldBeEqualTo "389.9 EUR"
+        result.inbound.price shouldBeEqualTo "390.2 EUR"
+        result.totalPrice shouldBeEqualTo "780.1 EUR"
+    }
+
     @Test
     fun `toUi should handle different cabin classes`() {
         // Given
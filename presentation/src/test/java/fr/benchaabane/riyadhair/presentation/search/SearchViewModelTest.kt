@@ -3,14 +3,33 @@ package fr.benchaabane.riyadhair.presentation.search
 import fr.benchaabane.riyadhair.domain.flights.models.Flight
 import fr.benchaabane.riyadhair.domain.flights.models.Airport
 import fr.benchaabane.riyadhair.domain.flights.models.CabinClass
+import fr.benchaabane.riyadhair.domain.flights.models.DayFare
+import fr.benchaabane.riyadhair.domain.flights.models.FareCalendar
+import fr.benchaabane.riyadhair.domain.flights.models.FlightSearch
+import fr.benchaabane.riyadhair.domain.flights.models.LegDirection
+import fr.benchaabane.riyadhair.domain.flights.models.PassengerCount
+import fr.benchaabane.riyadhair.domain.flights.query.FlightFilter
+import fr.benchaabane.riyadhair.domain.flights.query.FlightSort
+import fr.benchaabane.riyadhair.domain.flights.repositories.FlightRepository
 import fr.benchaabane.riyadhair.domain.flights.usecases.SearchFlightsUseCase
+import fr.benchaabane.riyadhair.domain.flights.usecases.GetBestRoundTripsUseCase
+import fr.benchaabane.riyadhair.domain.flights.usecases.GetFareCalendarUseCase
 import fr.benchaabane.riyadhair.domain.flights.usecases.GetFlightDetailsUseCase
+import fr.benchaabane.riyadhair.domain.flights.usecases.GetPagedFlightsUseCase
+import fr.benchaabane.riyadhair.domain.flights.usecases.SearchItinerariesUseCase
+import fr.benchaabane.riyadhair.domain.flights.usecases.SearchRoundTripUseCase
 import fr.benchaabane.riyadhair.presentation.search.toUi
 import io.mockk.coEvery
+import io.mockk.coVerify
+import io.mockk.every
 import io.mockk.mockk
+import io.mockk.verify
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.awaitCancellation
 import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.flowOf
 import kotlinx.coroutines.test.StandardTestDispatcher
 import kotlinx.coroutines.test.advanceUntilIdle
 import kotlinx.coroutines.test.resetMain
@@ -20,7 +39,10 @@ import org.amshove.kluent.shouldBeEqualTo
 import org.junit.After
 import org.junit.Before
 import org.junit.Test
+import java.io.IOException
+import java.time.LocalDate
 import java.time.LocalDateTime
+import java.time.YearMonth
 
 @OptIn(ExperimentalCoroutinesApi::class)
 class SearchViewModelTest {
@@ -28,13 +50,28 @@ class SearchViewModelTest {
     private lateinit var viewModel: SearchViewModel
     private lateinit var mockSearchFlightsUseCase: SearchFlightsUseCase
     private lateinit var mockGetFlightDetailsUseCase: GetFlightDetailsUseCase
+    private lateinit var mockGetPagedFlightsUseCase: GetPagedFlightsUseCase
+    private lateinit var mockGetFareCalendarUseCase: GetFareCalendarUseCase
+    private lateinit var mockFlightRepository: FlightRepository
     private val testDispatcher = StandardTestDispatcher()
+    private val search = FlightSearch(
+        departureAirportCode = "CDG",
+        arrivalAirportCode = "JFK",
+        departureDate = LocalDate.of(2024, 7, 15),
+        returnDate = LocalDate.of(2024, 7, 22),
+        passengers = PassengerCount(adults = 1),
+        cabinClass = CabinClass.ECONOMY
+    )
 
     @Before
     fun setUp() {
         // Given
         mockSearchFlightsUseCase = mockk()
         mockGetFlightDetailsUseCase = mockk()
+        mockGetPagedFlightsUseCase = mockk(relaxed = true)
+        mockGetFareCalendarUseCase = mockk()
+        mockFlightRepository = mockk()
+        coEvery { mockFlightRepository.getCachedFlights(any(), any()) } returns Result.success(emptyList())
         Dispatchers.setMain(testDispatcher)
     }
 
@@ -46,7 +83,7 @@ class SearchViewModelTest {
     @Test
     fun `SearchViewModel should initialize with empty state`() = runTest {
         // When
-        viewModel = SearchViewModel(mockSearchFlightsUseCase, mockGetFlightDetailsUseCase, testDispatcher)
+        viewModel = SearchViewModel(SearchRoundTripUseCase(mockSearchFlightsUseCase), mockGetPagedFlightsUseCase, mockGetFlightDetailsUseCase, GetBestRoundTripsUseCase(), mockGetFareCalendarUseCase, SearchItinerariesUseCase(mockFlightRepository), testDispatcher)
         advanceUntilIdle()
 
         // Then
@@ -88,12 +125,12 @@ class SearchViewModelTest {
                 aircraft = "Boeing 777"
             )
         )
-        coEvery { mockSearchFlightsUseCase.invoke(origin = "CDG", destination = "JFK") } returns Result.success(mockFlights)
-        coEvery { mockSearchFlightsUseCase.invoke(origin = "JFK", destination = "CDG") } returns Result.success(mockFlights)
+        coEvery { mockSearchFlightsUseCase.invoke(search.outboundLeg()) } returns Result.success(mockFlights)
+        coEvery { mockSearchFlightsUseCase.invoke(search.returnLeg()) } returns Result.success(mockFlights)
 
         // When
-        viewModel = SearchViewModel(mockSearchFlightsUseCase, mockGetFlightDetailsUseCase, testDispatcher)
-        viewModel.search("CDG", "JFK")
+        viewModel = SearchViewModel(SearchRoundTripUseCase(mockSearchFlightsUseCase), mockGetPagedFlightsUseCase, mockGetFlightDetailsUseCase, GetBestRoundTripsUseCase(), mockGetFareCalendarUseCase, SearchItinerariesUseCase(mockFlightRepository), testDispatcher)
+        viewModel.search(search)
         advanceUntilIdle()
 
         // Then
@@ -106,18 +143,104 @@ class SearchViewModelTest {
     @Test
     fun `SearchViewModel should handle search failure gracefully`() = runTest {
         // Given
-        coEvery { mockSearchFlightsUseCase.invoke(origin = "CDG", destination = "JFK") } returns Result.failure(Exception("Network error"))
-        coEvery { mockSearchFlightsUseCase.invoke(origin = "JFK", destination = "CDG") } returns Result.failure(Exception("Network error"))
+        coEvery { mockSearchFlightsUseCase.invoke(search.outboundLeg()) } returns Result.failure(Exception("Network error"))
+        coEvery { mockSearchFlightsUseCase.invoke(search.returnLeg()) } returns Result.failure(Exception("Network error"))
+
+        // When
+        viewModel = SearchViewModel(SearchRoundTripUseCase(mockSearchFlightsUseCase), mockGetPagedFlightsUseCase, mockGetFlightDetailsUseCase, GetBestRoundTripsUseCase(), mockGetFareCalendarUseCase, SearchItinerariesUseCase(mockFlightRepository), testDispatcher)
+        viewModel.search(search)
+        advanceUntilIdle()
+
+        // Then
+        val state = viewModel.state.value
+        state.flights shouldBeEqualTo emptyList()
+        state.outboundError shouldBeEqualTo "Network error"
+        state.returnError shouldBeEqualTo "Network error"
+        state.isOutboundLoading shouldBeEqualTo false
+        state.isReturnLoading shouldBeEqualTo false
+    }
+
+    @Test
+    fun `SearchViewModel should publish return leg when outbound leg fails`() = runTest {
+        // Given
+        val returnFlight = Flight(
+            id = "2",
+            flightNumber = "AF002",
+            airline = "Air France",
+            departureAirport = Airport(
+                code = "JFK",
+                name = "John F. Kennedy Airport",
+                city = "New York",
+                country = "USA",
+                timezone = "EST"
+            ),
+            arrivalAirport = Airport(
+                code = "CDG",
+                name = "Charles de Gaulle Airport",
+                city = "Paris",
+                country = "France",
+                timezone = "CET"
+            ),
+            departureTime = LocalDateTime.now().plusDays(7),
+            arrivalTime = LocalDateTime.now().plusDays(7).plusHours(7),
+            duration = "7h 0m",
+            price = 420.0,
+            cabinClass = CabinClass.ECONOMY,
+            availableSeats = 80,
+            aircraft = "Airbus A350"
+        )
+        coEvery { mockSearchFlightsUseCase.invoke(search.outboundLeg()) } returns Result.failure(Exception("Timeout"))
+        coEvery { mockSearchFlightsUseCase.invoke(search.returnLeg()) } returns Result.success(listOf(returnFlight))
+
+        // When
+        viewModel = SearchViewModel(SearchRoundTripUseCase(mockSearchFlightsUseCase), mockGetPagedFlightsUseCase, mockGetFlightDetailsUseCase, GetBestRoundTripsUseCase(), mockGetFareCalendarUseCase, SearchItinerariesUseCase(mockFlightRepository), testDispatcher)
+        viewModel.search(search)
+        advanceUntilIdle()
+
+        // Then
+        val state = viewModel.state.value
+        state.outboundError shouldBeEqualTo "Timeout"
+        state.returnError shouldBeEqualTo null
+        state.returnFlights shouldBeEqualTo listOf(returnFlight.toUi())
+    }
+
+    @Test
+    fun `SearchViewModel should publish the outbound itineraries with connections`() = runTest {
+        // Given
+        val departure = search.departureDate.atTime(8, 0)
+        val direct = leg(id = "1", flightNumber = "AF001", from = "CDG", to = "JFK", departure = departure.plusHours(6))
+        val first = leg(id = "2", flightNumber = "AF100", from = "CDG", to = "LHR", departure = departure)
+        val second = leg(id = "3", flightNumber = "BA200", from = "LHR", to = "JFK", departure = departure.plusHours(4))
+        coEvery { mockSearchFlightsUseCase.invoke(any()) } returns Result.success(emptyList())
+        coEvery {
+            mockFlightRepository.getCachedFlights(search.departureDate.atStartOfDay(), any())
+        } returns Result.success(listOf(direct, first, second))
 
         // When
-        viewModel = SearchViewModel(mockSearchFlightsUseCase, mockGetFlightDetailsUseCase, testDispatcher)
+        viewModel = SearchViewModel(SearchRoundTripUseCase(mockSearchFlightsUseCase), mockGetPagedFlightsUseCase, mockGetFlightDetailsUseCase, GetBestRoundTripsUseCase(), mockGetFareCalendarUseCase, SearchItinerariesUseCase(mockFlightRepository), testDispatcher)
+        viewModel.search(search)
+        advanceUntilIdle()
+
+        // Then
+        val itineraries = viewModel.state.value.connectingItineraries
+        itineraries.size shouldBeEqualTo 1
+        itineraries.first().legs.map { it.flightNumber } shouldBeEqualTo listOf("AF100", "BA200")
+        itineraries.first().via shouldBeEqualTo listOf("LHR")
+    }
+
+    @Test
+    fun `SearchViewModel should leave route searches to the paged results`() = runTest {
+        // When
+        viewModel = SearchViewModel(SearchRoundTripUseCase(mockSearchFlightsUseCase), mockGetPagedFlightsUseCase, mockGetFlightDetailsUseCase, GetBestRoundTripsUseCase(), mockGetFareCalendarUseCase, SearchItinerariesUseCase(mockFlightRepository), testDispatcher)
         viewModel.search("CDG", "JFK")
         advanceUntilIdle()
 
         // Then
         val state = viewModel.state.value
         state.flights shouldBeEqualTo emptyList()
-        // Should not crash
+        state.isOutboundLoading shouldBeEqualTo false
+        state.isReturnLoading shouldBeEqualTo false
+        coVerify(exactly = 0) { mockSearchFlightsUseCase.invoke(any<String>(), any()) }
     }
 
     @Test
@@ -140,7 +263,7 @@ class SearchViewModelTest {
         )
 
         // When
-        viewModel = SearchViewModel(mockSearchFlightsUseCase, mockGetFlightDetailsUseCase, testDispatcher)
+        viewModel = SearchViewModel(SearchRoundTripUseCase(mockSearchFlightsUseCase), mockGetPagedFlightsUseCase, mockGetFlightDetailsUseCase, GetBestRoundTripsUseCase(), mockGetFareCalendarUseCase, SearchItinerariesUseCase(mockFlightRepository), testDispatcher)
         viewModel.selectDepartureFlight(mockFlight)
         advanceUntilIdle()
 
@@ -169,7 +292,7 @@ class SearchViewModelTest {
         )
 
         // When
-        viewModel = SearchViewModel(mockSearchFlightsUseCase, mockGetFlightDetailsUseCase, testDispatcher)
+        viewModel = SearchViewModel(SearchRoundTripUseCase(mockSearchFlightsUseCase), mockGetPagedFlightsUseCase, mockGetFlightDetailsUseCase, GetBestRoundTripsUseCase(), mockGetFareCalendarUseCase, SearchItinerariesUseCase(mockFlightRepository), testDispatcher)
         viewModel.selectReturnFlight(mockFlight)
         advanceUntilIdle()
 
@@ -177,4 +300,158 @@ class SearchViewModelTest {
         val state = viewModel.state.value
         state.selectedReturnFlight shouldBeEqualTo mockFlight
     }
+
+    @Test
+    fun `SearchViewModel should sort and filter outbound flights with facets`() = runTest {
+        // Given
+        val departure = LocalDateTime.of(2024, 7, 15, 10, 0)
+        val airFrance = Flight(
+            id = "1",
+            flightNumber = "AF001",
+            airline = "Air France",
+            departureAirport = Airport("CDG", "Charles de Gaulle Airport", "Paris", "France", "CET"),
+            arrivalAirport = Airport("JFK", "John F. Kennedy Airport", "New York", "USA", "EST"),
+            departureTime = departure,
+            arrivalTime = departure.plusHours(8),
+            duration = "8h 0m",
+            price = 450.0,
+            cabinClass = CabinClass.ECONOMY,
+            availableSeats = 150,
+            aircraft = "Boeing 777"
+        )
+        val delta = airFrance.copy(id = "2", flightNumber = "DL001", airline = "Delta", price = 390.0, departureTime = departure.plusHours(3))
+        coEvery { mockSearchFlightsUseCase.invoke(search.outboundLeg()) } returns Result.success(listOf(airFrance, delta))
+        coEvery { mockSearchFlightsUseCase.invoke(search.returnLeg()) } returns Result.success(emptyList())
+        viewModel = SearchViewModel(SearchRoundTripUseCase(mockSearchFlightsUseCase), mockGetPagedFlightsUseCase, mockGetFlightDetailsUseCase, GetBestRoundTripsUseCase(), mockGetFareCalendarUseCase, SearchItinerariesUseCase(mockFlightRepository), testDispatcher)
+        viewModel.search(search)
+        advanceUntilIdle()
+
+        // When
+        viewModel.sortFlights(LegDirection.OUTBOUND, FlightSort.PRICE)
+        advanceUntilIdle()
+        val sorted = viewModel.state.value.flights.map { it.flightNumber }
+        viewModel.filterFlights(LegDirection.OUTBOUND, FlightFilter(airlines = setOf("Air France")))
+        advanceUntilIdle()
+
+        // Then
+        val state = viewModel.state.value
+        sorted shouldBeEqualTo listOf("DL001", "AF001")
+        state.flights.map { it.flightNumber } shouldBeEqualTo listOf("AF001")
+        state.outboundFacets.airlines shouldBeEqualTo mapOf("Air France" to 1, "Delta" to 1)
+    }
+
+    @Test
+    fun `SearchViewModel should publish the last of several quick sorts`() = runTest {
+        // Given
+        val departure = LocalDateTime.of(2024, 7, 15, 10, 0)
+        val airFrance = Flight(
+            id = "1",
+            flightNumber = "AF001",
+            airline = "Air France",
+            departureAirport = Airport("CDG", "Charles de Gaulle Airport", "Paris", "France", "CET"),
+            arrivalAirport = Airport("JFK", "John F. Kennedy Airport", "New York", "USA", "EST"),
+            departureTime = departure,
+            arrivalTime = departure.plusHours(8),
+            duration = "8h 0m",
+            price = 450.0,
+            cabinClass = CabinClass.ECONOMY,
+            availableSeats = 150,
+            aircraft = "Boeing 777"
+        )
+        val delta = airFrance.copy(id = "2", flightNumber = "DL001", airline = "Delta", price = 390.0, departureTime = departure.plusHours(3))
+        coEvery { mockSearchFlightsUseCase.invoke(search.outboundLeg()) } returns Result.success(listOf(airFrance, delta))
+        coEvery { mockSearchFlightsUseCase.invoke(search.returnLeg()) } returns Result.success(emptyList())
+        viewModel = SearchViewModel(SearchRoundTripUseCase(mockSearchFlightsUseCase), mockGetPagedFlightsUseCase, mockGetFlightDetailsUseCase, GetBestRoundTripsUseCase(), mockGetFareCalendarUseCase, SearchItinerariesUseCase(mockFlightRepository), testDispatcher)
+        viewModel.search(search)
+        advanceUntilIdle()
+
+        // When
+        viewModel.sortFlights(LegDirection.OUTBOUND, FlightSort.PRICE)
+        viewModel.sortFlights(LegDirection.OUTBOUND, FlightSort.DEPARTURE)
+        advanceUntilIdle()
+
+        // Then
+        viewModel.state.value.outboundSort shouldBeEqualTo FlightSort.DEPARTURE
+        viewModel.state.value.flights.map { it.flightNumber } shouldBeEqualTo listOf("AF001", "DL001")
+    }
+
+    @Test
+    fun `SearchViewModel should only publish the fare calendar of the last displayed month`() = runTest {
+        // Given
+        val july = YearMonth.of(2024, 7)
+        val august = YearMonth.of(2024, 8)
+        var julyCancelled = false
+        every { mockGetFareCalendarUseCase.invoke("RUH", "JED", july) } returns flow {
+            emit(FareCalendar(july, listOf(DayFare(LocalDate.of(2024, 7, 30), 99.0))))
+            try {
+                awaitCancellation()
+            } finally {
+                julyCancelled = true
+            }
+        }
+        every { mockGetFareCalendarUseCase.invoke("RUH", "JED", august) } returns flowOf(
+            FareCalendar(
+                august,
+                listOf(
+                    DayFare(LocalDate.of(2024, 8, 1), 180.4),
+                    DayFare(LocalDate.of(2024, 8, 2), 149.6)
+                )
+            )
+        )
+        viewModel = SearchViewModel(SearchRoundTripUseCase(mockSearchFlightsUseCase), mockGetPagedFlightsUseCase, mockGetFlightDetailsUseCase, GetBestRoundTripsUseCase(), mockGetFareCalendarUseCase, SearchItinerariesUseCase(mockFlightRepository), testDispatcher)
+        viewModel.loadFareCalendar("RUH", "JED", july)
+        advanceUntilIdle()
+
+        // When
+        viewModel.loadFareCalendar("RUH", "JED", august)
+        advanceUntilIdle()
+
+        // Then
+        julyCancelled shouldBeEqualTo true
+        viewModel.state.value.fareCalendar shouldBeEqualTo listOf(
+            DayFareUiModel(LocalDate.of(2024, 8, 1), "180 EUR", isCheapest = false),
+            DayFareUiModel(LocalDate.of(2024, 8, 2), "150 EUR", isCheapest = true)
+        )
+    }
+
+    @Test
+    fun `SearchViewModel should keep the fare calendar shown and retry the month after a failure`() = runTest {
+        // Given
+        val july = YearMonth.of(2024, 7)
+        val julyFares = FareCalendar(july, listOf(DayFare(LocalDate.of(2024, 7, 30), 99.0)))
+        every { mockGetFareCalendarUseCase.invoke("RUH", "JED", july) } returnsMany listOf(
+            flow {
+                emit(julyFares)
+                throw IOException("Network error")
+            },
+            flowOf(julyFares)
+        )
+        viewModel = SearchViewModel(SearchRoundTripUseCase(mockSearchFlightsUseCase), mockGetPagedFlightsUseCase, mockGetFlightDetailsUseCase, GetBestRoundTripsUseCase(), mockGetFareCalendarUseCase, SearchItinerariesUseCase(mockFlightRepository), testDispatcher)
+
+        // When
+        viewModel.loadFareCalendar("RUH", "JED", july)
+        advanceUntilIdle()
+        val afterFailure = viewModel.state.value.fareCalendar
+        viewModel.loadFareCalendar("RUH", "JED", july)
+        advanceUntilIdle()
+
+        // Then
+        afterFailure shouldBeEqualTo listOf(DayFareUiModel(LocalDate.of(2024, 7, 30), "99 EUR", isCheapest = true))
+        verify(exactly = 2) { mockGetFareCalendarUseCase.invoke("RUH", "JED", july) }
+    }
+
+    private fun leg(id: String, flightNumber: String, from: String, to: String, departure: LocalDateTime) = Flight(
+        id = id,
+        flightNumber = flightNumber,
+        airline = "Air France",
+        departureAirport = Airport(code = from, name = from, city = from, country = from, timezone = "UTC"),
+        arrivalAirport = Airport(code = to, name = to, city = to, country = to, timezone = "UTC"),
+        departureTime = departure,
+        arrivalTime = departure.plusHours(2),
+        duration = "2h 0m",
+        price = 200.0,
+        cabinClass = CabinClass.ECONOMY,
+        availableSeats = 150,
+        aircraft = "Airbus A320"
+    )
 }